@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the default {@code *All} batch-methods of {@link Geocoder} on top of the async API.
+ */
+final class BatchExecutor {
+
+    private BatchExecutor() {
+    }
+
+    /**
+     * Run the call for each distinct (non-null) input, with at most {@code parallelism} calls in flight.
+     * The first failure cancels all pending calls and is re-thrown.
+     *
+     * @return the results, keyed and ordered by input
+     */
+    static <K, V> Map<K, V> executeAll(Collection<K> inputs, int parallelism,
+                                       Function<K, CompletableFuture<V>> call) throws IOException {
+        final Set<K> distinct = inputs.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        final Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+        final Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        final CompletableFuture<Void> failed = new CompletableFuture<>();
+        try {
+            for (K input : distinct) {
+                permits.acquire();
+                if (failed.isDone()) {
+                    break;
+                }
+                final CompletableFuture<V> result = call.apply(input);
+                pending.put(input, result);
+                result.whenComplete((r, t) -> {
+                    permits.release();
+                    if (t != null) {
+                        failed.completeExceptionally(t);
+                    }
+                });
+            }
+
+            // fail fast, without waiting for calls that are still in flight
+            CompletableFuture.anyOf(CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new)), failed)
+                    .get();
+            final Map<K, V> results = new LinkedHashMap<>();
+            for (Map.Entry<K, CompletableFuture<V>> entry : pending.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for batch results", e);
+        } catch (ExecutionException e) {
+            throw asIOException(e.getCause());
+        } finally {
+            pending.values().forEach(f -> f.cancel(true));
+        }
+    }
+
+    private static IOException asIOException(Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t instanceof IOException) {
+            return (IOException) t;
+        } else if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else {
+            return new IOException(t);
+        }
+    }
+}
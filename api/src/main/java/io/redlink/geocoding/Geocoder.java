@@ -16,14 +16,23 @@
 package io.redlink.geocoding;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  */
 public interface Geocoder {
 
+    /**
+     * Max. number of requests in flight for the default implementations of the {@code *All} batch-methods.
+     */
+    int DEFAULT_BATCH_PARALLELISM = 8;
+
     default List<Place> geocode(String address) throws IOException {
         return geocode(address, (Locale) null);
 }
@@ -54,4 +63,92 @@ public interface Geocoder {
 
     Optional<Place> lookup(String placeId, Locale lang) throws IOException;
 
+    default CompletableFuture<List<Place>> geocodeAsync(String address) {
+        return geocodeAsync(address, null);
+    }
+
+    /**
+     * Asynchronous variant of {@link #geocode(String, Locale)}.
+     * <p>
+     * The default implementation runs the blocking call on a separate thread,
+     * implementations are encouraged to provide a non-blocking alternative.
+     */
+    default CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang) {
+        return BlockingExecutor.supplyAsync(() -> geocode(address, lang));
+    }
+
+    default CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates) {
+        return reverseGeocodeAsync(coordinates, null);
+    }
+
+    /**
+     * Asynchronous variant of {@link #reverseGeocode(LatLon, Locale)}.
+     *
+     * @see #geocodeAsync(String, Locale)
+     */
+    default CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang) {
+        return BlockingExecutor.supplyAsync(() -> reverseGeocode(coordinates, lang));
+    }
+
+    default CompletableFuture<Optional<Place>> lookupAsync(String placeId) {
+        return lookupAsync(placeId, null);
+    }
+
+    /**
+     * Asynchronous variant of {@link #lookup(String, Locale)}.
+     *
+     * @see #geocodeAsync(String, Locale)
+     */
+    default CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang) {
+        return BlockingExecutor.supplyAsync(() -> lookup(placeId, lang));
+    }
+
+    default Map<String, List<Place>> geocodeAll(Collection<String> addresses) throws IOException {
+        return geocodeAll(addresses, null);
+    }
+
+    /**
+     * Geocode all addresses. Identical addresses are only geocoded once.
+     * <p>
+     * The default implementation uses {@link #geocodeAsync(String, Locale)},
+     * with at most {@link #DEFAULT_BATCH_PARALLELISM} requests in flight.
+     *
+     * @return the geocoding results, keyed by address (in iteration order of the provided addresses)
+     * @throws IOException if geocoding of any of the addresses fails
+     */
+    default Map<String, List<Place>> geocodeAll(Collection<String> addresses, Locale lang) throws IOException {
+        return BatchExecutor.executeAll(addresses, DEFAULT_BATCH_PARALLELISM, address -> geocodeAsync(address, lang));
+    }
+
+    default Map<LatLon, List<Place>> reverseGeocodeAll(Collection<LatLon> coordinates) throws IOException {
+        return reverseGeocodeAll(coordinates, null);
+    }
+
+    /**
+     * Reverse-geocode all coordinates. Identical coordinates are only reverse-geocoded once.
+     *
+     * @return the reverse-geocoding results, keyed by coordinates
+     * @see #geocodeAll(Collection, Locale)
+     */
+    default Map<LatLon, List<Place>> reverseGeocodeAll(Collection<LatLon> coordinates, Locale lang) throws IOException {
+        return BatchExecutor.executeAll(coordinates, DEFAULT_BATCH_PARALLELISM, latLon -> reverseGeocodeAsync(latLon, lang));
+    }
+
+    default Map<String, Place> lookupAll(Collection<String> placeIds) throws IOException {
+        return lookupAll(placeIds, null);
+    }
+
+    /**
+     * Lookup all places. Identical placeIds are only looked up once.
+     *
+     * @return the places found, keyed by placeId. PlaceIds that could not be found are not contained in the result.
+     * @see #geocodeAll(Collection, Locale)
+     */
+    default Map<String, Place> lookupAll(Collection<String> placeIds, Locale lang) throws IOException {
+        final Map<String, Place> places = new LinkedHashMap<>();
+        BatchExecutor.executeAll(placeIds, DEFAULT_BATCH_PARALLELISM, placeId -> lookupAsync(placeId, lang))
+                .forEach((placeId, place) -> place.ifPresent(p -> places.put(placeId, p)));
+        return places;
+    }
+
 }
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Back-off state shared by all requests of a geocoder talking to an HTTP service, reacting to
+ * {@link #isOverloaded(int) overload responses} (HTTP 429/503).
+ * <p>
+ * On an overload response the back-off
+ * <ul>
+ *     <li>pauses all requests: for the {@code Retry-After} the service asked for, or for an exponentially growing
+ *     delay while overload responses keep coming,</li>
+ *     <li>halves the {@link #getRateFactor() rate factor} clients apply to their configured request rate, down to
+ *     1/16. The factor ramps up again, doubling every 10 seconds without overload,</li>
+ *     <li>allows retrying the request after an exponential delay with full jitter, within a retry budget of
+ *     10% of the requests, so retries never multiply the load on an overloaded service.</li>
+ * </ul>
+ * Only idempotent requests (GET) should be retried.
+ * <p>
+ * Shared by the HTTP-based geocoder implementations, this is not part of the public API.
+ */
+public final class AdaptiveBackoff {
+
+    public static final int DEFAULT_MAX_RETRIES = 2;
+    public static final long DEFAULT_BASE_DELAY_MILLIS = 1000;
+    public static final long DEFAULT_MAX_DELAY_MILLIS = 30_000;
+
+    private static final double MIN_RATE_FACTOR = 1.0 / 16;
+    private static final long RECOVERY_PERIOD = TimeUnit.SECONDS.toNanos(10);
+    private static final double RETRY_BUDGET_RATIO = 0.1;
+    private static final double MAX_RETRY_TOKENS = 10;
+
+    private final int maxRetries;
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+
+    private final LongAdder overloads = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    private double throttledFactor = 1;
+    private long throttledAt;
+    private boolean paused = false;
+    private long pausedUntil;
+    private int consecutiveOverloads = 0;
+    private double retryTokens = MAX_RETRY_TOKENS;
+
+    public AdaptiveBackoff() {
+        this(DEFAULT_MAX_RETRIES, DEFAULT_BASE_DELAY_MILLIS, DEFAULT_MAX_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param maxRetries max. number of retries per request, {@code 0} disables retries
+     * @param baseDelay  the delay before the first retry, doubled for every further retry
+     * @param maxDelay   upper bound for the retry-delay, the {@code Retry-After} of the service is not capped
+     */
+    public AdaptiveBackoff(int maxRetries, long baseDelay, long maxDelay, TimeUnit timeUnit) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative");
+        }
+        this.maxRetries = maxRetries;
+        this.baseDelayNanos = Math.max(timeUnit.toNanos(baseDelay), 1);
+        this.maxDelayNanos = Math.max(timeUnit.toNanos(maxDelay), baseDelayNanos);
+    }
+
+    /**
+     * @return {@code true} for {@code HTTP 429 Too Many Requests} and {@code HTTP 503 Service Unavailable}
+     */
+    public static boolean isOverloaded(int statusCode) {
+        return statusCode == 429 || statusCode == 503;
+    }
+
+    /**
+     * Parse the value of a {@code Retry-After} header, either delay-seconds or an HTTP-date.
+     *
+     * @return the time to wait, or {@code -1} if the value is missing or invalid
+     */
+    public static long parseRetryAfter(String value, TimeUnit timeUnit) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        try {
+            return timeUnit.convert(Math.max(Long.parseLong(value.trim()), 0), TimeUnit.SECONDS);
+        } catch (NumberFormatException e) {
+            // not delay-seconds, try an http-date
+        }
+        try {
+            final Instant retryAt = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            return timeUnit.convert(Math.max(Duration.between(Instant.now(), retryAt).toMillis(), 0), TimeUnit.MILLISECONDS);
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Record a request (not a retry), every request adds 1/10 of a retry to the retry budget.
+     */
+    public synchronized void onRequest() {
+        retryTokens = Math.min(retryTokens + RETRY_BUDGET_RATIO, MAX_RETRY_TOKENS);
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveOverloads = 0;
+    }
+
+    /**
+     * Record an overload response.
+     *
+     * @param retryAfter the time the service asked to wait, negative if it did not say
+     */
+    public synchronized void onOverload(long retryAfter, TimeUnit timeUnit) {
+        overloads.increment();
+        final long now = System.nanoTime();
+        throttledFactor = Math.max(getRateFactor() / 2, MIN_RATE_FACTOR);
+        throttledAt = now;
+        consecutiveOverloads++;
+
+        final long pause = retryAfter >= 0 ? timeUnit.toNanos(retryAfter) : exponentialDelay(consecutiveOverloads - 1);
+        if (!paused || now + pause - pausedUntil > 0) {
+            pausedUntil = now + pause;
+            paused = true;
+        }
+    }
+
+    /**
+     * The time requests should wait before they are sent, {@code 0} if the service is not paused.
+     */
+    public synchronized long getPauseNanos() {
+        if (!paused) {
+            return 0;
+        }
+        final long remaining = pausedUntil - System.nanoTime();
+        if (remaining <= 0) {
+            paused = false;
+            return 0;
+        }
+        return remaining;
+    }
+
+    /**
+     * The fraction of the configured request rate clients should use, {@code 1} unless the service was overloaded
+     * recently.
+     */
+    public synchronized double getRateFactor() {
+        if (throttledFactor >= 1) {
+            return 1;
+        }
+        final double recovered = throttledFactor * Math.pow(2, (double) (System.nanoTime() - throttledAt) / RECOVERY_PERIOD);
+        if (recovered >= 1) {
+            throttledFactor = 1;
+            return 1;
+        }
+        return recovered;
+    }
+
+    /**
+     * Take a retry from the retry budget.
+     *
+     * @param attempt the number of the failed attempt, starting with {@code 0} for the initial request
+     * @return {@code true} if the request may be retried
+     */
+    public synchronized boolean tryRetry(int attempt) {
+        if (attempt >= maxRetries || retryTokens < 1) {
+            return false;
+        }
+        retryTokens -= 1;
+        retries.increment();
+        return true;
+    }
+
+    /**
+     * The delay before sending the retry: an exponential delay with full jitter, but at least the remaining pause.
+     */
+    public long getRetryDelayNanos(int attempt) {
+        final long delay = ThreadLocalRandom.current().nextLong(exponentialDelay(attempt) + 1);
+        return Math.max(delay, getPauseNanos());
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    /**
+     * Number of overload responses.
+     */
+    public long getOverloadCount() {
+        return overloads.sum();
+    }
+
+    /**
+     * Number of retries sent.
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    private long exponentialDelay(int attempt) {
+        long delay = baseDelayNanos;
+        for (int i = 0; i < attempt && delay < maxDelayNanos; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, maxDelayNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveBackoff{maxRetries=" + maxRetries + ", rateFactor=" + getRateFactor() + '}';
+    }
+}
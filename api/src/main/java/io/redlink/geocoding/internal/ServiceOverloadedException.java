@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.internal;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thrown when a geocoding service rejects a request because it is overloaded or the client exceeded its quota,
+ * i.e. with {@code HTTP 429 Too Many Requests} or {@code HTTP 503 Service Unavailable}.
+ * Callers should handle it as an {@link IOException}, the type is not part of the public API.
+ *
+ * @see AdaptiveBackoff
+ */
+public class ServiceOverloadedException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final long retryAfterMillis;
+
+    /**
+     * @param retryAfter the time the service asked to wait before retrying, negative if it did not say
+     */
+    public ServiceOverloadedException(String message, int statusCode, long retryAfter, TimeUnit timeUnit) {
+        super(message);
+        this.statusCode = statusCode;
+        this.retryAfterMillis = retryAfter < 0 ? -1 : timeUnit.toMillis(retryAfter);
+    }
+
+    /**
+     * The HTTP status of the response.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * The time the service asked to wait before retrying ({@code Retry-After}), or {@code -1} if it did not say.
+     */
+    public long getRetryAfter(TimeUnit timeUnit) {
+        return retryAfterMillis < 0 ? -1 : timeUnit.convert(retryAfterMillis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -1,5 +1,8 @@
+// the qualified export targets modules that are built after this one
+@SuppressWarnings("module")
 module io.redlink.geocoding.api {
     requires org.slf4j;
 
     exports io.redlink.geocoding;
+    exports io.redlink.geocoding.internal to io.redlink.geocoding.osm, io.redlink.geocoding.proxy;
 }
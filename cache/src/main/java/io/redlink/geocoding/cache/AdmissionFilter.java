@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A doorkeeper that admits a key into the cache only when it was seen before, so keys requested only once don't
+ * evict useful entries.
+ * <p>
+ * Seen keys are recorded as 64-bit fingerprints in a Bloom filter of {@value #BITS_PER_KEY} bits per expected key
+ * (~2% false positives). The filter is cleared after as many keys as expected were recorded, so it has bounded
+ * memory and forgets keys that are not requested again.
+ */
+class AdmissionFilter {
+
+    static final int BITS_PER_KEY = 8;
+    private static final int HASHES = 4;
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int resetThreshold;
+    private int recorded = 0;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    AdmissionFilter(int expectedKeys) {
+        if (expectedKeys <= 0) {
+            throw new IllegalArgumentException("expectedKeys must be positive");
+        }
+        this.bits = new long[(int) Math.max(1, ((long) expectedKeys * BITS_PER_KEY + 63) / 64)];
+        this.bitCount = bits.length * 64L;
+        this.resetThreshold = expectedKeys;
+    }
+
+    /**
+     * Records the key and decides whether it is admitted.
+     *
+     * @return {@code true} if the key was seen before
+     */
+    boolean admit(long fingerprint) {
+        final boolean seen;
+        synchronized (this) {
+            seen = mightContain(fingerprint);
+            if (!seen) {
+                if (++recorded > resetThreshold) {
+                    Arrays.fill(bits, 0L);
+                    recorded = 1;
+                }
+                add(fingerprint);
+            }
+        }
+        (seen ? admitted : rejected).increment();
+        return seen;
+    }
+
+    long admittedCount() {
+        return admitted.sum();
+    }
+
+    long rejectedCount() {
+        return rejected.sum();
+    }
+
+    private boolean mightContain(long fingerprint) {
+        for (int i = 0; i < HASHES; i++) {
+            final long bit = index(fingerprint, i);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(long fingerprint) {
+        for (int i = 0; i < HASHES; i++) {
+            final long bit = index(fingerprint, i);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Double hashing (Kirsch-Mitzenmacher) with the two halves of the fingerprint.
+     */
+    private long index(long fingerprint, int i) {
+        final long hash = (fingerprint >>> 32) + i * (fingerprint & 0xffffffffL | 1L);
+        return Long.remainderUnsigned(hash, bitCount);
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import io.redlink.geocoding.LatLon;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The configuration of a {@link CachingGeocoder} collected by the {@link CachingGeocoderBuilder}: the bounds of the
+ * caches (configured separately per {@link CacheType}, caches without a bound are only limited by their expiry),
+ * expiry and serve-stale, negative and failure caching, the spatial keys for reverse-geocoding, query normalization,
+ * the second-level tiers, admission, and the snapshot and pinned files.
+ */
+class CacheConfiguration {
+
+    static final int DEFAULT_NEGATIVE_CAPACITY = 100_000;
+    static final int FAILURE_CAPACITY = 10_000;
+    static final int DEFAULT_ADMISSION_CAPACITY = 100_000;
+    private static final int MAX_ADMISSION_CAPACITY = 1 << 27;
+
+    private final Map<CacheType, Long> maximumSize = new EnumMap<>(CacheType.class);
+    private final Map<CacheType, Long> maximumWeight = new EnumMap<>(CacheType.class);
+    private final Map<CacheType, Integer> initialCapacity = new EnumMap<>(CacheType.class);
+    private long refreshAfterWriteNanos = -1;
+    private double expiryJitter = 0;
+    private long serveStaleNanos = 0;
+    private long negativeExpiryNanos = -1;
+    private int negativeCapacity = DEFAULT_NEGATIVE_CAPACITY;
+    private long failureExpiryNanos = -1;
+    private int reverseGeohashPrecision = 0;
+    private double reverseGridMetres = 0;
+    private double reverseMaxDistanceMetres = 0;
+    private QueryNormalizer queryNormalizer = new DefaultQueryNormalizer();
+    private Locale defaultLocale = null;
+    private boolean populateLookup = false;
+    private boolean admissionFilter = false;
+    private Path snapshotFile = null;
+    private Path pinnedFile = null;
+    private Path persistentDirectory = null;
+    private long persistentExpiryNanos = -1;
+    private long offHeapCapacity = 0;
+
+    CacheConfiguration() {
+    }
+
+    CacheConfiguration(CacheConfiguration other) {
+        maximumSize.putAll(other.maximumSize);
+        maximumWeight.putAll(other.maximumWeight);
+        initialCapacity.putAll(other.initialCapacity);
+        refreshAfterWriteNanos = other.refreshAfterWriteNanos;
+        expiryJitter = other.expiryJitter;
+        serveStaleNanos = other.serveStaleNanos;
+        negativeExpiryNanos = other.negativeExpiryNanos;
+        negativeCapacity = other.negativeCapacity;
+        failureExpiryNanos = other.failureExpiryNanos;
+        reverseGeohashPrecision = other.reverseGeohashPrecision;
+        reverseGridMetres = other.reverseGridMetres;
+        reverseMaxDistanceMetres = other.reverseMaxDistanceMetres;
+        queryNormalizer = other.queryNormalizer;
+        defaultLocale = other.defaultLocale;
+        populateLookup = other.populateLookup;
+        admissionFilter = other.admissionFilter;
+        snapshotFile = other.snapshotFile;
+        pinnedFile = other.pinnedFile;
+        persistentDirectory = other.persistentDirectory;
+        persistentExpiryNanos = other.persistentExpiryNanos;
+        offHeapCapacity = other.offHeapCapacity;
+    }
+
+    void setMaximumSize(CacheType cacheType, long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative");
+        }
+        maximumSize.put(cacheType, size);
+    }
+
+    void setMaximumWeight(CacheType cacheType, long weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("maximumWeight must not be negative");
+        }
+        maximumWeight.put(cacheType, weight);
+    }
+
+    void setInitialCapacity(CacheType cacheType, int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative");
+        }
+        initialCapacity.put(cacheType, capacity);
+    }
+
+    void setRefreshAfterWrite(long duration, TimeUnit timeUnit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("refreshAfterWrite must be positive");
+        }
+        refreshAfterWriteNanos = timeUnit.toNanos(duration);
+    }
+
+    void setExpiryJitter(double jitter) {
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("expiryJitter must be in [0, 1)");
+        }
+        expiryJitter = jitter;
+    }
+
+    void setServeStaleOnFailure(long duration, TimeUnit timeUnit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("serveStaleOnFailure must not be negative");
+        }
+        serveStaleNanos = timeUnit.toNanos(duration);
+    }
+
+    void setNegativeExpiry(long duration, TimeUnit timeUnit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("negativeCacheExpiry must be positive");
+        }
+        negativeExpiryNanos = timeUnit.toNanos(duration);
+    }
+
+    void setNegativeCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("negativeCacheCapacity must be positive");
+        }
+        negativeCapacity = capacity;
+    }
+
+    void setFailureExpiry(long duration, TimeUnit timeUnit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("failureCacheExpiry must be positive");
+        }
+        failureExpiryNanos = timeUnit.toNanos(duration);
+    }
+
+    void setReverseGeohashPrecision(int precision) {
+        if (precision < 1 || precision > SpatialCell.MAX_GEOHASH_PRECISION) {
+            throw new IllegalArgumentException("geohash precision must be in [1, " + SpatialCell.MAX_GEOHASH_PRECISION + "]");
+        }
+        reverseGeohashPrecision = precision;
+    }
+
+    void setReverseGridSize(double metres) {
+        if (!(metres > 0)) {
+            throw new IllegalArgumentException("grid size must be positive");
+        }
+        reverseGridMetres = metres;
+    }
+
+    void setReverseMaxDistance(double metres) {
+        if (!(metres > 0)) {
+            throw new IllegalArgumentException("max. distance must be positive");
+        }
+        reverseMaxDistanceMetres = metres;
+    }
+
+    void setQueryNormalizer(QueryNormalizer queryNormalizer) {
+        this.queryNormalizer = Objects.requireNonNull(queryNormalizer, "queryNormalizer must not be null");
+    }
+
+    void setDefaultLocale(Locale defaultLocale) {
+        this.defaultLocale = defaultLocale;
+    }
+
+    void setPopulateLookup(boolean populateLookup) {
+        this.populateLookup = populateLookup;
+    }
+
+    void setAdmissionFilter(boolean admissionFilter) {
+        this.admissionFilter = admissionFilter;
+    }
+
+    void setSnapshotFile(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    void setPinnedFile(Path pinnedFile) {
+        this.pinnedFile = pinnedFile;
+    }
+
+    void setPersistentDirectory(Path directory) {
+        persistentDirectory = directory;
+    }
+
+    void setPersistentExpiry(long duration, TimeUnit timeUnit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("persistentCacheExpiry must be positive");
+        }
+        persistentExpiryNanos = timeUnit.toNanos(duration);
+    }
+
+    void setOffHeapCapacity(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("offHeapCapacity must not be negative");
+        }
+        offHeapCapacity = bytes;
+    }
+
+    /**
+     * Entries older than this are reloaded asynchronously on the next access, while the old value is still served.
+     */
+    public OptionalLong getRefreshAfterWriteNanos() {
+        return refreshAfterWriteNanos > 0 ? OptionalLong.of(refreshAfterWriteNanos) : OptionalLong.empty();
+    }
+
+    /**
+     * Fraction of the expiry-time by which the expiry of an entry is randomly shortened.
+     */
+    public double getExpiryJitter() {
+        return expiryJitter;
+    }
+
+    /**
+     * Time after expiry in which an entry is still served when reloading it fails, {@code 0} if disabled.
+     */
+    public long getServeStaleNanos() {
+        return serveStaleNanos;
+    }
+
+    /**
+     * Time-to-live of empty results, which are then kept in a separate, compact table instead of the caches.
+     */
+    public OptionalLong getNegativeExpiryNanos() {
+        return negativeExpiryNanos > 0 ? OptionalLong.of(negativeExpiryNanos) : OptionalLong.empty();
+    }
+
+    /**
+     * Max. number of empty results remembered (shared by all caches).
+     */
+    public int getNegativeCapacity() {
+        return negativeCapacity;
+    }
+
+    /**
+     * Time for which a failed request is not repeated, but the failure is re-thrown.
+     */
+    public OptionalLong getFailureExpiryNanos() {
+        return failureExpiryNanos > 0 ? OptionalLong.of(failureExpiryNanos) : OptionalLong.empty();
+    }
+
+    /**
+     * Snaps the coordinates of reverse-geocoding requests to a cell, {@code null} if requests are cached by
+     * their exact coordinates.
+     */
+    public Function<LatLon, String> getReverseCell() {
+        if (reverseGeohashPrecision > 0) {
+            return SpatialCell.geohash(reverseGeohashPrecision);
+        } else if (reverseGridMetres > 0) {
+            return SpatialCell.grid(reverseGridMetres);
+        }
+        return null;
+    }
+
+    /**
+     * Max. distance in metres between a reverse-geocoding request and the cached result, {@code 0} if not checked.
+     */
+    public double getReverseMaxDistance() {
+        return reverseMaxDistanceMetres;
+    }
+
+    /**
+     * Normalizes geocoding queries to their cache-key.
+     */
+    public QueryNormalizer getQueryNormalizer() {
+        return queryNormalizer;
+    }
+
+    /**
+     * The default locale of the wrapped geocoder, requests for this locale share the cache with requests
+     * without locale. Might be {@code null}.
+     */
+    public Locale getDefaultLocale() {
+        return defaultLocale;
+    }
+
+    /**
+     * Whether the places of geocoding and reverse-geocoding results are put into the lookup cache.
+     */
+    public boolean isPopulateLookup() {
+        return populateLookup;
+    }
+
+    /**
+     * Whether new entries are only admitted into the cache when the key was requested before.
+     */
+    public boolean isAdmissionFilter() {
+        return admissionFilter;
+    }
+
+    /**
+     * Snapshot imported on startup and exported on close, {@code null} if disabled.
+     */
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * Snapshot with the pinned results, {@code null} if none.
+     */
+    public Path getPinnedFile() {
+        return pinnedFile;
+    }
+
+    /**
+     * The number of keys the admission filter of the cache remembers: the max. size (or weight) of the cache.
+     */
+    int getAdmissionCapacity(CacheType cacheType) {
+        final long capacity = getMaximumSize(cacheType)
+                .orElse(getMaximumWeight(cacheType).orElse(DEFAULT_ADMISSION_CAPACITY));
+        return (int) Math.max(1, Math.min(MAX_ADMISSION_CAPACITY, capacity));
+    }
+
+    /**
+     * Directory of the persistent second-level cache, {@code null} if disabled.
+     */
+    public Path getPersistentDirectory() {
+        return persistentDirectory;
+    }
+
+    /**
+     * Time-to-live of entries in the persistent cache, defaults to the expiry of the in-memory caches.
+     */
+    public OptionalLong getPersistentExpiryNanos() {
+        return persistentExpiryNanos > 0 ? OptionalLong.of(persistentExpiryNanos) : OptionalLong.empty();
+    }
+
+    /**
+     * Bytes of direct memory used for the off-heap tier, {@code 0} if disabled.
+     */
+    public long getOffHeapCapacity() {
+        return offHeapCapacity;
+    }
+
+    /**
+     * Max. number of entries in the cache.
+     */
+    public OptionalLong getMaximumSize(CacheType cacheType) {
+        return toOptional(maximumSize.get(cacheType));
+    }
+
+    /**
+     * Max. total weight of the cache, where the weight of an entry is the number of places and address-components.
+     */
+    public OptionalLong getMaximumWeight(CacheType cacheType) {
+        return toOptional(maximumWeight.get(cacheType));
+    }
+
+    public OptionalInt getInitialCapacity(CacheType cacheType) {
+        final Integer capacity = initialCapacity.get(cacheType);
+        return capacity != null ? OptionalInt.of(capacity) : OptionalInt.empty();
+    }
+
+    /**
+     * @throws IllegalStateException if both, maximumSize and maximumWeight are set for the same cache,
+     *                               or both, geohash precision and grid size are set
+     */
+    void validate() {
+        for (CacheType cacheType : CacheType.values()) {
+            if (maximumSize.containsKey(cacheType) && maximumWeight.containsKey(cacheType)) {
+                throw new IllegalStateException("maximumSize and maximumWeight are mutually exclusive, both set for "
+                        + cacheType);
+            }
+        }
+        if (reverseGeohashPrecision > 0 && reverseGridMetres > 0) {
+            throw new IllegalStateException("geohash precision and grid size are mutually exclusive");
+        }
+    }
+
+    private static OptionalLong toOptional(Long value) {
+        return value != null ? OptionalLong.of(value) : OptionalLong.empty();
+    }
+
+    @Override
+    public String toString() {
+        return "CacheConfiguration{maximumSize=" + maximumSize + ", maximumWeight=" + maximumWeight
+                + ", initialCapacity=" + initialCapacity + ", refreshAfterWriteNanos=" + refreshAfterWriteNanos
+                + ", expiryJitter=" + expiryJitter + ", serveStaleNanos=" + serveStaleNanos
+                + ", negativeExpiryNanos=" + negativeExpiryNanos + ", negativeCapacity=" + negativeCapacity
+                + ", failureExpiryNanos=" + failureExpiryNanos + ", reverseGeohashPrecision=" + reverseGeohashPrecision
+                + ", reverseGridMetres=" + reverseGridMetres + ", reverseMaxDistanceMetres=" + reverseMaxDistanceMetres
+                + ", queryNormalizer=" + queryNormalizer + ", defaultLocale=" + defaultLocale + ", populateLookup=" + populateLookup
+                + ", admissionFilter=" + admissionFilter + ", snapshotFile=" + snapshotFile
+                + ", pinnedFile=" + pinnedFile
+                + ", persistentDirectory=" + persistentDirectory + ", persistentExpiryNanos=" + persistentExpiryNanos
+                + ", offHeapCapacity=" + offHeapCapacity + '}';
+    }
+}
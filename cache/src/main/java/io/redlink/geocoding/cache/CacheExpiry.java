@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Expires entries after a time-to-live that is shortened by a random jitter, so entries written at the same time
+ * don't all expire at the same time. Entries are kept for an additional stale-window, in which they are considered
+ * expired but may still be served if the upstream service fails.
+ */
+class CacheExpiry<K, V> implements Expiry<K, V> {
+
+    private final long ttlNanos;
+    private final double jitter;
+    private final long staleNanos;
+
+    CacheExpiry(long ttlNanos, double jitter, long staleNanos) {
+        this.ttlNanos = ttlNanos;
+        this.jitter = jitter;
+        this.staleNanos = staleNanos;
+    }
+
+    @Override
+    public long expireAfterCreate(K key, V value, long currentTime) {
+        return nextExpiry();
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+        return nextExpiry();
+    }
+
+    @Override
+    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    long nextExpiry() {
+        long ttl = ttlNanos;
+        if (jitter > 0) {
+            ttl -= (long) (ttlNanos * jitter * ThreadLocalRandom.current().nextDouble());
+        }
+        return saturatedAdd(ttl, staleNanos);
+    }
+
+    private static long saturatedAdd(long a, long b) {
+        final long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Streaming binary format of cache snapshots. Each record is protected by a CRC32 checksum, reading stops at the
+ * first incomplete or corrupt record, so a partially written snapshot can still be imported.
+ * <pre>
+ * snapshot := MAGIC VERSION record*
+ * record   := length:int crc32:int payload
+ * payload  := cacheType:byte expiresAt:long entry
+ * </pre>
+ * {@code expiresAt} is the wall-clock time (in milliseconds) until the entry may be served, the entry (key and value)
+ * is written by the {@link CachingGeocoder}.
+ */
+final class CacheSnapshot {
+
+    private static final int MAGIC = 0x47454f53;
+    private static final int VERSION = 1;
+    private static final int MAX_RECORD_SIZE = 1 << 24;
+
+    private CacheSnapshot() {
+    }
+
+    @FunctionalInterface
+    interface EntryWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    static final class Writer {
+
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        private final CRC32 crc = new CRC32();
+
+        Writer(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(out);
+            this.out.writeInt(MAGIC);
+            this.out.writeInt(VERSION);
+        }
+
+        void write(CacheType cacheType, long expiresAt, EntryWriter entry) throws IOException {
+            buffer.reset();
+            final DataOutputStream payload = new DataOutputStream(buffer);
+            payload.writeByte(cacheType.ordinal());
+            payload.writeLong(expiresAt);
+            entry.write(payload);
+            payload.flush();
+
+            final byte[] bytes = buffer.toByteArray();
+            crc.reset();
+            crc.update(bytes);
+            out.writeInt(bytes.length);
+            out.writeInt((int) crc.getValue());
+            out.write(bytes);
+        }
+
+        void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    static final class Reader {
+
+        private final DataInputStream in;
+        private CacheType cacheType;
+        private long expiresAt;
+        private DataInput entry;
+
+        Reader(InputStream in) throws IOException {
+            this.in = new DataInputStream(in);
+            try {
+                if (this.in.readInt() != MAGIC || this.in.readInt() != VERSION) {
+                    throw new IOException("Not a geocoding cache snapshot");
+                }
+            } catch (EOFException e) {
+                throw new IOException("Not a geocoding cache snapshot", e);
+            }
+        }
+
+        /**
+         * Advance to the next record.
+         *
+         * @return {@code false} at the end of the snapshot
+         * @throws IOException if the record is incomplete or corrupt
+         */
+        boolean next() throws IOException {
+            final int length;
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                return false;
+            }
+            final int checksum = in.readInt();
+            if (length <= 9 || length > MAX_RECORD_SIZE) {
+                throw new IOException("Invalid record length " + length);
+            }
+            final byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            final CRC32 crc = new CRC32();
+            crc.update(bytes);
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Checksum mismatch");
+            }
+            final DataInputStream payload = new DataInputStream(new ByteArrayInputStream(bytes));
+            final int type = payload.readUnsignedByte();
+            if (type >= CacheType.values().length) {
+                throw new IOException("Unknown cache type " + type);
+            }
+            cacheType = CacheType.values()[type];
+            expiresAt = payload.readLong();
+            entry = payload;
+            return true;
+        }
+
+        CacheType cacheType() {
+            return cacheType;
+        }
+
+        long expiresAt() {
+            return expiresAt;
+        }
+
+        DataInput entry() {
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import java.io.Closeable;
+
+/**
+ * A storage tier behind the in-memory caches of the {@link CachingGeocoder}, holding serialized results.
+ * Tiers are best-effort: failures are logged, but never fail a request.
+ */
+interface CacheTier<V> extends Closeable {
+
+    /**
+     * @return the value, or {@code null} if there is none or it has expired
+     */
+    V get(String key);
+
+    void put(String key, V value);
+}
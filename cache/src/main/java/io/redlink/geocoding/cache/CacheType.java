@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.cache;
+
+/**
+ * The caches maintained by a {@link CachingGeocoder}, one per operation.
+ */
+public enum CacheType {
+    /**
+     * Results of {@link io.redlink.geocoding.Geocoder#geocode(String, java.util.Locale)}.
+     */
+    GEOCODE,
+    /**
+     * Results of {@link io.redlink.geocoding.Geocoder#reverseGeocode(io.redlink.geocoding.LatLon, java.util.Locale)}.
+     */
+    REVERSE_GEOCODE,
+    /**
+     * Results of {@link io.redlink.geocoding.Geocoder#lookup(String, java.util.Locale)}.
+     */
+    LOOKUP
+}
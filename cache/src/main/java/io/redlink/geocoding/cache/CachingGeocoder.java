@@ -16,27 +16,57 @@
 
 package io.redlink.geocoding.cache;
 
-import com.google.common.base.Preconditions;
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.Weigher;
 import io.redlink.geocoding.Geocoder;
 import io.redlink.geocoding.LatLon;
 import io.redlink.geocoding.Place;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.ExecutionException;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * @author Alfonso Noriega
  */
-public class CachingGeocoder implements Geocoder {
+public class CachingGeocoder implements Geocoder, Closeable {
 
     private static final Logger LOG = LoggerFactory.getLogger(CachingGeocoder.class);
 
@@ -48,8 +78,29 @@ public class CachingGeocoder implements Geocoder {
     private final LoadingCache<LangString, List<Place>> geocodeCache;
     private final LoadingCache<LangCoords, List<Place>> reverseGeocodeCache;
     private final LoadingCache<LangString, Optional<Place>> lookupCache;
+    private final CacheLoader<LangString, List<Place>> geocodeLoader;
+    private final CacheLoader<LangCoords, List<Place>> reverseGeocodeLoader;
+    private final CacheLoader<LangString, Optional<Place>> lookupLoader;
+
+    private final CacheTier<List<Place>> geocodeStore;
+    private final CacheTier<List<Place>> reverseGeocodeStore;
+    private final CacheTier<Optional<Place>> lookupStore;
+    private final List<OffHeapStore<?>> offHeapStores = new ArrayList<>();
+    private final Map<CacheType, AdmissionFilter> admissionFilters = new EnumMap<>(CacheType.class);
 
     private final String cacheExpiry;
+    private final long serveStaleNanos;
+    private final NegativeCache negativeCache;
+    private final Cache<Long, Throwable> failureCache;
+    private final QueryNormalizer queryNormalizer;
+    private final Locale defaultLocale;
+    private final Function<LatLon, String> reverseCell;
+    private final double reverseMaxDistance;
+    private final boolean populateLookup;
+    private final Path snapshotFile;
+    private final Path pinnedFile;
+    private volatile PinnedTable pinned = PinnedTable.EMPTY;
+    private volatile FileTime pinnedModified = null;
 
     /**
      * @deprecated use {@link #builder()}
@@ -64,46 +115,160 @@ public class CachingGeocoder implements Geocoder {
      */
     @Deprecated(since = "2.0.2")
     protected CachingGeocoder(Geocoder geocoder, long cacheExpireTime, TimeUnit timeUnit) {
-        Preconditions.checkArgument(geocoder != null, "Geocoder must not be null");
-        Preconditions.checkNotNull(timeUnit);
+        this(geocoder, cacheExpireTime, timeUnit, new CacheConfiguration());
+    }
+
+    CachingGeocoder(Geocoder geocoder, long cacheExpireTime, TimeUnit timeUnit, CacheConfiguration cacheConfiguration) {
+        if (geocoder == null) {
+            throw new IllegalArgumentException("Geocoder must not be null");
+        }
+        Objects.requireNonNull(timeUnit);
 
         this.geocoder = geocoder;
         this.cacheExpiry = String.format("%d %s", cacheExpireTime, timeUnit);
+        this.serveStaleNanos = cacheConfiguration.getServeStaleNanos();
+        this.queryNormalizer = cacheConfiguration.getQueryNormalizer();
+        this.defaultLocale = cacheConfiguration.getDefaultLocale();
+        this.reverseCell = cacheConfiguration.getReverseCell();
+        this.reverseMaxDistance = cacheConfiguration.getReverseMaxDistance();
+        this.populateLookup = cacheConfiguration.isPopulateLookup();
+        this.snapshotFile = cacheConfiguration.getSnapshotFile();
+        this.pinnedFile = cacheConfiguration.getPinnedFile();
+        final OptionalLong negativeExpiry = cacheConfiguration.getNegativeExpiryNanos();
+        this.negativeCache = negativeExpiry.isPresent()
+                ? new NegativeCache(cacheConfiguration.getNegativeCapacity(), negativeExpiry.getAsLong())
+                : null;
+        final OptionalLong failureExpiry = cacheConfiguration.getFailureExpiryNanos();
+        this.failureCache = failureExpiry.isPresent()
+                ? Caffeine.newBuilder()
+                        .expireAfterWrite(failureExpiry.getAsLong(), TimeUnit.NANOSECONDS)
+                        .maximumSize(CacheConfiguration.FAILURE_CAPACITY)
+                        .<Long, Throwable>build()
+                : null;
 
-        geocodeCache = CacheBuilder.newBuilder()
-                .expireAfterWrite(cacheExpireTime, timeUnit)
-                .build(new CacheLoader<>() {
-                    @Override
-                    public List<Place> load(LangString s) throws Exception {
-                        return CachingGeocoder.this.geocoder.geocode(s.value, s.lang);
-                    }
-                });
+        geocodeStore = openTiers(cacheConfiguration, CacheType.GEOCODE, timeUnit.toNanos(cacheExpireTime), PlaceCodec.PLACES);
+        reverseGeocodeStore = openTiers(cacheConfiguration, CacheType.REVERSE_GEOCODE, timeUnit.toNanos(cacheExpireTime), PlaceCodec.PLACES);
+        lookupStore = openTiers(cacheConfiguration, CacheType.LOOKUP, timeUnit.toNanos(cacheExpireTime), PlaceCodec.OPTIONAL_PLACE);
+        if (cacheConfiguration.isAdmissionFilter()) {
+            for (CacheType cacheType : CacheType.values()) {
+                admissionFilters.put(cacheType, new AdmissionFilter(cacheConfiguration.getAdmissionCapacity(cacheType)));
+            }
+        }
 
-        reverseGeocodeCache = CacheBuilder.newBuilder()
-                .expireAfterWrite(cacheExpireTime, timeUnit)
-                .build(new CacheLoader<>() {
-                    @Override
-                    public List<Place> load(LangCoords coordinates) throws Exception {
-                        return CachingGeocoder.this.geocoder.reverseGeocode(coordinates.coords, coordinates.lang);
-                    }
-                });
+        geocodeLoader = new CacheLoader<>() {
+            @Override
+            public List<Place> load(LangString s) throws Exception {
+                return loadThrough(CacheType.GEOCODE, geocodeStore, s, () -> CachingGeocoder.this.geocoder.geocode(s.value, s.lang));
+            }
 
-        lookupCache = CacheBuilder.newBuilder()
-                .expireAfterWrite(cacheExpireTime, timeUnit)
-                .build(new CacheLoader<>() {
-                    @Override
-                    public Optional<Place> load(LangString s) throws Exception {
-                        return CachingGeocoder.this.geocoder.lookup(s.value, s.lang);
-                    }
-                });
+            @Override
+            public CompletableFuture<List<Place>> asyncReload(LangString s, List<Place> oldValue, Executor executor) {
+                return CachingGeocoder.this.geocoder.geocodeAsync(s.value, s.lang)
+                        .thenApply(places -> cacheable(CacheType.GEOCODE, s, persist(geocodeStore, s, places)));
+            }
+
+            @Override
+            public Map<LangString, List<Place>> loadAll(Set<? extends LangString> keys) throws Exception {
+                final Map<LangString, List<Place>> result = new HashMap<>();
+                final List<LangString> missing = loadStored(CacheType.GEOCODE, geocodeStore, keys, result);
+                for (Map.Entry<Locale, List<LangString>> batch : groupByLang(missing).entrySet()) {
+                    final Map<String, List<Place>> places = CachingGeocoder.this.geocoder.geocodeAll(
+                            values(batch.getValue()), batch.getKey());
+                    batch.getValue().forEach(k -> putCacheable(result, CacheType.GEOCODE,
+                            k, persist(geocodeStore, k, places.getOrDefault(k.value, List.of()))));
+                }
+                return result;
+            }
+        };
+        geocodeCache = newCacheBuilder(CacheType.GEOCODE, cacheConfiguration, cacheExpireTime, timeUnit,
+                (LangString k, List<Place> v) -> weigh(v))
+                .build(geocodeLoader);
+
+        reverseGeocodeLoader = new CacheLoader<>() {
+            @Override
+            public List<Place> load(LangCoords coordinates) throws Exception {
+                return loadThrough(CacheType.REVERSE_GEOCODE, reverseGeocodeStore, coordinates,
+                        () -> CachingGeocoder.this.geocoder.reverseGeocode(coordinates.coords, coordinates.lang));
+            }
+
+            @Override
+            public CompletableFuture<List<Place>> asyncReload(LangCoords coordinates, List<Place> oldValue, Executor executor) {
+                return CachingGeocoder.this.geocoder.reverseGeocodeAsync(coordinates.coords, coordinates.lang)
+                        .thenApply(places -> cacheable(CacheType.REVERSE_GEOCODE, coordinates,
+                                persist(reverseGeocodeStore, coordinates, places)));
+            }
+
+            @Override
+            public Map<LangCoords, List<Place>> loadAll(Set<? extends LangCoords> keys) throws Exception {
+                final Map<LangCoords, List<Place>> result = new HashMap<>();
+                final Map<Locale, List<LangCoords>> batches = new HashMap<>();
+                loadStored(CacheType.REVERSE_GEOCODE, reverseGeocodeStore, keys, result)
+                        .forEach(k -> batches.computeIfAbsent(k.lang, l -> new ArrayList<>()).add(k));
+                for (Map.Entry<Locale, List<LangCoords>> batch : batches.entrySet()) {
+                    final Map<LatLon, List<Place>> places = CachingGeocoder.this.geocoder.reverseGeocodeAll(
+                            batch.getValue().stream().map(k -> k.coords).collect(Collectors.toList()), batch.getKey());
+                    batch.getValue().forEach(k -> putCacheable(result, CacheType.REVERSE_GEOCODE,
+                            k, persist(reverseGeocodeStore, k, places.getOrDefault(k.coords, List.of()))));
+                }
+                return result;
+            }
+        };
+        reverseGeocodeCache = newCacheBuilder(CacheType.REVERSE_GEOCODE, cacheConfiguration, cacheExpireTime, timeUnit,
+                (LangCoords k, List<Place> v) -> weigh(v))
+                .build(reverseGeocodeLoader);
+
+        lookupLoader = new CacheLoader<>() {
+            @Override
+            public Optional<Place> load(LangString s) throws Exception {
+                return loadThrough(CacheType.LOOKUP, lookupStore, s, () -> CachingGeocoder.this.geocoder.lookup(s.value, s.lang));
+            }
+
+            @Override
+            public CompletableFuture<Optional<Place>> asyncReload(LangString s, Optional<Place> oldValue, Executor executor) {
+                return CachingGeocoder.this.geocoder.lookupAsync(s.value, s.lang)
+                        .thenApply(place -> cacheable(CacheType.LOOKUP, s, persist(lookupStore, s, place)));
+            }
+
+            @Override
+            public Map<LangString, Optional<Place>> loadAll(Set<? extends LangString> keys) throws Exception {
+                final Map<LangString, Optional<Place>> result = new HashMap<>();
+                final List<LangString> missing = loadStored(CacheType.LOOKUP, lookupStore, keys, result);
+                for (Map.Entry<Locale, List<LangString>> batch : groupByLang(missing).entrySet()) {
+                    final Map<String, Place> places = CachingGeocoder.this.geocoder.lookupAll(
+                            values(batch.getValue()), batch.getKey());
+                    batch.getValue().forEach(k -> putCacheable(result, CacheType.LOOKUP,
+                            k, persist(lookupStore, k, Optional.ofNullable(places.get(k.value)))));
+                }
+                return result;
+            }
+        };
+        lookupCache = newCacheBuilder(CacheType.LOOKUP, cacheConfiguration, cacheExpireTime, timeUnit,
+                (LangString k, Optional<Place> v) -> v.map(CachingGeocoder::weigh).orElse(1))
+                .build(lookupLoader);
+
+        if (pinnedFile != null) {
+            try {
+                reloadPinned();
+            } catch (IOException e) {
+                LOG.warn("Could not load pinned results from {}: {}", pinnedFile, e.getMessage());
+            }
+        }
+        if (snapshotFile != null && Files.isRegularFile(snapshotFile)) {
+            try {
+                final int imported = importSnapshot(snapshotFile);
+                LOG.info("Imported {} cache entries from {}", imported, snapshotFile);
+            } catch (IOException e) {
+                LOG.warn("Could not import cache snapshot {}: {}", snapshotFile, e.getMessage());
+            }
+        }
     }
 
     @Override
     public List<Place> geocode(String address, Locale lang) throws IOException {
         try {
             LOG.debug("Geocoding '{}'", address);
-            return geocodeCache.get(new LangString(address, lang));
-        } catch (@SuppressWarnings("java:S2139") ExecutionException e) {
+            return get(CacheType.GEOCODE, geocodeCache, geocodeLoader, geocodeKey(address, lang), List.of());
+        } catch (@SuppressWarnings("java:S2139") CompletionException e) {
             LOG.error("Cache geo-coding service client unable to retrieve data with query '{}': {}", address, e.getMessage(), e);
             throw new IOException("Error loading geocodeCache for '" + address + "'", e);
         }
@@ -113,8 +278,12 @@ public class CachingGeocoder implements Geocoder {
     public List<Place> reverseGeocode(LatLon coordinates, Locale lang) throws IOException {
         try {
             LOG.debug("Reverse-Geocoding '{}'", coordinates);
-            return reverseGeocodeCache.get(new LangCoords(coordinates, lang));
-        } catch (@SuppressWarnings("java:S2139") ExecutionException e) {
+            final LangCoords key = reverseKey(coordinates, lang);
+            if (isTooFar(key)) {
+                return geocoder.reverseGeocode(coordinates, lang);
+            }
+            return get(CacheType.REVERSE_GEOCODE, reverseGeocodeCache, reverseGeocodeLoader, key, List.of());
+        } catch (@SuppressWarnings("java:S2139") CompletionException e) {
             LOG.error("Cache reverse geo-coding service client unable to retrieve data with lat,long '{},{}': {}",
                     coordinates.lat(), coordinates.lon(), e.getMessage(), e);
             throw new IOException("Error loading reverseGeocodeCache for '" + coordinates + "'", e);
@@ -125,17 +294,862 @@ public class CachingGeocoder implements Geocoder {
     public Optional<Place> lookup(String placeId, Locale lang) throws IOException {
         try {
             LOG.debug("Lookup of '{}'", placeId);
-            return lookupCache.get(new LangString(placeId, lang));
-        } catch (@SuppressWarnings("java:S2139") ExecutionException e) {
+            return get(CacheType.LOOKUP, lookupCache, lookupLoader, lookupKey(placeId, lang), Optional.empty());
+        } catch (@SuppressWarnings("java:S2139") CompletionException e) {
             LOG.error("Cache lookup service client unable to retrieve data with placeId '{}': {}", placeId, e.getMessage(), e);
             throw new IOException("Error loading lookupCache for '" + placeId + "'", e);
         }
     }
 
+    /**
+     * Serves cached results right away, only the cache-misses are loaded from the delegate
+     * (using its {@link Geocoder#geocodeAll(Collection, Locale) batch-method}).
+     */
+    @Override
+    public Map<String, List<Place>> geocodeAll(Collection<String> addresses, Locale lang) throws IOException {
+        try {
+            LOG.debug("Geocoding {} addresses", addresses.size());
+            final List<LangString> keys = addresses.stream()
+                    .filter(Objects::nonNull)
+                    .map(a -> geocodeKey(a, lang))
+                    .collect(Collectors.toList());
+            final Map<LangString, List<Place>> places = getAll(CacheType.GEOCODE, geocodeCache, geocodeLoader, keys, List.of());
+            // different addresses might share the same normalized key
+            final Map<String, List<Place>> result = new LinkedHashMap<>();
+            keys.forEach(k -> result.putIfAbsent(k.value, places.get(k)));
+            return result;
+        } catch (@SuppressWarnings("java:S2139") CompletionException e) {
+            LOG.error("Cache geo-coding service client unable to retrieve data for {} addresses: {}", addresses.size(), e.getMessage(), e);
+            throw new IOException("Error loading geocodeCache for " + addresses.size() + " addresses", e);
+        }
+    }
+
+    @Override
+    public Map<LatLon, List<Place>> reverseGeocodeAll(Collection<LatLon> coordinates, Locale lang) throws IOException {
+        try {
+            LOG.debug("Reverse-Geocoding {} coordinates", coordinates.size());
+            final List<LangCoords> keys = coordinates.stream()
+                    .filter(Objects::nonNull)
+                    .map(c -> reverseKey(c, lang))
+                    .collect(Collectors.toList());
+            final Set<LangCoords> cachedTooFar = keys.stream()
+                    .filter(this::isTooFar)
+                    .collect(Collectors.toSet());
+            final Map<LangCoords, List<Place>> places = getAll(CacheType.REVERSE_GEOCODE, reverseGeocodeCache, reverseGeocodeLoader,
+                    keys.stream()
+                            .filter(k -> !cachedTooFar.contains(k))
+                            .collect(Collectors.toList()),
+                    List.of());
+
+            // several coordinates may share a cell, the result is loaded for the first of them
+            final Map<LatLon, List<Place>> result = new LinkedHashMap<>();
+            final Set<LangCoords> seen = new HashSet<>();
+            final List<LatLon> tooFar = new ArrayList<>();
+            for (LangCoords key : keys) {
+                if (result.containsKey(key.coords)) {
+                    continue;
+                }
+                if (cachedTooFar.contains(key)) {
+                    tooFar.add(key.coords);
+                    result.put(key.coords, List.of());
+                    continue;
+                }
+                final List<Place> cached = places.get(key);
+                if (!seen.add(key) && !isNearby(key.coords, cached)) {
+                    tooFar.add(key.coords);
+                }
+                result.put(key.coords, cached);
+            }
+            if (!tooFar.isEmpty()) {
+                LOG.debug("Cached results for {} coordinates are too far away, loading them uncached", tooFar.size());
+                final Map<LatLon, List<Place>> reloaded = geocoder.reverseGeocodeAll(tooFar, lang);
+                tooFar.forEach(c -> result.put(c, reloaded.getOrDefault(c, List.of())));
+            }
+            return result;
+        } catch (@SuppressWarnings("java:S2139") CompletionException e) {
+            LOG.error("Cache reverse geo-coding service client unable to retrieve data for {} coordinates: {}",
+                    coordinates.size(), e.getMessage(), e);
+            throw new IOException("Error loading reverseGeocodeCache for " + coordinates.size() + " coordinates", e);
+        }
+    }
+
+    @Override
+    public Map<String, Place> lookupAll(Collection<String> placeIds, Locale lang) throws IOException {
+        try {
+            LOG.debug("Lookup of {} places", placeIds.size());
+            final Map<LangString, Optional<Place>> places = getAll(CacheType.LOOKUP, lookupCache, lookupLoader,
+                    placeIds.stream()
+                            .filter(Objects::nonNull)
+                            .map(p -> lookupKey(p, lang))
+                            .collect(Collectors.toList()),
+                    Optional.empty());
+            final Map<String, Place> result = new LinkedHashMap<>();
+            places.forEach((k, v) -> v.ifPresent(place -> result.put(k.value, place)));
+            return result;
+        } catch (@SuppressWarnings("java:S2139") CompletionException e) {
+            LOG.error("Cache lookup service client unable to retrieve data for {} placeIds: {}", placeIds.size(), e.getMessage(), e);
+            throw new IOException("Error loading lookupCache for " + placeIds.size() + " placeIds", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Caffeine<K, V> newCacheBuilder(CacheType cacheType, CacheConfiguration configuration,
+                                                         long cacheExpireTime, TimeUnit timeUnit,
+                                                         Weigher<K, V> weigher) {
+        final Caffeine<K, V> builder = (Caffeine<K, V>) (Object) Caffeine.newBuilder().recordStats();
+        builder.expireAfter(new CacheExpiry<K, V>(timeUnit.toNanos(cacheExpireTime),
+                configuration.getExpiryJitter(), configuration.getServeStaleNanos()));
+        configuration.getRefreshAfterWriteNanos().ifPresent(nanos -> builder.refreshAfterWrite(nanos, TimeUnit.NANOSECONDS));
+        configuration.getInitialCapacity(cacheType).ifPresent(builder::initialCapacity);
+        configuration.getMaximumSize(cacheType).ifPresent(builder::maximumSize);
+        configuration.getMaximumWeight(cacheType).ifPresent(maximumWeight -> builder
+                .maximumWeight(maximumWeight)
+                .weigher(weigher));
+        return builder;
+    }
+
+    /**
+     * The weight of a cached result: one per place and address-component, at least one.
+     */
+    static int weigh(List<Place> places) {
+        return Math.max(1, places.stream()
+                .mapToInt(CachingGeocoder::weigh)
+                .sum());
+    }
+
+    static int weigh(Place place) {
+        return 1 + place.getComponents().size();
+    }
+
+    /**
+     * The key for reverse-geocoding the given coordinates.
+     */
+    private LangCoords reverseKey(LatLon coordinates, Locale lang) {
+        return new LangCoords(coordinates, keyLang(lang),
+                reverseCell != null && coordinates != null ? reverseCell.apply(coordinates) : null);
+    }
+
+    /**
+     * Whether the cached result for the cell of the key is not {@link #isNearby(LatLon, List) nearby} its
+     * coordinates. Such requests are loaded uncached, like requests that are not admitted, so the entry
+     * of the cell is kept for the coordinates it was loaded for.
+     */
+    private boolean isTooFar(LangCoords key) {
+        if (key.cell == null || reverseMaxDistance <= 0) {
+            return false;
+        }
+        // peek without recording stats, the hit or miss is recorded by the actual get
+        final List<Place> cached = reverseGeocodeCache.policy().getIfPresentQuietly(key);
+        if (cached != null && !isNearby(key.coords, cached)) {
+            LOG.debug("Cached result for {} is too far away from {}", key.cell, key.coords);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Whether one of the places lies within the max. distance of the coordinates, results without coordinates
+     * are considered nearby. This needs results carrying the coordinates of the place: results located at the
+     * requested coordinates only compare the distance between the requests.
+     */
+    private boolean isNearby(LatLon coordinates, List<Place> places) {
+        if (reverseMaxDistance <= 0 || places == null) {
+            return true;
+        }
+        final List<LatLon> locations = places.stream()
+                .map(Place::getLatLon)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return locations.isEmpty()
+                || locations.stream().anyMatch(l -> SpatialCell.distance(coordinates, l) <= reverseMaxDistance);
+    }
+
+    /**
+     * The key for geocoding the address, normalized using the {@link QueryNormalizer}.
+     */
+    private LangString geocodeKey(String address, Locale lang) {
+        return new LangString(address, queryNormalizer.normalize(address, lang != null ? lang : defaultLocale), keyLang(lang));
+    }
+
+    private LangString lookupKey(String placeId, Locale lang) {
+        return new LangString(placeId, placeId, keyLang(lang));
+    }
+
+    /**
+     * Requests for the default locale share the cache entries with requests without locale.
+     */
+    private Locale keyLang(Locale lang) {
+        return lang != null && lang.equals(defaultLocale) ? null : lang;
+    }
+
+    private static List<String> values(List<LangString> keys) {
+        return keys.stream()
+                .map(k -> k.value)
+                .collect(Collectors.toList());
+    }
+
+    private static Map<Locale, List<LangString>> groupByLang(Collection<? extends LangString> keys) {
+        final Map<Locale, List<LangString>> batches = new HashMap<>();
+        keys.forEach(k -> batches.computeIfAbsent(k.lang, l -> new ArrayList<>()).add(k));
+        return batches;
+    }
+
+    /**
+     * The second-level tiers of a cache: off-heap first, then the persistent store.
+     */
+    private <V> CacheTier<V> openTiers(CacheConfiguration cacheConfiguration, CacheType cacheType, long expiryNanos, PlaceCodec<V> codec) {
+        final List<CacheTier<V>> tiers = new ArrayList<>(2);
+        final long offHeapCapacity = cacheConfiguration.getOffHeapCapacity();
+        if (offHeapCapacity > 0) {
+            // the capacity is shared by the three caches
+            final OffHeapStore<V> offHeap = new OffHeapStore<>(offHeapCapacity / CacheType.values().length,
+                    expiryNanos, TimeUnit.NANOSECONDS, codec);
+            offHeapStores.add(offHeap);
+            tiers.add(offHeap);
+        }
+        final Path persistentDirectory = cacheConfiguration.getPersistentDirectory();
+        if (persistentDirectory != null) {
+            tiers.add(openStore(persistentDirectory, cacheType,
+                    cacheConfiguration.getPersistentExpiryNanos().orElse(expiryNanos), codec));
+        }
+        return TieredStore.of(tiers);
+    }
+
+    private static <V> PlaceStore<V> openStore(Path directory, CacheType cacheType, long expiryNanos, PlaceCodec<V> codec) {
+        final Path file = directory.resolve(cacheName(cacheType) + ".log");
+        try {
+            return new PlaceStore<>(file, expiryNanos, TimeUnit.NANOSECONDS, codec);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open persistent cache " + file, e);
+        }
+    }
+
+    /**
+     * Load a value from the second-level tiers if available, otherwise from the delegate.
+     */
+    private <K extends CacheKey, V> V loadThrough(CacheType cacheType, CacheTier<V> store, K key, Callable<V> loader) throws Exception {
+        if (store != null) {
+            final V stored = store.get(key.id());
+            if (stored != null) {
+                return cacheable(cacheType, key, stored);
+            }
+        }
+        return cacheable(cacheType, key, persist(store, key, loader.call()));
+    }
+
+    /**
+     * Load the values available in the second-level tiers into the result.
+     *
+     * @return the keys not available in the second-level tiers
+     */
+    private <K extends CacheKey, V> List<K> loadStored(CacheType cacheType, CacheTier<V> store, Set<? extends K> keys, Map<K, V> result) {
+        final List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            final V stored = store != null ? store.get(key.id()) : null;
+            if (stored != null) {
+                putCacheable(result, cacheType, key, stored);
+            } else {
+                missing.add(key);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Write the value to the second-level tiers (if enabled), empty results are not persisted if they are
+     * kept in the {@link NegativeCache}.
+     */
+    private <V> V persist(CacheTier<V> store, CacheKey key, V value) {
+        if (store != null && value != null && (negativeCache == null || !isEmpty(value))) {
+            store.put(key.id(), value);
+        }
+        return value;
+    }
+
+    /**
+     * Whether the result should be kept in the cache: empty results are kept in the {@link NegativeCache}
+     * instead (if enabled), in which case {@code null} is returned.
+     */
+    private <K extends CacheKey, V> V cacheable(CacheType cacheType, K key, V value) {
+        if (populateLookup && cacheType != CacheType.LOOKUP && value instanceof Collection) {
+            populateLookup(key.lang(), (Collection<?>) value);
+        }
+        if (negativeCache != null && isEmpty(value)) {
+            negativeCache.put(key.fingerprint(cacheType));
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Put the places into the lookup cache, existing entries are kept.
+     */
+    private void populateLookup(Locale lang, Collection<?> places) {
+        for (Object place : places) {
+            final String placeId = ((Place) place).getPlaceId();
+            if (placeId != null) {
+                final LangString key = lookupKey(placeId, lang);
+                if (lookupCache.asMap().putIfAbsent(key, Optional.of((Place) place)) == null && negativeCache != null) {
+                    negativeCache.remove(key.fingerprint(CacheType.LOOKUP));
+                }
+            }
+        }
+    }
+
+    private <K extends CacheKey, V> void putCacheable(Map<K, V> loaded, CacheType cacheType, K key, V value) {
+        final V cacheable = cacheable(cacheType, key, value);
+        if (cacheable != null) {
+            loaded.put(key, cacheable);
+        }
+    }
+
+    private static boolean isEmpty(Object value) {
+        if (value instanceof Optional) {
+            return ((Optional<?>) value).isEmpty();
+        }
+        return value instanceof Collection && ((Collection<?>) value).isEmpty();
+    }
+
+    private boolean isNegative(CacheType cacheType, CacheKey key) {
+        return negativeCache != null && negativeCache.contains(key.fingerprint(cacheType));
+    }
+
+    private Throwable getFailure(CacheType cacheType, CacheKey key) {
+        return failureCache != null ? failureCache.getIfPresent(key.fingerprint(cacheType)) : null;
+    }
+
+    private void putFailure(CacheType cacheType, CacheKey key, Throwable failure) {
+        if (failureCache != null) {
+            failureCache.put(key.fingerprint(cacheType),
+                    failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+        }
+    }
+
+    /**
+     * Get the value from the cache, loading it if absent. Expired entries within the serve-stale window are reloaded,
+     * if that fails the stale value is returned.
+     */
+    private <K extends CacheKey, V> V get(CacheType cacheType, LoadingCache<K, V> cache, CacheLoader<K, V> loader,
+                                          K key, V empty) {
+        final V pinnedValue = getPinned(cacheType, key);
+        if (pinnedValue != null) {
+            return pinnedValue;
+        }
+        if (isNegative(cacheType, key)) {
+            return empty;
+        }
+        final Throwable failure = getFailure(cacheType, key);
+        if (failure != null) {
+            LOG.debug("Request for {} failed recently, not repeating it", key);
+            throw new CompletionException(failure);
+        }
+        // peek without recording stats, the hit or miss is recorded by the get below
+        final V cached = cache.policy().getIfPresentQuietly(key);
+        if (cached != null && isStale(cache, key)) {
+            return revalidate(cache, key, cached, empty).join();
+        }
+        try {
+            final V loaded = cached == null && !isAdmitted(cacheType, key) ? loadUncached(loader, key) : cache.get(key);
+            return loaded != null ? loaded : empty;
+        } catch (CompletionException e) {
+            putFailure(cacheType, key, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Get the values from the cache, the cache-misses are loaded in a single batch. Expired entries within the
+     * serve-stale window are reloaded one by one, if that fails the stale value is returned.
+     *
+     * @return the values, keyed and ordered by the given keys
+     */
+    private <K extends CacheKey, V> Map<K, V> getAll(CacheType cacheType, LoadingCache<K, V> cache, CacheLoader<K, V> loader,
+                                                     List<K> keys, V empty) {
+        final Map<K, V> result = new LinkedHashMap<>();
+        final List<K> misses = new ArrayList<>();
+        final Set<K> rejected = new HashSet<>();
+        final Map<K, CompletableFuture<V>> revalidating = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (!result.containsKey(key)) {
+                // reserve the position, so the result is ordered by the given keys
+                result.put(key, empty);
+                final V pinnedValue = getPinned(cacheType, key);
+                if (pinnedValue != null) {
+                    result.put(key, pinnedValue);
+                } else if (isNegative(cacheType, key)) {
+                    continue;
+                } else {
+                    final V cached = cache.policy().getIfPresentQuietly(key);
+                    if (cached == null && !isAdmitted(cacheType, key)) {
+                        rejected.add(key);
+                    } else if (cached != null && isStale(cache, key)) {
+                        revalidating.put(key, revalidate(cache, key, cached, empty));
+                    } else {
+                        misses.add(key);
+                    }
+                }
+            }
+        }
+        final Map<K, V> loaded = cache.getAll(misses);
+        loaded.forEach(result::put);
+        revalidating.forEach((key, value) -> result.put(key, value.join()));
+        if (!rejected.isEmpty()) {
+            try {
+                loader.loadAll(rejected).forEach(result::put);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V getPinned(CacheType cacheType, CacheKey key) {
+        return (V) pinned.get(cacheType, key.id());
+    }
+
+    /**
+     * Whether a new entry for the key is admitted into the cache, always {@code true} without admission filter.
+     */
+    private boolean isAdmitted(CacheType cacheType, CacheKey key) {
+        final AdmissionFilter admissionFilter = admissionFilters.get(cacheType);
+        return admissionFilter == null || admissionFilter.admit(key.fingerprint(cacheType));
+    }
+
+    /**
+     * Load the value of a key that is not admitted into the cache, the second-level tiers are still used.
+     */
+    private static <K, V> V loadUncached(CacheLoader<K, V> loader, K key) {
+        try {
+            return loader.load(key);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * Whether the entry is expired, but still kept in the cache for the serve-stale window.
+     */
+    private <K, V> boolean isStale(LoadingCache<K, V> cache, K key) {
+        if (serveStaleNanos <= 0) {
+            return false;
+        }
+        return cache.policy().expireVariably()
+                .map(expiry -> expiry.getExpiresAfter(key, TimeUnit.NANOSECONDS))
+                .map(remaining -> remaining.isPresent() && remaining.getAsLong() <= serveStaleNanos)
+                .orElse(false);
+    }
+
+    /**
+     * Reload the entry (concurrent callers share the same reload), falling back to the stale value on failure.
+     */
+    private static <K, V> CompletableFuture<V> revalidate(LoadingCache<K, V> cache, K key, V stale, V empty) {
+        return cache.refresh(key).handle((fresh, e) -> {
+            if (e != null) {
+                LOG.warn("Reloading expired entry {} failed, serving stale result: {}", key, e.getMessage());
+                return stale;
+            }
+            // no value means the result is empty and now kept in the negative-cache
+            return fresh != null ? fresh : empty;
+        });
+    }
+
+    /**
+     * Serves cached results right away, otherwise the async API of the delegate is used and the result
+     * is put into the cache once it becomes available.
+     */
+    @Override
+    public CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang) {
+        LOG.debug("Geocoding '{}' (async)", address);
+        return getAsync(CacheType.GEOCODE, geocodeCache, geocodeStore, geocodeKey(address, lang), List.of(),
+                () -> geocoder.geocodeAsync(address, lang));
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang) {
+        LOG.debug("Reverse-Geocoding '{}' (async)", coordinates);
+        final LangCoords key = reverseKey(coordinates, lang);
+        if (isTooFar(key)) {
+            return geocoder.reverseGeocodeAsync(coordinates, lang);
+        }
+        return getAsync(CacheType.REVERSE_GEOCODE, reverseGeocodeCache, reverseGeocodeStore, key, List.of(),
+                () -> geocoder.reverseGeocodeAsync(coordinates, lang));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang) {
+        LOG.debug("Lookup of '{}' (async)", placeId);
+        return getAsync(CacheType.LOOKUP, lookupCache, lookupStore, lookupKey(placeId, lang), Optional.empty(),
+                () -> geocoder.lookupAsync(placeId, lang));
+    }
+
+    private <K extends CacheKey, V> CompletableFuture<V> getAsync(CacheType cacheType, LoadingCache<K, V> cache,
+                                                                  CacheTier<V> store, K key, V empty,
+                                                                  Supplier<CompletableFuture<V>> loader) {
+        final V pinnedValue = getPinned(cacheType, key);
+        if (pinnedValue != null) {
+            return CompletableFuture.completedFuture(pinnedValue);
+        }
+        if (isNegative(cacheType, key)) {
+            return CompletableFuture.completedFuture(empty);
+        }
+        final Throwable failure = getFailure(cacheType, key);
+        if (failure != null) {
+            LOG.debug("Request for {} failed recently, not repeating it", key);
+            return CompletableFuture.failedFuture(failure);
+        }
+        final V cached = cache.getIfPresent(key);
+        if (cached != null) {
+            if (isStale(cache, key)) {
+                return revalidate(cache, key, cached, empty);
+            }
+            return CompletableFuture.completedFuture(cached);
+        }
+        final V stored = store != null ? store.get(key.id()) : null;
+        if (stored != null) {
+            final V cacheable = cacheable(cacheType, key, stored);
+            if (cacheable != null && isAdmitted(cacheType, key)) {
+                cache.put(key, cacheable);
+            }
+            return CompletableFuture.completedFuture(stored);
+        }
+        final CompletableFuture<V> result = loader.get();
+        result.whenComplete((value, e) -> {
+            if (e != null) {
+                putFailure(cacheType, key, e);
+            } else {
+                final V cacheable = cacheable(cacheType, key, persist(store, key, value));
+                if (cacheable != null && isAdmitted(cacheType, key)) {
+                    cache.put(key, cacheable);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Writes a {@link CachingGeocoderBuilder#setSnapshotFile(Path) snapshot} (if configured) and closes the
+     * second-level tiers (if enabled), the wrapped geocoder is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (snapshotFile != null) {
+            final int exported = exportSnapshot(snapshotFile);
+            LOG.info("Exported {} cache entries to {}", exported, snapshotFile);
+        }
+        for (CacheTier<?> store : Arrays.asList(geocodeStore, reverseGeocodeStore, lookupStore)) {
+            if (store != null) {
+                store.close();
+            }
+        }
+    }
+
+    /**
+     * Write the current contents of the caches to the file, which is replaced atomically once the snapshot is
+     * complete. Empty results kept in the negative cache are not exported.
+     *
+     * @return the number of exported entries
+     * @see #importSnapshot(Path)
+     */
+    public int exportSnapshot(Path file) throws IOException {
+        final Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        final Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        final int exported;
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpFile))) {
+                exported = exportSnapshot(out);
+            }
+            Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(tmpFile);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        return exported;
+    }
+
+    /**
+     * Write the current contents of the caches to the stream, the stream is not closed.
+     *
+     * @return the number of exported entries
+     */
+    public int exportSnapshot(OutputStream out) throws IOException {
+        final CacheSnapshot.Writer writer = new CacheSnapshot.Writer(out);
+        int exported = exportCache(writer, CacheType.GEOCODE, geocodeCache, PlaceCodec.PLACES,
+                (o, k) -> PlaceCodec.writeString(o, k.value));
+        exported += exportCache(writer, CacheType.REVERSE_GEOCODE, reverseGeocodeCache, PlaceCodec.PLACES,
+                (o, k) -> {
+                    o.writeDouble(k.coords.lat());
+                    o.writeDouble(k.coords.lon());
+                });
+        exported += exportCache(writer, CacheType.LOOKUP, lookupCache, PlaceCodec.OPTIONAL_PLACE,
+                (o, k) -> PlaceCodec.writeString(o, k.value));
+        writer.flush();
+        return exported;
+    }
+
+    /**
+     * Load the entries of a snapshot into the caches, e.g. to warm up the caches before taking traffic.
+     * Expired entries are skipped, and existing entries are not replaced. If the snapshot is incomplete
+     * (e.g. partially written), the entries up to the first incomplete entry are imported.
+     *
+     * @return the number of imported entries
+     * @throws IOException if the file can't be read or is not a snapshot
+     * @see #exportSnapshot(Path)
+     */
+    public int importSnapshot(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return importSnapshot(in);
+        }
+    }
+
+    /**
+     * Load the entries of a snapshot read from the stream into the caches, the stream is not closed.
+     *
+     * @return the number of imported entries
+     * @see #importSnapshot(Path)
+     */
+    public int importSnapshot(InputStream in) throws IOException {
+        final long now = System.currentTimeMillis();
+        return readSnapshot(in, (cacheType, key, value, expiresAt) -> {
+            final long remaining = expiresAt - now;
+            if (remaining <= 0) {
+                return false;
+            }
+            switch (cacheType) {
+                case GEOCODE:
+                    importEntry(geocodeCache, (LangString) key, snapshotValue(value), remaining);
+                    break;
+                case REVERSE_GEOCODE:
+                    importEntry(reverseGeocodeCache, (LangCoords) key, snapshotValue(value), remaining);
+                    break;
+                case LOOKUP:
+                    importEntry(lookupCache, (LangString) key, snapshotValue(value), remaining);
+                    break;
+                default:
+                    return false;
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Replace the pinned results with the entries of the snapshot. Pinned results are served before the caches,
+     * they don't expire and are never evicted (the expiry of the snapshot entries is ignored). The new set
+     * becomes visible atomically, requests see either the old or the new set.
+     *
+     * @return the number of pinned entries
+     * @see CachingGeocoderBuilder#setPinnedFile(Path)
+     */
+    public synchronized int loadPinned(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            final PinnedTable.Builder builder = new PinnedTable.Builder(pinned.size());
+            readSnapshot(in, (cacheType, key, value, expiresAt) -> {
+                if (!isEmpty(value)) {
+                    builder.put(cacheType, key.id(), value);
+                }
+                return true;
+            });
+            pinned = builder.build();
+        }
+        LOG.info("Pinned {} entries from {}", pinned.size(), file);
+        return pinned.size();
+    }
+
+    /**
+     * Reload the {@link CachingGeocoderBuilder#setPinnedFile(Path) pinned file} if it was modified since it was
+     * loaded, a missing file keeps the current pinned results. Publish a new file by moving it into place, so it is never read while being written.
+     *
+     * @return {@code true} if the pinned results were replaced
+     */
+    public synchronized boolean reloadPinned() throws IOException {
+        if (pinnedFile == null || !Files.isRegularFile(pinnedFile)) {
+            return false;
+        }
+        final FileTime modified = Files.getLastModifiedTime(pinnedFile);
+        if (modified.equals(pinnedModified)) {
+            return false;
+        }
+        loadPinned(pinnedFile);
+        pinnedModified = modified;
+        return true;
+    }
+
+    /**
+     * The number of pinned results.
+     */
+    public int getPinnedSize() {
+        return pinned.size();
+    }
+
+    @FunctionalInterface
+    private interface SnapshotEntryConsumer {
+        /**
+         * @return whether the entry was used
+         */
+        boolean accept(CacheType cacheType, CacheKey key, Object value, long expiresAt);
+    }
+
+    /**
+     * Read the entries of a snapshot, the keys are re-created with the current configuration (normalization,
+     * reverse-geocoding cells).
+     *
+     * @return the number of used entries
+     */
+    private int readSnapshot(InputStream in, SnapshotEntryConsumer consumer) throws IOException {
+        final CacheSnapshot.Reader reader = new CacheSnapshot.Reader(in);
+        int used = 0;
+        try {
+            while (reader.next()) {
+                final DataInput entry = reader.entry();
+                final String langTag = PlaceCodec.readString(entry);
+                final Locale lang = langTag != null ? Locale.forLanguageTag(langTag) : null;
+                final boolean accepted;
+                switch (reader.cacheType()) {
+                    case GEOCODE:
+                        accepted = consumer.accept(CacheType.GEOCODE, geocodeKey(PlaceCodec.readString(entry), lang),
+                                PlaceCodec.PLACES.read(entry), reader.expiresAt());
+                        break;
+                    case REVERSE_GEOCODE:
+                        final LatLon coordinates = LatLon.create(entry.readDouble(), entry.readDouble());
+                        accepted = consumer.accept(CacheType.REVERSE_GEOCODE, new LangCoords(coordinates, lang,
+                                        reverseCell != null ? reverseCell.apply(coordinates) : null),
+                                PlaceCodec.PLACES.read(entry), reader.expiresAt());
+                        break;
+                    case LOOKUP:
+                        accepted = consumer.accept(CacheType.LOOKUP, lookupKey(PlaceCodec.readString(entry), lang),
+                                PlaceCodec.OPTIONAL_PLACE.read(entry), reader.expiresAt());
+                        break;
+                    default:
+                        accepted = false;
+                }
+                if (accepted) {
+                    used++;
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Snapshot is incomplete or corrupt, read the first {} entries: {}", used, e.getMessage());
+        }
+        return used;
+    }
+
+    @FunctionalInterface
+    private interface KeyWriter<K> {
+        void write(DataOutput out, K key) throws IOException;
+    }
+
+    private static <K extends CacheKey, V> int exportCache(CacheSnapshot.Writer writer, CacheType cacheType,
+                                                           LoadingCache<K, V> cache, PlaceCodec<V> codec,
+                                                           KeyWriter<K> keyWriter) throws IOException {
+        final Policy.VarExpiration<K, V> expiration = cache.policy().expireVariably().orElseThrow();
+        final long now = System.currentTimeMillis();
+        int exported = 0;
+        for (Map.Entry<K, V> entry : cache.asMap().entrySet()) {
+            final OptionalLong remaining = expiration.getExpiresAfter(entry.getKey(), TimeUnit.MILLISECONDS);
+            if (remaining.isPresent()) {
+                writer.write(cacheType, now + remaining.getAsLong(), out -> {
+                    final Locale lang = entry.getKey().lang();
+                    PlaceCodec.writeString(out, lang != null ? lang.toLanguageTag() : null);
+                    keyWriter.write(out, entry.getKey());
+                    codec.write(out, entry.getValue());
+                });
+                exported++;
+            }
+        }
+        return exported;
+    }
+
+    /**
+     * The value of a snapshot entry, its type is given by the {@link CacheType} of the entry.
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> V snapshotValue(Object value) {
+        return (V) value;
+    }
+
+    private static <K, V> void importEntry(LoadingCache<K, V> cache, K key, V value, long remainingMillis) {
+        cache.policy().expireVariably().orElseThrow()
+                .putIfAbsent(key, value, remainingMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The in-memory cache of the given type, e.g. to read its {@link Cache#stats() statistics}.
+     */
+    Cache<?, ?> getCache(CacheType cacheType) {
+        switch (cacheType) {
+            case GEOCODE:
+                return geocodeCache;
+            case REVERSE_GEOCODE:
+                return reverseGeocodeCache;
+            case LOOKUP:
+                return lookupCache;
+            default:
+                throw new IllegalArgumentException("Unknown cache type " + cacheType);
+        }
+    }
+
+    static String cacheName(CacheType cacheType) {
+        return cacheType.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * The number of empty results in the negative cache, {@code 0} if it is disabled.
+     */
+    long getNegativeCacheSize() {
+        return negativeCache != null ? negativeCache.size() : 0;
+    }
+
+    /**
+     * The number of new entries admitted into the caches by the {@link CachingGeocoderBuilder#setAdmissionFilter(boolean)
+     * admission filter}, {@code 0} if it is disabled.
+     */
+    public long getAdmittedCount() {
+        return admissionFilters.values().stream().mapToLong(AdmissionFilter::admittedCount).sum();
+    }
+
+    /**
+     * The number of new entries rejected by the {@link CachingGeocoderBuilder#setAdmissionFilter(boolean) admission
+     * filter}, {@code 0} if it is disabled.
+     */
+    public long getRejectedCount() {
+        return admissionFilters.values().stream().mapToLong(AdmissionFilter::rejectedCount).sum();
+    }
+
+    /**
+     * The admission filter of the cache, {@code null} if disabled.
+     */
+    AdmissionFilter getAdmissionFilter(CacheType cacheType) {
+        return admissionFilters.get(cacheType);
+    }
+
+    /**
+     * Bytes used by the off-heap tier, {@code 0} if it is disabled.
+     */
+    public long getOffHeapBytesUsed() {
+        return offHeapStores.stream().mapToLong(OffHeapStore::usedBytes).sum();
+    }
+
+    /**
+     * Bytes allocated by the off-heap tier, {@code 0} if it is disabled.
+     */
+    public long getOffHeapCapacity() {
+        return offHeapStores.stream().mapToLong(OffHeapStore::capacityBytes).sum();
+    }
 
     @Override
     public String toString() {
-        return "CachingGeocoder [geocoder=" + geocoder + ", expires=" + cacheExpiry + "]";
+        return "CachingGeocoder [geocoder=" + geocoder + ", expires=" + cacheExpiry
+                + (geocodeStore != null ? ", tiered" : "") + "]";
     }
 
     /**
@@ -156,19 +1170,56 @@ public class CachingGeocoder implements Geocoder {
         return new CachingGeocoderBuilder(delegate);
     }
 
-    private static class LangString {
+    /**
+     * Key of the caches, the fingerprint identifies the key in the {@link NegativeCache} and the failure-cache.
+     */
+    private interface CacheKey {
+        long fingerprint(CacheType cacheType);
+
+        /**
+         * The language of the request, {@code null} for the default.
+         */
+        Locale lang();
+
+        /**
+         * The key in the second-level tiers.
+         */
+        String id();
+    }
+
+    /**
+     * A string-key, equal to all other keys with the same (normalized) key.
+     */
+    private static class LangString implements CacheKey {
 
         final Locale lang;
         final String value;
+        final String key;
 
-        LangString(String value, Locale lang) {
+        LangString(String value, String key, Locale lang) {
             this.lang = lang;
             this.value = value;
+            this.key = key;
+        }
+
+        @Override
+        public Locale lang() {
+            return lang;
+        }
+
+        @Override
+        public long fingerprint(CacheType cacheType) {
+            return NegativeCache.fingerprint(cacheType, key, lang);
+        }
+
+        @Override
+        public String id() {
+            return key + '|' + (lang != null ? lang.toLanguageTag() : "");
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(value, lang);
+            return Objects.hash(key, lang);
         }
 
         @Override
@@ -177,25 +1228,49 @@ public class CachingGeocoder implements Geocoder {
             if (!(obj instanceof LangString)) return false;
             LangString that = (LangString) obj;
             return Objects.equals(lang, that.lang) &&
-                    Objects.equals(value, that.value);
+                    Objects.equals(key, that.key);
         }
 
         @Override
         public String toString() {
             return "LangString{" +
                     "value='" + value + '\'' +
+                    (Objects.equals(key, value) ? "" : ", key='" + key + '\'') +
                     ", lang=" + lang +
                     '}';
         }
     }
 
-    private static class LangCoords {
+    /**
+     * Coordinates snapped to a cell are equal to all other coordinates in the same cell.
+     */
+    private static class LangCoords implements CacheKey {
         final Locale lang;
         final LatLon coords;
+        final String cell;
 
-        LangCoords(LatLon coords, Locale lang) {
+        LangCoords(LatLon coords, Locale lang, String cell) {
             this.lang = lang;
             this.coords = coords;
+            this.cell = cell;
+        }
+
+        @Override
+        public Locale lang() {
+            return lang;
+        }
+
+        @Override
+        public long fingerprint(CacheType cacheType) {
+            if (cell != null) {
+                return NegativeCache.fingerprint(cacheType, cell, lang);
+            }
+            return NegativeCache.fingerprint(cacheType, coords.lat(), coords.lon(), lang);
+        }
+
+        @Override
+        public String id() {
+            return (cell != null ? cell : coords.lat() + "," + coords.lon()) + '|' + (lang != null ? lang.toLanguageTag() : "");
         }
 
         @Override
@@ -203,19 +1278,24 @@ public class CachingGeocoder implements Geocoder {
             if (this == o) return true;
             if (!(o instanceof LangCoords)) return false;
             LangCoords that = (LangCoords) o;
+            if (cell != null || that.cell != null) {
+                return Objects.equals(lang, that.lang) &&
+                        Objects.equals(cell, that.cell);
+            }
             return Objects.equals(lang, that.lang) &&
                     Objects.equals(coords, that.coords);
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(lang, coords);
+            return cell != null ? Objects.hash(lang, cell) : Objects.hash(lang, coords);
         }
 
         @Override
         public String toString() {
             return "LangCoords{" +
                     "coords=" + coords +
+                    (cell != null ? ", cell=" + cell : "") +
                     ", lang=" + lang +
                     '}';
         }
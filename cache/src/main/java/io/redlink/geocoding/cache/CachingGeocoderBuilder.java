@@ -16,8 +16,9 @@
 
 package io.redlink.geocoding.cache;
 
-import com.google.common.base.Preconditions;
 import io.redlink.geocoding.Geocoder;
+import java.nio.file.Path;
+import java.util.Locale;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -29,6 +30,7 @@ public class CachingGeocoderBuilder {
     private long cacheExpireTime = CachingGeocoder.DEFAULT_CACHE_EXPIRE_TIME;
     private TimeUnit timeUnit = CachingGeocoder.DEFAULT_TIME_UNIT;
     private Geocoder geocoder = null;
+    private final CacheConfiguration cacheConfiguration = new CacheConfiguration();
 
     /**
      * @deprecated use {@link CachingGeocoder#builder()}
@@ -56,9 +58,239 @@ public class CachingGeocoderBuilder {
         return this;
     }
 
+    /**
+     * Limit the number of entries in all caches.
+     *
+     * @see #setMaximumSize(CacheType, long)
+     */
+    public CachingGeocoderBuilder setMaximumSize(long maximumSize) {
+        for (CacheType cacheType : CacheType.values()) {
+            setMaximumSize(cacheType, maximumSize);
+        }
+        return this;
+    }
+
+    /**
+     * Limit the number of entries in the given cache. When the limit is reached, entries are evicted based
+     * on frequency and recency of use (W-TinyLFU). Can't be combined with {@link #setMaximumWeight(CacheType, long)}.
+     */
+    public CachingGeocoderBuilder setMaximumSize(CacheType cacheType, long maximumSize) {
+        cacheConfiguration.setMaximumSize(cacheType, maximumSize);
+        return this;
+    }
+
+    /**
+     * Limit the total weight of all caches.
+     *
+     * @see #setMaximumWeight(CacheType, long)
+     */
+    public CachingGeocoderBuilder setMaximumWeight(long maximumWeight) {
+        for (CacheType cacheType : CacheType.values()) {
+            setMaximumWeight(cacheType, maximumWeight);
+        }
+        return this;
+    }
+
+    /**
+     * Limit the total weight of the given cache, where the weight of a cached result is the number of places
+     * plus the number of their address-components. Can't be combined with {@link #setMaximumSize(CacheType, long)}.
+     */
+    public CachingGeocoderBuilder setMaximumWeight(CacheType cacheType, long maximumWeight) {
+        cacheConfiguration.setMaximumWeight(cacheType, maximumWeight);
+        return this;
+    }
+
+    /**
+     * Pre-size the given cache, to avoid resizing of the internal hash-table while the cache is warming up.
+     */
+    public CachingGeocoderBuilder setInitialCapacity(CacheType cacheType, int initialCapacity) {
+        cacheConfiguration.setInitialCapacity(cacheType, initialCapacity);
+        return this;
+    }
+
+    /**
+     * Reload entries asynchronously once they are older than the given duration. The reload is triggered by the
+     * next access, which is still served with the old value. Should be shorter than the
+     * {@link #setCacheExpiry(long, TimeUnit) cache expiry}.
+     */
+    public CachingGeocoderBuilder setRefreshAfterWrite(long duration, TimeUnit timeUnit) {
+        cacheConfiguration.setRefreshAfterWrite(duration, timeUnit);
+        return this;
+    }
+
+    /**
+     * Randomly shorten the expiry of each entry by up to the given fraction (e.g. {@code 0.1} for 10%), so entries
+     * loaded at the same time don't all expire at the same time.
+     */
+    public CachingGeocoderBuilder setExpiryJitter(double jitter) {
+        cacheConfiguration.setExpiryJitter(jitter);
+        return this;
+    }
+
+    /**
+     * Keep expired entries for the given duration. Accessing such an entry reloads it, if reloading fails
+     * (e.g. the upstream service is down) the stale entry is returned instead of an error.
+     */
+    public CachingGeocoderBuilder setServeStaleOnFailure(long duration, TimeUnit timeUnit) {
+        cacheConfiguration.setServeStaleOnFailure(duration, timeUnit);
+        return this;
+    }
+
+    /**
+     * Cache empty results (no place found) for the given duration, instead of the regular
+     * {@link #setCacheExpiry(long, TimeUnit) cache expiry}. Empty results are then not stored in the caches, but
+     * as fingerprints in a compact table of limited {@link #setNegativeCacheCapacity(int) capacity}.
+     */
+    public CachingGeocoderBuilder setNegativeCacheExpiry(long duration, TimeUnit timeUnit) {
+        cacheConfiguration.setNegativeExpiry(duration, timeUnit);
+        return this;
+    }
+
+    /**
+     * The max. number of empty results remembered, when full the entries closest to expiry are replaced.
+     * Each entry takes 12 bytes, defaults to {@value CacheConfiguration#DEFAULT_NEGATIVE_CAPACITY}.
+     */
+    public CachingGeocoderBuilder setNegativeCacheCapacity(int capacity) {
+        cacheConfiguration.setNegativeCapacity(capacity);
+        return this;
+    }
+
+    /**
+     * Remember failed requests for the given (short) duration, and re-throw the failure instead of repeating
+     * the request upstream.
+     */
+    public CachingGeocoderBuilder setFailureCacheExpiry(long duration, TimeUnit timeUnit) {
+        cacheConfiguration.setFailureExpiry(duration, timeUnit);
+        return this;
+    }
+
+    /**
+     * Cache reverse-geocoding results per geohash cell instead of the exact coordinates, so nearby requests
+     * (e.g. GPS fixes a few metres apart) share the same entry. A precision of 7 results in cells of ~150m,
+     * 8 in cells of ~38m x 19m. Can't be combined with {@link #setReverseGeocodeGridSize(double)}.
+     */
+    public CachingGeocoderBuilder setReverseGeocodeGeohashPrecision(int precision) {
+        cacheConfiguration.setReverseGeohashPrecision(precision);
+        return this;
+    }
+
+    /**
+     * Cache reverse-geocoding results per grid-cell of the given size (in metres) instead of the exact coordinates.
+     * Can't be combined with {@link #setReverseGeocodeGeohashPrecision(int)}.
+     */
+    public CachingGeocoderBuilder setReverseGeocodeGridSize(double metres) {
+        cacheConfiguration.setReverseGridSize(metres);
+        return this;
+    }
+
+    /**
+     * Only serve a cached reverse-geocoding result if one of its places lies within the given distance (in metres)
+     * of the requested coordinates, otherwise the result is loaded uncached for the requested coordinates and the
+     * cached entry is kept. This needs results carrying the coordinates of the places, for results located at the
+     * requested coordinates (like the ones of Nominatim) it compares the distance to the request that loaded them.
+     */
+    public CachingGeocoderBuilder setReverseGeocodeMaxDistance(double metres) {
+        cacheConfiguration.setReverseMaxDistance(metres);
+        return this;
+    }
+
+    /**
+     * Normalize geocoding queries before using them as cache-key, so different spellings of an address share the
+     * same cache entry. Defaults to a {@link DefaultQueryNormalizer} without abbreviation expansion, use
+     * {@link QueryNormalizer#identity()} to cache the queries as they are.
+     */
+    public CachingGeocoderBuilder setQueryNormalizer(QueryNormalizer queryNormalizer) {
+        cacheConfiguration.setQueryNormalizer(queryNormalizer);
+        return this;
+    }
+
+    /**
+     * The default locale of the wrapped geocoder: requests for this locale share the cache entries with requests
+     * without locale.
+     */
+    public CachingGeocoderBuilder setDefaultLocale(Locale defaultLocale) {
+        cacheConfiguration.setDefaultLocale(defaultLocale);
+        return this;
+    }
+
+    /**
+     * Put the places of geocoding and reverse-geocoding results into the lookup cache, so a subsequent
+     * {@link io.redlink.geocoding.Geocoder#lookup(String, Locale) lookup} of a returned place is served from the cache.
+     * Only enable this if the wrapped geocoder returns the same details for a place in all operations.
+     * Existing entries of the lookup cache are not replaced.
+     */
+    public CachingGeocoderBuilder setPopulateLookupCache(boolean populateLookup) {
+        cacheConfiguration.setPopulateLookup(populateLookup);
+        return this;
+    }
+
+    /**
+     * Only admit a result into the cache when it is requested for the second time, so addresses requested only once
+     * don't evict useful entries. Requested keys are remembered in a compact filter (about one byte per entry of
+     * the {@link #setMaximumSize(CacheType, long) max. size} of the cache). Once admitted, size-bounded caches
+     * additionally compare the frequency of a new entry with the eviction victim.
+     */
+    public CachingGeocoderBuilder setAdmissionFilter(boolean admissionFilter) {
+        cacheConfiguration.setAdmissionFilter(admissionFilter);
+        return this;
+    }
+
+    /**
+     * Warm-start the caches: the snapshot is {@link CachingGeocoder#importSnapshot(Path) imported} when the
+     * {@link CachingGeocoder} is created (if the file exists), and {@link CachingGeocoder#exportSnapshot(Path)
+     * exported} when it is {@link CachingGeocoder#close() closed}.
+     */
+    public CachingGeocoderBuilder setSnapshotFile(Path snapshotFile) {
+        cacheConfiguration.setSnapshotFile(snapshotFile);
+        return this;
+    }
+
+    /**
+     * Pin the results of a snapshot (see {@link CachingGeocoder#exportSnapshot(Path)}): pinned results are served
+     * before the caches and never expire. The file is loaded when the {@link CachingGeocoder} is created,
+     * use {@link CachingGeocoder#reloadPinned()} to pick up a newly published file.
+     */
+    public CachingGeocoderBuilder setPinnedFile(Path pinnedFile) {
+        cacheConfiguration.setPinnedFile(pinnedFile);
+        return this;
+    }
+
+    /**
+     * Keep results in a persistent second-level cache in the given directory, so they survive a restart.
+     * Results are read from disk when they are not in the in-memory caches. The {@link CachingGeocoder} must be
+     * {@link CachingGeocoder#close() closed} to release the files.
+     */
+    public CachingGeocoderBuilder setPersistentCache(Path directory) {
+        cacheConfiguration.setPersistentDirectory(directory);
+        return this;
+    }
+
+    /**
+     * Expiry of the entries in the {@link #setPersistentCache(Path) persistent cache}, defaults to the
+     * {@link #setCacheExpiry(long, TimeUnit) cache expiry}.
+     */
+    public CachingGeocoderBuilder setPersistentCacheExpiry(long duration, TimeUnit timeUnit) {
+        cacheConfiguration.setPersistentExpiry(duration, timeUnit);
+        return this;
+    }
+
+    /**
+     * Keep serialized results in an off-heap tier of the given size (in bytes) between the in-memory caches and the
+     * {@link #setPersistentCache(Path) persistent cache}, so large working sets don't burden the garbage collector.
+     * The oldest entries are evicted when the tier is full. The memory is allocated upfront, make sure
+     * {@code -XX:MaxDirectMemorySize} is large enough.
+     */
+    public CachingGeocoderBuilder setOffHeapCapacity(long bytes) {
+        cacheConfiguration.setOffHeapCapacity(bytes);
+        return this;
+    }
+
     @SuppressWarnings("deprecation")
     public CachingGeocoder create() {
-        Preconditions.checkState(geocoder != null, "geocoder must be set!");
-        return new CachingGeocoder(geocoder, cacheExpireTime, timeUnit);
+        if (geocoder == null) {
+            throw new IllegalStateException("geocoder must be set!");
+        }
+        cacheConfiguration.validate();
+        return new CachingGeocoder(geocoder, cacheExpireTime, timeUnit, new CacheConfiguration(cacheConfiguration));
     }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.Objects;
+
+/**
+ * Exposes the statistics of a {@link CachingGeocoder} to Micrometer: hits, misses, load-time and evictions of the
+ * caches {@code geocoding.geocode}, {@code geocoding.reverse-geocode} and {@code geocoding.lookup} (as
+ * {@code cache.*} meters), the decisions of the admission filter, the size of the negative cache and the memory used
+ * by the off-heap tier.
+ * <p>
+ * The hits and misses (and so the hit ratio) only cover the caches: answers served from the pinned results or the
+ * negative cache are not counted, their sizes are exposed as {@code geocoding.cache.pinned.size} and
+ * {@code geocoding.cache.negative.size}.
+ * <p>
+ * Micrometer is an optional dependency, it must be on the classpath to use this binder.
+ */
+public class CachingGeocoderMetrics implements MeterBinder {
+
+    private final CachingGeocoder geocoder;
+    private final Iterable<Tag> tags;
+
+    public CachingGeocoderMetrics(CachingGeocoder geocoder) {
+        this(geocoder, Tags.empty());
+    }
+
+    public CachingGeocoderMetrics(CachingGeocoder geocoder, Iterable<Tag> tags) {
+        this.geocoder = Objects.requireNonNull(geocoder, "geocoder must not be null");
+        this.tags = tags;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (CacheType cacheType : CacheType.values()) {
+            new CaffeineCacheMetrics<>(geocoder.getCache(cacheType), "geocoding." + CachingGeocoder.cacheName(cacheType), tags)
+                    .bindTo(registry);
+        }
+        for (CacheType cacheType : CacheType.values()) {
+            final AdmissionFilter admissionFilter = geocoder.getAdmissionFilter(cacheType);
+            if (admissionFilter != null) {
+                final Tags cacheTags = Tags.of(tags).and("cache", "geocoding." + CachingGeocoder.cacheName(cacheType));
+                FunctionCounter.builder("geocoding.cache.admissions", admissionFilter, AdmissionFilter::admittedCount)
+                        .tags(cacheTags.and("result", "admitted"))
+                        .description("New entries admitted into the cache by the admission filter")
+                        .register(registry);
+                FunctionCounter.builder("geocoding.cache.admissions", admissionFilter, AdmissionFilter::rejectedCount)
+                        .tags(cacheTags.and("result", "rejected"))
+                        .description("New entries rejected by the admission filter")
+                        .register(registry);
+            }
+        }
+        Gauge.builder("geocoding.cache.negative.size", geocoder, CachingGeocoder::getNegativeCacheSize)
+                .tags(tags)
+                .description("The number of empty results in the negative cache")
+                .register(registry);
+        Gauge.builder("geocoding.cache.pinned.size", geocoder, CachingGeocoder::getPinnedSize)
+                .tags(tags)
+                .description("The number of pinned results")
+                .register(registry);
+        Gauge.builder("geocoding.cache.offheap.used", geocoder, CachingGeocoder::getOffHeapBytesUsed)
+                .tags(tags)
+                .baseUnit(BaseUnits.BYTES)
+                .description("Memory used by the off-heap cache tier")
+                .register(registry);
+        Gauge.builder("geocoding.cache.offheap.capacity", geocoder, CachingGeocoder::getOffHeapCapacity)
+                .tags(tags)
+                .baseUnit(BaseUnits.BYTES)
+                .description("Memory allocated for the off-heap cache tier")
+                .register(registry);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.cache;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The default {@link QueryNormalizer}: applies Unicode NFKC normalization and case folding, replaces punctuation
+ * by whitespace and collapses whitespace. Optionally expands common abbreviations (e.g. {@code "str."} to
+ * {@code "strasse"}), per language of the request.
+ */
+public class DefaultQueryNormalizer implements QueryNormalizer {
+
+    private static final Pattern PUNCTUATION = Pattern.compile("[\\p{P}\\p{S}&&[^#/]]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, Map<String, String>> DEFAULT_ABBREVIATIONS = Map.of(
+            "de", Map.of(
+                    "str", "strasse",
+                    "pl", "platz",
+                    "hbf", "hauptbahnhof"),
+            "en", Map.of(
+                    "st", "street",
+                    "rd", "road",
+                    "ave", "avenue",
+                    "blvd", "boulevard",
+                    "sq", "square")
+    );
+
+    private final Map<String, Map<String, String>> abbreviations;
+
+    /**
+     * Create a normalizer without abbreviation expansion.
+     */
+    public DefaultQueryNormalizer() {
+        this(Map.of());
+    }
+
+    private DefaultQueryNormalizer(Map<String, Map<String, String>> abbreviations) {
+        this.abbreviations = abbreviations;
+    }
+
+    /**
+     * A normalizer expanding the built-in abbreviations for german and english street-names.
+     */
+    public static DefaultQueryNormalizer withDefaultAbbreviations() {
+        DefaultQueryNormalizer normalizer = new DefaultQueryNormalizer();
+        for (Map.Entry<String, Map<String, String>> entry : DEFAULT_ABBREVIATIONS.entrySet()) {
+            normalizer = normalizer.withAbbreviations(entry.getKey(), entry.getValue());
+        }
+        return normalizer;
+    }
+
+    /**
+     * A copy of this normalizer, additionally expanding the given abbreviations for requests in the given language.
+     * Requests without language use the abbreviations of all languages.
+     *
+     * @param language      the language (ISO 639 code, e.g. {@code "de"})
+     * @param abbreviations abbreviation to expansion, e.g. {@code "str." -> "strasse"}
+     */
+    public DefaultQueryNormalizer withAbbreviations(String language, Map<String, String> abbreviations) {
+        final Map<String, Map<String, String>> copy = new HashMap<>(this.abbreviations);
+        final Map<String, String> forLanguage = new HashMap<>(copy.getOrDefault(language, Map.of()));
+        // abbreviations are matched after normalization, so normalize them the same way
+        abbreviations.forEach((abbreviation, expansion) ->
+                forLanguage.put(normalizeText(abbreviation), normalizeText(expansion)));
+        copy.put(language, Map.copyOf(forLanguage));
+        return new DefaultQueryNormalizer(Map.copyOf(copy));
+    }
+
+    @Override
+    public String normalize(String query, Locale lang) {
+        if (query == null) {
+            return null;
+        }
+        final String normalized = normalizeText(query);
+        if (abbreviations.isEmpty()) {
+            return normalized;
+        }
+
+        final StringBuilder result = new StringBuilder(normalized.length() + 16);
+        for (String token : normalized.split(" ")) {
+            if (result.length() > 0) {
+                result.append(' ');
+            }
+            result.append(expand(token, lang));
+        }
+        return result.toString();
+    }
+
+    private String expand(String token, Locale lang) {
+        if (lang != null) {
+            return abbreviations.getOrDefault(lang.getLanguage(), Map.of()).getOrDefault(token, token);
+        }
+        for (Map<String, String> forLanguage : abbreviations.values()) {
+            final String expansion = forLanguage.get(token);
+            if (expansion != null) {
+                return expansion;
+            }
+        }
+        return token;
+    }
+
+    private static String normalizeText(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+        // simple case folding: upper-casing first maps e.g. 'ß' to "SS"
+        normalized = normalized.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+        normalized = PUNCTUATION.matcher(normalized).replaceAll(" ");
+        return WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    @Override
+    public String toString() {
+        return "DefaultQueryNormalizer{abbreviations=" + abbreviations.keySet() + '}';
+    }
+}
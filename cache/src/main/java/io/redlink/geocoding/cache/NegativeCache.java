@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers keys that yielded an empty result, using a fixed-size table of 64-bit fingerprints (12 bytes per entry)
+ * instead of full cache entries.
+ * <p>
+ * The table is split into buckets of {@value #BUCKET_SIZE} slots, when a bucket is full the entry with the earliest
+ * expiry is replaced. Expiry has a resolution of one second.
+ */
+class NegativeCache {
+
+    static final int BUCKET_SIZE = 8;
+    private static final int STRIPES = 64;
+
+    private final long[] fingerprints;
+    /**
+     * Expiry in seconds since {@link #origin}, {@code 0} for empty slots.
+     */
+    private final int[] expiries;
+    private final int buckets;
+    private final Object[] locks;
+
+    private final int ttlSeconds;
+    private final LongSupplier ticker;
+    private final long origin;
+
+    NegativeCache(int capacity, long ttlNanos) {
+        this(capacity, ttlNanos, System::nanoTime);
+    }
+
+    NegativeCache(int capacity, long ttlNanos, LongSupplier ticker) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.buckets = (capacity + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        this.fingerprints = new long[buckets * BUCKET_SIZE];
+        this.expiries = new int[buckets * BUCKET_SIZE];
+        this.locks = new Object[Math.min(STRIPES, buckets)];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        this.ttlSeconds = (int) Math.min(Integer.MAX_VALUE / 2, Math.max(1, (ttlNanos + 999_999_999L) / 1_000_000_000L));
+        this.ticker = ticker;
+        this.origin = ticker.getAsLong();
+    }
+
+    boolean contains(long fingerprint) {
+        final int bucket = bucket(fingerprint);
+        final int now = now();
+        synchronized (lock(bucket)) {
+            for (int i = bucket * BUCKET_SIZE; i < (bucket + 1) * BUCKET_SIZE; i++) {
+                if (fingerprints[i] == fingerprint && expiries[i] > now) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    void put(long fingerprint) {
+        final int bucket = bucket(fingerprint);
+        final int now = now();
+        synchronized (lock(bucket)) {
+            int slot = -1;
+            for (int i = bucket * BUCKET_SIZE; i < (bucket + 1) * BUCKET_SIZE; i++) {
+                if (fingerprints[i] == fingerprint) {
+                    slot = i;
+                    break;
+                } else if (slot < 0 || expiries[i] < expiries[slot]) {
+                    // free or expired slots have the lowest expiry
+                    slot = i;
+                }
+            }
+            fingerprints[slot] = fingerprint;
+            expiries[slot] = now + ttlSeconds;
+        }
+    }
+
+    void remove(long fingerprint) {
+        final int bucket = bucket(fingerprint);
+        synchronized (lock(bucket)) {
+            for (int i = bucket * BUCKET_SIZE; i < (bucket + 1) * BUCKET_SIZE; i++) {
+                if (fingerprints[i] == fingerprint) {
+                    fingerprints[i] = 0;
+                    expiries[i] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * The number of entries that are not yet expired.
+     */
+    int size() {
+        final int now = now();
+        int size = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            synchronized (lock(bucket)) {
+                for (int i = bucket * BUCKET_SIZE; i < (bucket + 1) * BUCKET_SIZE; i++) {
+                    if (expiries[i] > now) {
+                        size++;
+                    }
+                }
+            }
+        }
+        return size;
+    }
+
+    int capacity() {
+        return fingerprints.length;
+    }
+
+    private int bucket(long fingerprint) {
+        return (int) Long.remainderUnsigned(fingerprint, buckets);
+    }
+
+    private Object lock(int bucket) {
+        return locks[bucket % locks.length];
+    }
+
+    private int now() {
+        return (int) ((ticker.getAsLong() - origin) / 1_000_000_000L) + 1;
+    }
+
+    /**
+     * 64-bit fingerprint of the given parts (FNV-1a, finalized with the murmur3 mix).
+     */
+    static long fingerprint(Object... parts) {
+        long h = 0xcbf29ce484222325L;
+        for (Object part : parts) {
+            final String s = String.valueOf(part);
+            for (int i = 0; i < s.length(); i++) {
+                h = (h ^ s.charAt(i)) * 0x100000001b3L;
+            }
+            // separate the parts, so ("ab", "c") and ("a", "bc") differ
+            h = (h ^ 0x1f) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps serialized results outside of the java heap, in direct {@link ByteBuffer}s.
+ * <p>
+ * The store is split into segments, each with its own lock. A segment writes records into a ring-buffer and evicts
+ * the oldest records (FIFO) when it runs out of space. Records are found using an open-addressing index of primitive
+ * arrays (12 bytes per slot, one slot per {@value #BYTES_PER_SLOT} bytes of capacity), so a lookup only allocates the
+ * deserialized result on-heap.
+ * <pre>
+ * record := length:int fingerprint:long expiresAt:long key:string value
+ * </pre>
+ */
+class OffHeapStore<V> implements CacheTier<V> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OffHeapStore.class);
+
+    static final int BYTES_PER_SLOT = 256;
+    private static final int MIN_SEGMENTS = 16;
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+    private static final int RECORD_HEADER = 4 + 8 + 8;
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final PlaceCodec<V> codec;
+    private final LongSupplier ticker;
+
+    OffHeapStore(long capacityBytes, long ttl, TimeUnit timeUnit, PlaceCodec<V> codec) {
+        this(capacityBytes, timeUnit.toNanos(ttl), codec, System::nanoTime);
+    }
+
+    OffHeapStore(long capacityBytes, long ttlNanos, PlaceCodec<V> codec, LongSupplier ticker) {
+        if (capacityBytes <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int segmentCount = MIN_SEGMENTS;
+        while (capacityBytes / segmentCount > MAX_SEGMENT_SIZE) {
+            segmentCount *= 2;
+        }
+        this.segments = new Segment[segmentCount];
+        final int segmentSize = (int) Math.max(1024, capacityBytes / segmentCount);
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+        this.ttlNanos = ttlNanos;
+        this.codec = codec;
+        this.ticker = ticker;
+    }
+
+    @Override
+    public V get(String key) {
+        final long fingerprint = NegativeCache.fingerprint(key);
+        final byte[] record = segment(fingerprint).read(fingerprint, ticker.getAsLong());
+        if (record == null) {
+            return null;
+        }
+        try {
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(record, RECORD_HEADER, record.length));
+            if (!key.equals(PlaceCodec.readString(in))) {
+                // fingerprint collision
+                return null;
+            }
+            return codec.read(in);
+        } catch (IOException e) {
+            LOG.warn("Could not read {} from off-heap store: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void put(String key, V value) {
+        final long fingerprint = NegativeCache.fingerprint(key);
+        final byte[] record;
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            final DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(0);
+            out.writeLong(fingerprint);
+            out.writeLong(ticker.getAsLong() + ttlNanos);
+            PlaceCodec.writeString(out, key);
+            codec.write(out, value);
+            out.flush();
+            record = bytes.toByteArray();
+        } catch (IOException e) {
+            LOG.warn("Could not encode {}: {}", key, e.getMessage());
+            return;
+        }
+        ByteBuffer.wrap(record).putInt(record.length);
+        if (!segment(fingerprint).write(fingerprint, record)) {
+            LOG.debug("Not storing {}, the record exceeds the segment size", key);
+        }
+    }
+
+    /**
+     * Bytes occupied by records (including overwritten records not yet evicted).
+     */
+    long usedBytes() {
+        long used = 0;
+        for (Segment segment : segments) {
+            used += segment.usedBytes();
+        }
+        return used;
+    }
+
+    long capacityBytes() {
+        long capacity = 0;
+        for (Segment segment : segments) {
+            capacity += segment.data.capacity();
+        }
+        return capacity;
+    }
+
+    /**
+     * The number of indexed records, including expired records not yet evicted.
+     */
+    long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    long evictionCount() {
+        long evictions = 0;
+        for (Segment segment : segments) {
+            evictions += segment.evictions();
+        }
+        return evictions;
+    }
+
+    /**
+     * Direct buffers can't be freed explicitly, all records are dropped and the memory is released
+     * once the store is garbage collected.
+     */
+    @Override
+    public void close() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment segment(long fingerprint) {
+        return segments[(int) (fingerprint >>> 32) & (segments.length - 1)];
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * A ring-buffer of records, where records are stored in {@code [head, tail)} or, if the buffer has wrapped,
+     * in {@code [head, wrapMark)} and {@code [0, tail)}.
+     */
+    private static final class Segment {
+
+        private static final int EMPTY = -1;
+
+        private final ByteBuffer data;
+        private final long[] fingerprints;
+        private final int[] positions;
+        private final int mask;
+        private final int maxEntries;
+
+        private int head = 0;
+        private int tail = 0;
+        private int wrapMark = -1;
+        private int records = 0;
+        private int entries = 0;
+        private long usedBytes = 0;
+        private long evictions = 0;
+
+        Segment(int capacity) {
+            this.data = ByteBuffer.allocateDirect(capacity);
+            final int slots = nextPowerOfTwo(Math.max(16, capacity / BYTES_PER_SLOT));
+            this.fingerprints = new long[slots];
+            this.positions = new int[slots];
+            Arrays.fill(positions, EMPTY);
+            this.mask = slots - 1;
+            this.maxEntries = slots / 4 * 3;
+        }
+
+        synchronized byte[] read(long fingerprint, long now) {
+            final int slot = find(fingerprint);
+            if (slot < 0) {
+                return null;
+            }
+            final int position = positions[slot];
+            final ByteBuffer view = data.duplicate();
+            view.position(position);
+            final int length = view.getInt();
+            view.getLong();
+            if (view.getLong() - now <= 0) {
+                return null;
+            }
+            final byte[] record = new byte[length];
+            view.position(position);
+            view.get(record);
+            return record;
+        }
+
+        synchronized boolean write(long fingerprint, byte[] record) {
+            if (record.length > data.capacity()) {
+                return false;
+            }
+            ensureSpace(record.length);
+            while (entries >= maxEntries && records > 0) {
+                evictHead();
+            }
+            final int position = tail;
+            final ByteBuffer view = data.duplicate();
+            view.position(position);
+            view.put(record);
+            tail += record.length;
+            records++;
+            usedBytes += record.length;
+
+            final int slot = find(fingerprint);
+            if (slot >= 0) {
+                positions[slot] = position;
+            } else {
+                int i = home(fingerprint);
+                while (positions[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                fingerprints[i] = fingerprint;
+                positions[i] = position;
+                entries++;
+            }
+            return true;
+        }
+
+        synchronized long usedBytes() {
+            return usedBytes;
+        }
+
+        synchronized int size() {
+            return entries;
+        }
+
+        synchronized long evictions() {
+            return evictions;
+        }
+
+        synchronized void clear() {
+            Arrays.fill(positions, EMPTY);
+            head = tail = records = entries = 0;
+            wrapMark = -1;
+            usedBytes = 0;
+        }
+
+        private void ensureSpace(int length) {
+            while (true) {
+                if (records == 0) {
+                    head = tail = 0;
+                    wrapMark = -1;
+                }
+                if (wrapMark < 0) {
+                    if (data.capacity() - tail >= length) {
+                        return;
+                    }
+                    // continue at the start of the buffer, in front of the oldest record
+                    wrapMark = tail;
+                    tail = 0;
+                } else if (head - tail >= length) {
+                    return;
+                } else {
+                    evictHead();
+                }
+            }
+        }
+
+        private void evictHead() {
+            final int length = data.getInt(head);
+            final long fingerprint = data.getLong(head + 4);
+            final int slot = find(fingerprint);
+            // the key might have been overwritten by a newer record
+            if (slot >= 0 && positions[slot] == head) {
+                removeAt(slot);
+                evictions++;
+            }
+            head += length;
+            records--;
+            usedBytes -= length;
+            if (head == wrapMark) {
+                head = 0;
+                wrapMark = -1;
+            }
+        }
+
+        private int home(long fingerprint) {
+            return (int) (fingerprint ^ (fingerprint >>> 29)) & mask;
+        }
+
+        private int find(long fingerprint) {
+            int i = home(fingerprint);
+            while (positions[i] != EMPTY) {
+                if (fingerprints[i] == fingerprint) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Remove the slot, shifting back following entries of the same probe sequence (no tombstones).
+         */
+        private void removeAt(int slot) {
+            int i = slot;
+            int j = slot;
+            while (true) {
+                j = (j + 1) & mask;
+                if (positions[j] == EMPTY) {
+                    break;
+                }
+                final int k = home(fingerprints[j]);
+                final boolean stays = i <= j ? (i < k && k <= j) : (i < k || k <= j);
+                if (!stays) {
+                    fingerprints[i] = fingerprints[j];
+                    positions[i] = positions[j];
+                    i = j;
+                }
+            }
+            positions[i] = EMPTY;
+            entries--;
+        }
+    }
+}
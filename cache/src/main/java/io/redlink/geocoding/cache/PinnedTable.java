@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+/**
+ * An immutable table of pinned results, checked before the caches. Pinned entries don't expire and are never
+ * evicted, the table is replaced as a whole when a new set is published.
+ * <p>
+ * Open addressing with linear probing over key-fingerprints, filled to at most 50%. The table is never modified
+ * after construction, so reads need no locking.
+ */
+final class PinnedTable {
+
+    static final PinnedTable EMPTY = new Builder(0).build();
+
+    private final long[] fingerprints;
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final int size;
+
+    private PinnedTable(long[] fingerprints, String[] keys, Object[] values, int size) {
+        this.fingerprints = fingerprints;
+        this.keys = keys;
+        this.values = values;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * @return the pinned value, or {@code null} if the key is not pinned
+     */
+    Object get(CacheType cacheType, String key) {
+        if (size == 0) {
+            return null;
+        }
+        final long fingerprint = NegativeCache.fingerprint(cacheType, key);
+        for (int i = (int) fingerprint & mask; keys[i] != null; i = (i + 1) & mask) {
+            if (fingerprints[i] == fingerprint && keys[i].equals(key)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    static final class Builder {
+
+        private long[] fingerprints;
+        private String[] keys;
+        private Object[] values;
+        private int size = 0;
+
+        Builder(int expectedSize) {
+            allocate(Math.max(2, Integer.highestOneBit(Math.max(1, expectedSize)) << 2));
+        }
+
+        /**
+         * Add an entry, a later entry for the same key replaces the earlier one.
+         */
+        Builder put(CacheType cacheType, String key, Object value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            if (insert(NegativeCache.fingerprint(cacheType, key), key, value)) {
+                size++;
+            }
+            return this;
+        }
+
+        PinnedTable build() {
+            final PinnedTable table = new PinnedTable(fingerprints, keys, values, size);
+            // the builder must not modify the table afterwards
+            fingerprints = null;
+            keys = null;
+            values = null;
+            return table;
+        }
+
+        private boolean insert(long fingerprint, String key, Object value) {
+            final int mask = keys.length - 1;
+            int i = (int) fingerprint & mask;
+            for (; keys[i] != null; i = (i + 1) & mask) {
+                if (fingerprints[i] == fingerprint && keys[i].equals(key)) {
+                    values[i] = value;
+                    return false;
+                }
+            }
+            fingerprints[i] = fingerprint;
+            keys[i] = key;
+            values[i] = value;
+            return true;
+        }
+
+        private void resize() {
+            final long[] oldFingerprints = fingerprints;
+            final String[] oldKeys = keys;
+            final Object[] oldValues = values;
+            allocate(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    insert(oldFingerprints[i], oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            fingerprints = new long[capacity];
+            keys = new String[capacity];
+            values = new Object[capacity];
+        }
+    }
+}
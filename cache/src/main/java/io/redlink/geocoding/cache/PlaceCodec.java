@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import io.redlink.geocoding.AddressComponent;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Compact binary encoding of cached results, used by the {@link PlaceStore}.
+ */
+interface PlaceCodec<V> {
+
+    PlaceCodec<List<Place>> PLACES = new PlaceCodec<>() {
+        @Override
+        public void write(DataOutput out, List<Place> places) throws IOException {
+            out.writeInt(places.size());
+            for (Place place : places) {
+                writePlace(out, place);
+            }
+        }
+
+        @Override
+        public List<Place> read(DataInput in) throws IOException {
+            final int size = in.readInt();
+            final List<Place> places = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                places.add(readPlace(in));
+            }
+            return List.copyOf(places);
+        }
+    };
+
+    PlaceCodec<Optional<Place>> OPTIONAL_PLACE = new PlaceCodec<>() {
+        @Override
+        public void write(DataOutput out, Optional<Place> place) throws IOException {
+            out.writeBoolean(place.isPresent());
+            if (place.isPresent()) {
+                writePlace(out, place.get());
+            }
+        }
+
+        @Override
+        public Optional<Place> read(DataInput in) throws IOException {
+            return in.readBoolean() ? Optional.of(readPlace(in)) : Optional.empty();
+        }
+    };
+
+    void write(DataOutput out, V value) throws IOException;
+
+    V read(DataInput in) throws IOException;
+
+    static void writePlace(DataOutput out, Place place) throws IOException {
+        writeString(out, place.getPlaceId());
+        writeString(out, place.getAddress());
+        final LatLon latLon = place.getLatLon();
+        out.writeBoolean(latLon != null);
+        if (latLon != null) {
+            out.writeDouble(latLon.lat());
+            out.writeDouble(latLon.lon());
+        }
+        final Collection<AddressComponent> components = place.getComponents();
+        out.writeInt(components.size());
+        for (AddressComponent component : components) {
+            // the name is stable, the ordinal might change
+            writeString(out, component.getType().name());
+            writeString(out, component.getValue());
+        }
+        final Map<String, String> metadata = place.getMetadata();
+        out.writeInt(metadata.size());
+        for (Map.Entry<String, String> entry : metadata.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    static Place readPlace(DataInput in) throws IOException {
+        final String placeId = readString(in);
+        final String address = readString(in);
+        final LatLon latLon = in.readBoolean() ? LatLon.create(in.readDouble(), in.readDouble()) : null;
+        final int componentCount = in.readInt();
+        final Set<AddressComponent> components = new HashSet<>();
+        for (int i = 0; i < componentCount; i++) {
+            final String type = readString(in);
+            final String value = readString(in);
+            try {
+                components.add(AddressComponent.create(AddressComponent.Type.valueOf(type), value));
+            } catch (IllegalArgumentException e) {
+                // unknown type, written by a different version
+            }
+        }
+        final int metadataCount = in.readInt();
+        final Map<String, String> metadata = new HashMap<>();
+        for (int i = 0; i < metadataCount; i++) {
+            metadata.put(readString(in), readString(in));
+        }
+        return Place.create(placeId, address, latLon, Set.copyOf(components), Map.copyOf(metadata));
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
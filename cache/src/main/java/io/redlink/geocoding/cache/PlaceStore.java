@@ -0,0 +1,371 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent key-value store for cached results, used as second level behind the in-memory caches.
+ * <p>
+ * Records are appended to a log-file, each record is protected by a CRC32 checksum. Only an index
+ * (key-fingerprint to position) is kept in memory, the values are read lazily. On startup the log is scanned to
+ * rebuild the index, a corrupt tail (e.g. after a crash) is truncated. When more than half of the log is
+ * overwritten or expired records, the log is compacted.
+ * <pre>
+ * file   := MAGIC VERSION record*
+ * record := length:int crc32:int payload
+ * payload := expiresAt:long key:string value
+ * </pre>
+ */
+class PlaceStore<V> implements CacheTier<V> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PlaceStore.class);
+
+    private static final int MAGIC = 0x47454f43;
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER = 8;
+    private static final int RECORD_HEADER = 8;
+    private static final int LENGTH_BITS = 24;
+    private static final int MAX_RECORD_SIZE = (1 << LENGTH_BITS) - 1;
+    static final long MIN_COMPACTION_SIZE = 1 << 20;
+
+    private final Path file;
+    private final long ttlMillis;
+    private final PlaceCodec<V> codec;
+    private final LongSupplier clock;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * fingerprint of the key to position and length of the record.
+     */
+    private final Map<Long, Long> index = new ConcurrentHashMap<>();
+    private FileChannel channel;
+    private long writePosition;
+    private long liveBytes;
+    private long deadBytes;
+
+    PlaceStore(Path file, long ttl, TimeUnit timeUnit, PlaceCodec<V> codec) throws IOException {
+        this(file, timeUnit.toMillis(ttl), codec, System::currentTimeMillis);
+    }
+
+    PlaceStore(Path file, long ttlMillis, PlaceCodec<V> codec, LongSupplier clock) throws IOException {
+        this.file = file;
+        this.ttlMillis = ttlMillis;
+        this.codec = codec;
+        this.clock = clock;
+
+        final Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        channel = open(file);
+        recover();
+        if (shouldCompact()) {
+            compact();
+        }
+    }
+
+    @Override
+    public V get(String key) {
+        final long fingerprint = NegativeCache.fingerprint(key);
+        lock.readLock().lock();
+        try {
+            final Long entry = index.get(fingerprint);
+            if (entry == null) {
+                return null;
+            }
+            final byte[] payload = readPayload(position(entry), length(entry), channel.size());
+            if (payload == null) {
+                LOG.warn("Corrupt record for {} in {}", key, file);
+                return null;
+            }
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            final long expiresAt = in.readLong();
+            if (expiresAt <= clock.getAsLong()) {
+                return null;
+            } else if (!key.equals(PlaceCodec.readString(in))) {
+                // fingerprint collision
+                return null;
+            }
+            return codec.read(in);
+        } catch (IOException e) {
+            LOG.warn("Could not read {} from {}: {}", key, file, e.getMessage());
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(String key, V value) {
+        final byte[] record;
+        try {
+            record = toRecord(key, value);
+        } catch (IOException e) {
+            LOG.warn("Could not encode {}: {}", key, e.getMessage());
+            return;
+        }
+        if (record.length > MAX_RECORD_SIZE) {
+            LOG.warn("Not storing {}, the record exceeds the max. size of {} bytes", key, MAX_RECORD_SIZE);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            writeFully(channel, ByteBuffer.wrap(record), writePosition);
+            final Long previous = index.put(NegativeCache.fingerprint(key), entry(writePosition, record.length));
+            if (previous != null) {
+                liveBytes -= length(previous);
+                deadBytes += length(previous);
+            }
+            liveBytes += record.length;
+            writePosition += record.length;
+            if (shouldCompact()) {
+                compact();
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not store {} in {}: {}", key, file, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The number of records in the index, including records that expired since the last compaction.
+     */
+    int size() {
+        return index.size();
+    }
+
+    long fileSize() {
+        lock.readLock().lock();
+        try {
+            return writePosition;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrite the log with the current, non-expired records only.
+     */
+    void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            final long now = clock.getAsLong();
+            final Path compactFile = file.resolveSibling(file.getFileName() + ".compact");
+            final Map<Long, Long> compacted = new HashMap<>();
+            long position = FILE_HEADER;
+            try (FileChannel out = FileChannel.open(compactFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeHeader(out);
+                for (Map.Entry<Long, Long> entry : index.entrySet()) {
+                    final int length = length(entry.getValue());
+                    final ByteBuffer record = ByteBuffer.allocate(length);
+                    readFully(channel, record, position(entry.getValue()));
+                    if (record.getLong(RECORD_HEADER) > now) {
+                        record.rewind();
+                        writeFully(out, record, position);
+                        compacted.put(entry.getKey(), entry(position, length));
+                        position += length;
+                    }
+                }
+                out.force(true);
+            }
+            channel.close();
+            Files.move(compactFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = open(file);
+
+            LOG.debug("Compacted {} from {} to {} bytes", file, writePosition, position);
+            index.clear();
+            index.putAll(compacted);
+            writePosition = position;
+            liveBytes = position - FILE_HEADER;
+            deadBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel.isOpen()) {
+                channel.force(true);
+                channel.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean shouldCompact() {
+        return deadBytes > MIN_COMPACTION_SIZE && deadBytes > liveBytes;
+    }
+
+    /**
+     * Rebuild the index from the log, truncating a corrupt tail.
+     */
+    private void recover() throws IOException {
+        final long size = channel.size();
+        if (!hasValidHeader(size)) {
+            if (size > 0) {
+                LOG.warn("{} is not a valid geocoding cache, discarding {} bytes", file, size);
+            }
+            channel.truncate(0);
+            writeHeader(channel);
+            writePosition = FILE_HEADER;
+            return;
+        }
+
+        final long now = clock.getAsLong();
+        long position = FILE_HEADER;
+        while (position < size) {
+            final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+            if (position + RECORD_HEADER > size || !readFully(channel, header, position)) {
+                break;
+            }
+            final int length = RECORD_HEADER + header.getInt(0);
+            final byte[] payload = readPayload(position, length, size);
+            if (payload == null) {
+                break;
+            }
+            final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            final long expiresAt = in.readLong();
+            final String key = PlaceCodec.readString(in);
+            if (expiresAt > now) {
+                final Long previous = index.put(NegativeCache.fingerprint(key), entry(position, length));
+                if (previous != null) {
+                    liveBytes -= length(previous);
+                    deadBytes += length(previous);
+                }
+                liveBytes += length;
+            } else {
+                deadBytes += length;
+            }
+            position += length;
+        }
+        if (position < size) {
+            LOG.warn("Truncating corrupt tail of {} ({} bytes)", file, size - position);
+            channel.truncate(position);
+        }
+        writePosition = position;
+        LOG.debug("Opened {} with {} records", file, index.size());
+    }
+
+    /**
+     * @return the payload of the record, or {@code null} if the record is incomplete or corrupt
+     */
+    private byte[] readPayload(long position, int length, long size) throws IOException {
+        if (length <= RECORD_HEADER || length > MAX_RECORD_SIZE || position + length > size) {
+            return null;
+        }
+        final ByteBuffer record = ByteBuffer.allocate(length);
+        if (!readFully(channel, record, position) || record.getInt(0) != length - RECORD_HEADER) {
+            return null;
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER, length - RECORD_HEADER);
+        if ((int) crc.getValue() != record.getInt(4)) {
+            return null;
+        }
+        final byte[] payload = new byte[length - RECORD_HEADER];
+        System.arraycopy(record.array(), RECORD_HEADER, payload, 0, payload.length);
+        return payload;
+    }
+
+    private byte[] toRecord(String key, V value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeLong(clock.getAsLong() + ttlMillis);
+        PlaceCodec.writeString(out, key);
+        codec.write(out, value);
+        out.flush();
+
+        final byte[] record = bytes.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(record, RECORD_HEADER, record.length - RECORD_HEADER);
+        ByteBuffer.wrap(record)
+                .putInt(record.length - RECORD_HEADER)
+                .putInt((int) crc.getValue());
+        return record;
+    }
+
+    private boolean hasValidHeader(long size) throws IOException {
+        if (size < FILE_HEADER) {
+            return false;
+        }
+        final ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+        return readFully(channel, header, 0) && header.getInt(0) == MAGIC && header.getInt(4) == VERSION;
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        writeFully(channel, ByteBuffer.allocate(FILE_HEADER).putInt(MAGIC).putInt(VERSION).flip(), 0);
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException();
+                }
+            }
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        final long start = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, start + buffer.position());
+        }
+    }
+
+    private static long entry(long position, int length) {
+        return position << LENGTH_BITS | length;
+    }
+
+    private static long position(long entry) {
+        return entry >>> LENGTH_BITS;
+    }
+
+    private static int length(long entry) {
+        return (int) (entry & MAX_RECORD_SIZE);
+    }
+
+    @Override
+    public String toString() {
+        return "PlaceStore{file=" + file + ", records=" + index.size() + '}';
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.cache;
+
+import java.util.Locale;
+
+/**
+ * Normalizes geocoding queries to the key used for caching, so different spellings of the same address
+ * share the same cache entry. The original query is still sent to the wrapped {@link io.redlink.geocoding.Geocoder}.
+ *
+ * @see DefaultQueryNormalizer
+ */
+@FunctionalInterface
+public interface QueryNormalizer {
+
+    /**
+     * @param query the query as provided by the user
+     * @param lang  the language of the request, might be {@code null}
+     * @return the cache-key for the query
+     */
+    String normalize(String query, Locale lang);
+
+    /**
+     * Cache queries as they are.
+     */
+    static QueryNormalizer identity() {
+        return (query, lang) -> query;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import io.redlink.geocoding.LatLon;
+import java.util.function.Function;
+
+/**
+ * Snaps coordinates to a cell, so nearby reverse-geocoding requests share the same cache entry.
+ */
+final class SpatialCell {
+
+    static final int MAX_GEOHASH_PRECISION = 12;
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    private static final double METRES_PER_DEGREE = 111_320d;
+    private static final double EARTH_RADIUS = 6_371_008.8d;
+
+    private SpatialCell() {
+    }
+
+    /**
+     * Cells of a geohash with the given number of characters, e.g. 7 characters are ~153m x 153m at the equator.
+     */
+    static Function<LatLon, String> geohash(int precision) {
+        return coords -> geohash(coords, precision);
+    }
+
+    /**
+     * Cells of (roughly) the given size in metres.
+     */
+    static Function<LatLon, String> grid(double metres) {
+        return coords -> grid(coords, metres);
+    }
+
+    static String geohash(LatLon coords, int precision) {
+        double minLat = -90, maxLat = 90, minLon = -180, maxLon = 180;
+        final StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0, index = 0;
+        while (hash.length() < precision) {
+            if (evenBit) {
+                final double mid = (minLon + maxLon) / 2;
+                if (coords.lon() >= mid) {
+                    index = index * 2 + 1;
+                    minLon = mid;
+                } else {
+                    index = index * 2;
+                    maxLon = mid;
+                }
+            } else {
+                final double mid = (minLat + maxLat) / 2;
+                if (coords.lat() >= mid) {
+                    index = index * 2 + 1;
+                    minLat = mid;
+                } else {
+                    index = index * 2;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32[index]);
+                bit = 0;
+                index = 0;
+            }
+        }
+        return hash.toString();
+    }
+
+    static String grid(LatLon coords, double metres) {
+        final double latStep = metres / METRES_PER_DEGREE;
+        final long row = (long) Math.floor(coords.lat() / latStep);
+        // the width of a degree longitude shrinks towards the poles, use the same width for the whole row
+        final double rowLat = Math.min(89.9, Math.abs((row + 0.5) * latStep));
+        final double lonStep = metres / (METRES_PER_DEGREE * Math.cos(Math.toRadians(rowLat)));
+        final long col = (long) Math.floor(coords.lon() / lonStep);
+        return row + ":" + col;
+    }
+
+    /**
+     * Great-circle distance in metres (haversine formula).
+     */
+    static double distance(LatLon a, LatLon b) {
+        final double dLat = Math.toRadians(b.lat() - a.lat());
+        final double dLon = Math.toRadians(b.lon() - a.lon());
+        final double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(a.lat())) * Math.cos(Math.toRadians(b.lat()))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.cache;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Chains {@link CacheTier}s, fastest first: values are read from the first tier that has them and promoted into
+ * the faster tiers, writes go to all tiers.
+ */
+final class TieredStore<V> implements CacheTier<V> {
+
+    private final List<CacheTier<V>> tiers;
+
+    private TieredStore(List<CacheTier<V>> tiers) {
+        this.tiers = List.copyOf(tiers);
+    }
+
+    /**
+     * @return the tiers combined, or {@code null} if there are none
+     */
+    static <V> CacheTier<V> of(List<CacheTier<V>> tiers) {
+        switch (tiers.size()) {
+            case 0:
+                return null;
+            case 1:
+                return tiers.get(0);
+            default:
+                return new TieredStore<>(tiers);
+        }
+    }
+
+    @Override
+    public V get(String key) {
+        for (int i = 0; i < tiers.size(); i++) {
+            final V value = tiers.get(i).get(key);
+            if (value != null) {
+                for (int j = 0; j < i; j++) {
+                    tiers.get(j).put(key, value);
+                }
+                return value;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void put(String key, V value) {
+        for (CacheTier<V> tier : tiers) {
+            tier.put(key, value);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (CacheTier<V> tier : tiers) {
+            try {
+                tier.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
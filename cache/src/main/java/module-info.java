@@ -2,7 +2,8 @@ module io.redlink.geocoding.cache {
     requires transitive io.redlink.geocoding.api;
     requires org.slf4j;
 
-    requires com.google.common;
+    requires com.github.benmanes.caffeine;
+    requires static micrometer.core;
 
     exports io.redlink.geocoding.cache;
 }
@@ -16,21 +16,39 @@
 
 package io.redlink.geocoding.cache;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.redlink.geocoding.AddressComponent;
 import io.redlink.geocoding.Geocoder;
 import io.redlink.geocoding.LatLon;
 import io.redlink.geocoding.Place;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.anyString;
 
 /**
@@ -239,6 +257,830 @@ class CacheGeocoderTest {
         Mockito.verify(delegate, Mockito.never()).lookup(Mockito.anyString());
     }
 
+    @Test
+    void testAsyncCaching() throws Exception {
+        final String placeId = UUID.randomUUID().toString();
+        final Place place = Place.create(placeId, "place", LatLon.create(1, 1));
+
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.lookupAsync(placeId, (Locale) null))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(place)));
+        Mockito.when(delegate.geocodeAsync("place", (Locale) null))
+                .thenReturn(CompletableFuture.completedFuture(List.of(place)));
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate).create();
+        assertThat(cache.lookupAsync(placeId).get(1, TimeUnit.SECONDS))
+                .as("async lookup")
+                .contains(place);
+        assertThat(cache.lookupAsync(placeId).get(1, TimeUnit.SECONDS))
+                .as("async lookup again")
+                .contains(place);
+        assertThat(cache.lookup(placeId))
+                .as("sync lookup served from cache")
+                .contains(place);
+        assertThat(cache.geocodeAsync("place").get(1, TimeUnit.SECONDS))
+                .as("async geocode")
+                .containsExactly(place);
+
+        Mockito.verify(delegate, Mockito.times(1)).lookupAsync(placeId, (Locale) null);
+        Mockito.verify(delegate, Mockito.never()).lookup(Mockito.anyString(), Mockito.any(Locale.class));
+        Mockito.verify(delegate, Mockito.times(1)).geocodeAsync("place", (Locale) null);
+    }
+
+    @Test
+    void testBatchCaching() throws Exception {
+        final Place place_1 = Place.create("P1", "place1", LatLon.create(1, 1)),
+                place_2 = Place.create("P2", "place2", LatLon.create(2, 2));
+
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.lookup("P1", (Locale) null)).thenReturn(Optional.of(place_1));
+        Mockito.when(delegate.lookupAll(Mockito.anyCollection(), Mockito.isNull()))
+                .thenReturn(Map.of("P2", place_2));
+        Mockito.when(delegate.geocodeAll(Mockito.anyCollection(), Mockito.isNull()))
+                .thenReturn(Map.of("place1", List.of(place_1)));
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate).create();
+        assertThat(cache.lookup("P1"))
+                .as("lookup place 1")
+                .contains(place_1);
+        assertThat(cache.lookupAll(List.of("P1", "P2", "P3", "P2")))
+                .as("batch lookup")
+                .containsExactly(Map.entry("P1", place_1), Map.entry("P2", place_2));
+        assertThat(cache.lookupAll(List.of("P2", "P3")))
+                .as("batch lookup again")
+                .containsExactly(Map.entry("P2", place_2));
+        assertThat(cache.geocodeAll(List.of("place1", "place2")))
+                .as("batch geocode")
+                .containsExactly(Map.entry("place1", List.of(place_1)), Map.entry("place2", List.of()));
+
+        Mockito.verify(delegate, Mockito.times(1)).lookupAll(List.of("P2", "P3"), null);
+        Mockito.verify(delegate, Mockito.times(1)).lookupAll(Mockito.anyCollection(), Mockito.isNull());
+        Mockito.verify(delegate, Mockito.times(1)).geocodeAll(List.of("place1", "place2"), null);
+    }
+
+    @Test
+    void testBoundedCache() throws Exception {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode(Mockito.anyString(), Mockito.isNull(Locale.class)))
+                .thenAnswer(inv -> List.of(Place.create(inv.getArgument(0), inv.getArgument(0), mockLatLon)));
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setMaximumSize(CacheType.GEOCODE, 10)
+                .create();
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 100; i++) {
+                assertThat(cache.geocode("address " + i))
+                        .as("geocode address %d", i)
+                        .singleElement()
+                        .hasFieldOrPropertyWithValue("placeId", "address " + i);
+            }
+        }
+        Mockito.verify(delegate, Mockito.atLeast(150)).geocode(Mockito.anyString(), Mockito.isNull(Locale.class));
+    }
+
+    @Test
+    void testWeigh() {
+        final Place withComponents = Place.create("P1", "place1", mockLatLon,
+                Set.of(AddressComponent.create(AddressComponent.Type.city, "Salzburg"),
+                        AddressComponent.create(AddressComponent.Type.countryCode, "at")),
+                Map.of());
+        assertThat(CachingGeocoder.weigh(List.of()))
+                .as("weight of empty result")
+                .isEqualTo(1);
+        assertThat(CachingGeocoder.weigh(List.of(withComponents, mockPlace)))
+                .as("weight of places and components")
+                .isEqualTo(4);
+    }
+
+    @Test
+    void testRefreshAfterWrite() throws Exception {
+        final Place place_1 = Place.create("P1", "place", mockLatLon),
+                place_2 = Place.create("P2", "place", mockLatLon);
+        final CompletableFuture<List<Place>> reload = new CompletableFuture<>();
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode("place", (Locale) null)).thenReturn(List.of(place_1));
+        Mockito.when(delegate.geocodeAsync("place", (Locale) null)).thenReturn(reload);
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setCacheExpiry(1, TimeUnit.HOURS)
+                .setRefreshAfterWrite(500, TimeUnit.MILLISECONDS)
+                .create();
+        assertThat(cache.geocode("place"))
+                .as("initial load")
+                .containsExactly(place_1);
+
+        TimeUnit.MILLISECONDS.sleep(700);
+        assertThat(cache.geocode("place"))
+                .as("old value served while refreshing")
+                .containsExactly(place_1);
+        Mockito.verify(delegate, Mockito.timeout(1000)).geocodeAsync("place", (Locale) null);
+        assertThat(cache.geocode("place"))
+                .as("old value served while refresh is pending")
+                .containsExactly(place_1);
+
+        reload.complete(List.of(place_2));
+        assertThat(cache.geocode("place"))
+                .as("refreshed value")
+                .containsExactly(place_2);
+        Mockito.verify(delegate, Mockito.times(1)).geocode("place", (Locale) null);
+        Mockito.verify(delegate, Mockito.times(1)).geocodeAsync("place", (Locale) null);
+    }
+
+    @Test
+    void testServeStaleOnFailure() throws Exception {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.lookup(TEST_ID, (Locale) null)).thenReturn(Optional.of(mockPlace));
+        Mockito.when(delegate.lookupAsync(TEST_ID, (Locale) null))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("upstream down")));
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setCacheExpiry(500, TimeUnit.MILLISECONDS)
+                .setServeStaleOnFailure(1, TimeUnit.HOURS)
+                .create();
+        assertThat(cache.lookup(TEST_ID))
+                .as("initial load")
+                .contains(mockPlace);
+
+        TimeUnit.MILLISECONDS.sleep(700);
+        assertThat(cache.lookup(TEST_ID))
+                .as("stale value served on failure")
+                .contains(mockPlace);
+        assertThat(cache.lookupAsync(TEST_ID).get(1, TimeUnit.SECONDS))
+                .as("stale value served on failure (async)")
+                .contains(mockPlace);
+        Mockito.verify(delegate, Mockito.times(2)).lookupAsync(TEST_ID, (Locale) null);
+
+        final Place fresh = Place.create(TEST_ID, "fresh", mockLatLon);
+        Mockito.when(delegate.lookupAsync(TEST_ID, (Locale) null))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(fresh)));
+        assertThat(cache.lookup(TEST_ID))
+                .as("reloaded value once upstream is back")
+                .contains(fresh);
+        assertThat(cache.lookup(TEST_ID))
+                .as("reloaded value is fresh")
+                .contains(fresh);
+        Mockito.verify(delegate, Mockito.times(3)).lookupAsync(TEST_ID, (Locale) null);
+
+        // batch requests
+        Mockito.when(delegate.geocodeAll(Mockito.anyCollection(), Mockito.isNull()))
+                .thenReturn(Map.of(TEST_ADDRESS, List.of(mockPlace)));
+        Mockito.when(delegate.geocodeAsync(TEST_ADDRESS, (Locale) null))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("upstream down")));
+        assertThat(cache.geocodeAll(List.of(TEST_ADDRESS)))
+                .as("initial batch load")
+                .containsEntry(TEST_ADDRESS, List.of(mockPlace));
+
+        TimeUnit.MILLISECONDS.sleep(700);
+        assertThat(cache.geocodeAll(List.of(TEST_ADDRESS)))
+                .as("stale value served on failure (batch)")
+                .containsEntry(TEST_ADDRESS, List.of(mockPlace));
+        Mockito.verify(delegate, Mockito.times(1)).geocodeAsync(TEST_ADDRESS, (Locale) null);
+
+        final Place freshResult = Place.create("fresh", "fresh", mockLatLon);
+        Mockito.when(delegate.geocodeAsync(TEST_ADDRESS, (Locale) null))
+                .thenReturn(CompletableFuture.completedFuture(List.of(freshResult)));
+        assertThat(cache.geocodeAll(List.of(TEST_ADDRESS)))
+                .as("reloaded value once upstream is back (batch)")
+                .containsEntry(TEST_ADDRESS, List.of(freshResult));
+        Mockito.verify(delegate, Mockito.times(1)).geocodeAll(Mockito.anyCollection(), Mockito.isNull());
+    }
+
+    @Test
+    void testExpiryJitter() {
+        final long ttl = TimeUnit.HOURS.toNanos(1);
+        final CacheExpiry<String, String> expiry = new CacheExpiry<>(ttl, 0.2, TimeUnit.MINUTES.toNanos(5));
+        final Set<Long> expiries = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            final long next = expiry.nextExpiry();
+            assertThat(next)
+                    .as("jittered expiry incl. stale window")
+                    .isBetween((long) (ttl * 0.8) + TimeUnit.MINUTES.toNanos(5), ttl + TimeUnit.MINUTES.toNanos(5));
+            expiries.add(next);
+        }
+        assertThat(expiries)
+                .as("expiries are spread")
+                .hasSizeGreaterThan(90);
+        assertThat(new CacheExpiry<String, String>(Long.MAX_VALUE, 0, Long.MAX_VALUE).nextExpiry())
+                .as("no overflow")
+                .isEqualTo(Long.MAX_VALUE);
+    }
+
+
+    @Test
+    void testNegativeCaching() throws Exception {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode("nowhere", (Locale) null)).thenReturn(List.of());
+        Mockito.when(delegate.geocode(TEST_ADDRESS, (Locale) null)).thenReturn(List.of(mockPlace));
+        Mockito.when(delegate.lookup("unknown", (Locale) null)).thenReturn(Optional.empty());
+        Mockito.when(delegate.geocodeAll(Mockito.anyCollection(), Mockito.isNull()))
+                .thenReturn(Map.of());
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setNegativeCacheExpiry(1, TimeUnit.HOURS)
+                .create();
+        for (int i = 0; i < 3; i++) {
+            assertThat(cache.geocode("nowhere"))
+                    .as("empty result")
+                    .isEmpty();
+            assertThat(cache.geocode(TEST_ADDRESS))
+                    .as("regular result")
+                    .containsExactly(mockPlace);
+            assertThat(cache.lookup("unknown"))
+                    .as("empty lookup")
+                    .isEmpty();
+        }
+        assertThat(cache.geocodeAsync("nowhere").get(1, TimeUnit.SECONDS))
+                .as("empty result (async)")
+                .isEmpty();
+        assertThat(cache.geocodeAll(List.of("nowhere", TEST_ADDRESS, "nothing")))
+                .as("batch geocode")
+                .containsExactly(Map.entry("nowhere", List.of()), Map.entry(TEST_ADDRESS, List.of(mockPlace)),
+                        Map.entry("nothing", List.of()));
+        assertThat(cache.geocodeAll(List.of("nothing")))
+                .as("batch geocode again")
+                .containsExactly(Map.entry("nothing", List.of()));
+
+        Mockito.verify(delegate, Mockito.times(1)).geocode("nowhere", (Locale) null);
+        Mockito.verify(delegate, Mockito.times(1)).geocode(TEST_ADDRESS, (Locale) null);
+        Mockito.verify(delegate, Mockito.times(1)).lookup("unknown", (Locale) null);
+        Mockito.verify(delegate, Mockito.never()).geocodeAsync(anyString(), Mockito.isNull(Locale.class));
+        Mockito.verify(delegate, Mockito.times(1)).geocodeAll(List.of("nothing"), null);
+    }
+
+    @Test
+    void testNegativeCacheTable() {
+        final AtomicLong ticker = new AtomicLong();
+        final NegativeCache negativeCache = new NegativeCache(16, TimeUnit.SECONDS.toNanos(10), ticker::get);
+        final long fingerprint = NegativeCache.fingerprint(CacheType.GEOCODE, "nowhere", null);
+        assertThat(NegativeCache.fingerprint(CacheType.LOOKUP, "nowhere", null))
+                .as("fingerprint depends on the cache")
+                .isNotEqualTo(fingerprint);
+        assertThat(NegativeCache.fingerprint("ab", "c"))
+                .as("fingerprint separates the parts")
+                .isNotEqualTo(NegativeCache.fingerprint("a", "bc"));
+
+        negativeCache.put(fingerprint);
+        assertThat(negativeCache.contains(fingerprint))
+                .as("contains entry")
+                .isTrue();
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertThat(negativeCache.contains(fingerprint))
+                .as("entry expired")
+                .isFalse();
+
+        for (int i = 0; i < 1000; i++) {
+            negativeCache.put(NegativeCache.fingerprint(i));
+        }
+        assertThat(negativeCache.size())
+                .as("bounded by capacity")
+                .isEqualTo(negativeCache.capacity())
+                .isEqualTo(16);
+        assertThat(negativeCache.contains(NegativeCache.fingerprint(999)))
+                .as("contains the latest entry")
+                .isTrue();
+        negativeCache.remove(NegativeCache.fingerprint(999));
+        assertThat(negativeCache.contains(NegativeCache.fingerprint(999)))
+                .as("entry removed")
+                .isFalse();
+    }
+
+    @Test
+    void testFailureCaching() throws Exception {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode("broken", (Locale) null)).thenThrow(new IOException("upstream error"));
+        Mockito.when(delegate.lookupAsync("broken", (Locale) null))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("upstream error")));
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setFailureCacheExpiry(500, TimeUnit.MILLISECONDS)
+                .create();
+        for (int i = 0; i < 3; i++) {
+            assertThatCode(() -> cache.geocode("broken"))
+                    .as("failure")
+                    .isInstanceOf(IOException.class)
+                    .hasRootCauseMessage("upstream error");
+            assertThat(cache.lookupAsync("broken"))
+                    .as("failure (async)")
+                    .failsWithin(1, TimeUnit.SECONDS)
+                    .withThrowableOfType(ExecutionException.class)
+                    .withRootCauseInstanceOf(IOException.class);
+        }
+        Mockito.verify(delegate, Mockito.times(1)).geocode("broken", (Locale) null);
+        Mockito.verify(delegate, Mockito.times(1)).lookupAsync("broken", (Locale) null);
+
+        TimeUnit.MILLISECONDS.sleep(700);
+        Mockito.doReturn(List.of(mockPlace)).when(delegate).geocode("broken", (Locale) null);
+        assertThat(cache.geocode("broken"))
+                .as("request repeated after the failure expired")
+                .containsExactly(mockPlace);
+        Mockito.verify(delegate, Mockito.times(2)).geocode("broken", (Locale) null);
+    }
+
+    @Test
+    void testSpatialReverseCaching() throws Exception {
+        final LatLon query = LatLon.create(47.82291, 13.04048),
+                nearby = LatLon.create(47.82292, 13.04049),
+                sameCell = LatLon.create(47.82380, 13.04048);
+        final Place place = Place.create("P1", "place", query),
+                farPlace = Place.create("P2", "far place", sameCell);
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.reverseGeocode(Mockito.any(LatLon.class), Mockito.isNull(Locale.class)))
+                .thenReturn(List.of(place));
+        Mockito.when(delegate.reverseGeocode(sameCell, (Locale) null)).thenReturn(List.of(farPlace));
+        Mockito.when(delegate.reverseGeocodeAsync(sameCell, (Locale) null)).thenReturn(CompletableFuture.completedFuture(List.of(farPlace)));
+        Mockito.when(delegate.reverseGeocodeAll(Mockito.anyCollection(), Mockito.isNull()))
+                .thenReturn(Map.of(query, List.of(place)));
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setReverseGeocodeGridSize(500)
+                .setReverseGeocodeMaxDistance(50)
+                .create();
+        assertThat(SpatialCell.grid(sameCell, 500))
+                .as("same grid cell")
+                .isEqualTo(SpatialCell.grid(query, 500));
+        assertThat(cache.reverseGeocode(query))
+                .as("initial load")
+                .containsExactly(place);
+        assertThat(cache.reverseGeocode(nearby))
+                .as("nearby coordinates")
+                .containsExactly(place);
+        Mockito.verify(delegate, Mockito.times(1)).reverseGeocode(Mockito.any(LatLon.class), Mockito.isNull(Locale.class));
+
+        assertThat(cache.reverseGeocode(sameCell))
+                .as("same cell, but too far away")
+                .containsExactly(farPlace);
+        Mockito.verify(delegate, Mockito.times(1)).reverseGeocode(sameCell, (Locale) null);
+        assertThat(cache.reverseGeocodeAsync(sameCell).get())
+                .as("same cell, but too far away (async)")
+                .containsExactly(farPlace);
+        assertThat(cache.reverseGeocode(query))
+                .as("entry of the cell kept for the initial coordinates")
+                .containsExactly(place);
+        Mockito.verify(delegate, Mockito.times(1)).reverseGeocode(query, (Locale) null);
+
+        final CachingGeocoder geohashCache = CachingGeocoder.wrap(delegate)
+                .setReverseGeocodeGeohashPrecision(7)
+                .create();
+        assertThat(geohashCache.reverseGeocodeAll(List.of(query, nearby, query)))
+                .as("batch with coordinates in the same cell")
+                .containsOnlyKeys(query, nearby);
+        Mockito.verify(delegate, Mockito.times(1)).reverseGeocodeAll(List.of(query), null);
+        Mockito.verify(delegate, Mockito.times(1)).reverseGeocodeAll(Mockito.anyCollection(), Mockito.isNull());
+    }
+
+    @Test
+    void testSpatialCell() {
+        assertThat(SpatialCell.geohash(LatLon.create(57.64911, 10.40744), 11))
+                .as("geohash")
+                .isEqualTo("u4pruydqqvj");
+        assertThat(SpatialCell.geohash(LatLon.create(-25.38262, -49.26561), 8))
+                .as("geohash southern/western hemisphere")
+                .isEqualTo("6gkzwgjz");
+        assertThat(SpatialCell.grid(LatLon.create(47.8229, 13.0404), 100))
+                .as("grid cell")
+                .isEqualTo(SpatialCell.grid(LatLon.create(47.82291, 13.04041), 100))
+                .isNotEqualTo(SpatialCell.grid(LatLon.create(47.8240, 13.0404), 100));
+        assertThat(SpatialCell.distance(LatLon.create(47.80949, 13.05501), LatLon.create(48.20817, 16.37382)))
+                .as("distance Salzburg - Vienna")
+                .isBetween(250_000d, 252_000d);
+    }
+
+    @Test
+    void testPopulateLookupCache() throws Exception {
+        final Place other = Place.create("other ID", "other address", LatLon.create(47.8, 13.04));
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode(TEST_ADDRESS, (Locale) null)).thenReturn(List.of(mockPlace));
+        Mockito.when(delegate.geocode(TEST_ADDRESS, Locale.GERMAN)).thenReturn(List.of(mockPlace));
+        Mockito.when(delegate.reverseGeocodeAsync(mockLatLon, null))
+                .thenReturn(CompletableFuture.completedFuture(List.of(other)));
+        Mockito.when(delegate.lookup(anyString(), Mockito.nullable(Locale.class))).thenReturn(Optional.empty());
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setPopulateLookupCache(true)
+                .setNegativeCacheExpiry(1, TimeUnit.HOURS)
+                .create();
+        assertThat(cache.lookup("other ID"))
+                .as("unknown before reverse-geocoding")
+                .isEmpty();
+        cache.geocode(TEST_ADDRESS);
+        cache.geocode(TEST_ADDRESS, Locale.GERMAN);
+        cache.reverseGeocodeAsync(mockLatLon).get(1, TimeUnit.SECONDS);
+
+        assertThat(cache.lookup(TEST_ID))
+                .as("populated by geocode")
+                .contains(mockPlace);
+        assertThat(cache.lookup(TEST_ID, Locale.GERMAN))
+                .as("populated by geocode (german)")
+                .contains(mockPlace);
+        assertThat(cache.lookup("other ID"))
+                .as("populated by reverse-geocode, replacing the negative entry")
+                .contains(other);
+        Mockito.verify(delegate, Mockito.times(1)).lookup(anyString(), Mockito.nullable(Locale.class));
+        Mockito.verify(delegate, Mockito.times(1)).lookup("other ID", (Locale) null);
+
+        final CachingGeocoder disabled = CachingGeocoder.wrap(delegate).create();
+        disabled.geocode(TEST_ADDRESS);
+        assertThat(disabled.lookup(TEST_ID))
+                .as("not populated by default")
+                .isEmpty();
+        Mockito.verify(delegate, Mockito.times(1)).lookup(TEST_ID, (Locale) null);
+    }
+
+    @Test
+    void testAdmissionFilter() throws Exception {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode(anyString(), Mockito.isNull(Locale.class))).thenReturn(List.of(mockPlace));
+        Mockito.when(delegate.lookupAsync(TEST_ID, null))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(mockPlace)));
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setAdmissionFilter(true)
+                .setMaximumSize(100)
+                .create();
+        for (int i = 0; i < 50; i++) {
+            assertThat(cache.geocode("one-hit-wonder " + i))
+                    .as("result of a rejected entry")
+                    .containsExactly(mockPlace);
+        }
+        cache.getCache(CacheType.GEOCODE).cleanUp();
+        assertThat(cache.getCache(CacheType.GEOCODE).estimatedSize())
+                .as("one-hit-wonders are not cached")
+                .isZero();
+
+        cache.geocode(TEST_ADDRESS);
+        cache.geocode(TEST_ADDRESS);
+        cache.geocode(TEST_ADDRESS);
+        Mockito.verify(delegate, Mockito.times(2)).geocode(TEST_ADDRESS, (Locale) null);
+        assertThat(cache.getRejectedCount())
+                .as("rejected")
+                .isEqualTo(51);
+        assertThat(cache.getAdmittedCount())
+                .as("admitted")
+                .isEqualTo(1);
+
+        cache.lookupAsync(TEST_ID).get(1, TimeUnit.SECONDS);
+        cache.lookupAsync(TEST_ID).get(1, TimeUnit.SECONDS);
+        assertThat(cache.lookupAsync(TEST_ID).get(1, TimeUnit.SECONDS))
+                .as("admitted async result")
+                .contains(mockPlace);
+        Mockito.verify(delegate, Mockito.times(2)).lookupAsync(TEST_ID, null);
+
+        final AdmissionFilter filter = new AdmissionFilter(1000);
+        int falsePositives = 0;
+        for (long i = 0; i < 1000; i++) {
+            if (filter.admit(NegativeCache.fingerprint("key", i))) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives)
+                .as("false positives")
+                .isLessThan(50);
+        assertThat(filter.admit(NegativeCache.fingerprint("key", 999L)))
+                .as("seen before")
+                .isTrue();
+        for (long i = 0; i < 100; i++) {
+            filter.admit(NegativeCache.fingerprint("other", i));
+        }
+        assertThat(filter.admit(NegativeCache.fingerprint("key", 999L)))
+                .as("forgotten after the filter was reset")
+                .isFalse();
+    }
+
+    @Test
+    void testSnapshot(@TempDir Path tempDir) throws Exception {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode(TEST_ADDRESS, Locale.GERMAN)).thenReturn(List.of(mockPlace));
+        Mockito.when(delegate.reverseGeocode(mockLatLon, (Locale) null)).thenReturn(List.of(mockPlace));
+        Mockito.when(delegate.lookup(TEST_ID, (Locale) null)).thenReturn(Optional.of(mockPlace));
+
+        final Path snapshot = tempDir.resolve("snapshots/cache.snapshot");
+        final CachingGeocoder source = CachingGeocoder.wrap(delegate).create();
+        source.geocode(TEST_ADDRESS, Locale.GERMAN);
+        source.reverseGeocode(mockLatLon);
+        source.lookup(TEST_ID);
+        assertThat(source.exportSnapshot(snapshot))
+                .as("exported entries")
+                .isEqualTo(3);
+
+        final CachingGeocoder target = CachingGeocoder.wrap(delegate).create();
+        assertThat(target.importSnapshot(snapshot))
+                .as("imported entries")
+                .isEqualTo(3);
+        assertThat(target.geocode(TEST_ADDRESS.toUpperCase(Locale.ROOT), Locale.GERMAN))
+                .as("imported geocode result (normalized key)")
+                .containsExactly(mockPlace);
+        assertThat(target.reverseGeocode(mockLatLon))
+                .as("imported reverse-geocode result")
+                .containsExactly(mockPlace);
+        assertThat(target.lookup(TEST_ID))
+                .as("imported lookup result")
+                .contains(mockPlace);
+        Mockito.verify(delegate, Mockito.times(1)).geocode(anyString(), Mockito.nullable(Locale.class));
+        Mockito.verify(delegate, Mockito.times(1)).reverseGeocode(Mockito.any(LatLon.class), Mockito.nullable(Locale.class));
+        Mockito.verify(delegate, Mockito.times(1)).lookup(anyString(), Mockito.nullable(Locale.class));
+
+        // a partially written snapshot
+        final byte[] bytes = Files.readAllBytes(snapshot);
+        final Path partial = tempDir.resolve("partial.snapshot");
+        Files.write(partial, Arrays.copyOf(bytes, bytes.length - 10));
+        assertThat(CachingGeocoder.wrap(delegate).create().importSnapshot(partial))
+                .as("entries before the incomplete entry")
+                .isEqualTo(2);
+        assertThatThrownBy(() -> target.importSnapshot(tempDir.resolve("snapshots")))
+                .as("not a snapshot")
+                .isInstanceOf(IOException.class);
+        final Path occupied = Files.createDirectories(tempDir.resolve("occupied/content")).getParent();
+        assertThatThrownBy(() -> source.exportSnapshot(occupied))
+                .as("export replacing a non-empty directory")
+                .isInstanceOf(IOException.class);
+        assertThat(tempDir.resolve("occupied.tmp"))
+                .as("temporary file removed after the failed export")
+                .doesNotExist();
+
+        // import on create, export on close
+        final Path warmStart = tempDir.resolve("warm-start.snapshot");
+        Files.copy(snapshot, warmStart);
+        try (CachingGeocoder cache = CachingGeocoder.wrap(delegate).setSnapshotFile(warmStart).create()) {
+            assertThat(cache.lookup(TEST_ID))
+                    .as("imported on create")
+                    .contains(mockPlace);
+            cache.lookup("unknown");
+        }
+        Mockito.verify(delegate, Mockito.times(1)).lookup(TEST_ID, (Locale) null);
+        final CachingGeocoder restarted = CachingGeocoder.wrap(delegate).create();
+        assertThat(restarted.importSnapshot(warmStart))
+                .as("exported on close")
+                .isEqualTo(4);
+    }
+
+    @Test
+    void testPinned(@TempDir Path tempDir) throws Exception {
+        final Place updatedPlace = Place.create(TEST_ID, "updated", mockLatLon);
+        final Geocoder source = Mockito.mock(Geocoder.class);
+        Mockito.when(source.geocode(TEST_ADDRESS, (Locale) null)).thenReturn(List.of(mockPlace));
+        Mockito.when(source.lookup(TEST_ID, (Locale) null)).thenReturn(Optional.of(mockPlace));
+        Mockito.when(source.lookup("unknown", (Locale) null)).thenReturn(Optional.empty());
+
+        final Path pinnedFile = tempDir.resolve("pinned.snapshot");
+        final CachingGeocoder sourceCache = CachingGeocoder.wrap(source).create();
+        sourceCache.geocode(TEST_ADDRESS);
+        sourceCache.lookup(TEST_ID);
+        sourceCache.lookup("unknown");
+        sourceCache.exportSnapshot(pinnedFile);
+
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.lookup(anyString(), Mockito.nullable(Locale.class))).thenReturn(Optional.of(updatedPlace));
+        Mockito.when(delegate.lookupAsync(anyString(), Mockito.nullable(Locale.class)))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(updatedPlace)));
+        Mockito.when(delegate.lookupAll(Mockito.anyCollection(), Mockito.nullable(Locale.class)))
+                .thenReturn(Map.of("unknown", updatedPlace));
+        try (CachingGeocoder cache = CachingGeocoder.wrap(delegate).setPinnedFile(pinnedFile).create()) {
+            assertThat(cache.getPinnedSize())
+                    .as("pinned results (without empty results)")
+                    .isEqualTo(2);
+            assertThat(cache.geocode(TEST_ADDRESS.toUpperCase(Locale.ROOT)))
+                    .as("pinned geocode result (normalized key)")
+                    .containsExactly(mockPlace);
+            assertThat(cache.lookup(TEST_ID))
+                    .as("pinned lookup result")
+                    .contains(mockPlace);
+            assertThat(cache.lookupAsync(TEST_ID).get())
+                    .as("pinned async lookup result")
+                    .contains(mockPlace);
+            assertThat(cache.lookupAll(List.of(TEST_ID, "unknown")))
+                    .as("pinned and loaded lookup results")
+                    .containsExactly(Map.entry(TEST_ID, mockPlace), Map.entry("unknown", updatedPlace));
+            Mockito.verify(delegate).lookupAll(Mockito.argThat(ids -> Set.copyOf(ids).equals(Set.of("unknown"))),
+                    Mockito.nullable(Locale.class));
+            Mockito.verify(delegate, Mockito.never()).geocode(anyString(), Mockito.nullable(Locale.class));
+            Mockito.verify(delegate, Mockito.never()).lookup(Mockito.eq(TEST_ID), Mockito.nullable(Locale.class));
+            Mockito.verify(delegate, Mockito.never()).lookupAsync(Mockito.eq(TEST_ID), Mockito.nullable(Locale.class));
+
+            assertThat(cache.reloadPinned())
+                    .as("reload unchanged file")
+                    .isFalse();
+
+            // publish a new file
+            Mockito.when(source.lookup(TEST_ID, (Locale) null)).thenReturn(Optional.of(updatedPlace));
+            final CachingGeocoder updatedSource = CachingGeocoder.wrap(source).create();
+            updatedSource.lookup(TEST_ID);
+            final Path published = tempDir.resolve("published.snapshot");
+            updatedSource.exportSnapshot(published);
+            Files.setLastModifiedTime(published, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+            Files.move(published, pinnedFile, StandardCopyOption.REPLACE_EXISTING);
+            assertThat(cache.reloadPinned())
+                    .as("reload modified file")
+                    .isTrue();
+            assertThat(cache.getPinnedSize())
+                    .as("pinned results after reload")
+                    .isEqualTo(1);
+            assertThat(cache.lookup(TEST_ID))
+                    .as("pinned lookup result after reload")
+                    .contains(updatedPlace);
+            assertThat(cache.geocode(TEST_ADDRESS))
+                    .as("no longer pinned")
+                    .isEmpty();
+        }
+    }
+
+    @Test
+    void testQueryNormalization() throws Exception {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode(anyString(), Mockito.any(Locale.class))).thenReturn(List.of(mockPlace));
+        Mockito.when(delegate.geocode(anyString(), Mockito.isNull(Locale.class))).thenReturn(List.of(mockPlace));
+
+        final CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setQueryNormalizer(DefaultQueryNormalizer.withDefaultAbbreviations())
+                .setDefaultLocale(Locale.GERMAN)
+                .create();
+        assertThat(cache.geocode("Jakob-Haringer-Strasse 3"))
+                .as("initial load")
+                .containsExactly(mockPlace);
+        assertThat(cache.geocode("jakob haringer straße 3 "))
+                .as("lower-case with sharp s")
+                .containsExactly(mockPlace);
+        assertThat(cache.geocode("JAKOB HARINGER STR. 3", Locale.GERMAN))
+                .as("abbreviated, with default locale")
+                .containsExactly(mockPlace);
+        Mockito.verify(delegate, Mockito.times(1)).geocode("Jakob-Haringer-Strasse 3", (Locale) null);
+        Mockito.verify(delegate, Mockito.times(1)).geocode(anyString(), Mockito.isNull(Locale.class));
+        Mockito.verify(delegate, Mockito.never()).geocode(anyString(), Mockito.any(Locale.class));
+
+        assertThat(cache.geocode("Jakob Haringer Strasse 3", Locale.ENGLISH))
+                .as("other locale")
+                .containsExactly(mockPlace);
+        Mockito.verify(delegate, Mockito.times(1)).geocode("Jakob Haringer Strasse 3", Locale.ENGLISH);
+
+        Mockito.when(delegate.geocodeAll(Mockito.anyCollection(), Mockito.isNull()))
+                .thenReturn(Map.of("Mirabellplatz 4", List.of(mockPlace)));
+        assertThat(cache.geocodeAll(List.of("Mirabellplatz 4", "MIRABELLPLATZ  4", "jakob haringer str 3")))
+                .as("batch geocode")
+                .containsOnlyKeys("Mirabellplatz 4", "MIRABELLPLATZ  4", "jakob haringer str 3")
+                .allSatisfy((address, places) -> assertThat(places).containsExactly(mockPlace));
+        Mockito.verify(delegate, Mockito.times(1)).geocodeAll(List.of("Mirabellplatz 4"), null);
+    }
+
+    @Test
+    void testDefaultQueryNormalizer() {
+        final QueryNormalizer normalizer = new DefaultQueryNormalizer();
+        assertThat(normalizer.normalize("  Jakob-Haringer-Straße\t3,  Salzburg ", null))
+                .as("punctuation, case and whitespace")
+                .isEqualTo("jakob haringer strasse 3 salzburg");
+        assertThat(normalizer.normalize("\uFF2A\uFF41\uFF4B\uFF4F\uFF42 3/1", null))
+                .as("NFKC (full-width characters)")
+                .isEqualTo("jakob 3/1");
+        assertThat(normalizer.normalize("Main St.", Locale.ENGLISH))
+                .as("no abbreviation expansion by default")
+                .isEqualTo("main st");
+
+        final QueryNormalizer expanding = new DefaultQueryNormalizer()
+                .withAbbreviations("en", Map.of("St.", "Street"));
+        assertThat(expanding.normalize("Main St.", Locale.ENGLISH))
+                .as("expanded abbreviation")
+                .isEqualTo("main street");
+        assertThat(expanding.normalize("Main St.", Locale.GERMAN))
+                .as("abbreviation of other language")
+                .isEqualTo("main st");
+        assertThat(QueryNormalizer.identity().normalize("Main St.", null))
+                .as("identity")
+                .isEqualTo("Main St.");
+    }
+
+    @Test
+    void testPersistentCache(@TempDir Path tempDir) throws Exception {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode(TEST_ADDRESS, (Locale) null)).thenReturn(List.of(mockPlace));
+        Mockito.when(delegate.lookup(TEST_ID, (Locale) null)).thenReturn(Optional.of(mockPlace));
+        Mockito.when(delegate.reverseGeocodeAsync(mockLatLon, null))
+                .thenReturn(CompletableFuture.completedFuture(List.of(mockPlace)));
+
+        try (CachingGeocoder cache = CachingGeocoder.wrap(delegate).setPersistentCache(tempDir).create()) {
+            assertThat(cache.geocode(TEST_ADDRESS))
+                    .as("geocode")
+                    .containsExactly(mockPlace);
+            assertThat(cache.lookup(TEST_ID))
+                    .as("lookup")
+                    .contains(mockPlace);
+            assertThat(cache.reverseGeocodeAsync(mockLatLon).get(1, TimeUnit.SECONDS))
+                    .as("reverse geocode (async)")
+                    .containsExactly(mockPlace);
+        }
+
+        // a restart: new in-memory caches, same directory
+        try (CachingGeocoder cache = CachingGeocoder.wrap(delegate).setPersistentCache(tempDir).create()) {
+            assertThat(cache.geocode(TEST_ADDRESS))
+                    .as("geocode after restart")
+                    .containsExactly(mockPlace);
+            assertThat(cache.lookupAll(List.of(TEST_ID)))
+                    .as("batch lookup after restart")
+                    .containsExactly(Map.entry(TEST_ID, mockPlace));
+            assertThat(cache.reverseGeocode(mockLatLon))
+                    .as("reverse geocode after restart")
+                    .containsExactly(mockPlace);
+        }
+        Mockito.verify(delegate, Mockito.times(1)).geocode(TEST_ADDRESS, (Locale) null);
+        Mockito.verify(delegate, Mockito.times(1)).lookup(TEST_ID, (Locale) null);
+        Mockito.verify(delegate, Mockito.never()).lookupAll(Mockito.anyCollection(), Mockito.any());
+        Mockito.verify(delegate, Mockito.times(1)).reverseGeocodeAsync(mockLatLon, null);
+        Mockito.verify(delegate, Mockito.never()).reverseGeocode(Mockito.any(LatLon.class), Mockito.isNull(Locale.class));
+    }
+
+    @Test
+    void testOffHeapTier(@TempDir Path tempDir) throws Exception {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode(TEST_ADDRESS, (Locale) null)).thenReturn(List.of(mockPlace));
+
+        try (CachingGeocoder cache = CachingGeocoder.wrap(delegate).setOffHeapCapacity(1 << 20).create()) {
+            assertThat(cache.getOffHeapCapacity())
+                    .as("allocated off-heap")
+                    .isPositive()
+                    .isLessThanOrEqualTo(1 << 20);
+            assertThat(cache.getOffHeapBytesUsed())
+                    .as("empty off-heap tier")
+                    .isZero();
+            assertThat(cache.geocode(TEST_ADDRESS))
+                    .as("geocode")
+                    .containsExactly(mockPlace);
+            assertThat(cache.getOffHeapBytesUsed())
+                    .as("result stored off-heap")
+                    .isPositive();
+        }
+
+        try (CachingGeocoder cache = CachingGeocoder.wrap(delegate).setPersistentCache(tempDir).create()) {
+            cache.geocode(TEST_ADDRESS);
+            assertThat(cache.getOffHeapBytesUsed())
+                    .as("off-heap tier disabled")
+                    .isZero();
+        }
+        try (CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setOffHeapCapacity(1 << 20)
+                .setPersistentCache(tempDir)
+                .create()) {
+            assertThat(cache.geocode(TEST_ADDRESS))
+                    .as("geocode from the persistent tier")
+                    .containsExactly(mockPlace);
+            assertThat(cache.getOffHeapBytesUsed())
+                    .as("promoted into the off-heap tier")
+                    .isPositive();
+        }
+        Mockito.verify(delegate, Mockito.times(2)).geocode(TEST_ADDRESS, (Locale) null);
+    }
+
+    @Test
+    void testMetrics() throws IOException {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode(TEST_ADDRESS, (Locale) null)).thenReturn(List.of(mockPlace));
+        Mockito.when(delegate.geocode("nowhere", (Locale) null)).thenReturn(List.of());
+        Mockito.when(delegate.reverseGeocode(mockLatLon, (Locale) null)).thenReturn(List.of(mockPlace));
+
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        try (CachingGeocoder cache = CachingGeocoder.wrap(delegate)
+                .setNegativeCacheExpiry(1, TimeUnit.HOURS)
+                .setReverseGeocodeGridSize(100)
+                .setReverseGeocodeMaxDistance(100)
+                .setOffHeapCapacity(1 << 20)
+                .create()) {
+            new CachingGeocoderMetrics(cache, Tags.of("geocoder", "test")).bindTo(registry);
+
+            cache.geocode(TEST_ADDRESS);
+            cache.geocode(TEST_ADDRESS);
+            cache.geocode(TEST_ADDRESS);
+            cache.geocode("nowhere");
+            cache.reverseGeocode(mockLatLon);
+            cache.reverseGeocode(mockLatLon);
+
+            assertThat(registry.get("cache.gets").tags("cache", "geocoding.geocode", "result", "hit").functionCounter().count())
+                    .as("hits")
+                    .isEqualTo(2);
+            assertThat(registry.get("cache.gets").tags("cache", "geocoding.geocode", "result", "miss").functionCounter().count())
+                    .as("misses")
+                    .isEqualTo(2);
+            assertThat(registry.get("cache.gets").tags("cache", "geocoding.reverse-geocode", "result", "hit").functionCounter().count())
+                    .as("reverse-geocode hits")
+                    .isEqualTo(1);
+            assertThat(registry.get("cache.gets").tags("cache", "geocoding.reverse-geocode", "result", "miss").functionCounter().count())
+                    .as("reverse-geocode misses")
+                    .isEqualTo(1);
+            assertThat(registry.get("cache.gets").tags("cache", "geocoding.lookup", "result", "hit").functionCounter().count())
+                    .as("lookup hits")
+                    .isZero();
+            assertThat(registry.get("cache.load.duration").tags("cache", "geocoding.geocode", "geocoder", "test").timeGauge().value())
+                    .as("load time")
+                    .isPositive();
+            assertThat(registry.get("cache.evictions").tags("cache", "geocoding.reverse-geocode").functionCounter().count())
+                    .as("evictions")
+                    .isZero();
+            assertThat(registry.get("geocoding.cache.negative.size").gauge().value())
+                    .as("negative cache size")
+                    .isEqualTo(1);
+            assertThat(registry.get("geocoding.cache.offheap.used").gauge().value())
+                    .as("off-heap bytes")
+                    .isPositive();
+            assertThat(registry.get("geocoding.cache.offheap.capacity").gauge().value())
+                    .as("off-heap capacity")
+                    .isPositive();
+        }
+    }
 
     private static class MockGeocoder implements Geocoder {
 
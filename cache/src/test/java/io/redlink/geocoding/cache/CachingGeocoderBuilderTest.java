@@ -17,6 +17,7 @@
 package io.redlink.geocoding.cache;
 
 import io.redlink.geocoding.Geocoder;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
@@ -46,4 +47,75 @@ class CachingGeocoderBuilderTest {
                 .create(), "Caching Builder");
     }
 
+    @Test
+    void testCreateBounded() {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        assertNotNull(CachingGeocoder.wrap(delegate)
+                .setMaximumSize(CacheType.GEOCODE, 1000)
+                .setMaximumWeight(CacheType.REVERSE_GEOCODE, 5000)
+                .setInitialCapacity(CacheType.LOOKUP, 128)
+                .create(), "Bounded Caching Builder");
+
+        final CachingGeocoderBuilder conflicting = CachingGeocoder.wrap(delegate)
+                .setMaximumSize(1000)
+                .setMaximumWeight(CacheType.LOOKUP, 5000);
+        assertThatCode(conflicting::create)
+                .as("maximumSize and maximumWeight")
+                .isInstanceOf(IllegalStateException.class);
+        assertThatCode(() -> CachingGeocoder.wrap(delegate).setMaximumSize(-1))
+                .as("negative maximumSize")
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testCreateWithRefresh() {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        assertNotNull(CachingGeocoder.wrap(delegate)
+                .setCacheExpiry(1, TimeUnit.DAYS)
+                .setRefreshAfterWrite(12, TimeUnit.HOURS)
+                .setExpiryJitter(0.1)
+                .setServeStaleOnFailure(1, TimeUnit.HOURS)
+                .create(), "Refreshing Caching Builder");
+        assertThatCode(() -> CachingGeocoder.wrap(delegate).setExpiryJitter(1.5))
+                .as("invalid jitter")
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> CachingGeocoder.wrap(delegate).setRefreshAfterWrite(0, TimeUnit.SECONDS))
+                .as("invalid refresh")
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testCreateWithNegativeCache() {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        assertNotNull(CachingGeocoder.wrap(delegate)
+                .setNegativeCacheExpiry(1, TimeUnit.HOURS)
+                .setNegativeCacheCapacity(1_000)
+                .setFailureCacheExpiry(30, TimeUnit.SECONDS)
+                .create(), "Negative Caching Builder");
+        assertThatCode(() -> CachingGeocoder.wrap(delegate).setNegativeCacheCapacity(0))
+                .as("invalid capacity")
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatCode(() -> CachingGeocoder.wrap(delegate).setFailureCacheExpiry(-1, TimeUnit.SECONDS))
+                .as("invalid failure expiry")
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testCreateWithSpatialCells() {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        assertNotNull(CachingGeocoder.wrap(delegate)
+                .setReverseGeocodeGeohashPrecision(8)
+                .setReverseGeocodeMaxDistance(25)
+                .create(), "Spatial Caching Builder");
+        final CachingGeocoderBuilder conflicting = CachingGeocoder.wrap(delegate)
+                .setReverseGeocodeGeohashPrecision(8)
+                .setReverseGeocodeGridSize(50);
+        assertThatCode(conflicting::create)
+                .as("geohash and grid")
+                .isInstanceOf(IllegalStateException.class);
+        assertThatCode(() -> CachingGeocoder.wrap(delegate).setReverseGeocodeGeohashPrecision(13))
+                .as("invalid precision")
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
 }
\ No newline at end of file
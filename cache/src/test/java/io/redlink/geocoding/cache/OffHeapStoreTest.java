@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.redlink.geocoding.cache;
+
+import io.redlink.geocoding.AddressComponent;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OffHeapStoreTest {
+
+    private final Place place = Place.create("N240109189", "Jakob-Haringer-Straße 3, Salzburg", LatLon.create(47.8229144, 13.0404834),
+            Set.of(AddressComponent.create(AddressComponent.Type.street, "Jakob-Haringer-Straße"),
+                    AddressComponent.create(AddressComponent.Type.streetNumber, "3")),
+            Map.of("osm_type", "node"));
+
+    @Test
+    void testRoundTrip() {
+        final OffHeapStore<List<Place>> store = new OffHeapStore<>(1 << 20, 1, TimeUnit.DAYS, PlaceCodec.PLACES);
+        assertThat(store.get("address"))
+                .as("empty store")
+                .isNull();
+        assertThat(store.usedBytes())
+                .as("empty store")
+                .isZero();
+        assertThat(store.capacityBytes())
+                .as("allocated")
+                .isEqualTo(1 << 20);
+
+        store.put("address", List.of(place));
+        store.put("nowhere", List.of());
+        assertThat(store.get("address"))
+                .as("stored places")
+                .containsExactly(place);
+        assertThat(store.get("nowhere"))
+                .as("stored empty result")
+                .isEmpty();
+        assertThat(store.size())
+                .as("records")
+                .isEqualTo(2);
+        final long used = store.usedBytes();
+        assertThat(used)
+                .as("used bytes")
+                .isPositive();
+
+        store.put("address", List.of(place, place));
+        assertThat(store.get("address"))
+                .as("overwritten")
+                .containsExactly(place, place);
+        assertThat(store.size())
+                .as("records after overwrite")
+                .isEqualTo(2);
+        assertThat(store.usedBytes())
+                .as("the overwritten record is kept until evicted")
+                .isGreaterThan(used);
+
+        final OffHeapStore<Optional<Place>> lookup = new OffHeapStore<>(1 << 20, 1, TimeUnit.DAYS, PlaceCodec.OPTIONAL_PLACE);
+        lookup.put("N240109189", Optional.of(place));
+        lookup.put("unknown", Optional.empty());
+        assertThat(lookup.get("N240109189"))
+                .as("stored place")
+                .contains(place);
+        assertThat(lookup.get("unknown"))
+                .as("stored absent place")
+                .isEmpty();
+
+        lookup.close();
+        assertThat(lookup.get("N240109189"))
+                .as("closed store")
+                .isNull();
+        assertThat(lookup.usedBytes())
+                .as("closed store")
+                .isZero();
+    }
+
+    @Test
+    void testExpiry() {
+        final AtomicLong ticker = new AtomicLong();
+        final OffHeapStore<List<Place>> store = new OffHeapStore<>(1 << 20, 1000, PlaceCodec.PLACES, ticker::get);
+        store.put("address", List.of(place));
+        ticker.set(999);
+        assertThat(store.get("address"))
+                .as("not yet expired")
+                .containsExactly(place);
+        ticker.set(1000);
+        assertThat(store.get("address"))
+                .as("expired")
+                .isNull();
+    }
+
+    @Test
+    void testEviction() {
+        // 16 segments of 1kB each
+        final OffHeapStore<List<Place>> store = new OffHeapStore<>(16 * 1024, 1, TimeUnit.DAYS, PlaceCodec.PLACES);
+        final int count = 2000;
+        for (int i = 0; i < count; i++) {
+            store.put("address " + i, List.of(place));
+        }
+        assertThat(store.usedBytes())
+                .as("used bytes are bounded by the capacity")
+                .isPositive()
+                .isLessThanOrEqualTo(store.capacityBytes());
+        assertThat(store.size())
+                .as("records")
+                .isPositive()
+                .isLessThan(count);
+        assertThat(store.evictionCount())
+                .as("evictions")
+                .isEqualTo(count - store.size());
+        assertThat(store.get("address " + (count - 1)))
+                .as("latest entry")
+                .containsExactly(place);
+        assertThat(store.get("address 0"))
+                .as("oldest entry is evicted first")
+                .isNull();
+
+        int found = 0;
+        for (int i = 0; i < count; i++) {
+            if (store.get("address " + i) != null) {
+                found++;
+            }
+        }
+        assertThat(found)
+                .as("every indexed record can be read (index is consistent after evictions and wrap-around)")
+                .isEqualTo(store.size());
+    }
+
+    @Test
+    void testRecordTooLarge() {
+        final OffHeapStore<List<Place>> store = new OffHeapStore<>(16 * 1024, 1, TimeUnit.DAYS, PlaceCodec.PLACES);
+        store.put("many", Collections.nCopies(50, place));
+        assertThat(store.get("many"))
+                .as("record exceeds the segment size")
+                .isNull();
+        assertThat(store.usedBytes())
+                .as("nothing stored")
+                .isZero();
+    }
+
+    @Test
+    void testTieredStore() {
+        final OffHeapStore<List<Place>> first = new OffHeapStore<>(1 << 20, 1, TimeUnit.DAYS, PlaceCodec.PLACES);
+        final OffHeapStore<List<Place>> second = new OffHeapStore<>(1 << 20, 1, TimeUnit.DAYS, PlaceCodec.PLACES);
+        final CacheTier<List<Place>> tiered = TieredStore.of(List.of(first, second));
+
+        second.put("address", List.of(place));
+        assertThat(first.get("address"))
+                .as("not in the first tier")
+                .isNull();
+        assertThat(tiered.get("address"))
+                .as("read from the second tier")
+                .containsExactly(place);
+        assertThat(first.get("address"))
+                .as("promoted into the first tier")
+                .containsExactly(place);
+
+        tiered.put("other", List.of());
+        assertThat(second.get("other"))
+                .as("written to all tiers")
+                .isEmpty();
+        assertThat(TieredStore.of(List.of(first)))
+                .as("single tier")
+                .isSameAs(first);
+    }
+}
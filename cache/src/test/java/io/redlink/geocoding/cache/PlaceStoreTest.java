@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.redlink.geocoding.cache;
+
+import io.redlink.geocoding.AddressComponent;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlaceStoreTest {
+
+    private final Place place = Place.create("N240109189", "Jakob-Haringer-Straße 3, Salzburg", LatLon.create(47.8229144, 13.0404834),
+            Set.of(AddressComponent.create(AddressComponent.Type.street, "Jakob-Haringer-Straße"),
+                    AddressComponent.create(AddressComponent.Type.streetNumber, "3")),
+            Map.of("osm_type", "node"));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        final Path file = tempDir.resolve("geocode.log");
+        try (PlaceStore<List<Place>> store = new PlaceStore<>(file, 1, TimeUnit.DAYS, PlaceCodec.PLACES)) {
+            assertThat(store.get("address"))
+                    .as("empty store")
+                    .isNull();
+            store.put("address", List.of(place));
+            store.put("nowhere", List.of());
+            assertThat(store.get("address"))
+                    .as("stored places")
+                    .containsExactly(place)
+                    .singleElement()
+                    .extracting(Place::getMetadata)
+                    .isEqualTo(place.getMetadata());
+            assertThat(store.get("nowhere"))
+                    .as("stored empty result")
+                    .isEmpty();
+        }
+
+        try (PlaceStore<List<Place>> store = new PlaceStore<>(file, 1, TimeUnit.DAYS, PlaceCodec.PLACES)) {
+            assertThat(store.size())
+                    .as("records after reopening")
+                    .isEqualTo(2);
+            assertThat(store.get("address"))
+                    .as("places after reopening")
+                    .containsExactly(place);
+        }
+
+        try (PlaceStore<Optional<Place>> store = new PlaceStore<>(tempDir.resolve("lookup.log"), 1, TimeUnit.DAYS, PlaceCodec.OPTIONAL_PLACE)) {
+            store.put("N240109189", Optional.of(place));
+            store.put("unknown", Optional.empty());
+            assertThat(store.get("N240109189"))
+                    .as("stored place")
+                    .contains(place);
+            assertThat(store.get("unknown"))
+                    .as("stored empty place")
+                    .isEmpty();
+        }
+    }
+
+    @Test
+    void testExpiry() throws IOException {
+        final AtomicLong clock = new AtomicLong(1_000_000);
+        final Path file = tempDir.resolve("geocode.log");
+        try (PlaceStore<List<Place>> store = new PlaceStore<>(file, 1000, PlaceCodec.PLACES, clock::get)) {
+            store.put("address", List.of(place));
+            assertThat(store.get("address"))
+                    .as("before expiry")
+                    .containsExactly(place);
+            clock.addAndGet(1001);
+            assertThat(store.get("address"))
+                    .as("after expiry")
+                    .isNull();
+        }
+        try (PlaceStore<List<Place>> store = new PlaceStore<>(file, 1000, PlaceCodec.PLACES, clock::get)) {
+            assertThat(store.size())
+                    .as("expired records are not indexed")
+                    .isZero();
+        }
+    }
+
+    @Test
+    void testCorruptTail() throws IOException {
+        final Path file = tempDir.resolve("geocode.log");
+        try (PlaceStore<List<Place>> store = new PlaceStore<>(file, 1, TimeUnit.DAYS, PlaceCodec.PLACES)) {
+            store.put("first", List.of(place));
+            store.put("second", List.of(place));
+        }
+        // simulate a torn write of the last record
+        final long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 10);
+        }
+
+        try (PlaceStore<List<Place>> store = new PlaceStore<>(file, 1, TimeUnit.DAYS, PlaceCodec.PLACES)) {
+            assertThat(store.get("first"))
+                    .as("intact record")
+                    .containsExactly(place);
+            assertThat(store.get("second"))
+                    .as("torn record")
+                    .isNull();
+            store.put("third", List.of(place));
+        }
+
+        // flip a byte in the payload of the last record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x42}), channel.size() - 20);
+        }
+        try (PlaceStore<List<Place>> store = new PlaceStore<>(file, 1, TimeUnit.DAYS, PlaceCodec.PLACES)) {
+            assertThat(store.get("first"))
+                    .as("intact record")
+                    .containsExactly(place);
+            assertThat(store.get("third"))
+                    .as("corrupt record")
+                    .isNull();
+        }
+
+        Files.writeString(file, "garbage");
+        try (PlaceStore<List<Place>> store = new PlaceStore<>(file, 1, TimeUnit.DAYS, PlaceCodec.PLACES)) {
+            assertThat(store.size())
+                    .as("invalid file is discarded")
+                    .isZero();
+        }
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        final Path file = tempDir.resolve("geocode.log");
+        try (PlaceStore<List<Place>> store = new PlaceStore<>(file, 1, TimeUnit.DAYS, PlaceCodec.PLACES)) {
+            for (int i = 0; i < 20_000; i++) {
+                store.put("address " + (i % 100), List.of(place));
+            }
+            assertThat(store.fileSize())
+                    .as("overwritten records are compacted")
+                    .isLessThan(3 * PlaceStore.MIN_COMPACTION_SIZE);
+            assertThat(store.size())
+                    .as("records")
+                    .isEqualTo(100);
+            store.compact();
+            assertThat(store.get("address 42"))
+                    .as("record after compaction")
+                    .containsExactly(place);
+        }
+        try (PlaceStore<List<Place>> store = new PlaceStore<>(file, 1, TimeUnit.DAYS, PlaceCodec.PLACES)) {
+            assertThat(store.size())
+                    .as("records after reopening")
+                    .isEqualTo(100);
+            assertThat(Files.exists(file.resolveSibling("geocode.log.compact")))
+                    .as("temporary file removed")
+                    .isFalse();
+        }
+    }
+}
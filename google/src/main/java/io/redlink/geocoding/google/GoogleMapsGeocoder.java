@@ -17,6 +17,7 @@ package io.redlink.geocoding.google;
 
 import com.google.maps.GeoApiContext;
 import com.google.maps.GeocodingApi;
+import com.google.maps.PendingResult;
 import com.google.maps.PlacesApi;
 import com.google.maps.errors.InvalidRequestException;
 import io.redlink.geocoding.Geocoder;
@@ -26,6 +27,8 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -107,8 +110,73 @@ public class GoogleMapsGeocoder implements Geocoder {
         }
     }
 
-    
-    
+    @Override
+    public CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang) {
+        return execute(GeocodingApi.geocode(context, address)
+                        .language((lang == null ? language : lang).toLanguageTag()),
+                GoogleUtils::google2Places,
+                null);
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang) {
+        return execute(GeocodingApi.reverseGeocode(context, latLon2LatLng(coordinates))
+                        .language((lang == null ? language : lang).toLanguageTag()),
+                GoogleUtils::google2Places,
+                null);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang) {
+        return execute(PlacesApi.placeDetails(context, placeId)
+                        .language((lang == null ? language : lang).toLanguageTag()),
+                details -> Optional.of(placeDetails2Place(details)),
+                e -> {
+                    if (e instanceof InvalidRequestException) {
+                        LOG.trace("Invalid Request for lookup {}", placeId, e);
+                        return Optional.of(Optional.empty());
+                    }
+                    return Optional.empty();
+                });
+    }
+
+    /**
+     * Send the request using the callback-api of the {@link GeoApiContext}, so no thread is blocked while waiting
+     * for the response. Cancelling the returned future also cancels the request.
+     *
+     * @param fallback optionally provides a result for a failed request, may be {@code null}
+     */
+    private static <T, R> CompletableFuture<R> execute(PendingResult<T> request, Function<T, R> resultMapper,
+                                                       Function<Throwable, Optional<R>> fallback) {
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        request.setCallback(new PendingResult.Callback<>() {
+            @Override
+            public void onResult(T result) {
+                try {
+                    future.complete(resultMapper.apply(result));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(new IOException(e));
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable e) {
+                final Optional<R> fallbackResult = fallback != null ? fallback.apply(e) : Optional.empty();
+                if (fallbackResult.isPresent()) {
+                    future.complete(fallbackResult.get());
+                } else {
+                    future.completeExceptionally(new IOException(e));
+                }
+            }
+        });
+        future.whenComplete((r, t) -> {
+            if (future.isCancelled()) {
+                request.cancel();
+            }
+        });
+        return future;
+    }
+
     @Override
     public String toString() {
         return "GoogleMapsGeocoder [auth:"+ (cryptoSecretSet ? " cryptoSecret" : "") + (apiKeySet ? " apiKey" : "") + ",language=" + language + "]";
@@ -30,6 +30,7 @@ import java.util.Collection;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.LoggerFactory;
@@ -149,6 +150,23 @@ class GoogleMapsGeocoderIT {
                 .hasFieldOrProperty("address");
     }
 
+    @Test
+    void testAsync() throws Exception {
+        assertThat(gmGeocoder.geocodeAsync(TEST_ADDRESS).get(30, TimeUnit.SECONDS))
+                .as("Async Geocoded Places")
+                .isNotEmpty();
+        assertThat(gmGeocoder.reverseGeocodeAsync(latLon).get(30, TimeUnit.SECONDS))
+                .as("Async Reverse Geocoded Places")
+                .isNotEmpty();
+        assertThat(gmGeocoder.lookupAsync(TEST_PLACE_ID).get(30, TimeUnit.SECONDS))
+                .as("Async Place Lookup")
+                .isPresent().get()
+                .hasFieldOrPropertyWithValue("placeId", TEST_PLACE_ID);
+        assertThat(gmGeocoder.lookupAsync("#!invalid").get(30, TimeUnit.SECONDS))
+                .as("Async invalid placeId -> empty()")
+                .isEmpty();
+    }
+
     @Test
     void testInvalidLookup() throws IOException {
         assertThat(gmGeocoder.lookup("#!invalid"))
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A rate-limit shared by all instances using the same {@link RateLimitStore}.
+ * <p>
+ * This is a token bucket holding a single permit, implemented as generic cell rate algorithm: the store keeps the
+ * time the next permit is available, and every request reserves its permit by moving that time one interval
+ * ahead (compare-and-set, retried on conflicts). The request then waits until its reserved time, without blocking a
+ * thread. Requests that would have to wait longer than {@code maxWait} are rejected without reserving a permit.
+ * A cancelled request gives its permit back, unless a later permit was reserved in the meantime.
+ * <p>
+ * The timestamps are wall-clock time, so the clocks of the cluster should be synchronized (e.g. NTP).
+ */
+class ClusterRateLimiter {
+
+    private final RateLimitStore store;
+    private final String key;
+    private final long intervalMicros;
+    private final long maxWaitMicros;
+    private final LongSupplier clock;
+
+    /**
+     * @param maxWait max. time a request may wait for a permit, a negative value waits as long as it takes
+     */
+    ClusterRateLimiter(RateLimitStore store, String key, double permitsPerSecond, long maxWait, TimeUnit timeUnit) {
+        this(store, key, permitsPerSecond, maxWait < 0 ? -1 : timeUnit.toMicros(maxWait),
+                () -> ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now()));
+    }
+
+    ClusterRateLimiter(RateLimitStore store, String key, double permitsPerSecond, long maxWaitMicros, LongSupplier clock) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.store = store;
+        this.key = key;
+        this.intervalMicros = (long) (TimeUnit.SECONDS.toMicros(1) / permitsPerSecond);
+        this.maxWaitMicros = maxWaitMicros;
+        this.clock = clock;
+    }
+
+    /**
+     * Request a permit.
+     *
+     * @return a future that completes once the request may be sent, or fails with a
+     * {@link RateLimitExceededException}
+     */
+    CompletableFuture<Void> acquire(Priority priority) {
+        return acquire(priority, 0);
+    }
+
+    /**
+     * Request a permit for a request that already waited for other rate-limits, that time is deducted from the
+     * max. wait.
+     *
+     * @param waitedMicros the time (in microseconds) the request already waited
+     * @return a future that completes once the request may be sent, or fails with a
+     * {@link RateLimitExceededException}. Cancelling it gives the reserved permit back.
+     */
+    CompletableFuture<Void> acquire(Priority priority, long waitedMicros) {
+        final long maxWait = maxWaitMicros < 0 ? -1 : Math.max(0, maxWaitMicros - waitedMicros);
+        final Reservation reservation;
+        try {
+            reservation = reserve(maxWait);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (reservation == null) {
+            return CompletableFuture.failedFuture(new RateLimitExceededException(
+                    String.format("No cluster-wide rate-limit permit available within %dms",
+                            TimeUnit.MICROSECONDS.toMillis(maxWait)), priority));
+        }
+        if (reservation.wait == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final CompletableFuture<Void> permit = new CompletableFuture<>();
+        CompletableFuture.delayedExecutor(reservation.wait, TimeUnit.MICROSECONDS)
+                .execute(() -> permit.complete(null));
+        permit.whenComplete((r, t) -> {
+            if (permit.isCancelled()) {
+                release(reservation);
+            }
+        });
+        return permit;
+    }
+
+    /**
+     * Reserve the next permit.
+     *
+     * @return the reserved permit, or {@code null} if the wait would exceed the max. wait
+     */
+    private Reservation reserve(long maxWait) {
+        while (true) {
+            final long now = clock.getAsLong();
+            final long next = store.get(key);
+            final long permit = Math.max(next, now);
+            final long wait = permit - now;
+            if (maxWait >= 0 && wait > maxWait) {
+                return null;
+            }
+            if (store.compareAndSet(key, next, permit + intervalMicros)) {
+                return new Reservation(wait, permit + intervalMicros);
+            }
+        }
+    }
+
+    /**
+     * Give a reserved permit back, this fails if a later permit was reserved in the meantime.
+     */
+    private boolean release(Reservation reservation) {
+        return store.compareAndSet(key, reservation.next, reservation.next - intervalMicros);
+    }
+
+    @Override
+    public String toString() {
+        return "ClusterRateLimiter{key='" + key + "', permitsPerSecond="
+                + (double) TimeUnit.SECONDS.toMicros(1) / intervalMicros + '}';
+    }
+
+    private static final class Reservation {
+        private final long wait;
+        private final long next;
+
+        private Reservation(long wait, long next) {
+            this.wait = wait;
+            this.next = next;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+import io.redlink.geocoding.internal.AdaptiveBackoff;
+import java.util.Objects;
+import org.apache.hc.core5.util.TimeValue;
+
+/**
+ * Settings for the pooled http-client shared by all requests of a {@link NominatimGeocoder},
+ * and how requests are rate-limited and retried.
+ */
+class ConnectionConfiguration {
+
+    static final int DEFAULT_MAX_CONNECTIONS_PER_ROUTE = 5;
+    static final int DEFAULT_MAX_CONNECTIONS_TOTAL = 25;
+    static final TimeValue DEFAULT_IDLE_EVICTION = TimeValue.ofMinutes(1);
+    static final int DEFAULT_MIRROR_FAILURE_THRESHOLD = 3;
+    static final TimeValue DEFAULT_MIRROR_EJECTION_TIME = TimeValue.ofSeconds(30);
+
+    private final int maxConnectionsPerRoute;
+    private final int maxConnectionsTotal;
+    private final TimeValue idleEviction;
+    private final TimeValue connectionTimeToLive;
+    private final int prewarmConnections;
+    private final TimeValue maxRateLimitWait;
+    private final int maxRetries;
+    private final TimeValue retryDelay;
+    private final TimeValue maxRetryDelay;
+    private final RateLimitStore rateLimitStore;
+    private final int mirrorFailureThreshold;
+    private final TimeValue mirrorEjectionTime;
+
+    ConnectionConfiguration() {
+        this(DEFAULT_MAX_CONNECTIONS_PER_ROUTE, DEFAULT_MAX_CONNECTIONS_TOTAL,
+                DEFAULT_IDLE_EVICTION, null, 0);
+    }
+
+    ConnectionConfiguration(int maxConnectionsPerRoute, int maxConnectionsTotal,
+                            TimeValue idleEviction, TimeValue connectionTimeToLive,
+                            int prewarmConnections) {
+        this(maxConnectionsPerRoute, maxConnectionsTotal, idleEviction, connectionTimeToLive, prewarmConnections, null,
+                AdaptiveBackoff.DEFAULT_MAX_RETRIES, null, null, null,
+                DEFAULT_MIRROR_FAILURE_THRESHOLD, null);
+    }
+
+    ConnectionConfiguration(int maxConnectionsPerRoute, int maxConnectionsTotal,
+                            TimeValue idleEviction, TimeValue connectionTimeToLive,
+                            int prewarmConnections, TimeValue maxRateLimitWait,
+                            int maxRetries, TimeValue retryDelay, TimeValue maxRetryDelay,
+                            RateLimitStore rateLimitStore,
+                            int mirrorFailureThreshold, TimeValue mirrorEjectionTime) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.maxConnectionsTotal = maxConnectionsTotal;
+        this.idleEviction = idleEviction;
+        this.connectionTimeToLive = connectionTimeToLive;
+        this.prewarmConnections = prewarmConnections;
+        this.maxRateLimitWait = maxRateLimitWait;
+        this.maxRetries = maxRetries;
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.rateLimitStore = rateLimitStore;
+        this.mirrorFailureThreshold = mirrorFailureThreshold;
+        this.mirrorEjectionTime = mirrorEjectionTime;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute > 0 ? maxConnectionsPerRoute : DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+    }
+
+    public int getMaxConnectionsTotal() {
+        return Math.max(getMaxConnectionsPerRoute(),
+                maxConnectionsTotal > 0 ? maxConnectionsTotal : DEFAULT_MAX_CONNECTIONS_TOTAL);
+    }
+
+    /**
+     * Idle connections are closed after this time, {@code null} disables idle eviction.
+     */
+    public TimeValue getIdleEviction() {
+        return idleEviction;
+    }
+
+    /**
+     * Connections are not re-used after this time, {@code null} keeps connections for as long as the server allows.
+     */
+    public TimeValue getConnectionTimeToLive() {
+        return Objects.requireNonNullElse(connectionTimeToLive, TimeValue.NEG_ONE_MILLISECOND);
+    }
+
+    /**
+     * Number of connections to open when the geocoder is created.
+     */
+    public int getPrewarmConnections() {
+        return Math.min(Math.max(prewarmConnections, 0), getMaxConnectionsPerRoute());
+    }
+
+    /**
+     * Requests fail if they would have to wait longer for a rate-limit permit, {@code null} waits as long as it takes.
+     */
+    public TimeValue getMaxRateLimitWait() {
+        return maxRateLimitWait;
+    }
+
+    /**
+     * Max. number of retries of a request rejected because the server is overloaded (HTTP 429/503).
+     */
+    public int getMaxRetries() {
+        return Math.max(maxRetries, 0);
+    }
+
+    /**
+     * Delay before the first retry, doubled for every further retry.
+     */
+    public TimeValue getRetryDelay() {
+        return Objects.requireNonNullElse(retryDelay, TimeValue.ofMilliseconds(AdaptiveBackoff.DEFAULT_BASE_DELAY_MILLIS));
+    }
+
+    /**
+     * Upper bound for the delay between retries.
+     */
+    public TimeValue getMaxRetryDelay() {
+        return Objects.requireNonNullElse(maxRetryDelay, TimeValue.ofMilliseconds(AdaptiveBackoff.DEFAULT_MAX_DELAY_MILLIS));
+    }
+
+    /**
+     * Store of the cluster-wide rate-limit, {@code null} if the rate-limit only applies to this JVM.
+     */
+    public RateLimitStore getRateLimitStore() {
+        return rateLimitStore;
+    }
+
+    /**
+     * A server is ejected after this number of consecutive failures.
+     */
+    public int getMirrorFailureThreshold() {
+        return mirrorFailureThreshold > 0 ? mirrorFailureThreshold : DEFAULT_MIRROR_FAILURE_THRESHOLD;
+    }
+
+    /**
+     * How long an ejected server does not get requests (while other servers are available).
+     */
+    public TimeValue getMirrorEjectionTime() {
+        return Objects.requireNonNullElse(mirrorEjectionTime, DEFAULT_MIRROR_EJECTION_TIME);
+    }
+
+}
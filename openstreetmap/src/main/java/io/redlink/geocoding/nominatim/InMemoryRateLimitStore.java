@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.nominatim;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link RateLimitStore} in the memory of this JVM, intended for tests. Geocoders using the same instance share
+ * their rate-limit as if they were running on different nodes of a cluster.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Map<String, AtomicLong> values = new ConcurrentHashMap<>();
+
+    @Override
+    public long get(String key) {
+        final AtomicLong value = values.get(key);
+        return value != null ? value.get() : 0;
+    }
+
+    @Override
+    public boolean compareAndSet(String key, long expected, long update) {
+        return values.computeIfAbsent(key, k -> new AtomicLong()).compareAndSet(expected, update);
+    }
+
+}
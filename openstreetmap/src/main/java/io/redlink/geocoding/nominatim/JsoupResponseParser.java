@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+
+/**
+ * {@link ParserType#JSOUP}: loads the response into a DOM and selects the places from it.
+ */
+class JsoupResponseParser extends ResponseParser {
+
+    @Override
+    List<Place> parsePlaces(InputStream response, String requestUri) throws IOException {
+        return parse(response, requestUri).select("place").stream()
+                .map(JsoupResponseParser::readPlace)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    List<Place> parseReverse(InputStream response, String requestUri, LatLon coordinates) throws IOException {
+        final Element result = parse(response, requestUri).selectFirst("reversegeocode result");
+        if (result == null) {
+            return List.of();
+        } else {
+            return List.of(
+                    Place.create(createPlaceId(result.attr(ATTR_OSM_TYPE), result.attr(ATTR_OSM_ID)), result.text(), coordinates)
+            );
+        }
+    }
+
+    static Optional<Place> readPlace(Element element) {
+        if (element == null) {
+            return Optional.empty();
+        }
+
+        final Map<String, String> details = new LinkedHashMap<>();
+        element.children().forEach(child -> {
+            final String value = child.text();
+            if (StringUtils.isNotBlank(value)) {
+                details.put(child.nodeName(), value);
+            }
+        });
+
+        return createPlace(element.attr(ATTR_OSM_TYPE), element.attr(ATTR_OSM_ID), element.attr(ATTR_DISPLAY_NAME),
+                element.attr(ATTR_LAT), element.attr(ATTR_LON), details);
+    }
+
+    private static Document parse(InputStream response, String requestUri) throws IOException {
+        return Jsoup.parse(response, "utf-8", requestUri, Parser.xmlParser());
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+import io.redlink.geocoding.Place;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects concurrent single-id lookups for a short window and resolves them with a single multi-id request.
+ * <p>
+ * A batch is sent when the window of its first lookup has passed, or as soon as it holds {@code maxBatchSize}
+ * distinct ids. Lookups with a different language or priority are collected in separate batches. The places of the
+ * response are handed back to the waiting callers by their placeId ({@code osm_type}+{@code osm_id}).
+ */
+class LookupBatcher implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LookupBatcher.class);
+
+    private final BatchLookup batchLookup;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Batches that are still collecting lookups, by priority and language.
+     */
+    private final Map<Priority, Map<Locale, Batch>> collecting = new EnumMap<>(Priority.class);
+    private boolean closed = false;
+
+    LookupBatcher(BatchLookup batchLookup, long window, TimeUnit timeUnit, int maxBatchSize) {
+        this.batchLookup = batchLookup;
+        this.windowNanos = timeUnit.toNanos(window);
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "nominatim-lookup-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    CompletableFuture<Optional<Place>> submit(String placeId, Locale lang, Priority priority) {
+        final CompletableFuture<Optional<Place>> result = new CompletableFuture<>();
+        final Batch full;
+        synchronized (this) {
+            if (closed) {
+                result.completeExceptionally(new IOException("NominatimGeocoder is closed"));
+                return result;
+            }
+            final Map<Locale, Batch> batches = collecting.computeIfAbsent(priority, p -> new HashMap<>());
+            Batch batch = batches.get(lang);
+            if (batch == null) {
+                batch = new Batch(lang, priority);
+                batches.put(lang, batch);
+                final Batch scheduled = batch;
+                scheduler.schedule(() -> flush(scheduled), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            batch.add(placeId.trim().toUpperCase(Locale.ROOT), result);
+            if (batch.size() >= maxBatchSize) {
+                batches.remove(lang);
+                full = batch;
+            } else {
+                full = null;
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return result;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (this) {
+            final Map<Locale, Batch> batches = collecting.get(batch.priority);
+            if (closed || batches == null || batches.get(batch.lang) != batch) {
+                // already sent because it was full, or failed by close()
+                return;
+            }
+            batches.remove(batch.lang);
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        final List<String> ids = batch.pendingIds();
+        if (ids.isEmpty()) {
+            return;
+        }
+        LOG.trace("Sending batch of {} lookups", ids.size());
+        final CompletableFuture<List<Place>> response;
+        try {
+            response = batchLookup.lookup(ids, batch.lang, batch.priority);
+        } catch (RuntimeException e) {
+            batch.fail(e);
+            return;
+        }
+        response.whenComplete((places, failure) -> {
+            if (failure != null) {
+                batch.fail(failure);
+            } else {
+                batch.complete(places);
+            }
+        });
+    }
+
+    /**
+     * Fails all lookups that have not been sent yet.
+     */
+    @Override
+    public void close() {
+        final List<Batch> pending;
+        synchronized (this) {
+            closed = true;
+            pending = new ArrayList<>();
+            collecting.values().forEach(batches -> pending.addAll(batches.values()));
+            collecting.clear();
+        }
+        scheduler.shutdownNow();
+        final IOException closedException = new IOException("NominatimGeocoder is closed");
+        pending.forEach(batch -> batch.fail(closedException));
+    }
+
+    /**
+     * Sends a multi-id lookup request.
+     */
+    @FunctionalInterface
+    interface BatchLookup {
+        CompletableFuture<List<Place>> lookup(List<String> placeIds, Locale lang, Priority priority);
+    }
+
+    private static final class Batch {
+
+        private final Locale lang;
+        private final Priority priority;
+        private final Map<String, List<CompletableFuture<Optional<Place>>>> waiting = new LinkedHashMap<>();
+
+        private Batch(Locale lang, Priority priority) {
+            this.lang = lang;
+            this.priority = priority;
+        }
+
+        private void add(String placeId, CompletableFuture<Optional<Place>> result) {
+            waiting.computeIfAbsent(placeId, id -> new ArrayList<>(1)).add(result);
+        }
+
+        private int size() {
+            return waiting.size();
+        }
+
+        /**
+         * The ids with at least one caller still waiting, cancelled lookups are not sent.
+         */
+        private List<String> pendingIds() {
+            final List<String> ids = new ArrayList<>(waiting.size());
+            waiting.forEach((placeId, results) -> {
+                if (results.stream().anyMatch(result -> !result.isDone())) {
+                    ids.add(placeId);
+                }
+            });
+            return ids;
+        }
+
+        private void complete(List<Place> places) {
+            final Map<String, Place> found = new HashMap<>();
+            places.forEach(place -> found.putIfAbsent(place.getPlaceId(), place));
+            waiting.forEach((placeId, results) -> {
+                final Optional<Place> place = Optional.ofNullable(found.get(placeId));
+                results.forEach(result -> result.complete(place));
+            });
+        }
+
+        private void fail(Throwable failure) {
+            waiting.values().forEach(results -> results.forEach(result -> result.completeExceptionally(failure)));
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+import io.redlink.geocoding.internal.AdaptiveBackoff;
+import java.io.Closeable;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One of the servers of a {@link NominatimGeocoder}, with its own rate-limit and back-off, and the statistics used
+ * to balance requests across the servers: the latency (exponentially weighted moving average) of successful
+ * requests, the requests in flight, and the consecutive failures.
+ * <p>
+ * After {@code failureThreshold} consecutive failures the server is ejected, i.e. not used while other servers are
+ * available, for {@code ejectionTime}. Afterwards it gets requests again, but is ejected again by the next failure
+ * until a request succeeds.
+ */
+class Mirror implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Mirror.class);
+
+    /**
+     * Weight of the latest sample in the latency average.
+     */
+    static final double LATENCY_WEIGHT = 0.3;
+
+    private final URI baseUrl;
+    private final String prefix;
+    private final AdaptiveBackoff backoff;
+    private final RateLimiterRegistry.Lease rateLimitLease;
+    private final ClusterRateLimiter clusterRateLimiter;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final LongSupplier ticker;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double latencyNanos = -1;
+    private int consecutiveFailures = 0;
+    private boolean ejected = false;
+    private long ejectedUntil;
+    private long failureCount = 0;
+    private long ejectionCount = 0;
+
+    /**
+     * @param rateLimitLease the rate-limit of the server, {@code null} if requests are not rate-limited
+     * @param clusterRateLimiter the cluster-wide rate-limit of the server, may be {@code null}
+     */
+    Mirror(URI baseUrl, AdaptiveBackoff backoff, RateLimiterRegistry.Lease rateLimitLease,
+           ClusterRateLimiter clusterRateLimiter, int failureThreshold, long ejectionTime, TimeUnit timeUnit,
+           LongSupplier ticker) {
+        this.baseUrl = baseUrl;
+        this.prefix = StringUtils.removeEnd(baseUrl.toString(), "/");
+        this.backoff = backoff;
+        this.rateLimitLease = rateLimitLease;
+        this.clusterRateLimiter = clusterRateLimiter;
+        this.failureThreshold = failureThreshold;
+        this.ejectionNanos = timeUnit.toNanos(ejectionTime);
+        this.ticker = ticker;
+    }
+
+    URI getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * The base-url without trailing slash.
+     */
+    String getPrefix() {
+        return prefix;
+    }
+
+    AdaptiveBackoff getBackoff() {
+        return backoff;
+    }
+
+    /**
+     * The rate-limit of the server, {@code null} if requests are not rate-limited.
+     */
+    RateLimitScheduler getRateLimiter() {
+        return rateLimitLease != null ? rateLimitLease.getScheduler() : null;
+    }
+
+    ClusterRateLimiter getClusterRateLimiter() {
+        return clusterRateLimiter;
+    }
+
+    /**
+     * Waits for the rate-limit (first of this JVM, then of the cluster), or without rate-limit
+     * for the pause of the back-off. The cluster-wide rate-limit gets the max. wait left after the local one,
+     * cancelling the returned future also cancels the wait for the permit it is currently waiting for.
+     */
+    CompletableFuture<Void> acquirePermit(Priority priority) {
+        final RateLimitScheduler rateLimiter = getRateLimiter();
+        if (rateLimiter == null) {
+            final long pause = backoff.getPauseNanos();
+            if (pause <= 0) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return CompletableFuture.runAsync(() -> {
+            }, CompletableFuture.delayedExecutor(pause, TimeUnit.NANOSECONDS));
+        }
+        if (clusterRateLimiter != null) {
+            return acquirePermits(rateLimiter, priority);
+        }
+        return rateLimiter.acquire(priority);
+    }
+
+    private CompletableFuture<Void> acquirePermits(RateLimitScheduler rateLimiter, Priority priority) {
+        final long start = ticker.getAsLong();
+        final CompletableFuture<Void> permit = new CompletableFuture<>();
+        final CompletableFuture<Void> localPermit = rateLimiter.acquire(priority);
+        localPermit.whenComplete((p, localFailure) -> {
+            if (localFailure != null) {
+                permit.completeExceptionally(localFailure);
+                return;
+            }
+            final CompletableFuture<Void> clusterPermit = clusterRateLimiter.acquire(priority,
+                    TimeUnit.NANOSECONDS.toMicros(ticker.getAsLong() - start));
+            permit.whenComplete((r, t) -> {
+                if (permit.isCancelled()) {
+                    clusterPermit.cancel(false);
+                }
+            });
+            clusterPermit.whenComplete((c, clusterFailure) -> {
+                if (clusterFailure != null) {
+                    permit.completeExceptionally(clusterFailure);
+                } else {
+                    permit.complete(null);
+                }
+            });
+        });
+        permit.whenComplete((r, t) -> {
+            if (permit.isCancelled()) {
+                localPermit.cancel(false);
+            }
+        });
+        return permit;
+    }
+
+    /**
+     * A request was assigned to the server, it is in flight until {@link #onFinish()}.
+     */
+    void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    void onFinish() {
+        inFlight.decrementAndGet();
+    }
+
+    synchronized void onSuccess(long requestNanos) {
+        latencyNanos = latencyNanos < 0
+                ? requestNanos
+                : latencyNanos + LATENCY_WEIGHT * (requestNanos - latencyNanos);
+        consecutiveFailures = 0;
+        if (ejected) {
+            ejected = false;
+            LOG.info("{} is available again", baseUrl);
+        }
+    }
+
+    synchronized void onFailure() {
+        failureCount++;
+        if (++consecutiveFailures >= failureThreshold) {
+            final long now = ticker.getAsLong();
+            if (!ejected || now - ejectedUntil >= 0) {
+                ejected = true;
+                ejectedUntil = now + ejectionNanos;
+                ejectionCount++;
+                LOG.warn("Ejecting {} for {}ms after {} consecutive failures", baseUrl,
+                        TimeUnit.NANOSECONDS.toMillis(ejectionNanos), consecutiveFailures);
+            }
+        }
+    }
+
+    /**
+     * Whether the server is not ejected (anymore).
+     */
+    synchronized boolean isAvailable() {
+        return !ejected || ticker.getAsLong() - ejectedUntil >= 0;
+    }
+
+    /**
+     * Time until the ejection ends, {@code 0} if the server is available.
+     */
+    synchronized long getEjectionRemaining() {
+        return ejected ? Math.max(ejectedUntil - ticker.getAsLong(), 0) : 0;
+    }
+
+    /**
+     * The expected time to complete a new request: the average latency times the requests in flight (including
+     * the new one). Servers without successful requests yet score {@code 0}, so they are tried first.
+     */
+    synchronized double getScore() {
+        return Math.max(latencyNanos, 0) * (inFlight.get() + 1);
+    }
+
+    /**
+     * Average latency of successful requests, {@code -1} if there was none yet.
+     */
+    synchronized double getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    synchronized long getFailureCount() {
+        return failureCount;
+    }
+
+    synchronized long getEjectionCount() {
+        return ejectionCount;
+    }
+
+    /**
+     * Release the rate-limit.
+     */
+    @Override
+    public void close() {
+        if (rateLimitLease != null) {
+            rateLimitLease.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Mirror{baseUrl=" + baseUrl + ", rateLimiter=" + getRateLimiter()
+                + (clusterRateLimiter != null ? ", clusterRateLimiter=" + clusterRateLimiter : "") + '}';
+    }
+}
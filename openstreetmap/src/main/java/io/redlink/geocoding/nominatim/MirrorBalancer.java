@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Spreads requests across the servers of a {@link NominatimGeocoder} using power-of-two-choices: of two randomly
+ * picked available servers, the one with the lower {@link Mirror#getScore() score} (latency times requests in
+ * flight) gets the request. This avoids both the herding of always picking the best server and the overhead of
+ * comparing all servers. Ejected servers only get requests if all servers are ejected, then the one whose ejection
+ * ends first is used.
+ * <p>
+ * Request uris are built against the first server and {@link #rebase(URI, Mirror) rebased} to the chosen server.
+ */
+class MirrorBalancer implements Closeable {
+
+    private final List<Mirror> mirrors;
+
+    MirrorBalancer(List<Mirror> mirrors) {
+        if (mirrors.isEmpty()) {
+            throw new IllegalArgumentException("at least one server is required");
+        }
+        this.mirrors = List.copyOf(mirrors);
+    }
+
+    Mirror choose() {
+        if (mirrors.size() == 1) {
+            return mirrors.get(0);
+        }
+        final List<Mirror> available = new ArrayList<>(mirrors.size());
+        for (Mirror mirror : mirrors) {
+            if (mirror.isAvailable()) {
+                available.add(mirror);
+            }
+        }
+        if (available.isEmpty()) {
+            return mirrors.stream()
+                    .min(Comparator.comparingLong(Mirror::getEjectionRemaining))
+                    .orElseThrow();
+        } else if (available.size() == 1) {
+            return available.get(0);
+        }
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(available.size());
+        int second = random.nextInt(available.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        final Mirror a = available.get(first);
+        final Mirror b = available.get(second);
+        return a.getScore() <= b.getScore() ? a : b;
+    }
+
+    /**
+     * The uri of the request on the given server. Uris not starting with the base-url of the first server
+     * are returned unchanged.
+     */
+    URI rebase(URI uri, Mirror mirror) {
+        final Mirror primary = getPrimary();
+        if (mirror == primary) {
+            return uri;
+        }
+        final String requestUri = uri.toString();
+        if (!requestUri.startsWith(primary.getPrefix())) {
+            return uri;
+        }
+        return URI.create(mirror.getPrefix() + requestUri.substring(primary.getPrefix().length()));
+    }
+
+    /**
+     * The first server, request uris are built against its base-url.
+     */
+    Mirror getPrimary() {
+        return mirrors.get(0);
+    }
+
+    List<Mirror> getMirrors() {
+        return mirrors;
+    }
+
+    @Override
+    public void close() {
+        mirrors.forEach(Mirror::close);
+    }
+
+    @Override
+    public String toString() {
+        return mirrors.size() == 1 ? mirrors.get(0).toString() : mirrors.toString();
+    }
+}
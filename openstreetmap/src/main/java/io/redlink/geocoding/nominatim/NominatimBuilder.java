@@ -15,16 +15,20 @@
  */
 package io.redlink.geocoding.nominatim;
 
+import io.redlink.geocoding.internal.AdaptiveBackoff;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.Proxy;
 import java.net.URI;
 import java.net.URL;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import org.apache.hc.core5.util.TimeValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,7 +39,7 @@ public class NominatimBuilder {
 
     private static final Logger LOG = LoggerFactory.getLogger(NominatimBuilder.class);
 
-    private String baseUrl;
+    private List<String> baseUrls;
     private String email = null;
     private String userAgent = null;
     private Locale locale;
@@ -46,6 +50,24 @@ public class NominatimBuilder {
     private String reverseEndpoint = NominatimGeocoder.DEFAULT_REVERSE_ENDPOINT;
     private String lookupEndpoint = NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT;
 
+    private ParserType parserType = ParserType.JSOUP;
+
+    private int maxConnectionsPerRoute = ConnectionConfiguration.DEFAULT_MAX_CONNECTIONS_PER_ROUTE;
+    private int maxConnectionsTotal = ConnectionConfiguration.DEFAULT_MAX_CONNECTIONS_TOTAL;
+    private TimeValue idleConnectionEviction = ConnectionConfiguration.DEFAULT_IDLE_EVICTION;
+    private TimeValue connectionTimeToLive = null;
+    private int prewarmConnections = 0;
+    private TimeValue maxRateLimitWait = null;
+    private int maxRetries = AdaptiveBackoff.DEFAULT_MAX_RETRIES;
+    private TimeValue retryDelay = null;
+    private TimeValue maxRetryDelay = null;
+    private RateLimitStore rateLimitStore = null;
+    private int mirrorFailureThreshold = ConnectionConfiguration.DEFAULT_MIRROR_FAILURE_THRESHOLD;
+    private TimeValue mirrorEjectionTime = null;
+
+    private TimeValue lookupBatchWindow = null;
+    private int lookupBatchSize = NominatimGeocoder.MAX_LOOKUP_IDS;
+
     private final Map<String, String> customQuery = new LinkedHashMap<>();
     private final Map<String, String> customHeaders = new LinkedHashMap<>();
 
@@ -54,16 +76,25 @@ public class NominatimBuilder {
      */
     @Deprecated(since = "2.0.2")
     public NominatimBuilder() {
-        baseUrl = NominatimGeocoder.PUBLIC_NOMINATIM_SERVER;
+        baseUrls = List.of(NominatimGeocoder.PUBLIC_NOMINATIM_SERVER);
         locale = Locale.getDefault(Locale.Category.DISPLAY);
     }
 
     public NominatimGeocoder create() {
-        return new NominatimGeocoder(baseUrl, locale, email, proxy, maxQps,
+        return new NominatimGeocoder(baseUrls, locale, email, proxy, maxQps,
                 new ServiceConfiguration(
                         geocodeEndpoint, reverseEndpoint, lookupEndpoint,
                         customQuery, customHeaders,
-                        Objects.requireNonNullElseGet(userAgent, NominatimBuilder::createUserAgent))
+                        Objects.requireNonNullElseGet(userAgent, NominatimBuilder::createUserAgent),
+                        parserType,
+                        lookupBatchWindow, lookupBatchSize),
+                new ConnectionConfiguration(
+                        maxConnectionsPerRoute, maxConnectionsTotal,
+                        idleConnectionEviction, connectionTimeToLive,
+                        prewarmConnections, maxRateLimitWait,
+                        maxRetries, retryDelay, maxRetryDelay,
+                        rateLimitStore,
+                        mirrorFailureThreshold, mirrorEjectionTime)
         );
     }
 
@@ -76,7 +107,35 @@ public class NominatimBuilder {
     }
 
     public NominatimBuilder setBaseUrl(String baseUrl) {
-        this.baseUrl = baseUrl;
+        this.baseUrls = List.of(baseUrl);
+        return this;
+    }
+
+    /**
+     * Spread the requests across several (equivalent) servers, preferring the servers with the lowest latency.
+     * Each server has its own {@link #setQueryRateLimit(int) rate-limit}, and servers failing repeatedly are
+     * {@link #setMirrorEjection(int, long, TimeUnit) ejected} for a while.
+     */
+    public NominatimBuilder setBaseUrls(List<String> baseUrls) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("at least one baseUrl is required");
+        }
+        this.baseUrls = List.copyOf(baseUrls);
+        return this;
+    }
+
+    public NominatimBuilder setBaseUrls(String... baseUrls) {
+        return setBaseUrls(List.of(baseUrls));
+    }
+
+    /**
+     * Stop sending requests to a server after {@code consecutiveFailures} failed requests (connection failures,
+     * timeouts, HTTP-5xx), for the given time - unless all servers are ejected. Defaults to 3 failures and
+     * 30 seconds, only relevant with {@link #setBaseUrls(List) several servers}.
+     */
+    public NominatimBuilder setMirrorEjection(int consecutiveFailures, long ejectionTime, TimeUnit timeUnit) {
+        this.mirrorFailureThreshold = consecutiveFailures;
+        this.mirrorEjectionTime = TimeValue.of(ejectionTime, timeUnit);
         return this;
     }
 
@@ -85,11 +144,58 @@ public class NominatimBuilder {
         return this;
     }
 
+    /**
+     * Max. number of requests per second, the public nominatim server is always limited to 1 request per second.
+     * All geocoders of the JVM sending requests to the same host (and port) share this budget.
+     */
     public NominatimBuilder setQueryRateLimit(int maxQps) {
         this.maxQps = maxQps;
         return this;
     }
 
+    /**
+     * Fail requests with a {@link RateLimitExceededException} instead of waiting longer than this for a rate-limit
+     * permit. A negative value waits as long as it takes (the default).
+     */
+    public NominatimBuilder setMaxRateLimitWait(long maxWait, TimeUnit timeUnit) {
+        this.maxRateLimitWait = maxWait >= 0 ? TimeValue.of(maxWait, timeUnit) : null;
+        return this;
+    }
+
+    /**
+     * Apply the {@link #setQueryRateLimit(int) query rate-limit} across all instances using the same store, e.g.
+     * several replicas of a proxy-server sending requests to one Nominatim server. {@code null} (the default) limits
+     * the requests of this JVM only.
+     *
+     * @see RateLimitStore
+     */
+    public NominatimBuilder setClusterRateLimit(RateLimitStore rateLimitStore) {
+        this.rateLimitStore = rateLimitStore;
+        return this;
+    }
+
+    /**
+     * Max. number of retries of a request the server rejected because it is overloaded (HTTP 429/503),
+     * defaults to {@value AdaptiveBackoff#DEFAULT_MAX_RETRIES}. {@code 0} disables retries, but the geocoder still
+     * pauses and lowers the request rate after such a response.
+     *
+     * @see AdaptiveBackoff
+     */
+    public NominatimBuilder setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    /**
+     * The delay before the first retry (doubled for every further retry, with jitter) and the max. delay,
+     * defaults to 1 and 30 seconds. A {@code Retry-After} sent by the server is always respected.
+     */
+    public NominatimBuilder setRetryDelay(long delay, long maxDelay, TimeUnit timeUnit) {
+        this.retryDelay = TimeValue.of(delay, timeUnit);
+        this.maxRetryDelay = TimeValue.of(maxDelay, timeUnit);
+        return this;
+    }
+
     public NominatimBuilder setLocale(String lang) {
         this.locale = Locale.forLanguageTag(lang);
         return this;
@@ -135,6 +241,75 @@ public class NominatimBuilder {
         return this;
     }
 
+    /**
+     * The parser used to read the server-responses, defaults to {@link ParserType#JSOUP}.
+     * Use {@link ParserType#STAX} to read large results without building a DOM.
+     */
+    public NominatimBuilder setParserType(ParserType parserType) {
+        this.parserType = parserType;
+        return this;
+    }
+
+    /**
+     * Maximum number of pooled connections to the nominatim server.
+     */
+    public NominatimBuilder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        return this;
+    }
+
+    /**
+     * Maximum number of pooled connections in total, only relevant when connecting via different routes.
+     */
+    public NominatimBuilder setMaxConnectionsTotal(int maxConnectionsTotal) {
+        this.maxConnectionsTotal = maxConnectionsTotal;
+        return this;
+    }
+
+    /**
+     * Close pooled connections that have been idle for the given time. A non-positive timeout disables idle eviction.
+     */
+    public NominatimBuilder setIdleConnectionEviction(long timeout, TimeUnit timeUnit) {
+        this.idleConnectionEviction = timeout > 0 ? TimeValue.of(timeout, timeUnit) : null;
+        return this;
+    }
+
+    /**
+     * Do not re-use pooled connections that are older than the given time.
+     * A non-positive ttl keeps connections as long as the server allows.
+     */
+    public NominatimBuilder setConnectionTimeToLive(long ttl, TimeUnit timeUnit) {
+        this.connectionTimeToLive = ttl > 0 ? TimeValue.of(ttl, timeUnit) : null;
+        return this;
+    }
+
+    /**
+     * Number of connections to open when creating the geocoder, capped by {@link #setMaxConnectionsPerRoute(int)}.
+     */
+    public NominatimBuilder setPrewarmConnections(int prewarmConnections) {
+        this.prewarmConnections = prewarmConnections;
+        return this;
+    }
+
+    /**
+     * Collect concurrent {@code lookup} calls for the given time and resolve them with a single multi-id request.
+     * This trades a little latency for fewer requests, use it with rate-limited servers such as the public
+     * nominatim server. A non-positive window disables batching (the default).
+     */
+    public NominatimBuilder setLookupBatching(long window, TimeUnit timeUnit) {
+        this.lookupBatchWindow = window > 0 ? TimeValue.of(window, timeUnit) : null;
+        return this;
+    }
+
+    /**
+     * Max. number of ids in a batched lookup request, a batch is sent right away when it is full.
+     * Capped by the server-limit of {@value NominatimGeocoder#MAX_LOOKUP_IDS} ids.
+     */
+    public NominatimBuilder setLookupBatchSize(int lookupBatchSize) {
+        this.lookupBatchSize = lookupBatchSize;
+        return this;
+    }
+
     private static String createUserAgent() {
         final String userAgent = String.format("redlink-geocoding/%s (%s; +%s)",
                 readLibVersion(),
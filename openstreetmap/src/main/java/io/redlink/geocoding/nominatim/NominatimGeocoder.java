@@ -15,35 +15,73 @@
  */
 package io.redlink.geocoding.nominatim;
 
-import com.google.common.util.concurrent.RateLimiter;
-import io.redlink.geocoding.AddressComponent;
-import io.redlink.geocoding.AddressComponent.Type;
 import io.redlink.geocoding.Geocoder;
 import io.redlink.geocoding.LatLon;
 import io.redlink.geocoding.Place;
+import io.redlink.geocoding.internal.AdaptiveBackoff;
+import io.redlink.geocoding.internal.ServiceOverloadedException;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.InetSocketAddress;
 import java.net.Proxy;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.EnumMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.hc.client5.http.HttpRequestRetryStrategy;
+import org.apache.hc.client5.http.HttpResponseException;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.DefaultSchemePortResolver;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClientBuilder;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.client5.http.routing.RoutingSupport;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.HttpResponse;
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.net.URIBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
@@ -55,9 +93,22 @@ import static org.apache.commons.lang3.StringUtils.prependIfMissing;
 import static org.apache.commons.lang3.StringUtils.removeEnd;
 
 /**
- * Geocoder backed with OpenStreetMaps (Nominatim)
+ * Geocoder backed with OpenStreetMaps (Nominatim).
+ * <p>
+ * All requests share a pooled http-client, so make sure to {@link #close()} the geocoder when it's no longer needed.
+ * The {@code *Async} methods use a separate, non-blocking http-client that is created on first use.
+ * <p>
+ * With {@link NominatimBuilder#setLookupBatching(long, TimeUnit) lookup batching} enabled,
+ * concurrent {@link #lookup(String, Locale)} calls are collected and sent as one multi-id request.
+ * <p>
+ * With a {@link NominatimBuilder#setQueryRateLimit(int) rate-limit}, the {@code *Async} methods wait for a permit
+ * without blocking a thread. Interactive requests are served before the requests of a
+ * {@link #withPriority(Priority) bulk view}, e.g. used by background jobs.
+ * <p>
+ * When the server is overloaded (HTTP 429/503), the geocoder backs off: it pauses (respecting {@code Retry-After}),
+ * temporarily lowers the request rate and retries the request, see {@link AdaptiveBackoff}.
  */
-public class NominatimGeocoder implements Geocoder {
+public class NominatimGeocoder implements Geocoder, Closeable {
 
     private static final Logger LOG = LoggerFactory.getLogger(NominatimGeocoder.class);
 
@@ -89,13 +140,33 @@ public class NominatimGeocoder implements Geocoder {
     protected static final String PARAM_FORMAT = "format";
     protected static final String PARAM_PLACEDETAILS = "addressdetails";
 
+    /**
+     * Max. number of ids nominatim accepts in a single {@code /lookup} request.
+     */
+    static final int MAX_LOOKUP_IDS = 50;
+
+    /**
+     * Overload responses are retried by the {@link AdaptiveBackoff}, the http-clients only retry I/O errors.
+     */
+    private static final HttpRequestRetryStrategy RETRY_STRATEGY = new DefaultHttpRequestRetryStrategy() {
+        @Override
+        public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+            return false;
+        }
+    };
+
     private final URI baseUrl;
     private final Locale language;
     private final String email;
     private final Proxy proxy;
     private final ServiceConfiguration serviceConfiguration;
-    @SuppressWarnings("UnstableApiUsage")
-    private final RateLimiter rateLimiter;
+    private final ResponseParser responseParser;
+    private final MirrorBalancer mirrors;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final ConnectionConfiguration connectionConfiguration;
+    private final LookupBatcher lookupBatcher;
+    private CloseableHttpAsyncClient asyncClient;
 
     /**
      * @deprecated use {@link #builder()}
@@ -130,22 +201,83 @@ public class NominatimGeocoder implements Geocoder {
     }
 
     NominatimGeocoder(String baseUrl, Locale language, String email, Proxy proxy, int maxQps, ServiceConfiguration serviceConfiguration) {
-        this.baseUrl = URI.create(baseUrl);
+        this(baseUrl, language, email, proxy, maxQps, serviceConfiguration, new ConnectionConfiguration());
+    }
+
+    NominatimGeocoder(String baseUrl, Locale language, String email, Proxy proxy, int maxQps,
+                      ServiceConfiguration serviceConfiguration, ConnectionConfiguration connectionConfiguration) {
+        this(List.of(baseUrl), language, email, proxy, maxQps, serviceConfiguration, connectionConfiguration);
+    }
+
+    /**
+     * @param baseUrls the servers to spread the requests across, each with its own rate-limit of {@code maxQps}
+     */
+    NominatimGeocoder(List<String> baseUrls, Locale language, String email, Proxy proxy, int maxQps,
+                      ServiceConfiguration serviceConfiguration, ConnectionConfiguration connectionConfiguration) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("at least one baseUrl is required");
+        }
+        this.baseUrl = URI.create(baseUrls.get(0));
         this.language = language;
         this.email = email;
         this.proxy = proxy;
         this.serviceConfiguration = serviceConfiguration;
+        this.responseParser = ResponseParser.create(serviceConfiguration.getParserType());
+        final List<Mirror> mirrorList = new ArrayList<>(baseUrls.size());
+        for (String mirrorUrl : baseUrls) {
+            mirrorList.add(createMirror(mirrorUrl, maxQps, connectionConfiguration));
+        }
+        mirrors = new MirrorBalancer(mirrorList);
+        this.connectionConfiguration = connectionConfiguration;
+        connectionManager = createConnectionManager(connectionConfiguration);
+        httpClient = createHttpClient(connectionManager, connectionConfiguration);
+        if (connectionConfiguration.getPrewarmConnections() > 0) {
+            prewarmConnections(connectionConfiguration.getPrewarmConnections());
+        }
+        final TimeValue lookupBatchWindow = serviceConfiguration.getLookupBatchWindow();
+        if (lookupBatchWindow != null) {
+            lookupBatcher = new LookupBatcher(this::lookupBatch, lookupBatchWindow.getDuration(),
+                    lookupBatchWindow.getTimeUnit(), serviceConfiguration.getLookupBatchSize());
+        } else {
+            lookupBatcher = null;
+        }
+    }
+
+    private static Mirror createMirror(String baseUrl, int maxQps, ConnectionConfiguration connectionConfiguration) {
+        final URI uri = URI.create(baseUrl);
         if (StringUtils.equals(baseUrl, PUBLIC_NOMINATIM_SERVER)) {
             LOG.info("Initialize NominatimGeocoder using public server at {}; " +
                      "Data © OpenStreetMap contributors, ODbL 1.0. https://osm.org/copyright)", baseUrl);
             // set default qps for public server
             maxQps = Math.max(maxQps, 1);
         }
-        if (maxQps > 0) {
-            rateLimiter = RateLimiter.create(maxQps);
+        final Supplier<AdaptiveBackoff> backoffFactory = () -> new AdaptiveBackoff(connectionConfiguration.getMaxRetries(),
+                connectionConfiguration.getRetryDelay().toMilliseconds(),
+                connectionConfiguration.getMaxRetryDelay().toMilliseconds(), TimeUnit.MILLISECONDS);
+        final TimeValue ejectionTime = connectionConfiguration.getMirrorEjectionTime();
+        if (maxQps <= 0) {
+            if (connectionConfiguration.getRateLimitStore() != null) {
+                LOG.warn("No query rate-limit configured for {}, ignoring the cluster rate-limit", baseUrl);
+            }
+            return new Mirror(uri, backoffFactory.get(), null, null, connectionConfiguration.getMirrorFailureThreshold(),
+                    ejectionTime.getDuration(), ejectionTime.getTimeUnit(), System::nanoTime);
+        }
+        final TimeValue maxWait = connectionConfiguration.getMaxRateLimitWait();
+        final RateLimiterRegistry.Lease rateLimitLease = RateLimiterRegistry.shared().acquire(uri, maxQps, maxWait, backoffFactory);
+        final RateLimitStore rateLimitStore = connectionConfiguration.getRateLimitStore();
+        final ClusterRateLimiter clusterRateLimiter;
+        if (rateLimitStore == null) {
+            clusterRateLimiter = null;
+        } else if (maxWait != null) {
+            clusterRateLimiter = new ClusterRateLimiter(rateLimitStore, rateLimitLease.getKey(), maxQps,
+                    maxWait.getDuration(), maxWait.getTimeUnit());
         } else {
-            rateLimiter = null;
+            clusterRateLimiter = new ClusterRateLimiter(rateLimitStore, rateLimitLease.getKey(), maxQps,
+                    -1, TimeUnit.MICROSECONDS);
         }
+        return new Mirror(uri, rateLimitLease.getBackoff(), rateLimitLease, clusterRateLimiter,
+                connectionConfiguration.getMirrorFailureThreshold(), ejectionTime.getDuration(),
+                ejectionTime.getTimeUnit(), System::nanoTime);
     }
 
     /**
@@ -161,156 +293,181 @@ public class NominatimGeocoder implements Geocoder {
         return new NominatimBuilder();
     }
 
+    /**
+     * A view on this geocoder, that sends all requests with the given priority.
+     * The view shares the connection-pools and rate-limit with this geocoder, and is not {@link Closeable}.
+     */
+    public Geocoder withPriority(Priority priority) {
+        return new PriorityView(Objects.requireNonNull(priority, "priority must not be null"));
+    }
+
     @Override
     public List<Place> geocode(String address, Locale lang) throws IOException {
-        try (CloseableHttpClient client = createHttpClient()) {
-            final URI uri = createUriBuilder(serviceConfiguration.getGeocodeEndpoint(), lang)
+        return geocode(address, lang, Priority.INTERACTIVE);
+    }
+
+    private List<Place> geocode(String address, Locale lang, Priority priority) throws IOException {
+        final URI uri = createGeocodeUri(address, lang);
+        final List<Place> places = execute(createRequest(uri), new XmlResponseHandler<>(uri,
+                in -> responseParser.parsePlaces(in, uri.toString())), priority);
+        LOG.debug("Geocoding '{}' resulted in {} places", address, places.size());
+        return places;
+    }
+
+    @Override
+    public List<Place> reverseGeocode(LatLon coordinates, Locale lang) throws IOException {
+        return reverseGeocode(coordinates, lang, Priority.INTERACTIVE);
+    }
+
+    private List<Place> reverseGeocode(LatLon coordinates, Locale lang, Priority priority) throws IOException {
+        final URI uri = createReverseUri(coordinates, lang);
+        final List<Place> places = execute(createRequest(uri), new XmlResponseHandler<>(uri,
+                in -> responseParser.parseReverse(in, uri.toString(), coordinates)), priority);
+        LOG.debug("Reverse-Geocoding '{}' resulted in {} places", coordinates, places.size());
+        return places;
+    }
+
+    @Override
+    public Optional<Place> lookup(String placeId, Locale lang) throws IOException {
+        return lookup(placeId, lang, Priority.INTERACTIVE);
+    }
+
+    private Optional<Place> lookup(String placeId, Locale lang, Priority priority) throws IOException {
+        if (lookupBatcher != null && StringUtils.isNotBlank(placeId)) {
+            return await(lookupBatcher.submit(placeId, lang, priority));
+        }
+        final URI uri = createLookupUri(placeId, lang);
+        final Optional<Place> place = execute(createRequest(uri), new XmlResponseHandler<>(uri,
+                in -> responseParser.parsePlaces(in, uri.toString()).stream().findFirst()), priority);
+        LOG.debug("Lookup of {} resulted in {}", placeId, place);
+        return place;
+    }
+
+    /**
+     * Uses the multi-id form of the {@code /lookup} endpoint,
+     * requesting up to {@value #MAX_LOOKUP_IDS} places at once.
+     */
+    @Override
+    public Map<String, Place> lookupAll(Collection<String> placeIds, Locale lang) throws IOException {
+        return lookupAll(placeIds, lang, Priority.INTERACTIVE);
+    }
+
+    private Map<String, Place> lookupAll(Collection<String> placeIds, Locale lang, Priority priority) throws IOException {
+        final Map<String, String> normalizedIds = new LinkedHashMap<>();
+        placeIds.stream()
+                .filter(StringUtils::isNotBlank)
+                .forEach(placeId -> normalizedIds.putIfAbsent(placeId, placeId.trim().toUpperCase(Locale.ROOT)));
+
+        final Map<String, Place> found = new HashMap<>();
+        final List<String> ids = List.copyOf(new LinkedHashSet<>(normalizedIds.values()));
+        for (int i = 0; i < ids.size(); i += MAX_LOOKUP_IDS) {
+            final URI uri = createLookupUri(String.join(",", ids.subList(i, Math.min(i + MAX_LOOKUP_IDS, ids.size()))), lang);
+            execute(createRequest(uri), new XmlResponseHandler<>(uri, in -> responseParser.parsePlaces(in, uri.toString())), priority)
+                    .forEach(place -> found.put(place.getPlaceId(), place));
+        }
+        LOG.debug("Lookup of {} places found {}", ids.size(), found.size());
+
+        final Map<String, Place> result = new LinkedHashMap<>();
+        normalizedIds.forEach((placeId, id) -> {
+            final Place place = found.get(id);
+            if (place != null) {
+                result.put(placeId, place);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang) {
+        return geocodeAsync(address, lang, Priority.INTERACTIVE);
+    }
+
+    private CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang, Priority priority) {
+        final URI uri = createGeocodeUri(address, lang);
+        return executeAsync(uri, in -> responseParser.parsePlaces(in, uri.toString()), priority);
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang) {
+        return reverseGeocodeAsync(coordinates, lang, Priority.INTERACTIVE);
+    }
+
+    private CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang, Priority priority) {
+        final URI uri = createReverseUri(coordinates, lang);
+        return executeAsync(uri, in -> responseParser.parseReverse(in, uri.toString(), coordinates), priority);
+    }
+
+    @Override
+    public CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang) {
+        return lookupAsync(placeId, lang, Priority.INTERACTIVE);
+    }
+
+    private CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang, Priority priority) {
+        if (lookupBatcher != null && StringUtils.isNotBlank(placeId)) {
+            return lookupBatcher.submit(placeId, lang, priority);
+        }
+        final URI uri = createLookupUri(placeId, lang);
+        return executeAsync(uri, in -> responseParser.parsePlaces(in, uri.toString()).stream().findFirst(), priority);
+    }
+
+    private CompletableFuture<List<Place>> lookupBatch(List<String> placeIds, Locale lang, Priority priority) {
+        final URI uri = createLookupUri(String.join(",", placeIds), lang);
+        return executeAsync(uri, in -> responseParser.parsePlaces(in, uri.toString()), priority);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new InterruptedIOException("Interrupted while waiting for the response");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        }
+    }
+
+    private URI createGeocodeUri(String address, Locale lang) {
+        try {
+            return createUriBuilder(serviceConfiguration.getGeocodeEndpoint(), lang)
                     .setParameter(PARAM_PLACEDETAILS, "1")
                     .setParameter(PARAM_QUERY, address)
                     .build();
-            final HttpGet request = createRequest(uri);
-            final List<Place> places = client.execute(request, new JsoupResponseHandler<>(uri) {
-                @Override
-                protected List<Place> parseJsoup(Document doc) {
-                    return doc.select("place").stream()
-                            .map(NominatimGeocoder.this::readPlace)
-                            .flatMap(Optional::stream)
-                            .collect(Collectors.toList());
-                }
-            });
-            LOG.debug("Geocoding '{}' resulted in {} places", address, places.size());
-            return places;
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(e.getMessage(), e);
         }
     }
 
-    @Override
-    public List<Place> reverseGeocode(LatLon coordinates, Locale lang) throws IOException {
-        try (CloseableHttpClient client = createHttpClient()) {
-            final URI uri = createUriBuilder(serviceConfiguration.getReverseEndpoint(), lang)
+    private URI createReverseUri(LatLon coordinates, Locale lang) {
+        try {
+            return createUriBuilder(serviceConfiguration.getReverseEndpoint(), lang)
                     .setParameter(PARAM_LAT, String.valueOf(coordinates.lat()))
                     .setParameter(PARAM_LON, String.valueOf(coordinates.lon()))
                     .build();
-            final HttpGet request = createRequest(uri);
-            final List<Place> places = client.execute(request, new JsoupResponseHandler<>(uri) {
-                @Override
-                protected List<Place> parseJsoup(Document doc) {
-                    final Element result = doc.selectFirst("reversegeocode result");
-                    if (result == null) {
-                        return List.of();
-                    } else {
-                        return List.of(
-                                Place.create(createPlaceId(result), result.text(), coordinates)
-                        );
-                    }
-                }
-            });
-            LOG.debug("Reverse-Geocoding '{}' resulted in {} places", coordinates, places.size());
-            return places;
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(e.getMessage(), e);
         }
     }
 
-    @Override
-    public Optional<Place> lookup(String placeId, Locale lang) throws IOException {
-        try (CloseableHttpClient client = createHttpClient()) {
-            final URI uri = createUriBuilder(serviceConfiguration.getLookupEndpoint(), lang)
+    private URI createLookupUri(String placeId, Locale lang) {
+        try {
+            return createUriBuilder(serviceConfiguration.getLookupEndpoint(), lang)
                     .setParameter(PARAM_PLACEDETAILS, "1")
                     .setParameter(PARAM_PLACE_ID, placeId)
                     .build();
-            final HttpGet request = createRequest(uri);
-            final Optional<Place> place = client.execute(request, new JsoupResponseHandler<>(uri) {
-                @Override
-                protected Optional<Place> parseJsoup(Document doc) {
-                    return readPlace(doc.selectFirst("place"));
-                }
-            });
-            LOG.debug("Lookup of {} resulted in {}", placeId, place);
-            return place;
         } catch (URISyntaxException e) {
             throw new IllegalArgumentException(e.getMessage(), e);
         }
     }
 
-    /**
-     * The element names of place details are different between different regions.
-     * While some names are very common especially the {@link Type#city} level uses
-     * different names in different regions and is in fact missing for some (e.g. Berlin)
-     */
     Optional<Place> readPlace(Element element) {
-        if (element == null) {
-            return Optional.empty();
-        }
-
-        final String placeId = createPlaceId(element);
-        final String displayName = element.attr("display_name");
-        if (StringUtils.isAnyBlank(placeId, displayName)) {
-            return Optional.empty();
-        }
-
-        final LatLon latLon;
-        try {
-            latLon = LatLon.valueOf(element.attr("lat"), element.attr("lon"));
-        } catch (IllegalArgumentException e) {
-            LOG.trace("Ignoring place {} with invalid coordinates: {}", placeId, e.getMessage());
-            return Optional.empty();
-        }
-
-        final Map<Type, AddressComponent> components = new EnumMap<>(Type.class);
-        final Map<String, String> metadata = new HashMap<>();
-        element.children().forEach(child -> {
-            final String value = child.text();
-            if (StringUtils.isBlank(value)) {
-                return;
-            }
-            switch (child.nodeName()) {
-                case "country_code":
-                    components.put(Type.countryCode, AddressComponent.create(Type.countryCode, value));
-                    break;
-                case "country":
-                    components.put(Type.country, AddressComponent.create(Type.country, value));
-                    break;
-                case "postcode":
-                    components.put(Type.postalCode, AddressComponent.create(Type.postalCode, value));
-                    break;
-                case "state":
-                    components.put(Type.state, AddressComponent.create(Type.state, value));
-                    break;
-                case "village":
-                case "city":
-                case "town":
-                    components.put(Type.city, AddressComponent.create(Type.city, value));
-                    break;
-                case "city_district":
-                    //case "suburb":
-                    //case "neighbourhood":
-                    components.put(Type.sublocality, AddressComponent.create(Type.sublocality, value));
-                    break;
-                case "road":
-                    components.put(Type.street, AddressComponent.create(Type.street, value));
-                    break;
-                case "house_number":
-                    components.put(Type.streetNumber, AddressComponent.create(Type.streetNumber, value));
-                    break;
-                default: //add unmapped fields to the metadata
-                    metadata.put(child.nodeName(), value);
-            }
-        });
-
-        return Optional.of(
-                Place.create(placeId, displayName, latLon, Set.copyOf(components.values()), metadata)
-        );
-    }
-
-    private static String createPlaceId(Element element) {
-        final String type = element.attr("osm_type");
-        final String osmId = element.attr("osm_id");
-        if (StringUtils.isAnyBlank(type, osmId)) {
-            return null;
-        }
-        return String.format(Locale.ENGLISH, "%S%s", type.charAt(0), osmId);
+        return JsoupResponseParser.readPlace(element);
     }
 
     protected HttpGet createRequest(URI uri) {
@@ -341,11 +498,292 @@ public class NominatimGeocoder implements Geocoder {
         return uriBuilder;
     }
 
+    /**
+     * Execute the request using the shared http-client, respecting the configured rate-limit.
+     */
+    protected <T> T execute(HttpGet request, HttpClientResponseHandler<T> responseHandler) throws IOException {
+        return execute(request, responseHandler, Priority.INTERACTIVE);
+    }
+
+    /**
+     * Waiting for a rate-limit permit can be interrupted, and fails with a {@link RateLimitExceededException}
+     * after the configured max. wait. Requests rejected because the server is overloaded are retried.
+     * Every attempt is sent to the server chosen by the {@link MirrorBalancer}.
+     */
+    private <T> T execute(HttpGet request, HttpClientResponseHandler<T> responseHandler, Priority priority) throws IOException {
+        final URI uri;
+        try {
+            uri = request.getUri();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        for (int attempt = 0; ; attempt++) {
+            final Mirror mirror = mirrors.choose();
+            final AdaptiveBackoff backoff = mirror.getBackoff();
+            if (attempt == 0) {
+                backoff.onRequest();
+            }
+            mirror.onStart();
+            try {
+                await(mirror.acquirePermit(priority));
+                request.setUri(mirrors.rebase(uri, mirror));
+                final long start = System.nanoTime();
+                final T result = httpClient.execute(request, responseHandler);
+                mirror.onSuccess(System.nanoTime() - start);
+                backoff.onSuccess();
+                return result;
+            } catch (ServiceOverloadedException e) {
+                mirror.onFailure();
+                if (!retryAfterOverload(mirror, e, attempt)) {
+                    throw e;
+                }
+            } catch (IOException | RuntimeException e) {
+                if (isServerFailure(e)) {
+                    mirror.onFailure();
+                }
+                throw e;
+            } finally {
+                mirror.onFinish();
+            }
+            await(delay(backoff.getRetryDelayNanos(attempt)));
+        }
+    }
+
+    /**
+     * Execute the request using the shared async http-client, respecting the configured rate-limit.
+     * <p>
+     * If no permit is available right away, the request is sent once a permit becomes available,
+     * the caller is never blocked. Cancelling the returned future also cancels the pending request.
+     */
+    protected <T> CompletableFuture<T> executeAsync(URI uri, ResponseReader<T> responseReader) {
+        return executeAsync(uri, responseReader, Priority.INTERACTIVE);
+    }
+
+    private <T> CompletableFuture<T> executeAsync(URI uri, ResponseReader<T> responseReader, Priority priority) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(uri, responseReader, priority, 0, result);
+        return result;
+    }
+
+    private <T> void attemptAsync(URI uri, ResponseReader<T> responseReader, Priority priority, int attempt,
+                                  CompletableFuture<T> result) {
+        final Mirror mirror = mirrors.choose();
+        final AdaptiveBackoff backoff = mirror.getBackoff();
+        if (attempt == 0) {
+            backoff.onRequest();
+        }
+        mirror.onStart();
+        final CompletableFuture<Void> permit = mirror.acquirePermit(priority);
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                permit.cancel(false);
+            }
+        });
+        permit.whenComplete((p, permitFailure) -> {
+            if (permitFailure != null) {
+                mirror.onFinish();
+                result.completeExceptionally(permitFailure);
+                return;
+            }
+            final CompletableFuture<T> response = new CompletableFuture<>();
+            result.whenComplete((r, t) -> {
+                if (result.isCancelled()) {
+                    response.cancel(false);
+                }
+            });
+            final long start = System.nanoTime();
+            response.whenComplete((value, failure) -> {
+                mirror.onFinish();
+                if (failure == null) {
+                    mirror.onSuccess(System.nanoTime() - start);
+                    backoff.onSuccess();
+                    result.complete(value);
+                    return;
+                }
+                if (isServerFailure(failure)) {
+                    mirror.onFailure();
+                }
+                if (failure instanceof ServiceOverloadedException
+                        && !result.isDone()
+                        && retryAfterOverload(mirror, (ServiceOverloadedException) failure, attempt)) {
+                    delay(backoff.getRetryDelayNanos(attempt))
+                            .thenRun(() -> attemptAsync(uri, responseReader, priority, attempt + 1, result));
+                } else {
+                    result.completeExceptionally(failure);
+                }
+            });
+            sendAsync(mirrors.rebase(uri, mirror), responseReader, response);
+        });
+    }
+
+    /**
+     * Record the overload response.
+     *
+     * @return {@code true} if the request should be retried
+     */
+    private boolean retryAfterOverload(Mirror mirror, ServiceOverloadedException e, int attempt) {
+        final AdaptiveBackoff backoff = mirror.getBackoff();
+        backoff.onOverload(e.getRetryAfter(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        if (backoff.tryRetry(attempt)) {
+            LOG.debug("{} is overloaded (HTTP-{}), retrying request", mirror.getBaseUrl(), e.getStatusCode());
+            return true;
+        }
+        LOG.warn("{} is overloaded (HTTP-{}), giving up after {} attempts", mirror.getBaseUrl(), e.getStatusCode(),
+                attempt + 1);
+        return false;
+    }
+
+    /**
+     * Whether the failure indicates a problem of the server (connection failures, timeouts, HTTP-5xx), and not of
+     * the request or the local rate-limit.
+     */
+    private static boolean isServerFailure(Throwable failure) {
+        if (failure instanceof CompletionException && failure.getCause() != null) {
+            failure = failure.getCause();
+        }
+        if (failure instanceof HttpResponseException) {
+            return ((HttpResponseException) failure).getStatusCode() >= 500;
+        }
+        return failure instanceof IOException
+                && !(failure instanceof RateLimitExceededException)
+                && failure.getClass() != InterruptedIOException.class;
+    }
+
+    private static CompletableFuture<Void> delay(long nanos) {
+        if (nanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * The statistics of the connection-pool of the blocking http-client.
+     */
+    PoolStats getConnectionPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * The back-off reacting to overload responses of the (first) server.
+     */
+    AdaptiveBackoff getBackoff() {
+        return mirrors.getPrimary().getBackoff();
+    }
+
+    /**
+     * The rate-limit of the (first) server, shared by all geocoders of the server, {@code null} if requests are
+     * not rate-limited.
+     */
+    RateLimitScheduler getRateLimiter() {
+        return mirrors.getPrimary().getRateLimiter();
+    }
+
+    /**
+     * The servers the requests are spread across.
+     */
+    MirrorBalancer getMirrors() {
+        return mirrors;
+    }
+
+    private <T> void sendAsync(URI uri, ResponseReader<T> responseReader, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        final SimpleRequestBuilder requestBuilder = SimpleRequestBuilder.get(uri);
+        serviceConfiguration.getCustomHeaders()
+                .forEach(requestBuilder::setHeader);
+        final SimpleHttpRequest request = requestBuilder.build();
+
+        final Future<SimpleHttpResponse> pending;
+        try {
+            pending = getAsyncClient().execute(request, new FutureCallback<>() {
+                @Override
+                public void completed(SimpleHttpResponse response) {
+                    try {
+                        checkStatus(response, uri);
+                        final byte[] body = response.getBodyBytes();
+                        result.complete(responseReader.read(new ByteArrayInputStream(body != null ? body : new byte[0])));
+                    } catch (IOException | RuntimeException e) {
+                        result.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void failed(Exception ex) {
+                    result.completeExceptionally(ex);
+                }
+
+                @Override
+                public void cancelled() {
+                    result.cancel(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                pending.cancel(true);
+            }
+        });
+    }
+
+    private synchronized CloseableHttpAsyncClient getAsyncClient() {
+        if (asyncClient == null) {
+            asyncClient = createAsyncClient(connectionConfiguration);
+            asyncClient.start();
+        }
+        return asyncClient;
+    }
+
+    private static void checkStatus(HttpResponse response, URI requestUri) throws IOException {
+        final int statusCode = response.getCode();
+        if (AdaptiveBackoff.isOverloaded(statusCode)) {
+            final Header retryAfter = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+            throw new ServiceOverloadedException("Got HTTP-" + statusCode + " when requesting " + requestUri.toASCIIString(),
+                    statusCode, AdaptiveBackoff.parseRetryAfter(retryAfter != null ? retryAfter.getValue() : null,
+                    TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        } else if (statusCode < 200 || statusCode >= 300) {
+            throw new HttpResponseException(statusCode, "Got HTTP-" + statusCode + " when requesting " + requestUri.toASCIIString());
+        }
+    }
+
+    private static PoolingHttpClientConnectionManager createConnectionManager(ConnectionConfiguration configuration) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnPerRoute(configuration.getMaxConnectionsPerRoute())
+                .setMaxConnTotal(configuration.getMaxConnectionsTotal())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setTimeToLive(configuration.getConnectionTimeToLive())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Create a new, standalone http-client using the user-agent and proxy of this geocoder. The caller must close it.
+     *
+     * @deprecated requests are sent using a shared, pooled http-client, the client created here is not used by
+     * this geocoder. Unlike before, creating it no longer acquires a rate-limit permit.
+     */
+    @Deprecated(since = "2.5.0", forRemoval = true)
     protected CloseableHttpClient createHttpClient() {
-        if (rateLimiter != null) {
-            rateLimiter.acquire();
+        return configureHttpClient(HttpClients.custom()).build();
+    }
+
+    private CloseableHttpClient createHttpClient(PoolingHttpClientConnectionManager connectionManager,
+                                                 ConnectionConfiguration configuration) {
+        final HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setRetryStrategy(RETRY_STRATEGY)
+                .evictExpiredConnections();
+        if (configuration.getIdleEviction() != null) {
+            builder.evictIdleConnections(configuration.getIdleEviction());
         }
-        final HttpClientBuilder builder = HttpClients.custom();
+        return configureHttpClient(builder).build();
+    }
+
+    private HttpClientBuilder configureHttpClient(HttpClientBuilder builder) {
         builder.setUserAgent(serviceConfiguration.getUserAgent());
         if (proxy == null || proxy.type() == Proxy.Type.DIRECT) {
             LOG.trace("Direct Connection");
@@ -357,16 +795,178 @@ public class NominatimGeocoder implements Geocoder {
         } else {
             LOG.warn("Unsupported Proxy-Type {}, fallback to DIRECT connection", proxy.type());
         }
+        return builder;
+    }
+
+    private CloseableHttpAsyncClient createAsyncClient(ConnectionConfiguration configuration) {
+        final HttpAsyncClientBuilder builder = HttpAsyncClients.custom()
+                .setConnectionManager(PoolingAsyncClientConnectionManagerBuilder.create()
+                        .setMaxConnPerRoute(configuration.getMaxConnectionsPerRoute())
+                        .setMaxConnTotal(configuration.getMaxConnectionsTotal())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setTimeToLive(configuration.getConnectionTimeToLive())
+                                .build())
+                        .build())
+                .setRetryStrategy(RETRY_STRATEGY)
+                .evictExpiredConnections();
+        if (configuration.getIdleEviction() != null) {
+            builder.evictIdleConnections(configuration.getIdleEviction());
+        }
+        builder.setUserAgent(serviceConfiguration.getUserAgent());
+        if (proxy != null && proxy.type() == Proxy.Type.HTTP) {
+            final InetSocketAddress proxyAddress = (InetSocketAddress) proxy.address();
+            builder.setProxy(new HttpHost(proxyAddress.getAddress(), proxyAddress.getPort()));
+        }
         return builder.build();
     }
 
+    /**
+     * Open (and if required TLS-handshake) connections to the nominatim servers and put them in the pool,
+     * without sending any request. Failures are logged but not propagated.
+     */
+    private void prewarmConnections(int connections) {
+        if (proxy != null && proxy.type() == Proxy.Type.HTTP) {
+            LOG.debug("Not pre-warming connections when using a proxy");
+            return;
+        }
+        for (Mirror mirror : mirrors.getMirrors()) {
+            prewarmConnections(mirror.getBaseUrl(), connections);
+        }
+    }
+
+    private void prewarmConnections(URI mirrorUrl, int connections) {
+        final HttpHost target = RoutingSupport.normalize(HttpHost.create(mirrorUrl), DefaultSchemePortResolver.INSTANCE);
+        final HttpRoute route = new HttpRoute(target, null, "https".equalsIgnoreCase(target.getSchemeName()));
+        final Timeout timeout = Timeout.ofSeconds(10);
+        final List<ConnectionEndpoint> endpoints = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                final ConnectionEndpoint endpoint = connectionManager.lease("prewarm-" + i, route, timeout, null).get(timeout);
+                endpoints.add(endpoint);
+                if (!endpoint.isConnected()) {
+                    connectionManager.connect(endpoint, timeout, HttpClientContext.create());
+                }
+            }
+            LOG.debug("Pre-warmed {} connections to {}", endpoints.size(), target);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while pre-warming connections to {}", target);
+        } catch (IOException | ExecutionException | TimeoutException e) {
+            LOG.warn("Could not pre-warm connections to {}: {}", target, e.getMessage());
+        } finally {
+            endpoints.forEach(endpoint -> connectionManager.release(endpoint, null, TimeValue.NEG_ONE_MILLISECOND));
+        }
+    }
+
+    /**
+     * Shut down the connection-pools.
+     */
+    @Override
+    public void close() throws IOException {
+        if (lookupBatcher != null) {
+            lookupBatcher.close();
+        }
+        mirrors.close();
+        httpClient.close(CloseMode.GRACEFUL);
+        synchronized (this) {
+            if (asyncClient != null) {
+                asyncClient.close(CloseMode.GRACEFUL);
+            }
+        }
+    }
+
     @Override
     public String toString() {
         return "NominatimGeocoder [baseUrl=" + baseUrl + ", language=" + language + ", email=" + email
-                + ", rateLimiter=" + rateLimiter + "]";
+                + ", mirrors=" + mirrors + "]";
     }
 
 
+    /**
+     * Sends all requests of the {@link NominatimGeocoder} with a fixed priority.
+     */
+    private final class PriorityView implements Geocoder {
+
+        private final Priority priority;
+
+        private PriorityView(Priority priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public List<Place> geocode(String address, Locale lang) throws IOException {
+            return NominatimGeocoder.this.geocode(address, lang, priority);
+        }
+
+        @Override
+        public List<Place> reverseGeocode(LatLon coordinates, Locale lang) throws IOException {
+            return NominatimGeocoder.this.reverseGeocode(coordinates, lang, priority);
+        }
+
+        @Override
+        public Optional<Place> lookup(String placeId, Locale lang) throws IOException {
+            return NominatimGeocoder.this.lookup(placeId, lang, priority);
+        }
+
+        @Override
+        public Map<String, Place> lookupAll(Collection<String> placeIds, Locale lang) throws IOException {
+            return NominatimGeocoder.this.lookupAll(placeIds, lang, priority);
+        }
+
+        @Override
+        public CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang) {
+            return NominatimGeocoder.this.geocodeAsync(address, lang, priority);
+        }
+
+        @Override
+        public CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang) {
+            return NominatimGeocoder.this.reverseGeocodeAsync(coordinates, lang, priority);
+        }
+
+        @Override
+        public CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang) {
+            return NominatimGeocoder.this.lookupAsync(placeId, lang, priority);
+        }
+
+        @Override
+        public String toString() {
+            return NominatimGeocoder.this + " [priority=" + priority + "]";
+        }
+    }
+
+    /**
+     * Reads the response-body from the server.
+     */
+    @FunctionalInterface
+    protected interface ResponseReader<T> {
+        T read(InputStream response) throws IOException;
+    }
+
+    protected static class XmlResponseHandler<T> implements HttpClientResponseHandler<T> {
+        private final URI requestUri;
+        private final ResponseReader<T> responseReader;
+
+        protected XmlResponseHandler(URI requestUri, ResponseReader<T> responseReader) {
+            this.requestUri = requestUri;
+            this.responseReader = responseReader;
+        }
+
+        @Override
+        public T handleResponse(ClassicHttpResponse response) throws IOException {
+            checkStatus(response, requestUri);
+            try (InputStream content = response.getEntity().getContent()) {
+                return responseReader.read(content);
+            }
+        }
+    }
+
+    /**
+     * Parses the response-body with Jsoup.
+     *
+     * @deprecated the responses are read by the configured {@link ParserType parser}, use an
+     * {@link XmlResponseHandler} with a {@link ResponseReader} instead.
+     */
+    @Deprecated(since = "2.5.0", forRemoval = true)
     protected abstract static class JsoupResponseHandler<T> implements HttpClientResponseHandler<T> {
         private final URI requestUri;
 
@@ -376,15 +976,13 @@ public class NominatimGeocoder implements Geocoder {
 
         @Override
         public T handleResponse(ClassicHttpResponse response) throws IOException {
-            final int statusCode = response.getCode();
-            if (statusCode >= 200 && statusCode < 300) {
-                final Document document = Jsoup.parse(response.getEntity().getContent(), "utf-8", requestUri.toString(), Parser.xmlParser());
-                return parseJsoup(document);
-            } else {
-                throw new IOException("Got HTTP-" + statusCode + " when requesting " + requestUri.toASCIIString());
+            checkStatus(response, requestUri);
+            try (InputStream content = response.getEntity().getContent()) {
+                return parseJsoup(Jsoup.parse(content, "utf-8", requestUri.toString(), Parser.xmlParser()));
             }
         }
 
         protected abstract T parseJsoup(Document jsoupDocument);
     }
+
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.nominatim;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.redlink.geocoding.internal.AdaptiveBackoff;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the rate-limit of a {@link NominatimGeocoder} to Micrometer: the requests waiting for a permit, the time
+ * they waited (as histogram) and the number of rejected requests, each tagged with the {@link Priority}.
+ * These are only bound if the geocoder is rate-limited. The back-off reports the overload responses of the server,
+ * the retries and the current rate factor. The load-balancing reports latency, requests in flight, failures and
+ * ejections. All meters are tagged with the {@code server} (host and port) they describe.
+ * <p>
+ * Rate-limit and back-off are shared by all geocoders of the same server, so bind only one of them per registry
+ * (or use distinct tags).
+ * <p>
+ * Micrometer is an optional dependency, it must be on the classpath to use this binder.
+ */
+public class NominatimGeocoderMetrics implements MeterBinder {
+
+    private final NominatimGeocoder geocoder;
+    private final Iterable<Tag> tags;
+
+    public NominatimGeocoderMetrics(NominatimGeocoder geocoder) {
+        this(geocoder, Tags.empty());
+    }
+
+    public NominatimGeocoderMetrics(NominatimGeocoder geocoder, Iterable<Tag> tags) {
+        this.geocoder = Objects.requireNonNull(geocoder, "geocoder must not be null");
+        this.tags = tags;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Mirror mirror : geocoder.getMirrors().getMirrors()) {
+            bindTo(registry, mirror, Tags.concat(tags, "server", RateLimiterRegistry.serverKey(mirror.getBaseUrl())));
+        }
+    }
+
+    private void bindTo(MeterRegistry registry, Mirror mirror, Tags serverTags) {
+        Gauge.builder("geocoding.nominatim.server.latency", mirror,
+                        m -> m.getLatencyNanos() < 0 ? Double.NaN : m.getLatencyNanos() / TimeUnit.SECONDS.toNanos(1))
+                .tags(serverTags)
+                .description("Average latency of successful requests")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("geocoding.nominatim.server.in-flight", mirror, Mirror::getInFlight)
+                .tags(serverTags)
+                .description("Requests assigned to the server, including requests waiting for a rate-limit permit")
+                .register(registry);
+        Gauge.builder("geocoding.nominatim.server.available", mirror, m -> m.isAvailable() ? 1 : 0)
+                .tags(serverTags)
+                .description("Whether the server gets requests (1) or is ejected after repeated failures (0)")
+                .register(registry);
+        FunctionCounter.builder("geocoding.nominatim.server.failures", mirror, Mirror::getFailureCount)
+                .tags(serverTags)
+                .description("Requests failed because of the server (connection failures, timeouts, HTTP-5xx)")
+                .register(registry);
+        FunctionCounter.builder("geocoding.nominatim.server.ejections", mirror, Mirror::getEjectionCount)
+                .tags(serverTags)
+                .description("Times the server was ejected after repeated failures")
+                .register(registry);
+
+        final AdaptiveBackoff backoff = mirror.getBackoff();
+        FunctionCounter.builder("geocoding.nominatim.overloaded", backoff, AdaptiveBackoff::getOverloadCount)
+                .tags(serverTags)
+                .description("Requests rejected by the server because it is overloaded (HTTP 429/503)")
+                .register(registry);
+        FunctionCounter.builder("geocoding.nominatim.retries", backoff, AdaptiveBackoff::getRetryCount)
+                .tags(serverTags)
+                .description("Retries of requests rejected because the server is overloaded")
+                .register(registry);
+        Gauge.builder("geocoding.nominatim.rate-factor", backoff, AdaptiveBackoff::getRateFactor)
+                .tags(serverTags)
+                .description("The fraction of the configured request rate currently used")
+                .register(registry);
+
+        final RateLimitScheduler rateLimiter = mirror.getRateLimiter();
+        if (rateLimiter == null) {
+            return;
+        }
+
+        final Map<Priority, Timer> waitTimers = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            final Tags priorityTags = serverTags.and("priority", priority.name().toLowerCase(Locale.ROOT));
+            Gauge.builder("geocoding.nominatim.rate-limit.queue", rateLimiter, r -> r.getQueueDepth(priority))
+                    .tags(priorityTags)
+                    .description("Requests waiting for a rate-limit permit")
+                    .register(registry);
+            FunctionCounter.builder("geocoding.nominatim.rate-limit.rejected", rateLimiter, r -> r.getRejectedCount(priority))
+                    .tags(priorityTags)
+                    .description("Requests rejected because the max. wait for a rate-limit permit was exceeded")
+                    .register(registry);
+            waitTimers.put(priority, Timer.builder("geocoding.nominatim.rate-limit.wait")
+                    .tags(priorityTags)
+                    .description("Time requests waited for a rate-limit permit")
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        rateLimiter.addWaitObserver((priority, waitNanos) -> waitTimers.get(priority).record(waitNanos, TimeUnit.NANOSECONDS));
+    }
+}
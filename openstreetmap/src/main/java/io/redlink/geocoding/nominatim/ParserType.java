@@ -0,0 +1,18 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+/**
+ * The parser used to read the xml-responses of the nominatim server.
+ */
+public enum ParserType {
+    /**
+     * Load the response into a Jsoup-{@link org.jsoup.nodes.Document} and select the places from it.
+     */
+    JSOUP,
+    /**
+     * Read places in a single pass from a StAX-{@link javax.xml.stream.XMLStreamReader}, without building a DOM.
+     */
+    STAX,
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.nominatim;
+
+/**
+ * The lane a request waits in for a rate-limit permit. Waiting {@link #INTERACTIVE} requests always get the next
+ * permit, {@link #BULK} requests only get permits no interactive request is waiting for.
+ *
+ * @see NominatimGeocoder#withPriority(Priority)
+ */
+public enum Priority {
+    /**
+     * Requests a user is waiting for, the default.
+     */
+    INTERACTIVE,
+    /**
+     * Background and batch jobs, that can wait.
+     */
+    BULK
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.nominatim;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request would have to wait longer than the configured
+ * {@link NominatimBuilder#setMaxRateLimitWait(long, java.util.concurrent.TimeUnit) max. wait} for a rate-limit permit.
+ */
+public class RateLimitExceededException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Priority priority;
+
+    public RateLimitExceededException(String message, Priority priority) {
+        super(message);
+        this.priority = priority;
+    }
+
+    /**
+     * The lane the request was waiting in.
+     */
+    public Priority getPriority() {
+        return priority;
+    }
+}
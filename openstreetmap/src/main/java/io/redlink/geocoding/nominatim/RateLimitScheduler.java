@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+import io.redlink.geocoding.internal.AdaptiveBackoff;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out request permits at a fixed rate, without blocking the caller.
+ * <p>
+ * Permits are spaced evenly (no bursts). Requests that can't get a permit right away wait in one queue per
+ * {@link Priority}; when a permit becomes available it is given to the oldest waiting {@link Priority#INTERACTIVE}
+ * request, and only if there is none to the oldest {@link Priority#BULK} request. A request is rejected with a
+ * {@link RateLimitExceededException} if it would have to wait longer than {@code maxWait}: right away if the
+ * expected wait is already too long, or once the max. wait has passed (e.g. a bulk request overtaken by interactive
+ * requests).
+ * <p>
+ * The rate is lowered by the {@link AdaptiveBackoff#getRateFactor() rate factor} of the back-off, and no permits are
+ * handed out while the back-off is paused.
+ */
+class RateLimitScheduler implements Closeable {
+
+    private final long intervalNanos;
+    private final long maxWaitNanos;
+    private final AdaptiveBackoff backoff;
+    private final LongSupplier ticker;
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    private final Map<Priority, Deque<Waiter>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, LongAdder> rejected = new EnumMap<>(Priority.class);
+    private final List<WaitObserver> observers = new CopyOnWriteArrayList<>();
+
+    /**
+     * The time the next permit is available.
+     */
+    private long nextPermit;
+    private boolean drainScheduled = false;
+    private boolean closed = false;
+
+    /**
+     * @param maxWait max. time a request may wait for a permit, a negative value waits as long as it takes
+     */
+    RateLimitScheduler(double permitsPerSecond, long maxWait, TimeUnit timeUnit, AdaptiveBackoff backoff) {
+        this(permitsPerSecond, maxWait < 0 ? -1 : timeUnit.toNanos(maxWait), backoff, System::nanoTime);
+    }
+
+    RateLimitScheduler(double permitsPerSecond, long maxWaitNanos, AdaptiveBackoff backoff, LongSupplier ticker) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.maxWaitNanos = maxWaitNanos;
+        this.backoff = backoff;
+        this.ticker = ticker;
+        this.nextPermit = ticker.getAsLong();
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            rejected.put(priority, new LongAdder());
+        }
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread thread = new Thread(r, "nominatim-rate-limit");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Request a permit.
+     *
+     * @return a future that completes once the request may be sent, or fails with a
+     * {@link RateLimitExceededException}. Cancelling the future gives up the place in the queue.
+     */
+    CompletableFuture<Void> acquire(Priority priority) {
+        final Waiter waiter;
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IOException("NominatimGeocoder is closed"));
+            }
+            final long now = ticker.getAsLong();
+            if (!hasWaiters() && permitDelay(now) <= 0) {
+                nextPermit = now + currentInterval();
+                waiter = null;
+            } else if (maxWaitNanos >= 0 && expectedWait(priority, now) > maxWaitNanos) {
+                return CompletableFuture.failedFuture(rejection(priority));
+            } else {
+                waiter = new Waiter(priority, now);
+                queues.get(priority).addLast(waiter);
+                scheduleDrain(now);
+                if (maxWaitNanos >= 0) {
+                    waiter.timeout = scheduler.schedule(() -> timeout(waiter), maxWaitNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        if (waiter == null) {
+            notifyObservers(priority, 0);
+            return CompletableFuture.completedFuture(null);
+        }
+        waiter.permit.whenComplete((r, t) -> {
+            if (waiter.permit.isCancelled()) {
+                remove(waiter);
+            }
+        });
+        return waiter.permit;
+    }
+
+    /**
+     * Number of requests waiting for a permit.
+     */
+    synchronized int getQueueDepth(Priority priority) {
+        return queues.get(priority).size();
+    }
+
+    long getRejectedCount(Priority priority) {
+        return rejected.get(priority).sum();
+    }
+
+    double getPermitsPerSecond() {
+        return (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos;
+    }
+
+    /**
+     * Register an observer that is notified about the time every permitted request waited.
+     */
+    void addWaitObserver(WaitObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Fails all waiting requests.
+     */
+    @Override
+    public void close() {
+        final List<Waiter> waiting = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            queues.values().forEach(queue -> {
+                waiting.addAll(queue);
+                queue.clear();
+            });
+        }
+        scheduler.shutdownNow();
+        final IOException closedException = new IOException("NominatimGeocoder is closed");
+        waiting.forEach(waiter -> waiter.permit.completeExceptionally(closedException));
+    }
+
+    private boolean hasWaiters() {
+        return queues.values().stream().anyMatch(queue -> !queue.isEmpty());
+    }
+
+    /**
+     * The wait of a new request, when it is queued behind all waiting requests it can't overtake.
+     */
+    private long expectedWait(Priority priority, long now) {
+        long ahead = 0;
+        for (Priority lane : Priority.values()) {
+            if (lane.compareTo(priority) <= 0) {
+                ahead += queues.get(lane).size();
+            }
+        }
+        return permitDelay(now) + ahead * currentInterval();
+    }
+
+    /**
+     * The time until the next permit is available.
+     */
+    private long permitDelay(long now) {
+        return Math.max(Math.max(nextPermit - now, backoff.getPauseNanos()), 0);
+    }
+
+    private long currentInterval() {
+        return (long) (intervalNanos / backoff.getRateFactor());
+    }
+
+    private RateLimitExceededException rejection(Priority priority) {
+        rejected.get(priority).increment();
+        return new RateLimitExceededException(
+                String.format("No rate-limit permit available within %dms", TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)),
+                priority);
+    }
+
+    private void scheduleDrain(long now) {
+        if (!drainScheduled && hasWaiters()) {
+            drainScheduled = true;
+            scheduler.schedule(this::drain, permitDelay(now), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void drain() {
+        final Waiter granted;
+        final long waitNanos;
+        synchronized (this) {
+            drainScheduled = false;
+            final long now = ticker.getAsLong();
+            if (permitDelay(now) <= 0) {
+                granted = nextWaiter();
+                waitNanos = granted != null ? now - granted.queuedAt : 0;
+                if (granted != null) {
+                    nextPermit = now + currentInterval();
+                }
+            } else {
+                granted = null;
+                waitNanos = 0;
+            }
+            if (!closed) {
+                scheduleDrain(now);
+            }
+        }
+        if (granted != null) {
+            if (granted.timeout != null) {
+                granted.timeout.cancel(false);
+            }
+            notifyObservers(granted.priority, waitNanos);
+            granted.permit.complete(null);
+        }
+    }
+
+    private Waiter nextWaiter() {
+        for (Priority priority : Priority.values()) {
+            final Deque<Waiter> queue = queues.get(priority);
+            Waiter waiter;
+            while ((waiter = queue.pollFirst()) != null) {
+                if (!waiter.permit.isDone()) {
+                    return waiter;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void timeout(Waiter waiter) {
+        if (remove(waiter)) {
+            waiter.permit.completeExceptionally(rejection(waiter.priority));
+        }
+    }
+
+    private synchronized boolean remove(Waiter waiter) {
+        return queues.get(waiter.priority).remove(waiter);
+    }
+
+    private void notifyObservers(Priority priority, long waitNanos) {
+        for (WaitObserver observer : observers) {
+            observer.onPermit(priority, waitNanos);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitScheduler{permitsPerSecond=" + getPermitsPerSecond()
+                + ", rateFactor=" + backoff.getRateFactor() + '}';
+    }
+
+    /**
+     * Notified about the time a permitted request waited.
+     */
+    @FunctionalInterface
+    interface WaitObserver {
+        void onPermit(Priority priority, long waitNanos);
+    }
+
+    private static final class Waiter {
+        private final Priority priority;
+        private final long queuedAt;
+        private final CompletableFuture<Void> permit = new CompletableFuture<>();
+        private ScheduledFuture<?> timeout;
+
+        private Waiter(Priority priority, long queuedAt) {
+            this.priority = priority;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.nominatim;
+
+/**
+ * Shared state of a cluster-wide rate-limit, e.g. backed by Redis or a database table, so several instances (like
+ * replicas of a proxy-server) draw from one request budget per Nominatim host.
+ * <p>
+ * The store only keeps a single timestamp per key (when the next request may be sent, in microseconds since the
+ * epoch), the rate-limit itself is computed by the geocoders. Implementations must be thread-safe, and all instances
+ * of the cluster must use the same underlying storage. Both operations are called once per request, so they should
+ * be fast.
+ *
+ * @see NominatimBuilder#setClusterRateLimit(RateLimitStore)
+ * @see InMemoryRateLimitStore
+ */
+public interface RateLimitStore {
+
+    /**
+     * The stored value of the key, {@code 0} if the key does not exist.
+     */
+    long get(String key);
+
+    /**
+     * Atomically set the key to {@code update} if its current value is {@code expected}. An {@code expected} value
+     * of {@code 0} also matches a key that does not exist.
+     *
+     * @return {@code true} if the value was updated
+     */
+    boolean compareAndSet(String key, long expected, long update);
+
+}
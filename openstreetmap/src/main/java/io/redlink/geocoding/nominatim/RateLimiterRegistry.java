@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+import io.redlink.geocoding.internal.AdaptiveBackoff;
+import java.io.Closeable;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.apache.hc.core5.util.TimeValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hands out one {@link RateLimitScheduler} (and {@link AdaptiveBackoff}) per server, so all geocoders sending requests
+ * to the same host and port draw from one budget - e.g. geocoders with different languages or endpoints.
+ * <p>
+ * The first geocoder of a server defines the rate, max. wait and back-off; they are kept as long as any geocoder holds
+ * a {@link Lease}, and released once the last lease is closed.
+ */
+class RateLimiterRegistry {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RateLimiterRegistry.class);
+
+    private static final RateLimiterRegistry SHARED = new RateLimiterRegistry();
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * The registry shared by all geocoders of this JVM.
+     */
+    static RateLimiterRegistry shared() {
+        return SHARED;
+    }
+
+    synchronized Lease acquire(URI baseUrl, double permitsPerSecond, TimeValue maxWait,
+                               Supplier<AdaptiveBackoff> backoffFactory) {
+        final String key = serverKey(baseUrl);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            final AdaptiveBackoff backoff = backoffFactory.get();
+            final RateLimitScheduler scheduler = maxWait != null
+                    ? new RateLimitScheduler(permitsPerSecond, maxWait.getDuration(), maxWait.getTimeUnit(), backoff)
+                    : new RateLimitScheduler(permitsPerSecond, -1, TimeUnit.NANOSECONDS, backoff);
+            entry = new Entry(key, scheduler, backoff);
+            entries.put(key, entry);
+        } else if (entry.scheduler.getPermitsPerSecond() != permitsPerSecond) {
+            LOG.warn("Requests to {} are already limited to {} per second, ignoring the rate-limit of {}",
+                    key, entry.scheduler.getPermitsPerSecond(), permitsPerSecond);
+        }
+        entry.leases++;
+        return new Lease(entry);
+    }
+
+    /**
+     * Number of servers with a shared rate-limit.
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void release(Entry entry) {
+        synchronized (this) {
+            if (--entry.leases > 0) {
+                return;
+            }
+            entries.remove(entry.key, entry);
+        }
+        entry.scheduler.close();
+    }
+
+    /**
+     * The host and port of the server, also used as key of the cluster-wide rate-limit.
+     */
+    static String serverKey(URI baseUrl) {
+        int port = baseUrl.getPort();
+        if (port < 0) {
+            port = "https".equalsIgnoreCase(baseUrl.getScheme()) ? 443 : 80;
+        }
+        return String.valueOf(baseUrl.getHost()).toLowerCase(Locale.ROOT) + ":" + port;
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final RateLimitScheduler scheduler;
+        private final AdaptiveBackoff backoff;
+        private int leases = 0;
+
+        private Entry(String key, RateLimitScheduler scheduler, AdaptiveBackoff backoff) {
+            this.key = key;
+            this.scheduler = scheduler;
+            this.backoff = backoff;
+        }
+    }
+
+    /**
+     * A geocoder's share of a rate-limit, closing the lease releases it.
+     */
+    final class Lease implements Closeable {
+
+        private final Entry entry;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        RateLimitScheduler getScheduler() {
+            return entry.scheduler;
+        }
+
+        AdaptiveBackoff getBackoff() {
+            return entry.backoff;
+        }
+
+        /**
+         * The key identifying the server.
+         */
+        String getKey() {
+            return entry.key;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+import io.redlink.geocoding.AddressComponent;
+import io.redlink.geocoding.AddressComponent.Type;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the xml-responses of the nominatim server.
+ */
+abstract class ResponseParser {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseParser.class);
+
+    static final String ATTR_OSM_TYPE = "osm_type";
+    static final String ATTR_OSM_ID = "osm_id";
+    static final String ATTR_DISPLAY_NAME = "display_name";
+    static final String ATTR_LAT = "lat";
+    static final String ATTR_LON = "lon";
+
+    static ResponseParser create(ParserType parserType) {
+        if (parserType == ParserType.STAX) {
+            return new StaxResponseParser();
+        }
+        return new JsoupResponseParser();
+    }
+
+    /**
+     * Read all valid {@code place}-elements of a {@code searchresults} or {@code lookupresults} response.
+     */
+    abstract List<Place> parsePlaces(InputStream response, String requestUri) throws IOException;
+
+    /**
+     * Read the {@code result} of a {@code reversegeocode} response.
+     */
+    abstract List<Place> parseReverse(InputStream response, String requestUri, LatLon coordinates) throws IOException;
+
+    /**
+     * The element names of place details are different between different regions.
+     * While some names are very common especially the {@link Type#city} level uses
+     * different names in different regions and is in fact missing for some (e.g. Berlin)
+     *
+     * @param details the (non-blank) child-elements of the place, in document order
+     */
+    static Optional<Place> createPlace(String osmType, String osmId, String displayName,
+                                       String lat, String lon, Map<String, String> details) {
+        final String placeId = createPlaceId(osmType, osmId);
+        if (StringUtils.isAnyBlank(placeId, displayName)) {
+            return Optional.empty();
+        }
+
+        final LatLon latLon;
+        try {
+            latLon = LatLon.valueOf(lat, lon);
+        } catch (IllegalArgumentException e) {
+            LOG.trace("Ignoring place {} with invalid coordinates: {}", placeId, e.getMessage());
+            return Optional.empty();
+        }
+
+        final Map<Type, AddressComponent> components = new EnumMap<>(Type.class);
+        final Map<String, String> metadata = new HashMap<>();
+        details.forEach((name, value) -> {
+            switch (name) {
+                case "country_code":
+                    components.put(Type.countryCode, AddressComponent.create(Type.countryCode, value));
+                    break;
+                case "country":
+                    components.put(Type.country, AddressComponent.create(Type.country, value));
+                    break;
+                case "postcode":
+                    components.put(Type.postalCode, AddressComponent.create(Type.postalCode, value));
+                    break;
+                case "state":
+                    components.put(Type.state, AddressComponent.create(Type.state, value));
+                    break;
+                case "village":
+                case "city":
+                case "town":
+                    components.put(Type.city, AddressComponent.create(Type.city, value));
+                    break;
+                case "city_district":
+                    //case "suburb":
+                    //case "neighbourhood":
+                    components.put(Type.sublocality, AddressComponent.create(Type.sublocality, value));
+                    break;
+                case "road":
+                    components.put(Type.street, AddressComponent.create(Type.street, value));
+                    break;
+                case "house_number":
+                    components.put(Type.streetNumber, AddressComponent.create(Type.streetNumber, value));
+                    break;
+                default: //add unmapped fields to the metadata
+                    metadata.put(name, value);
+            }
+        });
+
+        return Optional.of(
+                Place.create(placeId, displayName, latLon, Set.copyOf(components.values()), metadata)
+        );
+    }
+
+    static String createPlaceId(String osmType, String osmId) {
+        if (StringUtils.isAnyBlank(osmType, osmId)) {
+            return null;
+        }
+        return String.format(Locale.ENGLISH, "%S%s", osmType.charAt(0), osmId);
+    }
+
+}
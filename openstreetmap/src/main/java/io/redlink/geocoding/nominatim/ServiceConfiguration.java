@@ -5,6 +5,7 @@ package io.redlink.geocoding.nominatim;
 
 import java.util.Map;
 import java.util.Objects;
+import org.apache.hc.core5.util.TimeValue;
 
 import static io.redlink.geocoding.nominatim.NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT;
 import static io.redlink.geocoding.nominatim.NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT;
@@ -21,6 +22,11 @@ class ServiceConfiguration {
 
     private final String userAgent;
 
+    private final ParserType parserType;
+
+    private final TimeValue lookupBatchWindow;
+    private final int lookupBatchSize;
+
     ServiceConfiguration() {
         this(DEFAULT_GEOCODE_ENDPOINT, DEFAULT_REVERSE_ENDPOINT, DEFAULT_LOOKUP_ENDPOINT, Map.of(), Map.of(), null);
     }
@@ -29,12 +35,33 @@ class ServiceConfiguration {
                          Map<String, String> customQueryParams,
                          Map<String, String> customHeaders,
                          String userAgent) {
+        this(geocodeEndpoint, reverseEndpoint, lookupEndpoint, customQueryParams, customHeaders, userAgent, ParserType.JSOUP);
+    }
+
+    ServiceConfiguration(String geocodeEndpoint, String reverseEndpoint, String lookupEndpoint,
+                         Map<String, String> customQueryParams,
+                         Map<String, String> customHeaders,
+                         String userAgent,
+                         ParserType parserType) {
+        this(geocodeEndpoint, reverseEndpoint, lookupEndpoint, customQueryParams, customHeaders, userAgent, parserType,
+                null, NominatimGeocoder.MAX_LOOKUP_IDS);
+    }
+
+    ServiceConfiguration(String geocodeEndpoint, String reverseEndpoint, String lookupEndpoint,
+                         Map<String, String> customQueryParams,
+                         Map<String, String> customHeaders,
+                         String userAgent,
+                         ParserType parserType,
+                         TimeValue lookupBatchWindow, int lookupBatchSize) {
         this.geocodeEndpoint = geocodeEndpoint;
         this.reverseEndpoint = reverseEndpoint;
         this.lookupEndpoint = lookupEndpoint;
         this.customQueryParams = Map.copyOf(customQueryParams);
         this.customHeaders = Map.copyOf(customHeaders);
         this.userAgent = userAgent;
+        this.parserType = parserType;
+        this.lookupBatchWindow = lookupBatchWindow;
+        this.lookupBatchSize = lookupBatchSize;
     }
 
     public String getGeocodeEndpoint() {
@@ -61,4 +88,23 @@ class ServiceConfiguration {
         return userAgent;
     }
 
+    public ParserType getParserType() {
+        return Objects.requireNonNullElse(parserType, ParserType.JSOUP);
+    }
+
+    /**
+     * Single lookups are collected for this time and sent as one multi-id request, {@code null} disables batching.
+     */
+    public TimeValue getLookupBatchWindow() {
+        return lookupBatchWindow;
+    }
+
+    /**
+     * Max. number of ids sent in a batched lookup request.
+     */
+    public int getLookupBatchSize() {
+        return Math.min(lookupBatchSize > 0 ? lookupBatchSize : NominatimGeocoder.MAX_LOOKUP_IDS,
+                NominatimGeocoder.MAX_LOOKUP_IDS);
+    }
+
 }
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.nominatim;
+
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * {@link ParserType#STAX}: reads the places in a single pass over the response, without building a DOM.
+ */
+class StaxResponseParser extends ResponseParser {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    @Override
+    List<Place> parsePlaces(InputStream response, String requestUri) throws IOException {
+        final List<Place> places = new ArrayList<>();
+        final XMLStreamReader reader = createReader(response, requestUri);
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && "place".equals(reader.getLocalName())) {
+                    readPlace(reader).ifPresent(places::add);
+                }
+            }
+            return places;
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse response of " + requestUri, e);
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    @Override
+    List<Place> parseReverse(InputStream response, String requestUri, LatLon coordinates) throws IOException {
+        final XMLStreamReader reader = createReader(response, requestUri);
+        try {
+            int depth = 0;
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == 2 && "result".equals(reader.getLocalName())) {
+                        final String placeId = createPlaceId(
+                                reader.getAttributeValue(null, ATTR_OSM_TYPE),
+                                reader.getAttributeValue(null, ATTR_OSM_ID));
+                        return List.of(Place.create(placeId, readText(reader), coordinates));
+                    } else if (depth == 1 && !"reversegeocode".equals(reader.getLocalName())) {
+                        return List.of();
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+            return List.of();
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not parse response of " + requestUri, e);
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    /**
+     * Read the place the reader is currently positioned at, consuming everything up to the end of the element.
+     */
+    private static Optional<Place> readPlace(XMLStreamReader reader) throws XMLStreamException {
+        final String osmType = reader.getAttributeValue(null, ATTR_OSM_TYPE);
+        final String osmId = reader.getAttributeValue(null, ATTR_OSM_ID);
+        final String displayName = reader.getAttributeValue(null, ATTR_DISPLAY_NAME);
+        final String lat = reader.getAttributeValue(null, ATTR_LAT);
+        final String lon = reader.getAttributeValue(null, ATTR_LON);
+
+        final Map<String, String> details = new LinkedHashMap<>();
+        while (reader.hasNext()) {
+            final int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                final String name = reader.getLocalName();
+                final String value = readText(reader);
+                if (StringUtils.isNotBlank(value)) {
+                    details.put(name, value);
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                break;
+            }
+        }
+
+        return createPlace(osmType, osmId, displayName, lat, lon, details);
+    }
+
+    /**
+     * Read the (normalized) text content of the current element, including the text of nested elements.
+     * The reader is positioned at the end of the element afterwards.
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        final StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    text.append(reader.getText());
+                    break;
+                default:
+                    // ignore comments & processing instructions
+            }
+        }
+        return StringUtils.normalizeSpace(text.toString());
+    }
+
+    private static XMLStreamReader createReader(InputStream response, String requestUri) throws IOException {
+        try {
+            return XML_INPUT_FACTORY.createXMLStreamReader(requestUri, response);
+        } catch (XMLStreamException e) {
+            throw new IOException("Could not read response of " + requestUri, e);
+        }
+    }
+
+    private static void closeQuietly(XMLStreamReader reader) {
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // ignored
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        final XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.nominatim;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class ClusterRateLimiterTest {
+
+    private static final String KEY = "nominatim:443";
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.DAYS.toMicros(20000));
+    private final RateLimitStore store = new InMemoryRateLimitStore();
+
+    /**
+     * The time (in milliseconds from now) the next permit for the key is available.
+     */
+    private long nextPermit(String key) {
+        return TimeUnit.MICROSECONDS.toMillis(store.get(key) - clock.get());
+    }
+
+    @Test
+    void testSharedBudget() {
+        final ClusterRateLimiter node1 = new ClusterRateLimiter(store, KEY, 2, -1, clock::get);
+        final ClusterRateLimiter node2 = new ClusterRateLimiter(store, KEY, 2, -1, clock::get);
+        final ClusterRateLimiter otherHost = new ClusterRateLimiter(store, "mirror:443", 2, -1, clock::get);
+
+        assertThat(node1.acquire(Priority.BULK))
+                .as("first permit is available right away")
+                .isCompleted();
+        assertThat(node2.acquire(Priority.BULK))
+                .as("second node waits for the next interval")
+                .isNotDone();
+        assertThat(node1.acquire(Priority.BULK))
+                .as("permits are reserved in order")
+                .isNotDone();
+        assertThat(nextPermit(KEY))
+                .as("three permits reserved")
+                .isEqualTo(1500);
+        assertThat(otherHost.acquire(Priority.BULK))
+                .as("other keys have their own budget")
+                .isCompleted();
+        assertThat(nextPermit("mirror:443"))
+                .as("one permit reserved for the other key")
+                .isEqualTo(500);
+
+        clock.addAndGet(TimeUnit.SECONDS.toMicros(5));
+        assertThat(node2.acquire(Priority.BULK))
+                .as("unused permits are not accumulated")
+                .isCompleted();
+        assertThat(node1.acquire(Priority.BULK))
+                .as("no bursts after an idle period")
+                .isNotDone();
+        assertThat(nextPermit(KEY))
+                .as("two permits reserved after the idle period")
+                .isEqualTo(1000);
+    }
+
+    @Test
+    void testMaxWait() {
+        final ClusterRateLimiter node1 = new ClusterRateLimiter(store, KEY, 1, -1, clock::get);
+        final ClusterRateLimiter node2 = new ClusterRateLimiter(store, KEY, 1,
+                TimeUnit.MILLISECONDS.toMicros(200), clock::get);
+
+        assertThat(node1.acquire(Priority.BULK))
+                .as("first permit is available right away")
+                .isCompleted();
+        assertThatCode(() -> node2.acquire(Priority.BULK).get(1, TimeUnit.SECONDS))
+                .as("wait exceeds the max. wait")
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RateLimitExceededException.class);
+        assertThat(nextPermit(KEY))
+                .as("a rejected request does not reserve a permit")
+                .isEqualTo(1000);
+    }
+
+    @Test
+    void testRemainingWait() {
+        final ClusterRateLimiter node1 = new ClusterRateLimiter(store, KEY, 1, -1, clock::get);
+        final ClusterRateLimiter node2 = new ClusterRateLimiter(store, KEY, 1,
+                TimeUnit.MILLISECONDS.toMicros(1500), clock::get);
+
+        assertThat(node1.acquire(Priority.BULK))
+                .as("first permit is available right away")
+                .isCompleted();
+        assertThatCode(() -> node2.acquire(Priority.BULK, TimeUnit.MILLISECONDS.toMicros(1000)).get(1, TimeUnit.SECONDS))
+                .as("wait exceeds the max. wait left after the local rate-limit")
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RateLimitExceededException.class);
+        assertThat(node2.acquire(Priority.BULK))
+                .as("within the full max. wait")
+                .isNotDone();
+        assertThat(nextPermit(KEY))
+                .as("permits reserved")
+                .isEqualTo(2000);
+    }
+
+    @Test
+    void testCancel() {
+        final ClusterRateLimiter limiter = new ClusterRateLimiter(store, KEY, 1, -1, clock::get);
+
+        assertThat(limiter.acquire(Priority.BULK))
+                .as("first permit is available right away")
+                .isCompleted();
+        final CompletableFuture<Void> permit = limiter.acquire(Priority.BULK);
+        assertThat(permit)
+                .as("waiting for the next permit")
+                .isNotDone();
+        permit.cancel(false);
+        assertThat(nextPermit(KEY))
+                .as("the permit of the cancelled request is given back")
+                .isEqualTo(1000);
+    }
+}
@@ -16,6 +16,7 @@
 
 package io.redlink.geocoding.nominatim;
 
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThatCode;
@@ -31,6 +32,18 @@ class NominatimBuilderTest {
         assertNotNull(NominatimGeocoder.builder().create(), "Nominatim Builder");
     }
 
+    @Test
+    void testCreateWithConnectionPool() throws Exception {
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setMaxConnectionsPerRoute(3)
+                .setMaxConnectionsTotal(1)
+                .setIdleConnectionEviction(-1, TimeUnit.SECONDS)
+                .setConnectionTimeToLive(5, TimeUnit.MINUTES)
+                .create()) {
+            assertNotNull(geocoder, "Nominatim Builder");
+        }
+    }
+
     @Test
     void testWithIllegalURI() {
         final NominatimBuilder builder = NominatimGeocoder.builder()
@@ -21,17 +21,32 @@ import com.github.tomakehurst.wiremock.client.MappingBuilder;
 import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.redlink.geocoding.AddressComponent;
+import io.redlink.geocoding.Geocoder;
 import io.redlink.geocoding.LatLon;
 import io.redlink.geocoding.Place;
+import io.redlink.geocoding.internal.ServiceOverloadedException;
 import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -104,6 +119,32 @@ class NominatimGeocoderTest {
                 .hasFieldOrPropertyWithValue("latLon", LatLon.valueOf("52.5487921,-1.8164307339635"));
     }
 
+    @Test
+    void testGeocodeWithStaxParser() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .willReturn(createXmlResponse("/geocode-response.xml"))
+        );
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_REVERSE_ENDPOINT)
+                .willReturn(createXmlResponse("/reverse-response.xml"))
+        );
+        final NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setParserType(ParserType.STAX)
+                .create();
+
+        assertThat(geocoder.geocode("135 pilkington, avenue birmingham"))
+                .as("geocoding results")
+                .singleElement()
+                .as("geocoded place")
+                .hasFieldOrPropertyWithValue("placeId", "W90394480")
+                .hasFieldOrPropertyWithValue("address", "135, Pilkington Avenue, Sutton Coldfield, Maney, Birmingham, West Midlands, England, B72 1LH, UK")
+                .hasFieldOrPropertyWithValue("latLon", LatLon.valueOf("52.5487921,-1.8164307339635"));
+        assertThat(geocoder.reverseGeocode(LatLon.valueOf("52.5487429714954,-1.81602098644987")))
+                .as("reverse geocoding results")
+                .singleElement()
+                .hasFieldOrPropertyWithValue("placeId", "W90394420");
+    }
+
     @Test
     void testGeocodeWithCustomSettings() throws Exception {
         wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT).willReturn(WireMock.notFound()));
@@ -148,6 +189,387 @@ class NominatimGeocoderTest {
 
     }
 
+    @Test
+    @SuppressWarnings("removal")
+    void testJsoupResponseHandler() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .willReturn(createXmlResponse("/geocode-response.xml"))
+        );
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .create()) {
+            final URI uri = URI.create(wiremock.baseUrl() + NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT);
+            final int places = geocoder.execute(geocoder.createRequest(uri), new NominatimGeocoder.JsoupResponseHandler<Integer>(uri) {
+                @Override
+                protected Integer parseJsoup(Document jsoupDocument) {
+                    return jsoupDocument.select("place").size();
+                }
+            });
+            assertThat(places)
+                    .as("places read by the deprecated handler")
+                    .isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testPooledConnections() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .willReturn(createXmlResponse("/geocode-response.xml"))
+        );
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setMaxConnectionsPerRoute(2)
+                .setConnectionTimeToLive(1, TimeUnit.MINUTES)
+                .setIdleConnectionEviction(10, TimeUnit.SECONDS)
+                .setPrewarmConnections(2)
+                .create()) {
+            assertThat(geocoder.getConnectionPoolStats().getAvailable())
+                    .as("pre-warmed connections")
+                    .isEqualTo(2);
+            for (int i = 0; i < 3; i++) {
+                assertThat(geocoder.geocode("135 pilkington, avenue birmingham"))
+                        .as("geocoding results #%d", i)
+                        .singleElement()
+                        .hasFieldOrPropertyWithValue("placeId", "W90394480");
+            }
+            assertThat(geocoder.getConnectionPoolStats().getAvailable())
+                    .as("connections kept in the pool")
+                    .isBetween(1, 2);
+            assertThat(geocoder.getConnectionPoolStats().getLeased())
+                    .as("connections released after the requests")
+                    .isZero();
+        }
+
+        wiremock.verify(3, WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)));
+    }
+
+    @Test
+    void testAsync() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .willReturn(createXmlResponse("/geocode-response.xml"))
+        );
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_REVERSE_ENDPOINT)
+                .willReturn(createXmlResponse("/reverse-response.xml"))
+        );
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT)
+                .willReturn(createXmlResponse("/lookup-response.xml"))
+        );
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setLocale(Locale.ENGLISH)
+                .setStaticHeader("Custom-Header", "custom-value")
+                .create()) {
+            final List<CompletableFuture<List<Place>>> pending = IntStream.range(0, 20)
+                    .mapToObj(i -> geocoder.geocodeAsync("135 pilkington, avenue birmingham"))
+                    .collect(Collectors.toList());
+            for (CompletableFuture<List<Place>> future : pending) {
+                assertThat(future.get(10, TimeUnit.SECONDS))
+                        .as("async geocoding results")
+                        .singleElement()
+                        .hasFieldOrPropertyWithValue("placeId", "W90394480");
+            }
+
+            assertThat(geocoder.reverseGeocodeAsync(LatLon.valueOf("52.5487429714954,-1.81602098644987")).get(10, TimeUnit.SECONDS))
+                    .as("async reverse geocoding results")
+                    .singleElement()
+                    .hasFieldOrPropertyWithValue("placeId", "W90394420");
+            assertThat(geocoder.lookupAsync("N240109189").get(10, TimeUnit.SECONDS))
+                    .as("async place lookup")
+                    .isPresent().get()
+                    .hasFieldOrPropertyWithValue("placeId", "N240109189");
+        }
+        wiremock.verify(20, WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT))
+                .withHeader("Custom-Header", WireMock.equalTo("custom-value")));
+    }
+
+    @Test
+    void testAsyncFailure() throws IOException {
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .create()) {
+            assertThatCode(() -> geocoder.geocodeAsync("nowhere").get(10, TimeUnit.SECONDS))
+                    .as("HTTP-404")
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    void testAsyncRateLimit() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .willReturn(createXmlResponse("/geocode-response.xml"))
+        );
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setQueryRateLimit(5)
+                .create()) {
+            final long start = System.nanoTime();
+            final List<CompletableFuture<List<Place>>> pending = IntStream.range(0, 6)
+                    .mapToObj(i -> geocoder.geocodeAsync("135 pilkington, avenue birmingham"))
+                    .collect(Collectors.toList());
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .as("caller is not blocked by the rate-limit")
+                    .isLessThan(500);
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .as("requests are rate-limited")
+                    .isGreaterThanOrEqualTo(800);
+        }
+    }
+
+    @Test
+    void testRateLimitPriority() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .willReturn(createXmlResponse("/geocode-response.xml"))
+        );
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setQueryRateLimit(5)
+                .create()) {
+            new NominatimGeocoderMetrics(geocoder).bindTo(meterRegistry);
+            final Geocoder bulk = geocoder.withPriority(Priority.BULK);
+
+            final List<String> completed = Collections.synchronizedList(new ArrayList<>());
+            final List<CompletableFuture<?>> pending = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final String name = "bulk-" + i;
+                pending.add(bulk.geocodeAsync("135 pilkington, avenue birmingham").thenRun(() -> completed.add(name)));
+            }
+            assertThat(meterRegistry.get("geocoding.nominatim.rate-limit.queue").tag("priority", "bulk").gauge().value())
+                    .as("bulk requests waiting for a permit")
+                    .isEqualTo(3);
+            pending.add(geocoder.geocodeAsync("135 pilkington, avenue birmingham").thenRun(() -> completed.add("interactive")));
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+            assertThat(completed)
+                    .as("interactive request overtakes waiting bulk requests")
+                    .containsExactly("bulk-0", "interactive", "bulk-1", "bulk-2", "bulk-3");
+            assertThat(meterRegistry.get("geocoding.nominatim.rate-limit.wait").tag("priority", "bulk").timer().count())
+                    .as("bulk requests permitted")
+                    .isEqualTo(4);
+        }
+    }
+
+    @Test
+    void testRateLimitMaxWait() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .willReturn(createXmlResponse("/geocode-response.xml"))
+        );
+        final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setQueryRateLimit(1)
+                .setMaxRateLimitWait(200, TimeUnit.MILLISECONDS)
+                .create()) {
+            new NominatimGeocoderMetrics(geocoder).bindTo(meterRegistry);
+            assertThat(geocoder.geocode("135 pilkington, avenue birmingham"))
+                    .as("first request is permitted")
+                    .hasSize(1);
+
+            final long start = System.nanoTime();
+            assertThatCode(() -> geocoder.geocode("135 pilkington, avenue birmingham"))
+                    .as("expected wait exceeds the max. wait")
+                    .isInstanceOf(RateLimitExceededException.class)
+                    .hasFieldOrPropertyWithValue("priority", Priority.INTERACTIVE);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .as("rejected without waiting")
+                    .isLessThan(200);
+            assertThatCode(() -> geocoder.withPriority(Priority.BULK).geocodeAsync("135 pilkington, avenue birmingham")
+                    .get(10, TimeUnit.SECONDS))
+                    .as("async request is rejected")
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(RateLimitExceededException.class);
+            assertThat(meterRegistry.get("geocoding.nominatim.rate-limit.rejected").tag("priority", "interactive")
+                    .functionCounter().count())
+                    .as("rejected interactive requests")
+                    .isEqualTo(1);
+        }
+        wiremock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)));
+    }
+
+    @Test
+    void testSharedRateLimit() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .willReturn(createXmlResponse("/geocode-response.xml"))
+        );
+        try (NominatimGeocoder german = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setLocale(Locale.GERMAN)
+                .setQueryRateLimit(2)
+                .create();
+             NominatimGeocoder english = NominatimGeocoder.builder()
+                     .setBaseUrl(wiremock.baseUrl() + "/")
+                     .setLocale(Locale.ENGLISH)
+                     .setQueryRateLimit(2)
+                     .create();
+             NominatimGeocoder other = NominatimGeocoder.builder()
+                     .setBaseUrl(wiremock.baseUrl().replace("localhost", "127.0.0.1"))
+                     .setQueryRateLimit(2)
+                     .create()) {
+            assertThat(english.getRateLimiter())
+                    .as("geocoders of the same host share the rate-limit")
+                    .isSameAs(german.getRateLimiter());
+            assertThat(other.getRateLimiter())
+                    .as("other hosts have their own rate-limit")
+                    .isNotSameAs(german.getRateLimiter());
+
+            final long start = System.nanoTime();
+            final List<CompletableFuture<List<Place>>> pending = IntStream.range(0, 4)
+                    .mapToObj(i -> (i % 2 == 0 ? german : english).geocodeAsync("135 pilkington, avenue birmingham"))
+                    .collect(Collectors.toList());
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .as("requests of both geocoders are limited to 2 per second")
+                    .isGreaterThanOrEqualTo(1400);
+        }
+    }
+
+    @Test
+    void testMirrorLoadBalancing() throws Exception {
+        final WireMockServer slow = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        slow.start();
+        try {
+            wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                    .willReturn(createXmlResponse("/geocode-response.xml"))
+            );
+            slow.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                    .willReturn(createXmlResponse("/geocode-response.xml").withFixedDelay(300))
+            );
+            try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                    .setBaseUrls(wiremock.baseUrl(), slow.baseUrl() + "/")
+                    .create()) {
+                for (int i = 0; i < 20; i++) {
+                    assertThat(geocoder.geocode("135 pilkington, avenue birmingham"))
+                            .as("geocoding results")
+                            .hasSize(1);
+                }
+                assertThat(geocoder.getMirrors().getMirrors())
+                        .as("latency measured for both servers")
+                        .allMatch(mirror -> mirror.getLatencyNanos() > 0);
+            }
+            assertThat(slow.countRequestsMatching(WireMock.getRequestedFor(WireMock.anyUrl()).build()).getCount())
+                    .as("requests sent to the slow server")
+                    .isBetween(1, 2);
+            wiremock.verify(WireMock.moreThanOrExactly(18),
+                    WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)));
+        } finally {
+            slow.stop();
+        }
+    }
+
+    @Test
+    void testMirrorEjection() throws Exception {
+        final WireMockServer broken = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        broken.start();
+        try {
+            wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                    .willReturn(createXmlResponse("/geocode-response.xml"))
+            );
+            broken.stubFor(WireMock.any(WireMock.anyUrl()).willReturn(WireMock.serverError()));
+            try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                    .setBaseUrls(List.of(wiremock.baseUrl(), broken.baseUrl()))
+                    .setQueryRateLimit(100)
+                    .setMirrorEjection(2, 1, TimeUnit.MINUTES)
+                    .create()) {
+                assertThat(geocoder.getMirrors().getMirrors().get(1).getRateLimiter())
+                        .as("every server has its own rate-limit")
+                        .isNotNull()
+                        .isNotSameAs(geocoder.getRateLimiter());
+
+                int failed = 0;
+                for (int i = 0; i < 10; i++) {
+                    try {
+                        geocoder.geocodeAsync("135 pilkington, avenue birmingham").get(10, TimeUnit.SECONDS);
+                    } catch (ExecutionException e) {
+                        assertThat(e.getCause())
+                                .as("failure of the broken server")
+                                .isInstanceOf(IOException.class)
+                                .hasMessageContaining("HTTP-500");
+                        failed++;
+                    }
+                }
+                assertThat(failed)
+                        .as("failed requests until the broken server is ejected")
+                        .isLessThanOrEqualTo(2);
+                final Mirror brokenMirror = geocoder.getMirrors().getMirrors().get(1);
+                assertThat(brokenMirror.isAvailable())
+                        .as("broken server is ejected")
+                        .isFalse();
+                assertThat(brokenMirror.getEjectionCount())
+                        .as("ejections of the broken server")
+                        .isEqualTo(1);
+                assertThat(geocoder.geocode("135 pilkington, avenue birmingham"))
+                        .as("requests are sent to the available server")
+                        .hasSize(1);
+            }
+            assertThat(broken.countRequestsMatching(WireMock.getRequestedFor(WireMock.anyUrl()).build()).getCount())
+                    .as("requests sent to the broken server")
+                    .isLessThanOrEqualTo(2);
+        } finally {
+            broken.stop();
+        }
+    }
+
+    @Test
+    void testOverloadBackoff() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .inScenario("overload")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(WireMock.serviceUnavailable().withHeader("Retry-After", "1"))
+                .willSetStateTo("recovered")
+        );
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .inScenario("overload")
+                .whenScenarioStateIs("recovered")
+                .willReturn(createXmlResponse("/geocode-response.xml"))
+        );
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setQueryRateLimit(10)
+                .create()) {
+            final long start = System.nanoTime();
+            assertThat(geocoder.geocode("135 pilkington, avenue birmingham"))
+                    .as("geocoding results after retry")
+                    .singleElement()
+                    .hasFieldOrPropertyWithValue("placeId", "W90394480");
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .as("Retry-After is respected")
+                    .isGreaterThanOrEqualTo(1000);
+            assertThat(geocoder.getBackoff().getRetryCount())
+                    .as("retries")
+                    .isEqualTo(1);
+            assertThat(geocoder.getBackoff().getOverloadCount())
+                    .as("overload responses")
+                    .isEqualTo(1);
+            assertThat(geocoder.getBackoff().getRateFactor())
+                    .as("rate is lowered after the overload")
+                    .isLessThan(1);
+        }
+        wiremock.verify(2, WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)));
+    }
+
+    @Test
+    void testOverloadRetriesExhausted() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)
+                .willReturn(WireMock.status(429))
+        );
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setMaxRetries(2)
+                .setRetryDelay(10, 100, TimeUnit.MILLISECONDS)
+                .create()) {
+            assertThatCode(() -> geocoder.geocodeAsync("135 pilkington, avenue birmingham").get(10, TimeUnit.SECONDS))
+                    .as("HTTP-429 after all retries")
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOfSatisfying(ServiceOverloadedException.class, e -> assertThat(e.getStatusCode())
+                            .as("status code")
+                            .isEqualTo(429));
+        }
+        wiremock.verify(3, WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_GEOCODE_ENDPOINT)));
+    }
+
     @Test
     void testReverseGeocode() throws Exception {
         wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_REVERSE_ENDPOINT)
@@ -277,6 +699,107 @@ class NominatimGeocoderTest {
 
     }
 
+    @Test
+    void testLookupAll() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT)
+                .willReturn(createXmlResponse("/lookup-response.xml"))
+        );
+        final NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .create();
+
+        final List<String> placeIds = IntStream.range(0, 60)
+                .mapToObj(i -> "W" + i)
+                .collect(Collectors.toList());
+        placeIds.add(10, "N240109189");
+        placeIds.add("n240109189");
+        placeIds.add("N240109189");
+
+        assertThat(geocoder.lookupAll(placeIds))
+                .as("places found")
+                .containsOnlyKeys("N240109189", "n240109189")
+                .extractingByKey("n240109189")
+                .hasFieldOrPropertyWithValue("placeId", "N240109189");
+
+        wiremock.verify(2, WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT)));
+        wiremock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT))
+                .withQueryParam(NominatimGeocoder.PARAM_PLACE_ID, WireMock.containing("W9,N240109189,W10")));
+    }
+
+    @Test
+    void testLookupBatching() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT)
+                .willReturn(createXmlResponse("/lookup-batch-response.xml"))
+        );
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setLocale(Locale.ENGLISH)
+                .setLookupBatching(200, TimeUnit.MILLISECONDS)
+                .create()) {
+            final CompletableFuture<Optional<Place>> berlin = geocoder.lookupAsync("N240109189");
+            final CompletableFuture<Optional<Place>> birmingham = geocoder.lookupAsync("w90394480");
+            final CompletableFuture<Optional<Place>> unknown = geocoder.lookupAsync("W1");
+            final CompletableFuture<Optional<Place>> blocking = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return geocoder.lookup("N240109189");
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+
+            assertThat(berlin.get(10, TimeUnit.SECONDS))
+                    .as("batched lookup")
+                    .isPresent().get()
+                    .hasFieldOrPropertyWithValue("placeId", "N240109189")
+                    .hasFieldOrPropertyWithValue("address", "Berlin, Deutschland");
+            assertThat(birmingham.get(10, TimeUnit.SECONDS))
+                    .as("batched lookup (lower-case id)")
+                    .isPresent().get()
+                    .hasFieldOrPropertyWithValue("placeId", "W90394480");
+            assertThat(unknown.get(10, TimeUnit.SECONDS))
+                    .as("batched lookup (not found)")
+                    .isEmpty();
+            assertThat(blocking.get(10, TimeUnit.SECONDS))
+                    .as("blocking lookup joins the batch")
+                    .isPresent().get()
+                    .hasFieldOrPropertyWithValue("placeId", "N240109189");
+        }
+
+        wiremock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT)));
+        wiremock.verify(1, WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT))
+                .withQueryParam(NominatimGeocoder.PARAM_PLACE_ID, WireMock.equalTo("N240109189,W90394480,W1")));
+    }
+
+    @Test
+    void testLookupBatchingBatchSize() throws Exception {
+        wiremock.stubFor(urlEndsWith(NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT)
+                .willReturn(createXmlResponse("/lookup-batch-response.xml"))
+        );
+        try (NominatimGeocoder geocoder = NominatimGeocoder.builder()
+                .setBaseUrl(wiremock.baseUrl())
+                .setLookupBatching(1, TimeUnit.MINUTES)
+                .setLookupBatchSize(2)
+                .create()) {
+            final List<CompletableFuture<Optional<Place>>> pending = Stream.of("N240109189", "W1", "W90394480", "W2")
+                    .map(geocoder::lookupAsync)
+                    .collect(Collectors.toList());
+            assertThat(pending.get(0).get(10, TimeUnit.SECONDS))
+                    .as("full batch is sent before the window has passed")
+                    .isPresent();
+            assertThat(pending.get(2).get(10, TimeUnit.SECONDS))
+                    .as("second batch")
+                    .isPresent();
+
+            final CompletableFuture<Optional<Place>> waiting = geocoder.lookupAsync("W3");
+            geocoder.close();
+            assertThatCode(() -> waiting.get(10, TimeUnit.SECONDS))
+                    .as("pending lookups fail on close")
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IOException.class);
+        }
+
+        wiremock.verify(2, WireMock.getRequestedFor(WireMock.urlPathEqualTo(NominatimGeocoder.DEFAULT_LOOKUP_ENDPOINT)));
+    }
 
     @Test
     void testReadPlace() {
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.redlink.geocoding.nominatim;
+
+import io.redlink.geocoding.Place;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the {@link ParserType}s on {@code /search} responses of different size.
+ * <p>
+ * Not executed during the build, run the {@link #main(String[])} method from the test-classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseParserBenchmark {
+
+    private static final String REQUEST_URI = "http://localhost/search";
+
+    /**
+     * Number of places in the response, nominatim returns at most 50.
+     */
+    @Param({"1", "10", "50"})
+    public int places;
+
+    private final ResponseParser jsoup = ResponseParser.create(ParserType.JSOUP);
+    private final ResponseParser stax = ResponseParser.create(ParserType.STAX);
+
+    private byte[] response;
+
+    @Setup
+    public void setUp() throws IOException {
+        final String template = IOUtils.resourceToString("/geocode-response.xml", StandardCharsets.UTF_8);
+        final String place = StringUtils.substringBetween(template, "<searchresults", "</searchresults>");
+        final String header = StringUtils.substringBefore(template, "<searchresults");
+        response = (header
+                + "<searchresults" + StringUtils.substringBefore(place, "<place")
+                + StringUtils.repeat("<place" + StringUtils.substringAfter(place, "<place"), places)
+                + "</searchresults>").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Place> jsoup() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(response)) {
+            return jsoup.parsePlaces(in, REQUEST_URI);
+        }
+    }
+
+    @Benchmark
+    public List<Place> stax() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(response)) {
+            return stax.parsePlaces(in, REQUEST_URI);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResponseParserBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
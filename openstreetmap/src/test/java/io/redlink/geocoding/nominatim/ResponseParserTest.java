@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.redlink.geocoding.nominatim;
+
+import io.redlink.geocoding.AddressComponent;
+import io.redlink.geocoding.AddressComponent.Type;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.InstanceOfAssertFactories.COLLECTION;
+
+/**
+ *
+ */
+class ResponseParserTest {
+
+    private static final String REQUEST_URI = "http://localhost/search";
+
+    private final ResponseParser jsoup = ResponseParser.create(ParserType.JSOUP);
+    private final ResponseParser stax = ResponseParser.create(ParserType.STAX);
+
+    @Test
+    void testParseGeocodeResponse() throws IOException {
+        final List<Place> expected = parsePlaces(jsoup, "/geocode-response.xml");
+        assertThat(expected)
+                .as("jsoup results")
+                .singleElement()
+                .hasFieldOrPropertyWithValue("placeId", "W90394480")
+                .extracting(Place::getComponents).asInstanceOf(COLLECTION)
+                .contains(AddressComponent.create(Type.streetNumber, "135"),
+                        AddressComponent.create(Type.city, "Birmingham"),
+                        AddressComponent.create(Type.countryCode, "gb"));
+
+        assertThat(parsePlaces(stax, "/geocode-response.xml"))
+                .as("stax results")
+                .containsExactlyElementsOf(expected)
+                .singleElement()
+                .extracting(Place::getMetadata)
+                .isEqualTo(expected.get(0).getMetadata());
+    }
+
+    @Test
+    void testParseLookupResponse() throws IOException {
+        final List<Place> expected = parsePlaces(jsoup, "/lookup-response.xml");
+        assertThat(expected)
+                .as("jsoup results")
+                .singleElement()
+                .hasFieldOrPropertyWithValue("placeId", "N240109189");
+
+        assertThat(parsePlaces(stax, "/lookup-response.xml"))
+                .as("stax results")
+                .containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void testParseReverseResponse() throws IOException {
+        final LatLon coordinates = LatLon.valueOf("52.5487429714954,-1.81602098644987");
+        final List<Place> expected;
+        try (InputStream in = ResponseParserTest.class.getResourceAsStream("/reverse-response.xml")) {
+            expected = jsoup.parseReverse(in, REQUEST_URI, coordinates);
+        }
+        assertThat(expected)
+                .as("jsoup results")
+                .singleElement()
+                .hasFieldOrPropertyWithValue("placeId", "W90394420")
+                .hasFieldOrPropertyWithValue("address", "137, Pilkington Avenue, Sutton Coldfield, Maney, Birmingham, West Midlands, England, B72 1LH, UK");
+
+        try (InputStream in = ResponseParserTest.class.getResourceAsStream("/reverse-response.xml")) {
+            assertThat(stax.parseReverse(in, REQUEST_URI, coordinates))
+                    .as("stax results")
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    void testParseEmptyAndInvalid() throws IOException {
+        final String empty = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><searchresults querystring=\"nowhere\"/>";
+        assertThat(stax.parsePlaces(toStream(empty), REQUEST_URI))
+                .as("empty searchresults")
+                .isEmpty();
+        assertThat(stax.parseReverse(toStream("<reversegeocode><error>Unable to geocode</error></reversegeocode>"),
+                REQUEST_URI, LatLon.create(0, 0)))
+                .as("reverse without result")
+                .isEmpty();
+
+        final String invalid = "<searchresults>"
+                + "<place osm_type=\"node\" osm_id=\"1\" lat=\"1\" lon=\"1\"/>"
+                + "<place osm_type=\"node\" osm_id=\"2\" lat=\"x\" lon=\"1\" display_name=\"Invalid\"/>"
+                + "<place osm_type=\"node\" osm_id=\"3\" lat=\"1\" lon=\"1\" display_name=\"Valid\"><road> Main <b>Street</b> </road></place>"
+                + "</searchresults>";
+        assertThat(stax.parsePlaces(toStream(invalid), REQUEST_URI))
+                .as("stax skips invalid places")
+                .containsExactlyElementsOf(jsoup.parsePlaces(toStream(invalid), REQUEST_URI))
+                .singleElement()
+                .hasFieldOrPropertyWithValue("placeId", "N3")
+                .extracting(Place::getComponents).asInstanceOf(COLLECTION)
+                .containsExactly(AddressComponent.create(Type.street, "Main Street"));
+
+        assertThatCode(() -> stax.parsePlaces(toStream("<searchresults><place>"), REQUEST_URI))
+                .as("broken xml")
+                .isInstanceOf(IOException.class);
+    }
+
+    private static List<Place> parsePlaces(ResponseParser parser, String resource) throws IOException {
+        try (InputStream in = ResponseParserTest.class.getResourceAsStream(resource)) {
+            return parser.parsePlaces(in, REQUEST_URI);
+        }
+    }
+
+    private static InputStream toStream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
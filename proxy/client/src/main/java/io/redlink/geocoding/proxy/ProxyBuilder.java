@@ -15,13 +15,18 @@
  */
 package io.redlink.geocoding.proxy;
 
+import io.redlink.geocoding.internal.AdaptiveBackoff;
 import java.net.URI;
 import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 public class ProxyBuilder {
 
     private URI baseUri;
     private Locale language;
+    private int maxRetries = AdaptiveBackoff.DEFAULT_MAX_RETRIES;
+    private long retryDelayMillis = AdaptiveBackoff.DEFAULT_BASE_DELAY_MILLIS;
+    private long maxRetryDelayMillis = AdaptiveBackoff.DEFAULT_MAX_DELAY_MILLIS;
 
     /**
      * @deprecated use {@link ProxyGeocoder#builder()}
@@ -68,6 +73,26 @@ public class ProxyBuilder {
         return this;
     }
 
+    /**
+     * Max. number of retries of a request the server rejected because it is overloaded (HTTP 429/503),
+     * defaults to {@value AdaptiveBackoff#DEFAULT_MAX_RETRIES}. {@code 0} disables retries, but the geocoder still
+     * pauses after such a response.
+     */
+    public ProxyBuilder setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+        return this;
+    }
+
+    /**
+     * The delay before the first retry (doubled for every further retry, with jitter) and the max. delay,
+     * defaults to 1 and 30 seconds. A {@code Retry-After} sent by the server is always respected.
+     */
+    public ProxyBuilder setRetryDelay(long delay, long maxDelay, TimeUnit timeUnit) {
+        this.retryDelayMillis = timeUnit.toMillis(delay);
+        this.maxRetryDelayMillis = timeUnit.toMillis(maxDelay);
+        return this;
+    }
+
     public ProxyGeocoder create() {
         if (baseUri == null) {
             throw new IllegalStateException("baseUri must be set");
@@ -75,6 +100,7 @@ public class ProxyBuilder {
             throw new IllegalArgumentException("baseUri must be absolute");
         }
 
-        return new ProxyGeocoder(baseUri, language);
+        return new ProxyGeocoder(baseUri, language, null,
+                new AdaptiveBackoff(maxRetries, retryDelayMillis, maxRetryDelayMillis, TimeUnit.MILLISECONDS));
     }
 }
@@ -20,10 +20,13 @@ import com.fasterxml.jackson.databind.json.JsonMapper;
 import io.redlink.geocoding.Geocoder;
 import io.redlink.geocoding.LatLon;
 import io.redlink.geocoding.Place;
+import io.redlink.geocoding.internal.AdaptiveBackoff;
+import io.redlink.geocoding.internal.ServiceOverloadedException;
 import io.redlink.geocoding.proxy.io.Endpoints;
 import io.redlink.geocoding.proxy.io.PlaceDTO;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
@@ -31,35 +34,78 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import org.apache.hc.client5.http.HttpRequestRetryStrategy;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.impl.DefaultHttpRequestRetryStrategy;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.concurrent.FutureCallback;
 import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
 import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.io.CloseMode;
 import org.apache.hc.core5.net.URIBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Geocoder using a geocoding proxy-server.
+ * <p>
+ * When the server is overloaded (HTTP 429/503), the geocoder pauses all requests (respecting {@code Retry-After})
+ * and retries the request, see {@link AdaptiveBackoff}.
+ */
 public class ProxyGeocoder implements Geocoder, Closeable {
 
     private static final Logger LOG = LoggerFactory.getLogger(ProxyGeocoder.class);
 
+    /**
+     * Overload responses are retried by the {@link AdaptiveBackoff}, the http-clients only retry I/O errors.
+     */
+    private static final HttpRequestRetryStrategy RETRY_STRATEGY = new DefaultHttpRequestRetryStrategy() {
+        @Override
+        public boolean retryRequest(HttpResponse response, int execCount, HttpContext context) {
+            return false;
+        }
+    };
+
     private final URI baseUri;
     private final Locale language;
     private final boolean internalHttpClient;
     private final CloseableHttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final AdaptiveBackoff backoff;
+    private CloseableHttpAsyncClient asyncClient;
 
     ProxyGeocoder(URI baseUri, Locale language, CloseableHttpClient httpClient) {
+        this(baseUri, language, httpClient, new AdaptiveBackoff());
+    }
+
+    /**
+     * @param httpClient the http-client to use (not closed by the geocoder), {@code null} to create one. It must not
+     *                   retry overload responses (HTTP 429/503) itself, as httpclient5's default
+     *                   {@code DefaultHttpRequestRetryStrategy} does: these are retried by the {@link AdaptiveBackoff},
+     *                   so the retries would multiply.
+     */
+    ProxyGeocoder(URI baseUri, Locale language, CloseableHttpClient httpClient, AdaptiveBackoff backoff) {
         this.baseUri = baseUri;
         this.language = language;
-        this.internalHttpClient = httpClient != null;
+        this.internalHttpClient = httpClient == null;
         this.httpClient = Objects.requireNonNullElseGet(httpClient,
-                () -> HttpClients.custom().useSystemProperties().build()
+                () -> HttpClients.custom().useSystemProperties().setRetryStrategy(RETRY_STRATEGY).build()
         );
         objectMapper = JsonMapper.builder().build();
-
+        this.backoff = backoff;
     }
 
     ProxyGeocoder(URI baseUri) {
@@ -85,61 +131,237 @@ public class ProxyGeocoder implements Geocoder, Closeable {
 
     @Override
     public List<Place> geocode(String address, Locale lang) throws IOException {
+        final HttpGet request = new HttpGet(createGeocodeUri(address, lang));
+        final List<Place> places = execute(request, this::readPlaceList)
+                .stream()
+                .map(PlaceDTO::toPlace)
+                .collect(Collectors.toList());
+        LOG.debug("Geocoding '{}' resulted in {} places", address, places.size());
+        return places;
+    }
+
+    @Override
+    public List<Place> reverseGeocode(LatLon coordinates, Locale lang) throws IOException {
+        final HttpGet request = new HttpGet(createReverseUri(coordinates, lang));
+        final List<Place> places = execute(request, this::readPlaceList)
+                .stream()
+                .map(PlaceDTO::toPlace)
+                .collect(Collectors.toList());
+        LOG.debug("Reverse-Geocoding '{}' resulted in {} places", coordinates, places.size());
+        return places;
+    }
+
+    @Override
+    public Optional<Place> lookup(String placeId, Locale lang) throws IOException {
+        final HttpGet request = new HttpGet(createLookupUri(placeId, lang));
+        final Optional<Place> place = Optional.ofNullable(
+                execute(request, (ClassicHttpResponse response) -> {
+                    if (isSuccess(response)) {
+                        return objectMapper.readValue(response.getEntity().getContent(),
+                                PlaceDTO.class);
+                    } else if (isNotFound(response)) {
+                        return null;
+                    }
+                    throw createIOException(response);
+                })
+        ).map(PlaceDTO::toPlace);
+        LOG.debug("Lookup of {} resulted in {}", placeId, place);
+        return place;
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang) {
         try {
-            final URIBuilder b = createUriBuilder(Endpoints.GEOCODE, lang);
-            b.setParameter(Endpoints.PARAM_ADDRESS, address);
+            return executeAsync(createGeocodeUri(address, lang), this::readPlaces);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-            final HttpGet request = new HttpGet(b.build());
-            final List<Place> places = httpClient.execute(request, this::readPlaceList)
-                    .stream()
-                    .map(PlaceDTO::toPlace)
-                    .collect(Collectors.toList());
-            LOG.debug("Geocoding '{}' resulted in {} places", address, places.size());
-            return places;
-        } catch (URISyntaxException e) {
-            throw createIOException(Endpoints.GEOCODE, e);
+    @Override
+    public CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang) {
+        try {
+            return executeAsync(createReverseUri(coordinates, lang), this::readPlaces);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
         }
     }
 
     @Override
-    public List<Place> reverseGeocode(LatLon coordinates, Locale lang) throws IOException {
+    public CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang) {
         try {
-            URIBuilder b = createUriBuilder(Endpoints.REVERSE_GEOCODE, lang);
-            b.setParameter(Endpoints.PARAM_LAT, String.valueOf(coordinates.lat()));
-            b.setParameter(Endpoints.PARAM_LON, String.valueOf(coordinates.lon()));
+            return executeAsync(createLookupUri(placeId, lang), response -> {
+                if (isSuccess(response)) {
+                    return Optional.of(objectMapper.readValue(response.getBodyBytes(), PlaceDTO.class).toPlace());
+                } else if (isNotFound(response)) {
+                    return Optional.empty();
+                }
+                throw createIOException(response);
+            });
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
 
-            final HttpGet request = new HttpGet(b.build());
-            final List<Place> places = httpClient.execute(request, this::readPlaceList)
-                    .stream()
-                    .map(PlaceDTO::toPlace)
-                    .collect(Collectors.toList());
-            LOG.debug("Reverse-Geocoding '{}' resulted in {} places", coordinates, places.size());
-            return places;
+    /**
+     * Execute the request, retrying it if the server is overloaded.
+     */
+    private <T> T execute(HttpGet request, HttpClientResponseHandler<T> responseHandler) throws IOException {
+        backoff.onRequest();
+        for (int attempt = 0; ; attempt++) {
+            sleep(backoff.getPauseNanos());
+            try {
+                final T result = httpClient.execute(request, responseHandler);
+                backoff.onSuccess();
+                return result;
+            } catch (ServiceOverloadedException e) {
+                if (!retryAfterOverload(e, attempt)) {
+                    throw e;
+                }
+                sleep(backoff.getRetryDelayNanos(attempt));
+            }
+        }
+    }
+
+    /**
+     * Execute the request on the (lazily created) async http-client, retrying it if the server is overloaded.
+     * Cancelling the returned future also cancels the pending request.
+     */
+    private <T> CompletableFuture<T> executeAsync(URI uri, AsyncResponseReader<T> responseReader) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        backoff.onRequest();
+        attemptAsync(uri, responseReader, 0, backoff.getPauseNanos(), result);
+        return result;
+    }
+
+    private <T> void attemptAsync(URI uri, AsyncResponseReader<T> responseReader, int attempt, long delayNanos,
+                                  CompletableFuture<T> result) {
+        final CompletableFuture<T> response = new CompletableFuture<>();
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                response.cancel(false);
+            }
+        });
+        response.whenComplete((value, failure) -> {
+            if (failure == null) {
+                backoff.onSuccess();
+                result.complete(value);
+            } else if (failure instanceof ServiceOverloadedException
+                    && !result.isDone()
+                    && retryAfterOverload((ServiceOverloadedException) failure, attempt)) {
+                attemptAsync(uri, responseReader, attempt + 1, backoff.getRetryDelayNanos(attempt), result);
+            } else {
+                result.completeExceptionally(failure);
+            }
+        });
+        if (delayNanos > 0) {
+            CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS)
+                    .execute(() -> sendAsync(uri, responseReader, response));
+        } else {
+            sendAsync(uri, responseReader, response);
+        }
+    }
+
+    /**
+     * Record the overload response.
+     *
+     * @return {@code true} if the request should be retried
+     */
+    private boolean retryAfterOverload(ServiceOverloadedException e, int attempt) {
+        backoff.onOverload(e.getRetryAfter(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+        if (backoff.tryRetry(attempt)) {
+            LOG.debug("{} is overloaded (HTTP-{}), retrying request", baseUri, e.getStatusCode());
+            return true;
+        }
+        LOG.warn("{} is overloaded (HTTP-{}), giving up after {} attempts", baseUri, e.getStatusCode(), attempt + 1);
+        return false;
+    }
+
+    private <T> void sendAsync(URI uri, AsyncResponseReader<T> responseReader, CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        final Future<SimpleHttpResponse> pending = getAsyncClient().execute(SimpleRequestBuilder.get(uri).build(),
+                new FutureCallback<>() {
+                    @Override
+                    public void completed(SimpleHttpResponse response) {
+                        try {
+                            result.complete(responseReader.read(response));
+                        } catch (IOException | RuntimeException e) {
+                            result.completeExceptionally(e);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Exception ex) {
+                        result.completeExceptionally(ex);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        result.cancel(false);
+                    }
+                });
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                pending.cancel(true);
+            }
+        });
+    }
+
+    private static void sleep(long nanos) throws InterruptedIOException {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off");
+        }
+    }
+
+    /**
+     * The back-off reacting to overload responses of the server.
+     */
+    AdaptiveBackoff getBackoff() {
+        return backoff;
+    }
+
+    private synchronized CloseableHttpAsyncClient getAsyncClient() {
+        if (asyncClient == null) {
+            asyncClient = HttpAsyncClients.custom().useSystemProperties().setRetryStrategy(RETRY_STRATEGY).build();
+            asyncClient.start();
+        }
+        return asyncClient;
+    }
+
+    private URI createGeocodeUri(String address, Locale lang) throws IOException {
+        try {
+            return createUriBuilder(Endpoints.GEOCODE, lang)
+                    .setParameter(Endpoints.PARAM_ADDRESS, address)
+                    .build();
+        } catch (URISyntaxException e) {
+            throw createIOException(Endpoints.GEOCODE, e);
+        }
+    }
+
+    private URI createReverseUri(LatLon coordinates, Locale lang) throws IOException {
+        try {
+            return createUriBuilder(Endpoints.REVERSE_GEOCODE, lang)
+                    .setParameter(Endpoints.PARAM_LAT, String.valueOf(coordinates.lat()))
+                    .setParameter(Endpoints.PARAM_LON, String.valueOf(coordinates.lon()))
+                    .build();
         } catch (URISyntaxException e) {
             throw createIOException(Endpoints.REVERSE_GEOCODE, e);
         }
     }
 
-    @Override
-    public Optional<Place> lookup(String placeId, Locale lang) throws IOException {
+    private URI createLookupUri(String placeId, Locale lang) throws IOException {
         try {
-            URIBuilder b = createUriBuilder(Endpoints.LOOKUP, lang);
-            b.setParameter(Endpoints.PARAM_PLACE_ID, placeId);
-
-            final HttpGet request = new HttpGet(b.build());
-            final Optional<Place> place = Optional.ofNullable(
-                    httpClient.execute(request, (ClassicHttpResponse response) -> {
-                        if (isSuccess(response)) {
-                            return objectMapper.readValue(response.getEntity().getContent(),
-                                    PlaceDTO.class);
-                        } else if (isNotFound(response)) {
-                            return null;
-                        }
-                        throw createIOException(response);
-                    })
-            ).map(PlaceDTO::toPlace);
-            LOG.debug("Lookup of {} resulted in {}", placeId, place);
-            return place;
+            return createUriBuilder(Endpoints.LOOKUP, lang)
+                    .setParameter(Endpoints.PARAM_PLACE_ID, placeId)
+                    .build();
         } catch (URISyntaxException e) {
             throw createIOException(Endpoints.LOOKUP, e);
         }
@@ -168,7 +390,25 @@ public class ProxyGeocoder implements Geocoder, Closeable {
         throw createIOException(response);
     }
 
+    private List<Place> readPlaces(SimpleHttpResponse response) throws IOException {
+        if (isSuccess(response)) {
+            final List<PlaceDTO> places = objectMapper.readValue(response.getBodyBytes(),
+                    objectMapper.getTypeFactory().constructCollectionLikeType(List.class, PlaceDTO.class));
+            return places.stream()
+                    .map(PlaceDTO::toPlace)
+                    .collect(Collectors.toList());
+        }
+        throw createIOException(response);
+    }
+
     private IOException createIOException(HttpResponse response) {
+        if (AdaptiveBackoff.isOverloaded(response.getCode())) {
+            final Header retryAfter = response.getFirstHeader(HttpHeaders.RETRY_AFTER);
+            return new ServiceOverloadedException(String.format("Server is overloaded: HTTP-%d (%s)",
+                    response.getCode(), response.getReasonPhrase()), response.getCode(),
+                    AdaptiveBackoff.parseRetryAfter(retryAfter != null ? retryAfter.getValue() : null, TimeUnit.MILLISECONDS),
+                    TimeUnit.MILLISECONDS);
+        }
         return new IOException(String.format("Could not read result from server response: HTTP-%d (%s)",
                 response.getCode(),
                 response.getReasonPhrase()
@@ -184,6 +424,11 @@ public class ProxyGeocoder implements Geocoder, Closeable {
         return statusCode >= 200 && statusCode < 300 && Objects.nonNull(response.getEntity());
     }
 
+    private boolean isSuccess(SimpleHttpResponse response) {
+        final int statusCode = response.getCode();
+        return statusCode >= 200 && statusCode < 300 && Objects.nonNull(response.getBodyBytes());
+    }
+
     private boolean isNotFound(HttpResponse response) {
         final int statusCode = response.getCode();
         return statusCode == 404;
@@ -194,6 +439,11 @@ public class ProxyGeocoder implements Geocoder, Closeable {
         if (internalHttpClient) {
             httpClient.close();
         }
+        synchronized (this) {
+            if (asyncClient != null) {
+                asyncClient.close(CloseMode.GRACEFUL);
+            }
+        }
     }
 
     @Override
@@ -211,4 +461,9 @@ public class ProxyGeocoder implements Geocoder, Closeable {
         }
     }
 
+    @FunctionalInterface
+    private interface AsyncResponseReader<T> {
+        T read(SimpleHttpResponse response) throws IOException;
+    }
+
 }
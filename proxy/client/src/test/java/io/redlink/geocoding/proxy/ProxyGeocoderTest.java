@@ -22,9 +22,11 @@ import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 import io.redlink.geocoding.AddressComponent;
 import io.redlink.geocoding.LatLon;
 import io.redlink.geocoding.Place;
+import io.redlink.geocoding.internal.ServiceOverloadedException;
 import io.redlink.geocoding.proxy.io.Endpoints;
 import io.redlink.geocoding.proxy.io.PlaceDTO;
 import java.io.IOException;
@@ -32,6 +34,8 @@ import java.net.URI;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.assertj.core.api.Assertions;
@@ -129,6 +133,90 @@ class ProxyGeocoderTest {
                 .isEmpty();
     }
 
+    @Test
+    void testAsync() throws Exception {
+        Assertions.assertThat(geocoder.geocodeAsync("some address").get(10, TimeUnit.SECONDS))
+                .as("Async Geocode Results")
+                .containsExactly(PLACE_1, PLACE_2);
+        Assertions.assertThat(geocoder.reverseGeocodeAsync(LatLon.create(15, 35)).get(10, TimeUnit.SECONDS))
+                .as("Async Reverse Geocode Results")
+                .containsExactly(PLACE_2, PLACE_1);
+        Assertions.assertThat(geocoder.lookupAsync(RandomStringUtils.insecure().nextAlphabetic(8)).get(10, TimeUnit.SECONDS))
+                .as("Async Lookup Result")
+                .contains(PLACE_1);
+        Assertions.assertThat(geocoder.lookupAsync("does-not-exist").get(10, TimeUnit.SECONDS))
+                .as("Async Lookup Result")
+                .isEmpty();
+    }
+
+    @Test
+    void testBatch() throws IOException {
+        Assertions.assertThat(geocoder.geocodeAll(List.of("address 1", "address 2", "address 1")))
+                .as("Batch Geocode Results")
+                .containsOnlyKeys("address 1", "address 2")
+                .containsEntry("address 2", List.of(PLACE_1, PLACE_2));
+        Assertions.assertThat(geocoder.lookupAll(List.of("does-not-exist", "some-place")))
+                .as("Batch Lookup Results")
+                .containsExactly(Map.entry("some-place", PLACE_1));
+    }
+
+    @Test
+    void testOverloadBackoff() throws IOException {
+        final String basePath = RandomStringUtils.insecure().nextAlphabetic(6);
+        final String geocodePath = format("/%s/%s/%s", basePath, Endpoints.API_VERSION, Endpoints.GEOCODE);
+        WIREMOCK.stubFor(WireMock.get(WireMock.urlPathEqualTo(geocodePath))
+                .inScenario(basePath)
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(WireMock.status(503).withHeader("Retry-After", "1"))
+                .willSetStateTo("recovered")
+        );
+        WIREMOCK.stubFor(WireMock.get(WireMock.urlPathEqualTo(geocodePath))
+                .inScenario(basePath)
+                .whenScenarioStateIs("recovered")
+                .willReturn(WireMock.okJson(MAPPER.writeValueAsString(List.of(PlaceDTO.fromPlace(PLACE_1)))))
+        );
+
+        try (ProxyGeocoder overloaded = ProxyGeocoder.builder()
+                .setBaseUri(URI.create(WIREMOCK.url(basePath)))
+                .create()) {
+            final long start = System.nanoTime();
+            Assertions.assertThat(overloaded.geocode("some address"))
+                    .as("Results after retry")
+                    .containsExactly(PLACE_1);
+            Assertions.assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                    .as("Retry-After respected")
+                    .isGreaterThanOrEqualTo(1000);
+            Assertions.assertThat(overloaded.getBackoff().getRetryCount())
+                    .as("Retries")
+                    .isEqualTo(1);
+        }
+        WIREMOCK.verify(2, WireMock.getRequestedFor(WireMock.urlPathEqualTo(geocodePath)));
+    }
+
+    @Test
+    void testOverloadRetriesExhausted() throws IOException {
+        final String basePath = RandomStringUtils.insecure().nextAlphabetic(6);
+        final String lookupPath = format("/%s/%s/%s", basePath, Endpoints.API_VERSION, Endpoints.LOOKUP);
+        WIREMOCK.stubFor(WireMock.get(WireMock.urlPathEqualTo(lookupPath))
+                .willReturn(WireMock.status(429))
+        );
+
+        try (ProxyGeocoder overloaded = ProxyGeocoder.builder()
+                .setBaseUri(URI.create(WIREMOCK.url(basePath)))
+                .setMaxRetries(2)
+                .setRetryDelay(10, 100, TimeUnit.MILLISECONDS)
+                .create()) {
+            Assertions.assertThatThrownBy(() -> overloaded.lookupAsync("some-place").get(10, TimeUnit.SECONDS))
+                    .as("Overloaded after all retries")
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(ServiceOverloadedException.class)
+                    .extracting(e -> ((ServiceOverloadedException) e).getStatusCode())
+                    .isEqualTo(429);
+        }
+        WIREMOCK.verify(3, WireMock.getRequestedFor(WireMock.urlPathEqualTo(lookupPath)));
+    }
+
     static Place createPlace(String address) {
         return Place.create(
                 RandomStringUtils.insecure().nextAlphabetic(8),
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.resilience;
+
+/**
+ * An adaptive concurrency limit using additive-increase/multiplicative-decrease, driven by latency: a request that
+ * fails or takes longer than {@code tolerance} times the smoothed latency decreases the limit by the backoff ratio,
+ * a fast request increases it by one while the limit is in use (at least half of it in flight).
+ */
+final class AimdLimit {
+
+    private static final double SMOOTHING = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double tolerance;
+
+    private volatile int limit;
+    private double smoothedNanos = -1;
+
+    AimdLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the new limit
+     */
+    synchronized int onSample(long latencyNanos, int inFlight, boolean failed) {
+        final boolean slow = smoothedNanos > 0 && latencyNanos > smoothedNanos * tolerance;
+        if (!failed) {
+            smoothedNanos = smoothedNanos < 0 ? latencyNanos : smoothedNanos + SMOOTHING * (latencyNanos - smoothedNanos);
+        }
+        if (failed || slow) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (inFlight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        return limit;
+    }
+}
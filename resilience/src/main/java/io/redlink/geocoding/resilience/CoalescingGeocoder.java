@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.redlink.geocoding.Geocoder;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces concurrent, identical requests (single-flight): while a request for an operation, key and locale is
+ * in flight, further identical requests wait for it and share its result (or failure), instead of calling the
+ * wrapped geocoder again.
+ * <p>
+ * Nothing is cached, once the request has completed the next identical request calls the wrapped geocoder again.
+ * Cancelling a returned future does not cancel the shared request. The batch-methods ({@code *All}) are passed
+ * on to the wrapped geocoder.
+ */
+public class CoalescingGeocoder implements Geocoder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CoalescingGeocoder.class);
+
+    private final Geocoder delegate;
+    private final ConcurrentMap<RequestKey, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public CoalescingGeocoder(Geocoder delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+    }
+
+    public Geocoder getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public List<Place> geocode(String address, Locale lang) throws IOException {
+        return Futures.get(coalesce(new RequestKey(Operation.GEOCODE, address, lang),
+                () -> Futures.completed(() -> delegate.geocode(address, lang))));
+    }
+
+    @Override
+    public List<Place> reverseGeocode(LatLon coordinates, Locale lang) throws IOException {
+        return Futures.get(coalesce(new RequestKey(Operation.REVERSE_GEOCODE, coordinates, lang),
+                () -> Futures.completed(() -> delegate.reverseGeocode(coordinates, lang))));
+    }
+
+    @Override
+    public Optional<Place> lookup(String placeId, Locale lang) throws IOException {
+        return Futures.get(coalesce(new RequestKey(Operation.LOOKUP, placeId, lang),
+                () -> Futures.completed(() -> delegate.lookup(placeId, lang))));
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang) {
+        return Futures.copy(coalesce(new RequestKey(Operation.GEOCODE, address, lang),
+                () -> delegate.geocodeAsync(address, lang)));
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang) {
+        return Futures.copy(coalesce(new RequestKey(Operation.REVERSE_GEOCODE, coordinates, lang),
+                () -> delegate.reverseGeocodeAsync(coordinates, lang)));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang) {
+        return Futures.copy(coalesce(new RequestKey(Operation.LOOKUP, placeId, lang),
+                () -> delegate.lookupAsync(placeId, lang)));
+    }
+
+    @Override
+    public Map<String, List<Place>> geocodeAll(Collection<String> addresses, Locale lang) throws IOException {
+        return delegate.geocodeAll(addresses, lang);
+    }
+
+    @Override
+    public Map<LatLon, List<Place>> reverseGeocodeAll(Collection<LatLon> coordinates, Locale lang) throws IOException {
+        return delegate.reverseGeocodeAll(coordinates, lang);
+    }
+
+    @Override
+    public Map<String, Place> lookupAll(Collection<String> placeIds, Locale lang) throws IOException {
+        return delegate.lookupAll(placeIds, lang);
+    }
+
+    /**
+     * The number of (non-batch) requests.
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * The number of requests that joined a request already in flight.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * The number of distinct requests currently in flight.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Join the request in flight for the key, or start a new one.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> coalesce(RequestKey key, Supplier<CompletableFuture<T>> call) {
+        requests.increment();
+        final CompletableFuture<T> leader = new CompletableFuture<>();
+        final CompletableFuture<?> existing = inFlight.putIfAbsent(key, leader);
+        if (existing != null) {
+            LOG.trace("Joining in-flight request {}", key);
+            coalesced.increment();
+            return (CompletableFuture<T>) existing;
+        }
+
+        CompletableFuture<T> result;
+        try {
+            result = call.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((r, t) -> {
+            inFlight.remove(key, leader);
+            if (t != null) {
+                leader.completeExceptionally(Futures.unwrap(t));
+            } else {
+                leader.complete(r);
+            }
+        });
+        return leader;
+    }
+
+    private enum Operation {
+        GEOCODE,
+        REVERSE_GEOCODE,
+        LOOKUP
+    }
+
+    private static final class RequestKey {
+        private final Operation operation;
+        private final Object value;
+        private final Locale lang;
+
+        RequestKey(Operation operation, Object value, Locale lang) {
+            this.operation = operation;
+            this.value = value;
+            this.lang = lang;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final RequestKey that = (RequestKey) o;
+            return operation == that.operation && Objects.equals(value, that.value) && Objects.equals(lang, that.lang);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(operation, value, lang);
+        }
+
+        @Override
+        public String toString() {
+            return operation + "(" + value + ", " + lang + ")";
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Objects;
+
+/**
+ * Exposes the statistics of a {@link CoalescingGeocoder} to Micrometer: the number of requests, how many of them
+ * were coalesced and the number of requests in flight.
+ * <p>
+ * Micrometer is an optional dependency, it must be on the classpath to use this binder.
+ */
+public class CoalescingGeocoderMetrics implements MeterBinder {
+
+    private final CoalescingGeocoder geocoder;
+    private final Iterable<Tag> tags;
+
+    public CoalescingGeocoderMetrics(CoalescingGeocoder geocoder) {
+        this(geocoder, Tags.empty());
+    }
+
+    public CoalescingGeocoderMetrics(CoalescingGeocoder geocoder, Iterable<Tag> tags) {
+        this.geocoder = Objects.requireNonNull(geocoder, "geocoder must not be null");
+        this.tags = tags;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("geocoding.coalescing.requests", geocoder, CoalescingGeocoder::getRequestCount)
+                .tags(tags)
+                .description("Requests passing the coalescing geocoder")
+                .register(registry);
+        FunctionCounter.builder("geocoding.coalescing.coalesced", geocoder, CoalescingGeocoder::getCoalescedCount)
+                .tags(tags)
+                .description("Requests that shared the result of an identical request in flight")
+                .register(registry);
+        Gauge.builder("geocoding.coalescing.in-flight", geocoder, CoalescingGeocoder::getInFlightCount)
+                .tags(tags)
+                .description("Distinct requests in flight")
+                .register(registry);
+    }
+}
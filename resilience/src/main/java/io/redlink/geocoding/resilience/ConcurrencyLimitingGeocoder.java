@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.redlink.geocoding.Geocoder;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Limits the number of concurrent requests to the wrapped geocoder (a bulkhead). The limit adapts to the observed
+ * latency (additive-increase/multiplicative-decrease): it shrinks when requests fail or get slow, and grows while
+ * requests are fast and the limit is in use.
+ * <p>
+ * Requests beyond the limit wait in a bounded queue (disabled by default). When the queue is full, or a request
+ * waited too long, it is rejected with a {@link ConcurrencyLimitExceededException}, without calling the wrapped
+ * geocoder. Each call of a batch-method ({@code *All}) counts as a single request. Its latency is not used to adapt
+ * the limit though, as a batch is much slower than a single request and would shrink the limit every time.
+ */
+public class ConcurrencyLimitingGeocoder implements Geocoder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConcurrencyLimitingGeocoder.class);
+
+    private final Geocoder delegate;
+    private final AimdLimit limit;
+    private final int maxQueueSize;
+    private final long maxQueueWaitNanos;
+    private final LongSupplier ticker;
+
+    private final Deque<CompletableFuture<Void>> queue = new ArrayDeque<>();
+    private int inFlight = 0;
+    private final LongAdder rejected = new LongAdder();
+
+    ConcurrencyLimitingGeocoder(Geocoder delegate, AimdLimit limit, int maxQueueSize, long maxQueueWaitNanos,
+                                LongSupplier ticker) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.limit = limit;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWaitNanos = maxQueueWaitNanos;
+        this.ticker = ticker;
+    }
+
+    public static ConcurrencyLimitingGeocoderBuilder wrap(Geocoder delegate) {
+        return new ConcurrencyLimitingGeocoderBuilder(delegate);
+    }
+
+    @Override
+    public List<Place> geocode(String address, Locale lang) throws IOException {
+        return limited(() -> delegate.geocode(address, lang));
+    }
+
+    @Override
+    public List<Place> reverseGeocode(LatLon coordinates, Locale lang) throws IOException {
+        return limited(() -> delegate.reverseGeocode(coordinates, lang));
+    }
+
+    @Override
+    public Optional<Place> lookup(String placeId, Locale lang) throws IOException {
+        return limited(() -> delegate.lookup(placeId, lang));
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang) {
+        return limitedAsync(() -> delegate.geocodeAsync(address, lang));
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang) {
+        return limitedAsync(() -> delegate.reverseGeocodeAsync(coordinates, lang));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang) {
+        return limitedAsync(() -> delegate.lookupAsync(placeId, lang));
+    }
+
+    @Override
+    public Map<String, List<Place>> geocodeAll(Collection<String> addresses, Locale lang) throws IOException {
+        return limited(() -> delegate.geocodeAll(addresses, lang), false);
+    }
+
+    @Override
+    public Map<LatLon, List<Place>> reverseGeocodeAll(Collection<LatLon> coordinates, Locale lang) throws IOException {
+        return limited(() -> delegate.reverseGeocodeAll(coordinates, lang), false);
+    }
+
+    @Override
+    public Map<String, Place> lookupAll(Collection<String> placeIds, Locale lang) throws IOException {
+        return limited(() -> delegate.lookupAll(placeIds, lang), false);
+    }
+
+    /**
+     * The current concurrency limit.
+     */
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    /**
+     * The number of requests waiting for a permit.
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * The number of rejected requests.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private <T> T limited(BlockingCall<T> call) throws IOException {
+        return limited(call, true);
+    }
+
+    /**
+     * @param sampled whether the outcome of the call adapts the limit
+     */
+    private <T> T limited(BlockingCall<T> call, boolean sampled) throws IOException {
+        awaitPermit();
+        final long start = sampled ? ticker.getAsLong() : -1;
+        try {
+            final T result = call.call();
+            release(start, null);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            release(start, e);
+            throw e;
+        }
+    }
+
+    private <T> CompletableFuture<T> limitedAsync(Supplier<CompletableFuture<T>> call) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final CompletableFuture<Void> permit = acquire();
+        result.whenComplete((r, t) -> {
+            if (result.isCancelled()) {
+                permit.cancel(false);
+            }
+        });
+        permit.whenComplete((v, failure) -> {
+            if (failure != null) {
+                result.completeExceptionally(toRejection(failure));
+                return;
+            }
+            if (result.isDone()) {
+                // cancelled while waiting for the permit
+                release(-1, null);
+                return;
+            }
+            final long start = ticker.getAsLong();
+            CompletableFuture<T> pending;
+            try {
+                pending = call.get();
+            } catch (RuntimeException e) {
+                pending = CompletableFuture.failedFuture(e);
+            }
+            final CompletableFuture<T> attempt = pending;
+            result.whenComplete((r, t) -> {
+                if (result.isCancelled()) {
+                    attempt.cancel(true);
+                }
+            });
+            attempt.whenComplete((r, t) -> {
+                release(start, t != null ? Futures.unwrap(t) : null);
+                if (t != null) {
+                    result.completeExceptionally(Futures.unwrap(t));
+                } else {
+                    result.complete(r);
+                }
+            });
+        });
+        return result;
+    }
+
+    private void awaitPermit() throws IOException {
+        final CompletableFuture<Void> permit = acquire();
+        try {
+            permit.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (!permit.cancel(false) && !permit.isCompletedExceptionally()) {
+                // the permit was granted in the meantime
+                release(-1, null);
+            }
+            throw new IOException("Interrupted while waiting for a permit", e);
+        } catch (ExecutionException e) {
+            throw toRejection(e.getCause());
+        }
+    }
+
+    /**
+     * @return a future that completes once a permit is granted, or fails if the request is rejected
+     */
+    private CompletableFuture<Void> acquire() {
+        final CompletableFuture<Void> waiter;
+        final int currentLimit = limit.getLimit();
+        synchronized (this) {
+            if (inFlight < currentLimit) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            if (queue.size() >= maxQueueSize) {
+                waiter = null;
+            } else {
+                waiter = new CompletableFuture<>();
+                queue.add(waiter);
+            }
+        }
+        if (waiter == null) {
+            rejected.increment();
+            LOG.debug("Rejecting request, {} requests in flight", currentLimit);
+            return CompletableFuture.failedFuture(new ConcurrencyLimitExceededException(
+                    "Concurrency limit of " + currentLimit + " requests reached", currentLimit));
+        }
+        waiter.whenComplete((v, failure) -> {
+            if (failure != null) {
+                synchronized (this) {
+                    queue.remove(waiter);
+                }
+                if (failure instanceof TimeoutException) {
+                    rejected.increment();
+                }
+            }
+        });
+        return waiter.orTimeout(maxQueueWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Release the permit of a request, adapting the limit to its outcome, and grant permits to waiting requests.
+     *
+     * @param start    when the request was started, {@code -1} if it was not started
+     * @param failure  the failure of the request, if any
+     */
+    private void release(long start, Throwable failure) {
+        final List<CompletableFuture<Void>> granted = new ArrayList<>();
+        synchronized (this) {
+            if (start >= 0 && !(failure instanceof CancellationException)) {
+                // only I/O failures indicate an overloaded service
+                final boolean failed = failure instanceof IOException;
+                if (failure == null || failed) {
+                    limit.onSample(ticker.getAsLong() - start, inFlight, failed);
+                }
+            }
+            inFlight--;
+            final int currentLimit = limit.getLimit();
+            while (inFlight < currentLimit && !queue.isEmpty()) {
+                granted.add(queue.poll());
+                inFlight++;
+            }
+        }
+        for (CompletableFuture<Void> waiter : granted) {
+            if (!waiter.complete(null)) {
+                // cancelled or timed out in the meantime
+                release(-1, null);
+            }
+        }
+    }
+
+    private ConcurrencyLimitExceededException toRejection(Throwable failure) {
+        final Throwable cause = Futures.unwrap(failure);
+        if (cause instanceof ConcurrencyLimitExceededException) {
+            return (ConcurrencyLimitExceededException) cause;
+        }
+        final int currentLimit = limit.getLimit();
+        final ConcurrencyLimitExceededException rejection = new ConcurrencyLimitExceededException(
+                "No permit within " + TimeUnit.NANOSECONDS.toMillis(maxQueueWaitNanos) + "ms, concurrency limit is "
+                        + currentLimit, currentLimit);
+        rejection.initCause(cause);
+        return rejection;
+    }
+
+    @Override
+    public String toString() {
+        return "ConcurrencyLimitingGeocoder{delegate=" + delegate + ", limit=" + limit.getLimit() + '}';
+    }
+
+    @FunctionalInterface
+    private interface BlockingCall<T> {
+        T call() throws IOException;
+    }
+}
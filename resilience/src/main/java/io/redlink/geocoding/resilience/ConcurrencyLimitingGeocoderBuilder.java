@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.redlink.geocoding.Geocoder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A builder for {@link ConcurrencyLimitingGeocoder}.
+ */
+public class ConcurrencyLimitingGeocoderBuilder {
+
+    public static final int DEFAULT_INITIAL_LIMIT = 20;
+    public static final int DEFAULT_MAX_LIMIT = 200;
+    public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+    public static final double DEFAULT_LATENCY_TOLERANCE = 2;
+
+    private final Geocoder delegate;
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = 1;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+    private double latencyTolerance = DEFAULT_LATENCY_TOLERANCE;
+    private int maxQueueSize = 0;
+    private long maxQueueWaitNanos = TimeUnit.SECONDS.toNanos(1);
+
+    ConcurrencyLimitingGeocoderBuilder(Geocoder delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * The limit to start with, defaults to {@value #DEFAULT_INITIAL_LIMIT}.
+     */
+    public ConcurrencyLimitingGeocoderBuilder setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+        return this;
+    }
+
+    /**
+     * The range the limit adapts in, defaults to {@code 1} to {@value #DEFAULT_MAX_LIMIT}.
+     */
+    public ConcurrencyLimitingGeocoderBuilder setLimitRange(int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        return this;
+    }
+
+    /**
+     * The factor the limit is multiplied with after a failed or slow request, defaults to
+     * {@value #DEFAULT_BACKOFF_RATIO}.
+     */
+    public ConcurrencyLimitingGeocoderBuilder setBackoffRatio(double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+
+    /**
+     * A request is considered slow when it takes longer than this factor times the average latency, defaults to
+     * {@value #DEFAULT_LATENCY_TOLERANCE}.
+     */
+    public ConcurrencyLimitingGeocoderBuilder setLatencyTolerance(double latencyTolerance) {
+        if (latencyTolerance <= 1) {
+            throw new IllegalArgumentException("latencyTolerance must be greater than 1");
+        }
+        this.latencyTolerance = latencyTolerance;
+        return this;
+    }
+
+    /**
+     * Let requests beyond the limit wait for a permit, instead of rejecting them right away (the default).
+     */
+    public ConcurrencyLimitingGeocoderBuilder setQueue(int maxQueueSize, long maxWait, TimeUnit timeUnit) {
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("maxQueueSize must not be negative");
+        }
+        if (maxWait <= 0) {
+            throw new IllegalArgumentException("maxWait must be positive");
+        }
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWaitNanos = timeUnit.toNanos(maxWait);
+        return this;
+    }
+
+    public ConcurrencyLimitingGeocoder create() {
+        if (delegate == null) {
+            throw new IllegalStateException("geocoder must be set!");
+        }
+        return new ConcurrencyLimitingGeocoder(delegate,
+                new AimdLimit(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance),
+                maxQueueSize, maxQueueWaitNanos, System::nanoTime);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Objects;
+
+/**
+ * Exposes the state of a {@link ConcurrencyLimitingGeocoder} to Micrometer: the current limit, the requests in
+ * flight and waiting in the queue, and the number of rejected requests.
+ * <p>
+ * Micrometer is an optional dependency, it must be on the classpath to use this binder.
+ */
+public class ConcurrencyLimitingGeocoderMetrics implements MeterBinder {
+
+    private final ConcurrencyLimitingGeocoder geocoder;
+    private final Iterable<Tag> tags;
+
+    public ConcurrencyLimitingGeocoderMetrics(ConcurrencyLimitingGeocoder geocoder) {
+        this(geocoder, Tags.empty());
+    }
+
+    public ConcurrencyLimitingGeocoderMetrics(ConcurrencyLimitingGeocoder geocoder, Iterable<Tag> tags) {
+        this.geocoder = Objects.requireNonNull(geocoder, "geocoder must not be null");
+        this.tags = tags;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("geocoding.limiter.limit", geocoder, ConcurrencyLimitingGeocoder::getLimit)
+                .tags(tags)
+                .description("The current limit of concurrent requests")
+                .register(registry);
+        Gauge.builder("geocoding.limiter.in-flight", geocoder, ConcurrencyLimitingGeocoder::getInFlightCount)
+                .tags(tags)
+                .description("Requests in flight")
+                .register(registry);
+        Gauge.builder("geocoding.limiter.queue", geocoder, ConcurrencyLimitingGeocoder::getQueueDepth)
+                .tags(tags)
+                .description("Requests waiting for a permit")
+                .register(registry);
+        FunctionCounter.builder("geocoding.limiter.rejected", geocoder, ConcurrencyLimitingGeocoder::getRejectedCount)
+                .tags(tags)
+                .description("Requests rejected because the limit was reached")
+                .register(registry);
+    }
+}
@@ -0,0 +1,407 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.redlink.geocoding.Geocoder;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tries a chain of geocoders in order, falling through to the next one when a geocoder fails or (optionally) returns
+ * an empty result. Each geocoder is guarded by a {@link CircuitBreaker}, so a geocoder that keeps failing is skipped
+ * without waiting for it, until its circuit is half-open again.
+ * <p>
+ * When all geocoders return an empty result, the (empty) result is returned. When none of them succeeds, the
+ * request fails with an {@link IOException} carrying the failures of the geocoders.
+ * <p>
+ * The fallback geocoder owns the geocoders of the chain, closing it also closes them.
+ */
+public class FallbackGeocoder implements Geocoder, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FallbackGeocoder.class);
+
+    private final List<Backend> backends;
+    private final boolean fallThroughOnEmpty;
+
+    FallbackGeocoder(List<Backend> backends, boolean fallThroughOnEmpty) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("at least one geocoder is required");
+        }
+        this.backends = List.copyOf(backends);
+        this.fallThroughOnEmpty = fallThroughOnEmpty;
+    }
+
+    @Override
+    public List<Place> geocode(String address, Locale lang) throws IOException {
+        return execute("geocode '" + address + "'", g -> g.geocode(address, lang));
+    }
+
+    @Override
+    public List<Place> reverseGeocode(LatLon coordinates, Locale lang) throws IOException {
+        return execute("reverse-geocode " + coordinates, g -> g.reverseGeocode(coordinates, lang));
+    }
+
+    @Override
+    public Optional<Place> lookup(String placeId, Locale lang) throws IOException {
+        return execute("lookup '" + placeId + "'", g -> g.lookup(placeId, lang));
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang) {
+        return executeAsync("geocode '" + address + "'", g -> g.geocodeAsync(address, lang));
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang) {
+        return executeAsync("reverse-geocode " + coordinates, g -> g.reverseGeocodeAsync(coordinates, lang));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang) {
+        return executeAsync("lookup '" + placeId + "'", g -> g.lookupAsync(placeId, lang));
+    }
+
+    /**
+     * Geocodes the addresses using the batch-method of the geocoders, only the addresses with an empty result
+     * are passed on to the next geocoder.
+     */
+    @Override
+    public Map<String, List<Place>> geocodeAll(Collection<String> addresses, Locale lang) throws IOException {
+        return executeAll("geocode " + addresses.size() + " addresses", addresses, (g, a) -> g.geocodeAll(a, lang));
+    }
+
+    @Override
+    public Map<LatLon, List<Place>> reverseGeocodeAll(Collection<LatLon> coordinates, Locale lang) throws IOException {
+        return executeAll("reverse-geocode " + coordinates.size() + " coordinates", coordinates,
+                (g, c) -> g.reverseGeocodeAll(c, lang));
+    }
+
+    @Override
+    public Map<String, Place> lookupAll(Collection<String> placeIds, Locale lang) throws IOException {
+        return executeAll("lookup " + placeIds.size() + " places", placeIds, (g, p) -> g.lookupAll(p, lang));
+    }
+
+    public static FallbackGeocoderBuilder builder() {
+        return new FallbackGeocoderBuilder();
+    }
+
+    /**
+     * The geocoders, in the order they are tried.
+     */
+    public List<Backend> getBackends() {
+        return backends;
+    }
+
+    /**
+     * Closes all geocoders of the chain that are {@link Closeable}, even if closing one of them fails.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Backend backend : backends) {
+            if (backend.geocoder instanceof Closeable) {
+                try {
+                    ((Closeable) backend.geocoder).close();
+                } catch (IOException | RuntimeException e) {
+                    LOG.warn("Could not close {}: {}", backend.name, e.getMessage());
+                    if (failure == null) {
+                        failure = new IOException("Could not close all geocoders of the chain", e);
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private <T> T execute(String request, BlockingCall<T> call) throws IOException {
+        final Attempts<T> attempts = new Attempts<>(request);
+        for (Backend backend : backends) {
+            if (!backend.circuitBreaker.tryAcquire()) {
+                LOG.trace("Skipping {} for {}, the circuit is open", backend.name, request);
+                continue;
+            }
+            final T result;
+            try {
+                result = call.call(backend.geocoder);
+            } catch (IOException | RuntimeException e) {
+                attempts.failed(backend, e);
+                continue;
+            }
+            if (attempts.succeeded(backend, result)) {
+                return result;
+            }
+        }
+        return attempts.result();
+    }
+
+    private <T> CompletableFuture<T> executeAsync(String request, Function<Geocoder, CompletableFuture<T>> call) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(0, call, new Attempts<>(request), result);
+        return result;
+    }
+
+    private <T> void attempt(int index, Function<Geocoder, CompletableFuture<T>> call, Attempts<T> attempts,
+                             CompletableFuture<T> result) {
+        for (int i = index; i < backends.size(); i++) {
+            final Backend backend = backends.get(i);
+            if (!backend.circuitBreaker.tryAcquire()) {
+                LOG.trace("Skipping {} for {}, the circuit is open", backend.name, attempts.request);
+                continue;
+            }
+            CompletableFuture<T> pending;
+            try {
+                pending = call.apply(backend.geocoder);
+            } catch (RuntimeException e) {
+                pending = CompletableFuture.failedFuture(e);
+            }
+            final int next = i + 1;
+            final CompletableFuture<T> attempt = pending;
+            result.whenComplete((r, t) -> {
+                if (result.isCancelled()) {
+                    attempt.cancel(true);
+                }
+            });
+            attempt.whenComplete((r, t) -> {
+                if (result.isDone()) {
+                    backend.circuitBreaker.onIgnored();
+                } else if (t != null) {
+                    attempts.failed(backend, Futures.unwrap(t));
+                    attempt(next, call, attempts, result);
+                } else if (attempts.succeeded(backend, r)) {
+                    result.complete(r);
+                } else {
+                    attempt(next, call, attempts, result);
+                }
+            });
+            return;
+        }
+        try {
+            result.complete(attempts.result());
+        } catch (IOException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private <K, V> Map<K, V> executeAll(String request, Collection<K> keys, BatchCall<K, V> call) throws IOException {
+        final Set<K> remaining = new LinkedHashSet<>();
+        keys.stream().filter(Objects::nonNull).forEach(remaining::add);
+        final Set<K> distinct = Set.copyOf(remaining);
+        final Map<K, V> answered = new LinkedHashMap<>();
+        final Map<K, V> empty = new LinkedHashMap<>();
+        IOException failure = null;
+        boolean succeeded = false;
+        for (Backend backend : backends) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+            if (!backend.circuitBreaker.tryAcquire()) {
+                LOG.trace("Skipping {} for {}, the circuit is open", backend.name, request);
+                continue;
+            }
+            final Map<K, V> results;
+            try {
+                results = call.call(backend.geocoder, List.copyOf(remaining));
+            } catch (IOException | RuntimeException e) {
+                backend.onFailure();
+                LOG.debug("{} failed to {}: {}", backend.name, request, e.getMessage());
+                failure = addFailure(failure, request, e);
+                continue;
+            }
+            backend.circuitBreaker.onSuccess();
+            succeeded = true;
+            for (Map.Entry<K, V> result : results.entrySet()) {
+                if (!remaining.contains(result.getKey())) {
+                    continue;
+                }
+                if (fallThroughOnEmpty && isEmpty(result.getValue())) {
+                    empty.putIfAbsent(result.getKey(), result.getValue());
+                } else {
+                    answered.put(result.getKey(), result.getValue());
+                    remaining.remove(result.getKey());
+                    backend.answered.increment();
+                }
+            }
+            if (!fallThroughOnEmpty) {
+                break;
+            }
+        }
+        if (!succeeded && failure != null) {
+            throw failure;
+        } else if (!succeeded) {
+            throw new IOException("Could not " + request + ", all circuits are open");
+        }
+
+        // in the order of the requested keys
+        final Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (key == null || !distinct.contains(key) || result.containsKey(key)) {
+                continue;
+            }
+            if (answered.containsKey(key)) {
+                result.put(key, answered.get(key));
+            } else if (empty.containsKey(key)) {
+                result.put(key, empty.get(key));
+            }
+        }
+        return result;
+    }
+
+    private static IOException addFailure(IOException failure, String request, Exception e) {
+        if (failure == null) {
+            return new IOException("Could not " + request + ": " + e.getMessage(), e);
+        }
+        failure.addSuppressed(e);
+        return failure;
+    }
+
+    private static boolean isEmpty(Object value) {
+        if (value instanceof Optional) {
+            return ((Optional<?>) value).isEmpty();
+        }
+        return value instanceof Collection && ((Collection<?>) value).isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "FallbackGeocoder{backends=" + backends + '}';
+    }
+
+    @FunctionalInterface
+    private interface BlockingCall<T> {
+        T call(Geocoder geocoder) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface BatchCall<K, V> {
+        Map<K, V> call(Geocoder geocoder, Collection<K> keys) throws IOException;
+    }
+
+    /**
+     * The outcome of the attempts of a single request.
+     */
+    private final class Attempts<T> {
+        private final String request;
+        private T emptyResult = null;
+        private IOException failure = null;
+
+        Attempts(String request) {
+            this.request = request;
+        }
+
+        synchronized void failed(Backend backend, Throwable e) {
+            backend.onFailure();
+            LOG.debug("{} failed to {}: {}", backend.name, request, e.getMessage());
+            final Exception cause = e instanceof Exception ? (Exception) e : new RuntimeException(e);
+            failure = addFailure(failure, request, cause);
+        }
+
+        /**
+         * @return whether the result answers the request
+         */
+        synchronized boolean succeeded(Backend backend, T result) {
+            backend.circuitBreaker.onSuccess();
+            if (fallThroughOnEmpty && isEmpty(result)) {
+                LOG.debug("{} has no result to {}", backend.name, request);
+                if (emptyResult == null) {
+                    emptyResult = result;
+                }
+                return false;
+            }
+            LOG.trace("{} answered {}", backend.name, request);
+            backend.answered.increment();
+            return true;
+        }
+
+        synchronized T result() throws IOException {
+            if (emptyResult != null) {
+                return emptyResult;
+            } else if (failure != null) {
+                throw failure;
+            }
+            throw new IOException("Could not " + request + ", all circuits are open");
+        }
+    }
+
+    /**
+     * A geocoder of the chain, with its circuit breaker and statistics.
+     */
+    public static final class Backend {
+        private final String name;
+        private final Geocoder geocoder;
+        private final CircuitBreaker circuitBreaker;
+        private final LongAdder answered = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        Backend(String name, Geocoder geocoder, CircuitBreaker circuitBreaker) {
+            this.name = Objects.requireNonNull(name, "name must not be null");
+            this.geocoder = Objects.requireNonNull(geocoder, "geocoder must not be null");
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        private void onFailure() {
+            failures.increment();
+            circuitBreaker.onFailure();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Geocoder getGeocoder() {
+            return geocoder;
+        }
+
+        public CircuitBreaker getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        /**
+         * The number of requests answered by this geocoder.
+         */
+        public long getAnswerCount() {
+            return answered.sum();
+        }
+
+        public long getFailureCount() {
+            return failures.sum();
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.redlink.geocoding.Geocoder;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A builder for {@link FallbackGeocoder}.
+ */
+public class FallbackGeocoderBuilder {
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final long DEFAULT_OPEN_DURATION = 30;
+    public static final TimeUnit DEFAULT_TIME_UNIT = TimeUnit.SECONDS;
+
+    private final Map<String, Geocoder> geocoders = new LinkedHashMap<>();
+    private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private long openDuration = DEFAULT_OPEN_DURATION;
+    private TimeUnit timeUnit = DEFAULT_TIME_UNIT;
+    private boolean fallThroughOnEmpty = true;
+
+    FallbackGeocoderBuilder() {
+    }
+
+    /**
+     * Append a geocoder to the chain, geocoders are tried in the order they are added.
+     *
+     * @param name identifies the geocoder in logs and metrics
+     */
+    public FallbackGeocoderBuilder addGeocoder(String name, Geocoder geocoder) {
+        if (geocoders.putIfAbsent(name, geocoder) != null) {
+            throw new IllegalArgumentException("Duplicate geocoder name '" + name + "'");
+        }
+        return this;
+    }
+
+    /**
+     * The number of consecutive failures that open the circuit of a geocoder, defaults to
+     * {@value #DEFAULT_FAILURE_THRESHOLD}.
+     */
+    public FallbackGeocoderBuilder setFailureThreshold(int failureThreshold) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("failureThreshold must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        return this;
+    }
+
+    /**
+     * How long an open circuit skips its geocoder before a trial request is let through, defaults to
+     * {@value #DEFAULT_OPEN_DURATION} seconds.
+     */
+    public FallbackGeocoderBuilder setOpenDuration(long duration, TimeUnit timeUnit) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("openDuration must be positive");
+        }
+        this.openDuration = duration;
+        this.timeUnit = timeUnit;
+        return this;
+    }
+
+    /**
+     * Whether an empty result is passed on to the next geocoder, enabled by default. When disabled, only failures
+     * fall through.
+     */
+    public FallbackGeocoderBuilder setFallThroughOnEmpty(boolean fallThroughOnEmpty) {
+        this.fallThroughOnEmpty = fallThroughOnEmpty;
+        return this;
+    }
+
+    public FallbackGeocoder create() {
+        if (geocoders.isEmpty()) {
+            throw new IllegalStateException("at least one geocoder must be added!");
+        }
+        final List<FallbackGeocoder.Backend> backends = new ArrayList<>();
+        geocoders.forEach((name, geocoder) -> backends.add(new FallbackGeocoder.Backend(name, geocoder,
+                new CircuitBreaker(failureThreshold, openDuration, timeUnit))));
+        return new FallbackGeocoder(backends, fallThroughOnEmpty);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Objects;
+
+/**
+ * Exposes the statistics of a {@link FallbackGeocoder} to Micrometer, tagged with the name of the geocoder
+ * ({@code backend}): the requests answered, the failures, the requests rejected by the circuit breaker and the
+ * state of the circuit ({@code 0} closed, {@code 1} open, {@code 0.5} half-open).
+ * <p>
+ * Micrometer is an optional dependency, it must be on the classpath to use this binder.
+ */
+public class FallbackGeocoderMetrics implements MeterBinder {
+
+    private final FallbackGeocoder geocoder;
+    private final Iterable<Tag> tags;
+
+    public FallbackGeocoderMetrics(FallbackGeocoder geocoder) {
+        this(geocoder, Tags.empty());
+    }
+
+    public FallbackGeocoderMetrics(FallbackGeocoder geocoder, Iterable<Tag> tags) {
+        this.geocoder = Objects.requireNonNull(geocoder, "geocoder must not be null");
+        this.tags = tags;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (FallbackGeocoder.Backend backend : geocoder.getBackends()) {
+            final Tags backendTags = Tags.of(tags).and("backend", backend.getName());
+            FunctionCounter.builder("geocoding.fallback.answers", backend, FallbackGeocoder.Backend::getAnswerCount)
+                    .tags(backendTags)
+                    .description("Requests answered by the geocoder")
+                    .register(registry);
+            FunctionCounter.builder("geocoding.fallback.failures", backend, FallbackGeocoder.Backend::getFailureCount)
+                    .tags(backendTags)
+                    .description("Failed requests to the geocoder")
+                    .register(registry);
+            FunctionCounter.builder("geocoding.fallback.rejected", backend.getCircuitBreaker(), CircuitBreaker::getRejectedCount)
+                    .tags(backendTags)
+                    .description("Requests that skipped the geocoder, because its circuit was open")
+                    .register(registry);
+            Gauge.builder("geocoding.fallback.circuit.state", backend.getCircuitBreaker(), FallbackGeocoderMetrics::state)
+                    .tags(backendTags)
+                    .description("State of the circuit breaker: 0 closed, 1 open, 0.5 half-open")
+                    .register(registry);
+        }
+    }
+
+    private static double state(CircuitBreaker circuitBreaker) {
+        switch (circuitBreaker.getState()) {
+            case OPEN:
+                return 1;
+            case HALF_OPEN:
+                return 0.5;
+            default:
+                return 0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.resilience;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Helpers to bridge between the blocking and the asynchronous methods of a {@link io.redlink.geocoding.Geocoder}.
+ */
+final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Wait for the result, re-throwing the failure as {@link IOException}.
+     */
+    static <T> T get(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the geocoder", e);
+        } catch (ExecutionException e) {
+            throw toIOException(e.getCause());
+        }
+    }
+
+    /**
+     * Run the blocking call in the current thread.
+     *
+     * @return the completed future
+     */
+    static <T> CompletableFuture<T> completed(Callable<T> call) {
+        try {
+            return CompletableFuture.completedFuture(call.call());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * A dependent future that completes with the same result, so cancelling it does not affect the source.
+     * Failures are passed on without being wrapped into a {@link CompletionException}.
+     */
+    static <T> CompletableFuture<T> copy(CompletableFuture<T> source) {
+        final CompletableFuture<T> copy = new CompletableFuture<>();
+        source.whenComplete((result, failure) -> {
+            if (failure != null) {
+                copy.completeExceptionally(unwrap(failure));
+            } else {
+                copy.complete(result);
+            }
+        });
+        return copy;
+    }
+
+    static Throwable unwrap(Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    static IOException toIOException(Throwable failure) {
+        final Throwable cause = unwrap(failure);
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException(cause.getMessage(), cause);
+    }
+}
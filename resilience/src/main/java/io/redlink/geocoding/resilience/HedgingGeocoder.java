@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.redlink.geocoding.Geocoder;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reduces tail-latency by hedging: when a request is still outstanding after a percentile of the recent
+ * latencies (e.g. the p95), a second request is sent to the alternate geocoder (by default the same geocoder).
+ * The first response wins, the other request is cancelled.
+ * <p>
+ * Hedges are limited to a ratio of the requests (a token bucket, refilled by every request), so hedging never
+ * doubles the load of the upstream service. Until enough latencies are recorded, requests are not hedged.
+ * A cancelled attempt records the time it was outstanding as its latency (a lower bound), so slow requests that
+ * lose against their hedge don't drive the hedge delay down.
+ * A failure is not hedged, the request fails once all of its attempts have failed. The batch-methods
+ * ({@code *All}) are passed on to the wrapped geocoder.
+ */
+public class HedgingGeocoder implements Geocoder {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HedgingGeocoder.class);
+
+    private final Geocoder delegate;
+    private final Geocoder alternate;
+    private final double percentile;
+    private final long minDelayNanos;
+    private final ScheduledExecutorService scheduler;
+    private final LongSupplier ticker;
+
+    private final LatencyWindow latencies;
+    private final HedgeBudget budget;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+
+    HedgingGeocoder(Geocoder delegate, Geocoder alternate, double percentile, long minDelayNanos,
+                    int windowSize, double maxHedgeRatio, ScheduledExecutorService scheduler, LongSupplier ticker) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.alternate = alternate != null ? alternate : delegate;
+        this.percentile = percentile;
+        this.minDelayNanos = minDelayNanos;
+        this.scheduler = scheduler != null ? scheduler : DefaultScheduler.INSTANCE;
+        this.ticker = ticker;
+        this.latencies = new LatencyWindow(windowSize, Math.min(windowSize, 20));
+        this.budget = new HedgeBudget(maxHedgeRatio);
+    }
+
+    public static HedgingGeocoderBuilder wrap(Geocoder delegate) {
+        return new HedgingGeocoderBuilder(delegate);
+    }
+
+    @Override
+    public List<Place> geocode(String address, Locale lang) throws IOException {
+        return Futures.get(geocodeAsync(address, lang));
+    }
+
+    @Override
+    public List<Place> reverseGeocode(LatLon coordinates, Locale lang) throws IOException {
+        return Futures.get(reverseGeocodeAsync(coordinates, lang));
+    }
+
+    @Override
+    public Optional<Place> lookup(String placeId, Locale lang) throws IOException {
+        return Futures.get(lookupAsync(placeId, lang));
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> geocodeAsync(String address, Locale lang) {
+        return hedge(g -> g.geocodeAsync(address, lang));
+    }
+
+    @Override
+    public CompletableFuture<List<Place>> reverseGeocodeAsync(LatLon coordinates, Locale lang) {
+        return hedge(g -> g.reverseGeocodeAsync(coordinates, lang));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Place>> lookupAsync(String placeId, Locale lang) {
+        return hedge(g -> g.lookupAsync(placeId, lang));
+    }
+
+    @Override
+    public Map<String, List<Place>> geocodeAll(Collection<String> addresses, Locale lang) throws IOException {
+        return delegate.geocodeAll(addresses, lang);
+    }
+
+    @Override
+    public Map<LatLon, List<Place>> reverseGeocodeAll(Collection<LatLon> coordinates, Locale lang) throws IOException {
+        return delegate.reverseGeocodeAll(coordinates, lang);
+    }
+
+    @Override
+    public Map<String, Place> lookupAll(Collection<String> placeIds, Locale lang) throws IOException {
+        return delegate.lookupAll(placeIds, lang);
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * The number of hedged requests sent.
+     */
+    public long getHedgeCount() {
+        return hedges.sum();
+    }
+
+    /**
+     * The number of hedged requests that answered before the original request.
+     */
+    public long getHedgeWinCount() {
+        return hedgeWins.sum();
+    }
+
+    /**
+     * The current hedge delay, or {@code -1} if not enough latencies are recorded yet.
+     */
+    public long getHedgeDelay(TimeUnit timeUnit) {
+        final long delay = hedgeDelayNanos();
+        return delay < 0 ? -1 : timeUnit.convert(delay, TimeUnit.NANOSECONDS);
+    }
+
+    private long hedgeDelayNanos() {
+        final long delay = latencies.percentile(percentile);
+        return delay < 0 ? -1 : Math.max(delay, minDelayNanos);
+    }
+
+    private <T> CompletableFuture<T> hedge(Function<Geocoder, CompletableFuture<T>> call) {
+        requests.increment();
+        budget.deposit();
+        final Request<T> request = new Request<>(call);
+        request.start(delegate, false);
+
+        final long delay = hedgeDelayNanos();
+        if (delay >= 0 && !request.result.isDone()) {
+            final ScheduledFuture<?> timer = scheduler.schedule(() -> {
+                if (!request.result.isDone() && budget.tryWithdraw()) {
+                    LOG.debug("Request outstanding for more than {}ms, sending a hedged request",
+                            TimeUnit.NANOSECONDS.toMillis(delay));
+                    hedges.increment();
+                    request.start(alternate, true);
+                }
+            }, delay, TimeUnit.NANOSECONDS);
+            request.result.whenComplete((r, t) -> timer.cancel(false));
+        }
+        return request.result;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgingGeocoder{delegate=" + delegate + ", percentile=" + percentile + '}';
+    }
+
+    /**
+     * The attempts of a single request, the first answer completes the result.
+     */
+    private final class Request<T> {
+        private final Function<Geocoder, CompletableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<CompletableFuture<T>> attempts = new ArrayList<>(2);
+        private int pending = 0;
+        private boolean answered = false;
+
+        Request(Function<Geocoder, CompletableFuture<T>> call) {
+            this.call = call;
+            // cancels the attempts when the result completes (the winner is already done)
+            result.whenComplete((r, t) -> cancelAttempts());
+        }
+
+        void start(Geocoder geocoder, boolean hedged) {
+            final long start = ticker.getAsLong();
+            CompletableFuture<T> attempt;
+            try {
+                attempt = call.apply(geocoder);
+            } catch (RuntimeException e) {
+                attempt = CompletableFuture.failedFuture(e);
+            }
+            synchronized (this) {
+                attempts.add(attempt);
+                pending++;
+            }
+            attempt.whenComplete((r, t) -> {
+                if (t == null) {
+                    latencies.record(ticker.getAsLong() - start);
+                    if (claimAnswer()) {
+                        // counted before completing, so the count is up-to-date once the result is visible
+                        if (hedged) {
+                            hedgeWins.increment();
+                        }
+                        result.complete(r);
+                    }
+                } else {
+                    if (Futures.unwrap(t) instanceof CancellationException) {
+                        latencies.record(ticker.getAsLong() - start);
+                    }
+                    if (lastFailed()) {
+                        result.completeExceptionally(Futures.unwrap(t));
+                    }
+                }
+            });
+            if (result.isDone()) {
+                attempt.cancel(true);
+            }
+        }
+
+        private synchronized boolean claimAnswer() {
+            if (answered) {
+                return false;
+            }
+            answered = true;
+            return true;
+        }
+
+        private synchronized boolean lastFailed() {
+            return --pending == 0;
+        }
+
+        private void cancelAttempts() {
+            final List<CompletableFuture<T>> started;
+            synchronized (this) {
+                started = List.copyOf(attempts);
+            }
+            started.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * Allows a hedge per {@code 1 / ratio} requests, with a small burst.
+     */
+    private static final class HedgeBudget {
+        private static final double MAX_TOKENS = 10;
+
+        private final double ratio;
+        private double tokens = 0;
+
+        HedgeBudget(double ratio) {
+            this.ratio = ratio;
+        }
+
+        synchronized void deposit() {
+            tokens = Math.min(MAX_TOKENS, tokens + ratio);
+        }
+
+        synchronized boolean tryWithdraw() {
+            if (tokens >= 1) {
+                tokens -= 1;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class DefaultScheduler {
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "geocoder-hedging");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
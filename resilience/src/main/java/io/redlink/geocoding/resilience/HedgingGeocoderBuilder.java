@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.redlink.geocoding.Geocoder;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A builder for {@link HedgingGeocoder}.
+ */
+public class HedgingGeocoderBuilder {
+
+    public static final double DEFAULT_PERCENTILE = 0.95;
+    public static final double DEFAULT_MAX_HEDGE_RATIO = 0.05;
+    public static final int DEFAULT_WINDOW_SIZE = 1000;
+
+    private final Geocoder delegate;
+    private Geocoder alternate = null;
+    private double percentile = DEFAULT_PERCENTILE;
+    private long minDelayNanos = TimeUnit.MILLISECONDS.toNanos(10);
+    private int windowSize = DEFAULT_WINDOW_SIZE;
+    private double maxHedgeRatio = DEFAULT_MAX_HEDGE_RATIO;
+    private ScheduledExecutorService scheduler = null;
+
+    HedgingGeocoderBuilder(Geocoder delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Send hedged requests to another geocoder, by default they are sent to the wrapped geocoder.
+     */
+    public HedgingGeocoderBuilder setAlternate(Geocoder alternate) {
+        this.alternate = alternate;
+        return this;
+    }
+
+    /**
+     * The percentile of the recent latencies after which a request is hedged, defaults to
+     * {@value #DEFAULT_PERCENTILE}.
+     */
+    public HedgingGeocoderBuilder setPercentile(double percentile) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("percentile must be between 0 and 1");
+        }
+        this.percentile = percentile;
+        return this;
+    }
+
+    /**
+     * The minimum delay before a request is hedged, defaults to 10ms.
+     */
+    public HedgingGeocoderBuilder setMinDelay(long delay, TimeUnit timeUnit) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("minDelay must not be negative");
+        }
+        this.minDelayNanos = timeUnit.toNanos(delay);
+        return this;
+    }
+
+    /**
+     * The number of recent latencies the percentile is computed from, defaults to {@value #DEFAULT_WINDOW_SIZE}.
+     */
+    public HedgingGeocoderBuilder setWindowSize(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        this.windowSize = windowSize;
+        return this;
+    }
+
+    /**
+     * The max. ratio of requests that are hedged, defaults to {@value #DEFAULT_MAX_HEDGE_RATIO}. Keep it low for
+     * rate-limited services, e.g. the public Nominatim server allows one request per second.
+     */
+    public HedgingGeocoderBuilder setMaxHedgeRatio(double maxHedgeRatio) {
+        if (maxHedgeRatio < 0 || maxHedgeRatio > 1) {
+            throw new IllegalArgumentException("maxHedgeRatio must be between 0 and 1");
+        }
+        this.maxHedgeRatio = maxHedgeRatio;
+        return this;
+    }
+
+    /**
+     * The scheduler for the hedge timers, by default a shared daemon thread.
+     */
+    public HedgingGeocoderBuilder setScheduler(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    public HedgingGeocoder create() {
+        if (delegate == null) {
+            throw new IllegalStateException("geocoder must be set!");
+        }
+        return new HedgingGeocoder(delegate, alternate, percentile, minDelayNanos, windowSize, maxHedgeRatio,
+                scheduler, System::nanoTime);
+    }
+}
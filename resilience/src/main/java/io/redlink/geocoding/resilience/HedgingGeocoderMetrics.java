@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the statistics of a {@link HedgingGeocoder} to Micrometer: the number of requests, hedged requests and
+ * hedged requests that won, and the current hedge delay.
+ * <p>
+ * Micrometer is an optional dependency, it must be on the classpath to use this binder.
+ */
+public class HedgingGeocoderMetrics implements MeterBinder {
+
+    private final HedgingGeocoder geocoder;
+    private final Iterable<Tag> tags;
+
+    public HedgingGeocoderMetrics(HedgingGeocoder geocoder) {
+        this(geocoder, Tags.empty());
+    }
+
+    public HedgingGeocoderMetrics(HedgingGeocoder geocoder, Iterable<Tag> tags) {
+        this.geocoder = Objects.requireNonNull(geocoder, "geocoder must not be null");
+        this.tags = tags;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("geocoding.hedging.requests", geocoder, HedgingGeocoder::getRequestCount)
+                .tags(tags)
+                .description("Requests passing the hedging geocoder")
+                .register(registry);
+        FunctionCounter.builder("geocoding.hedging.hedges", geocoder, HedgingGeocoder::getHedgeCount)
+                .tags(tags)
+                .description("Hedged requests sent")
+                .register(registry);
+        FunctionCounter.builder("geocoding.hedging.wins", geocoder, HedgingGeocoder::getHedgeWinCount)
+                .tags(tags)
+                .description("Hedged requests that answered first")
+                .register(registry);
+        Gauge.builder("geocoding.hedging.delay", geocoder, HedgingGeocoderMetrics::delaySeconds)
+                .tags(tags)
+                .baseUnit("seconds")
+                .description("Delay after which a request is hedged, -1 until enough latencies are recorded")
+                .register(registry);
+    }
+
+    private static double delaySeconds(HedgingGeocoder geocoder) {
+        final long delay = geocoder.getHedgeDelay(TimeUnit.NANOSECONDS);
+        return delay < 0 ? -1 : delay / 1e9;
+    }
+}
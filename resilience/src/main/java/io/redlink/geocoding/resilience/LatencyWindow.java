@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ */
+package io.redlink.geocoding.resilience;
+
+import java.util.Arrays;
+
+/**
+ * The latencies of the most recent requests, in a ring-buffer. Percentiles are computed from a sorted copy of the
+ * window, which is refreshed after every {@value #REFRESH_INTERVAL} samples.
+ */
+final class LatencyWindow {
+
+    static final int REFRESH_INTERVAL = 32;
+
+    private final long[] samples;
+    private final int minSamples;
+    private int next = 0;
+    private int count = 0;
+    private int sinceRefresh = 0;
+    private long[] sorted = new long[0];
+
+    LatencyWindow(int size, int minSamples) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        this.samples = new long[size];
+        this.minSamples = Math.max(1, Math.min(minSamples, size));
+    }
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+        if (++sinceRefresh >= REFRESH_INTERVAL || sorted.length < minSamples) {
+            sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            sinceRefresh = 0;
+        }
+    }
+
+    /**
+     * @param percentile between {@code 0} and {@code 1}
+     * @return the latency in nanoseconds, or {@code -1} if there are not enough samples yet
+     */
+    synchronized long percentile(double percentile) {
+        if (sorted.length < minSamples) {
+            return -1;
+        }
+        final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    synchronized int size() {
+        return count;
+    }
+}
@@ -0,0 +1,8 @@
+module io.redlink.geocoding.resilience {
+    requires transitive io.redlink.geocoding.api;
+    requires org.slf4j;
+
+    requires static micrometer.core;
+
+    exports io.redlink.geocoding.resilience;
+}
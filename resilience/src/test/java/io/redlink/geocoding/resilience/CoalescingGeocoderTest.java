@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.redlink.geocoding.Geocoder;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CoalescingGeocoderTest {
+
+    private final Place place = Place.create("1", "Jakob-Haringer-Straße 3", LatLon.create(47.8227, 13.0404));
+
+    @Test
+    void testCoalesceBlocking() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.geocode("Salzburg", Locale.GERMAN)).then(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(place);
+        });
+        final CoalescingGeocoder geocoder = new CoalescingGeocoder(delegate);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<List<Place>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> geocoder.geocode("Salzburg", Locale.GERMAN)));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> geocoder.geocode("Salzburg", Locale.GERMAN)));
+            }
+            while (geocoder.getCoalescedCount() < 3) {
+                Thread.sleep(5);
+            }
+            // a different locale is a different request
+            assertThat(geocoder.geocode("Salzburg", Locale.ENGLISH))
+                    .as("not coalesced")
+                    .isEmpty();
+            release.countDown();
+            for (Future<List<Place>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS))
+                        .as("shared result")
+                        .containsExactly(place);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Mockito.verify(delegate, Mockito.times(1)).geocode("Salzburg", Locale.GERMAN);
+        assertThat(geocoder.getRequestCount())
+                .as("requests")
+                .isEqualTo(5);
+        assertThat(geocoder.getCoalescedCount())
+                .as("coalesced requests")
+                .isEqualTo(3);
+        assertThat(geocoder.getInFlightCount())
+                .as("in flight after completion")
+                .isZero();
+
+        // nothing is cached
+        geocoder.geocode("Salzburg", Locale.GERMAN);
+        Mockito.verify(delegate, Mockito.times(2)).geocode("Salzburg", Locale.GERMAN);
+    }
+
+    @Test
+    void testCoalesceAsync() throws Exception {
+        final CompletableFuture<Optional<Place>> upstream = new CompletableFuture<>();
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.lookupAsync("1", null)).thenReturn(upstream);
+        final CoalescingGeocoder geocoder = new CoalescingGeocoder(delegate);
+
+        final CompletableFuture<Optional<Place>> first = geocoder.lookupAsync("1");
+        final CompletableFuture<Optional<Place>> second = geocoder.lookupAsync("1");
+        second.cancel(true);
+        final CompletableFuture<Optional<Place>> third = geocoder.lookupAsync("1");
+        upstream.complete(Optional.of(place));
+
+        assertThat(first.get())
+                .as("first result")
+                .contains(place);
+        assertThat(third.get())
+                .as("shared result, not affected by cancellation")
+                .contains(place);
+        Mockito.verify(delegate, Mockito.times(1)).lookupAsync("1", null);
+        assertThat(geocoder.getCoalescedCount())
+                .as("coalesced requests")
+                .isEqualTo(2);
+    }
+
+    @Test
+    void testSharedFailure() {
+        final CompletableFuture<List<Place>> upstream = new CompletableFuture<>();
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        Mockito.when(delegate.reverseGeocodeAsync(place.getLatLon(), null)).thenReturn(upstream);
+        final CoalescingGeocoder geocoder = new CoalescingGeocoder(delegate);
+
+        final CompletableFuture<List<Place>> first = geocoder.reverseGeocodeAsync(place.getLatLon());
+        final CompletableFuture<List<Place>> second = geocoder.reverseGeocodeAsync(place.getLatLon());
+        upstream.completeExceptionally(new IOException("upstream failed"));
+
+        assertThatThrownBy(first::get)
+                .as("failure of the first request")
+                .hasCauseInstanceOf(IOException.class);
+        assertThatThrownBy(second::get)
+                .as("shared failure")
+                .hasCauseInstanceOf(IOException.class);
+        Mockito.verify(delegate, Mockito.times(1)).reverseGeocodeAsync(place.getLatLon(), null);
+        assertThat(geocoder.getInFlightCount())
+                .as("in flight after failure")
+                .isZero();
+    }
+
+    @Test
+    void testMetrics() throws IOException {
+        final Geocoder delegate = Mockito.mock(Geocoder.class);
+        final CoalescingGeocoder geocoder = new CoalescingGeocoder(delegate);
+        geocoder.lookup("1");
+
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        new CoalescingGeocoderMetrics(geocoder).bindTo(registry);
+        assertThat(registry.get("geocoding.coalescing.requests").functionCounter().count())
+                .as("requests")
+                .isEqualTo(1);
+        assertThat(registry.get("geocoding.coalescing.coalesced").functionCounter().count())
+                .as("coalesced requests")
+                .isZero();
+        assertThat(registry.get("geocoding.coalescing.in-flight").gauge().value())
+                .as("in flight")
+                .isZero();
+    }
+}
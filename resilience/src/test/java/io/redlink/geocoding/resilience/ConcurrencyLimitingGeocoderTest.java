@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.redlink.geocoding.Geocoder;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitingGeocoderTest {
+
+    private final Place place = Place.create("1", "place", LatLon.create(47.8, 13.0));
+    private final Geocoder delegate = Mockito.mock(Geocoder.class);
+
+    @Test
+    void testRejectWhenSaturated() throws Exception {
+        final CompletableFuture<List<Place>> first = new CompletableFuture<>();
+        final CompletableFuture<List<Place>> second = new CompletableFuture<>();
+        Mockito.when(delegate.geocodeAsync("first", null)).thenReturn(first);
+        Mockito.when(delegate.geocodeAsync("second", null)).thenReturn(second);
+        Mockito.when(delegate.geocode("third", (Locale) null)).thenReturn(List.of(place));
+        final ConcurrencyLimitingGeocoder geocoder = ConcurrencyLimitingGeocoder.wrap(delegate)
+                .setInitialLimit(2)
+                .setLimitRange(1, 2)
+                .create();
+
+        final CompletableFuture<List<Place>> firstResult = geocoder.geocodeAsync("first");
+        final CompletableFuture<List<Place>> secondResult = geocoder.geocodeAsync("second");
+        assertThat(geocoder.getInFlightCount())
+                .as("requests in flight")
+                .isEqualTo(2);
+        assertThatThrownBy(() -> geocoder.geocode("third"))
+                .as("rejected while saturated")
+                .isInstanceOf(ConcurrencyLimitExceededException.class)
+                .satisfies(e -> assertThat(((ConcurrencyLimitExceededException) e).getLimit()).isEqualTo(2));
+        assertThatThrownBy(() -> geocoder.geocodeAsync("third").get())
+                .as("async request rejected while saturated")
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ConcurrencyLimitExceededException.class);
+        Mockito.verify(delegate, Mockito.never()).geocode("third", (Locale) null);
+
+        first.complete(List.of(place));
+        assertThat(firstResult.get())
+                .as("first result")
+                .containsExactly(place);
+        assertThat(geocoder.geocode("third"))
+                .as("accepted after a request completed")
+                .containsExactly(place);
+        second.completeExceptionally(new IOException("failed"));
+        assertThatThrownBy(secondResult::get)
+                .as("failure of the second request")
+                .hasCauseInstanceOf(IOException.class);
+        assertThat(geocoder.getInFlightCount())
+                .as("requests in flight after completion")
+                .isZero();
+        assertThat(geocoder.getRejectedCount())
+                .as("rejected requests")
+                .isEqualTo(2);
+    }
+
+    @Test
+    void testQueue() throws Exception {
+        final CompletableFuture<List<Place>> first = new CompletableFuture<>();
+        Mockito.when(delegate.geocodeAsync("first", null)).thenReturn(first);
+        Mockito.when(delegate.geocodeAsync("queued", null)).thenReturn(CompletableFuture.completedFuture(List.of(place)));
+        final ConcurrencyLimitingGeocoder geocoder = ConcurrencyLimitingGeocoder.wrap(delegate)
+                .setInitialLimit(1)
+                .setLimitRange(1, 1)
+                .setQueue(1, 200, TimeUnit.MILLISECONDS)
+                .create();
+
+        geocoder.geocodeAsync("first");
+        final CompletableFuture<List<Place>> queued = geocoder.geocodeAsync("queued");
+        assertThat(geocoder.getQueueDepth())
+                .as("queued requests")
+                .isEqualTo(1);
+        assertThatThrownBy(() -> geocoder.geocodeAsync("rejected").get())
+                .as("rejected, the queue is full")
+                .hasCauseInstanceOf(ConcurrencyLimitExceededException.class);
+        Mockito.verify(delegate, Mockito.never()).geocodeAsync("queued", null);
+
+        first.complete(List.of());
+        assertThat(queued.get())
+                .as("queued request, executed once the first completed")
+                .containsExactly(place);
+        assertThat(geocoder.getQueueDepth())
+                .as("queued requests")
+                .isZero();
+
+        // a queued request that waits too long
+        final CompletableFuture<List<Place>> slow = new CompletableFuture<>();
+        Mockito.when(delegate.geocodeAsync("slow", null)).thenReturn(slow);
+        geocoder.geocodeAsync("slow");
+        assertThatThrownBy(() -> geocoder.geocode("timeout"))
+                .as("rejected after waiting")
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(geocoder.getQueueDepth())
+                .as("queued requests after the timeout")
+                .isZero();
+        slow.complete(List.of());
+        assertThat(geocoder.getInFlightCount())
+                .as("requests in flight")
+                .isZero();
+    }
+
+    @Test
+    void testAdaptiveLimit() {
+        final AimdLimit limit = new AimdLimit(10, 2, 12, 0.5, 2);
+        assertThat(limit.onSample(TimeUnit.MILLISECONDS.toNanos(100), 5, false))
+                .as("fast request, the limit is in use")
+                .isEqualTo(11);
+        assertThat(limit.onSample(TimeUnit.MILLISECONDS.toNanos(100), 1, false))
+                .as("fast request, the limit is not in use")
+                .isEqualTo(11);
+        assertThat(limit.onSample(TimeUnit.MILLISECONDS.toNanos(100), 10, false))
+                .as("increase up to the max. limit")
+                .isEqualTo(12);
+        assertThat(limit.onSample(TimeUnit.MILLISECONDS.toNanos(100), 10, false))
+                .as("max. limit")
+                .isEqualTo(12);
+        assertThat(limit.onSample(TimeUnit.MILLISECONDS.toNanos(300), 10, false))
+                .as("slow request")
+                .isEqualTo(6);
+        assertThat(limit.onSample(TimeUnit.MILLISECONDS.toNanos(100), 1, true))
+                .as("failed request")
+                .isEqualTo(3);
+        assertThat(limit.onSample(TimeUnit.MILLISECONDS.toNanos(100), 1, true))
+                .as("min. limit")
+                .isEqualTo(2);
+    }
+
+    @Test
+    void testBatchNotSampled() throws IOException {
+        Mockito.when(delegate.geocodeAll(Mockito.anyCollection(), Mockito.isNull())).thenAnswer(i -> {
+            TimeUnit.MILLISECONDS.sleep(50);
+            return Map.of();
+        });
+        final ConcurrencyLimitingGeocoder geocoder = ConcurrencyLimitingGeocoder.wrap(delegate)
+                .setInitialLimit(5)
+                .create();
+        geocoder.lookup("1");
+        geocoder.geocodeAll(List.of("a", "b", "c"));
+
+        assertThat(geocoder.getLimit())
+                .as("limit is not lowered by the slow batch")
+                .isEqualTo(5);
+        assertThat(geocoder.getInFlightCount())
+                .as("permit of the batch is released")
+                .isZero();
+    }
+
+    @Test
+    void testMetrics() throws IOException {
+        final ConcurrencyLimitingGeocoder geocoder = ConcurrencyLimitingGeocoder.wrap(delegate)
+                .setInitialLimit(5)
+                .create();
+        geocoder.lookup("1");
+
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        new ConcurrencyLimitingGeocoderMetrics(geocoder).bindTo(registry);
+        assertThat(registry.get("geocoding.limiter.limit").gauge().value())
+                .as("limit")
+                .isEqualTo(5);
+        assertThat(registry.get("geocoding.limiter.queue").gauge().value())
+                .as("queue depth")
+                .isZero();
+        assertThat(registry.get("geocoding.limiter.rejected").functionCounter().count())
+                .as("rejected requests")
+                .isZero();
+    }
+}
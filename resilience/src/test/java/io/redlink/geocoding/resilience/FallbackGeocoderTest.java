@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.redlink.geocoding.Geocoder;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+
+class FallbackGeocoderTest {
+
+    private final Place primaryPlace = Place.create("p1", "primary", LatLon.create(47.8, 13.0));
+    private final Place fallbackPlace = Place.create("f1", "fallback", LatLon.create(47.8, 13.0));
+
+    private final AtomicLong ticker = new AtomicLong();
+    private final Geocoder primary = Mockito.mock(Geocoder.class);
+    private final Geocoder fallback = Mockito.mock(Geocoder.class);
+
+    private FallbackGeocoder create(boolean fallThroughOnEmpty) {
+        return new FallbackGeocoder(List.of(
+                new FallbackGeocoder.Backend("primary", primary, new CircuitBreaker(2, TimeUnit.SECONDS.toNanos(30), ticker::get)),
+                new FallbackGeocoder.Backend("fallback", fallback, new CircuitBreaker(2, TimeUnit.SECONDS.toNanos(30), ticker::get))
+        ), fallThroughOnEmpty);
+    }
+
+    @Test
+    void testClose() throws IOException {
+        final Geocoder closeable = Mockito.mock(Geocoder.class, Mockito.withSettings().extraInterfaces(Closeable.class));
+        final Geocoder failing = Mockito.mock(Geocoder.class, Mockito.withSettings().extraInterfaces(Closeable.class));
+        Mockito.doThrow(new IOException("close failed")).when((Closeable) failing).close();
+        final FallbackGeocoder geocoder = new FallbackGeocoder(List.of(
+                new FallbackGeocoder.Backend("failing", failing, new CircuitBreaker(2, TimeUnit.SECONDS.toNanos(30), ticker::get)),
+                new FallbackGeocoder.Backend("plain", primary, new CircuitBreaker(2, TimeUnit.SECONDS.toNanos(30), ticker::get)),
+                new FallbackGeocoder.Backend("closeable", closeable, new CircuitBreaker(2, TimeUnit.SECONDS.toNanos(30), ticker::get))
+        ), true);
+
+        assertThatThrownBy(geocoder::close)
+                .as("failure closing a geocoder of the chain")
+                .isInstanceOf(IOException.class)
+                .hasRootCauseMessage("close failed");
+        Mockito.verify((Closeable) closeable).close();
+        Mockito.verify((Closeable) failing).close();
+    }
+
+    @Test
+    void testFallThrough() throws IOException {
+        Mockito.when(primary.geocode("primary", (Locale) null)).thenReturn(List.of(primaryPlace));
+        Mockito.when(primary.geocode("fallback", (Locale) null)).thenReturn(List.of());
+        Mockito.when(primary.geocode("failing", (Locale) null)).thenThrow(new IOException("primary failed"));
+        Mockito.when(fallback.geocode(anyString(), Mockito.isNull(Locale.class))).thenReturn(List.of(fallbackPlace));
+        final FallbackGeocoder geocoder = create(true);
+
+        assertThat(geocoder.geocode("primary"))
+                .as("answered by the primary")
+                .containsExactly(primaryPlace);
+        assertThat(geocoder.geocode("fallback"))
+                .as("empty result falls through")
+                .containsExactly(fallbackPlace);
+        assertThat(geocoder.geocode("failing"))
+                .as("failure falls through")
+                .containsExactly(fallbackPlace);
+        Mockito.verify(fallback, Mockito.never()).geocode("primary", (Locale) null);
+
+        final FallbackGeocoder.Backend primaryBackend = geocoder.getBackends().get(0);
+        assertThat(primaryBackend.getAnswerCount())
+                .as("answered by the primary")
+                .isEqualTo(1);
+        assertThat(primaryBackend.getFailureCount())
+                .as("failures of the primary")
+                .isEqualTo(1);
+        assertThat(geocoder.getBackends().get(1).getAnswerCount())
+                .as("answered by the fallback")
+                .isEqualTo(2);
+
+        // without fall-through on empty results
+        assertThat(create(false).geocode("fallback"))
+                .as("empty result of the primary")
+                .isEmpty();
+    }
+
+    @Test
+    void testAllEmptyOrFailed() throws IOException {
+        Mockito.when(primary.lookup(anyString(), Mockito.isNull(Locale.class))).thenThrow(new IOException("primary failed"));
+        Mockito.when(fallback.lookup("empty", (Locale) null)).thenReturn(Optional.empty());
+        Mockito.when(fallback.lookup("failing", (Locale) null)).thenThrow(new IllegalStateException("fallback failed"));
+        final FallbackGeocoder geocoder = create(true);
+
+        assertThat(geocoder.lookup("empty"))
+                .as("empty result")
+                .isEmpty();
+        assertThatThrownBy(() -> geocoder.lookup("failing"))
+                .as("all geocoders failed")
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("primary failed")
+                .satisfies(e -> assertThat(e.getSuppressed()).hasSize(1));
+    }
+
+    @Test
+    void testCircuitBreaker() throws IOException {
+        Mockito.when(primary.geocode(anyString(), Mockito.isNull(Locale.class))).thenThrow(new IOException("primary failed"));
+        Mockito.when(fallback.geocode(anyString(), Mockito.isNull(Locale.class))).thenReturn(List.of(fallbackPlace));
+        final FallbackGeocoder geocoder = create(true);
+        final CircuitBreaker circuitBreaker = geocoder.getBackends().get(0).getCircuitBreaker();
+
+        geocoder.geocode("one");
+        geocoder.geocode("two");
+        assertThat(circuitBreaker.getState())
+                .as("open after consecutive failures")
+                .isEqualTo(CircuitBreaker.State.OPEN);
+        geocoder.geocode("three");
+        Mockito.verify(primary, Mockito.never()).geocode("three", (Locale) null);
+        assertThat(circuitBreaker.getRejectedCount())
+                .as("skipped requests")
+                .isEqualTo(1);
+
+        // half-open, the trial request fails
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        geocoder.geocode("four");
+        Mockito.verify(primary).geocode("four", (Locale) null);
+        assertThat(circuitBreaker.getState())
+                .as("open after the failed trial")
+                .isEqualTo(CircuitBreaker.State.OPEN);
+
+        // half-open, the trial request succeeds
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        Mockito.doReturn(List.of(primaryPlace)).when(primary).geocode("five", (Locale) null);
+        assertThat(geocoder.geocode("five"))
+                .as("answered by the recovered primary")
+                .containsExactly(primaryPlace);
+        assertThat(circuitBreaker.getState())
+                .as("closed after the successful trial")
+                .isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // all circuits open
+        Mockito.doThrow(new IOException("fallback failed")).when(fallback).geocode(anyString(), Mockito.isNull(Locale.class));
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> geocoder.geocode("six")).isInstanceOf(IOException.class);
+        }
+        assertThatThrownBy(() -> geocoder.geocode("seven"))
+                .as("all circuits open")
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("all circuits are open");
+    }
+
+    @Test
+    void testAsync() throws Exception {
+        Mockito.when(primary.lookupAsync("1", null)).thenReturn(CompletableFuture.failedFuture(new IOException("primary failed")));
+        Mockito.when(primary.lookupAsync("2", null)).thenReturn(CompletableFuture.completedFuture(Optional.of(primaryPlace)));
+        Mockito.when(fallback.lookupAsync("1", null)).thenReturn(CompletableFuture.completedFuture(Optional.of(fallbackPlace)));
+        Mockito.when(primary.lookupAsync("3", null)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        Mockito.when(fallback.lookupAsync("3", null)).thenReturn(CompletableFuture.failedFuture(new IOException("fallback failed")));
+        final FallbackGeocoder geocoder = create(true);
+
+        assertThat(geocoder.lookupAsync("1").get())
+                .as("failure falls through")
+                .contains(fallbackPlace);
+        assertThat(geocoder.lookupAsync("2").get())
+                .as("answered by the primary")
+                .contains(primaryPlace);
+        assertThat(geocoder.lookupAsync("3").get())
+                .as("empty result of the primary")
+                .isEmpty();
+
+        final CompletableFuture<Optional<Place>> pending = new CompletableFuture<>();
+        Mockito.when(primary.lookupAsync("4", null)).thenReturn(pending);
+        geocoder.lookupAsync("4").cancel(true);
+        assertThat(pending)
+                .as("cancelled request")
+                .isCancelled();
+        Mockito.verify(fallback, Mockito.never()).lookupAsync("4", null);
+
+        Mockito.when(primary.geocodeAsync("5", null)).thenReturn(CompletableFuture.failedFuture(new IOException("primary failed")));
+        Mockito.when(fallback.geocodeAsync("5", null)).thenReturn(CompletableFuture.failedFuture(new IOException("fallback failed")));
+        assertThatThrownBy(() -> geocoder.geocodeAsync("5").get())
+                .as("all geocoders failed")
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testBatch() throws IOException {
+        Mockito.when(primary.lookupAll(anyCollection(), Mockito.isNull())).thenReturn(Map.of("1", primaryPlace));
+        Mockito.when(fallback.lookupAll(anyCollection(), Mockito.isNull())).thenReturn(Map.of("2", fallbackPlace));
+        final FallbackGeocoder geocoder = create(true);
+
+        assertThat(geocoder.lookupAll(List.of("3", "2", "1", "2")))
+                .as("results of both geocoders, in request order")
+                .containsExactly(Map.entry("2", fallbackPlace), Map.entry("1", primaryPlace));
+        Mockito.verify(fallback).lookupAll(List.of("3", "2"), null);
+
+        Mockito.when(primary.geocodeAll(anyCollection(), Mockito.isNull())).thenThrow(new IOException("primary failed"));
+        Mockito.when(fallback.geocodeAll(anyCollection(), Mockito.isNull()))
+                .thenReturn(Map.of("a", List.of(fallbackPlace), "b", List.of()));
+        assertThat(geocoder.geocodeAll(List.of("a", "b")))
+                .as("failed batch falls through")
+                .containsExactly(Map.entry("a", List.of(fallbackPlace)), Map.entry("b", List.of()));
+    }
+
+    @Test
+    void testBuilderAndMetrics() throws IOException {
+        Mockito.when(primary.geocode("primary", (Locale) null)).thenReturn(List.of(primaryPlace));
+        final FallbackGeocoder geocoder = FallbackGeocoder.builder()
+                .addGeocoder("nominatim", primary)
+                .addGeocoder("google", fallback)
+                .setFailureThreshold(3)
+                .setOpenDuration(1, TimeUnit.MINUTES)
+                .create();
+        geocoder.geocode("primary");
+        assertThatThrownBy(() -> FallbackGeocoder.builder().addGeocoder("google", primary).addGeocoder("google", fallback))
+                .as("duplicate name")
+                .isInstanceOf(IllegalArgumentException.class);
+
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        new FallbackGeocoderMetrics(geocoder).bindTo(registry);
+        assertThat(registry.get("geocoding.fallback.answers").tag("backend", "nominatim").functionCounter().count())
+                .as("answered by nominatim")
+                .isEqualTo(1);
+        assertThat(registry.get("geocoding.fallback.answers").tag("backend", "google").functionCounter().count())
+                .as("answered by google")
+                .isZero();
+        assertThat(registry.get("geocoding.fallback.circuit.state").tag("backend", "nominatim").gauge().value())
+                .as("closed circuit")
+                .isZero();
+    }
+}
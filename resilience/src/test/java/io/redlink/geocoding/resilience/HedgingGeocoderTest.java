@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.redlink.geocoding.Geocoder;
+import io.redlink.geocoding.LatLon;
+import io.redlink.geocoding.Place;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingGeocoderTest {
+
+    private final Place place = Place.create("1", "primary", LatLon.create(47.8, 13.0));
+    private final Place hedgedPlace = Place.create("2", "hedged", LatLon.create(47.8, 13.0));
+
+    private final Geocoder primary = Mockito.mock(Geocoder.class);
+    private final Geocoder alternate = Mockito.mock(Geocoder.class);
+
+    private HedgingGeocoder create(double maxHedgeRatio) throws IOException {
+        Mockito.when(primary.geocodeAsync("fast", null)).thenReturn(CompletableFuture.completedFuture(List.of(place)));
+        final HedgingGeocoder geocoder = HedgingGeocoder.wrap(primary)
+                .setAlternate(alternate)
+                .setMinDelay(20, TimeUnit.MILLISECONDS)
+                .setMaxHedgeRatio(maxHedgeRatio)
+                .create();
+        for (int i = 0; i < 20; i++) {
+            geocoder.geocode("fast");
+        }
+        return geocoder;
+    }
+
+    @Test
+    void testHedge() throws Exception {
+        final CompletableFuture<List<Place>> slow = new CompletableFuture<>();
+        Mockito.when(primary.geocodeAsync("slow", null)).thenReturn(slow);
+        Mockito.when(alternate.geocodeAsync("slow", null)).thenReturn(CompletableFuture.completedFuture(List.of(hedgedPlace)));
+        final HedgingGeocoder geocoder = create(1);
+        assertThat(geocoder.getHedgeDelay(TimeUnit.MILLISECONDS))
+                .as("hedge delay (min. delay)")
+                .isEqualTo(20);
+
+        assertThat(geocoder.geocode("slow", (Locale) null))
+                .as("answered by the hedged request")
+                .containsExactly(hedgedPlace);
+        assertThat(slow)
+                .as("the slow request is cancelled")
+                .isCancelled();
+        assertThat(geocoder.getHedgeCount())
+                .as("hedged requests")
+                .isEqualTo(1);
+        assertThat(geocoder.getHedgeWinCount())
+                .as("hedged requests that won")
+                .isEqualTo(1);
+        Mockito.verify(alternate, Mockito.never()).geocodeAsync("fast", null);
+    }
+
+    @Test
+    void testHedgeDelayWithCancelledAttempts() throws Exception {
+        Mockito.when(primary.geocodeAsync("warm", null)).thenAnswer(i -> CompletableFuture.supplyAsync(() -> List.of(place),
+                CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS)));
+        Mockito.when(primary.geocodeAsync("slow", null)).thenAnswer(i -> new CompletableFuture<>());
+        Mockito.when(alternate.geocodeAsync("slow", null)).thenReturn(CompletableFuture.completedFuture(List.of(hedgedPlace)));
+        final HedgingGeocoder geocoder = HedgingGeocoder.wrap(primary)
+                .setAlternate(alternate)
+                .setMinDelay(1, TimeUnit.MILLISECONDS)
+                .setWindowSize(20)
+                .setMaxHedgeRatio(1)
+                .create();
+        for (int i = 0; i < 20; i++) {
+            geocoder.geocode("warm");
+        }
+        final long delay = geocoder.getHedgeDelay(TimeUnit.MILLISECONDS);
+        assertThat(delay)
+                .as("hedge delay after the warm-up")
+                .isGreaterThanOrEqualTo(20);
+
+        // more than LatencyWindow.REFRESH_INTERVAL requests, all answered by the hedge
+        for (int i = 0; i < 40; i++) {
+            assertThat(geocoder.geocode("slow"))
+                    .as("answered by the hedged request #%d", i)
+                    .containsExactly(hedgedPlace);
+        }
+        assertThat(geocoder.getHedgeWinCount())
+                .as("hedged requests that won")
+                .isEqualTo(40);
+        assertThat(geocoder.getHedgeDelay(TimeUnit.MILLISECONDS))
+                .as("hedge delay is kept by the cancelled slow attempts")
+                .isGreaterThanOrEqualTo(delay);
+    }
+
+    @Test
+    void testHedgeRatio() throws Exception {
+        final CompletableFuture<List<Place>> slow = new CompletableFuture<>();
+        Mockito.when(primary.geocodeAsync("slow", null)).thenReturn(slow);
+        final HedgingGeocoder geocoder = create(0);
+
+        final CompletableFuture<List<Place>> result = geocoder.geocodeAsync("slow");
+        Thread.sleep(100);
+        assertThat(result)
+                .as("not hedged")
+                .isNotDone();
+        slow.complete(List.of(place));
+        assertThat(result.get())
+                .as("answered by the primary")
+                .containsExactly(place);
+        Mockito.verifyNoInteractions(alternate);
+        assertThat(geocoder.getHedgeCount())
+                .as("hedged requests")
+                .isZero();
+    }
+
+    @Test
+    void testFailure() throws Exception {
+        Mockito.when(primary.lookupAsync("failing", null)).thenReturn(CompletableFuture.failedFuture(new IOException("failed")));
+        final HedgingGeocoder geocoder = create(1);
+
+        assertThatThrownBy(() -> geocoder.lookupAsync("failing").get())
+                .as("failure is not hedged")
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IOException.class);
+        assertThatThrownBy(() -> geocoder.lookup("failing"))
+                .as("failure of the blocking request")
+                .isInstanceOf(IOException.class);
+        Mockito.verifyNoInteractions(alternate);
+    }
+
+    @Test
+    void testMetrics() throws Exception {
+        final HedgingGeocoder geocoder = create(0.1);
+
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        new HedgingGeocoderMetrics(geocoder).bindTo(registry);
+        assertThat(registry.get("geocoding.hedging.requests").functionCounter().count())
+                .as("requests")
+                .isEqualTo(20);
+        assertThat(registry.get("geocoding.hedging.hedges").functionCounter().count())
+                .as("hedged requests")
+                .isZero();
+        assertThat(registry.get("geocoding.hedging.delay").gauge().value())
+                .as("hedge delay in seconds")
+                .isEqualTo(0.02);
+    }
+}
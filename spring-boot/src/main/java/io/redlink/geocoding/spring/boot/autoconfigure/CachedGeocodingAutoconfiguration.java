@@ -15,8 +15,11 @@
  */
 package io.redlink.geocoding.spring.boot.autoconfigure;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.redlink.geocoding.Geocoder;
 import io.redlink.geocoding.cache.CachingGeocoder;
+import io.redlink.geocoding.cache.CachingGeocoderBuilder;
+import io.redlink.geocoding.cache.CachingGeocoderMetrics;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,6 +31,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.ConfigurationCondition;
 import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Scope;
@@ -36,6 +40,7 @@ import org.springframework.core.type.AnnotatedTypeMetadata;
 /**
  */
 @AutoConfiguration(after = {
+        FallbackGeocodingAutoConfiguration.class,
         GoogleGeocodingAutoConfiguration.class,
         NominatimGeocodingAutoConfiguration.class,
         ProxyGeocodingAutoConfiguration.class,
@@ -59,14 +64,46 @@ public class CachedGeocodingAutoconfiguration extends GeocodingAutoConfiguration
     @Bean("cachedGeocoder")
     @Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
     public CachingGeocoder cacheGeocoder() {
-        final CachingGeocoder cachingGeocoder = CachingGeocoder.builder()
+        final CachingGeocoderBuilder builder = CachingGeocoder.builder()
                 .setCacheExpiry(properties.getCacheTimeout(), TimeUnit.SECONDS)
                 .setGeocoder(geocoder)
-                .create();
+                .setDefaultLocale(properties.getLang());
+
+        final GeocodingProperties.CacheProperties cacheProperties = properties.getCache();
+        builder.setPopulateLookupCache(cacheProperties.isPopulateLookup());
+        if (cacheProperties.getSnapshotFile() != null) {
+            // imported while the bean is created, so before the application reports ready
+            builder.setSnapshotFile(cacheProperties.getSnapshotFile());
+        }
+        if (cacheProperties.getPinnedFile() != null) {
+            builder.setPinnedFile(cacheProperties.getPinnedFile());
+        }
+        if (cacheProperties.getPersistentDirectory() != null) {
+            builder.setPersistentCache(cacheProperties.getPersistentDirectory());
+            if (cacheProperties.getPersistentTimeout() > 0) {
+                builder.setPersistentCacheExpiry(cacheProperties.getPersistentTimeout(), TimeUnit.SECONDS);
+            }
+        }
+
+        final CachingGeocoder cachingGeocoder = builder.create();
         LOG.info("Initializing {}", cachingGeocoder);
         return cachingGeocoder;
     }
 
+    /**
+     * Exposes the cache statistics, Spring Boot binds the {@link io.micrometer.core.instrument.binder.MeterBinder}
+     * to all registries.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class CacheMetricsConfiguration {
+
+        @Bean
+        public CachingGeocoderMetrics cachingGeocoderMetrics(CachingGeocoder cachedGeocoder) {
+            return new CachingGeocoderMetrics(cachedGeocoder);
+        }
+    }
+
     static class CacheConfigurationCondition implements ConfigurationCondition {
         @Override
         public ConfigurationPhase getConfigurationPhase() {
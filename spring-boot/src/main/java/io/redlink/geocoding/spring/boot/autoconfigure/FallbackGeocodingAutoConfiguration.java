@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026 Redlink GmbH.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.redlink.geocoding.spring.boot.autoconfigure;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.redlink.geocoding.Geocoder;
+import io.redlink.geocoding.resilience.FallbackGeocoder;
+import io.redlink.geocoding.resilience.FallbackGeocoderBuilder;
+import io.redlink.geocoding.resilience.FallbackGeocoderMetrics;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ConfigurationCondition;
+import org.springframework.context.annotation.Scope;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Combines several geocoders into a {@link FallbackGeocoder}, when {@code geocoding.fallback.chain} is set.
+ * The geocoders of the chain are configured using their regular properties.
+ */
+@AutoConfiguration(before = {
+        GoogleGeocodingAutoConfiguration.class,
+        NominatimGeocodingAutoConfiguration.class,
+        ProxyGeocodingAutoConfiguration.class,
+})
+@ConditionalOnClass(FallbackGeocoder.class)
+@ConditionalOnMissingBean(Geocoder.class)
+@Conditional(FallbackGeocodingAutoConfiguration.FallbackChainCondition.class)
+@EnableConfigurationProperties(GeocodingProperties.class)
+public class FallbackGeocodingAutoConfiguration extends GeocodingAutoConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FallbackGeocodingAutoConfiguration.class);
+
+    private static final String GOOGLE = "google";
+    private static final String NOMINATIM = "nominatim";
+    private static final String PROXY = "proxy";
+
+    public FallbackGeocodingAutoConfiguration(GeocodingProperties properties) {
+        super(properties);
+    }
+
+    @Bean(name = "fallbackGeocoder")
+    @Scope(ConfigurableBeanFactory.SCOPE_SINGLETON)
+    public FallbackGeocoder fallbackGeocoder() {
+        final GeocodingProperties.FallbackProperties fallback = properties.getFallback();
+
+        final FallbackGeocoderBuilder builder = FallbackGeocoder.builder()
+                .setFailureThreshold(fallback.getFailureThreshold())
+                .setOpenDuration(fallback.getOpenDuration(), TimeUnit.SECONDS)
+                .setFallThroughOnEmpty(fallback.isFallThroughOnEmpty());
+        for (String name : fallback.getChain()) {
+            final String backend = name.trim().toLowerCase(Locale.ROOT);
+            builder.addGeocoder(backend, createGeocoder(backend));
+        }
+
+        final FallbackGeocoder fallbackGeocoder = builder.create();
+        LOG.info("Initializing {}", fallbackGeocoder);
+        return fallbackGeocoder;
+    }
+
+    /**
+     * Creates the geocoder using its auto-configuration, the geocoder modules are optional dependencies.
+     */
+    private Geocoder createGeocoder(String backend) {
+        switch (backend) {
+            case GOOGLE:
+                requireClass("io.redlink.geocoding.google.GoogleMapsGeocoder", backend);
+                return new GoogleGeocodingAutoConfiguration(properties).google();
+            case NOMINATIM:
+                requireClass("io.redlink.geocoding.nominatim.NominatimGeocoder", backend);
+                return new NominatimGeocodingAutoConfiguration(properties).nominatim();
+            case PROXY:
+                requireClass("io.redlink.geocoding.proxy.ProxyGeocoder", backend);
+                return new ProxyGeocodingAutoConfiguration(properties).proxyGeocoder();
+            default:
+                throw new IllegalArgumentException("Unknown geocoder '" + backend + "' in geocoding.fallback.chain, "
+                        + "expected one of " + List.of(NOMINATIM, GOOGLE, PROXY));
+        }
+    }
+
+    private static void requireClass(String className, String backend) {
+        if (!ClassUtils.isPresent(className, FallbackGeocodingAutoConfiguration.class.getClassLoader())) {
+            throw new IllegalStateException("Geocoder '" + backend + "' of geocoding.fallback.chain is not available, "
+                    + className + " is missing on the classpath");
+        }
+    }
+
+    /**
+     * Exposes the statistics of the fallback chain, Spring Boot binds the
+     * {@link io.micrometer.core.instrument.binder.MeterBinder} to all registries.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class FallbackMetricsConfiguration {
+
+        @Bean
+        public FallbackGeocoderMetrics fallbackGeocoderMetrics(FallbackGeocoder fallbackGeocoder) {
+            return new FallbackGeocoderMetrics(fallbackGeocoder);
+        }
+    }
+
+    static class FallbackChainCondition implements ConfigurationCondition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            // lists declared in yaml are bound from indexed properties
+            return Binder.get(context.getEnvironment())
+                    .bind("geocoding.fallback.chain", Bindable.listOf(String.class))
+                    .map(chain -> !chain.isEmpty())
+                    .orElse(false);
+        }
+
+        @Override
+        public ConfigurationPhase getConfigurationPhase() {
+            return ConfigurationPhase.REGISTER_BEAN;
+        }
+    }
+}
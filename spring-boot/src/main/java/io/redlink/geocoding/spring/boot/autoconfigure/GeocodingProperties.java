@@ -17,6 +17,8 @@ package io.redlink.geocoding.spring.boot.autoconfigure;
 
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -41,6 +43,10 @@ public class GeocodingProperties {
      */
     private long cacheTimeout = -1;
 
+    private CacheProperties cache = new CacheProperties();
+
+    private FallbackProperties fallback = new FallbackProperties();
+
     public static class GoogleMapsProperties {
 
         private String apiKey;
@@ -88,6 +94,11 @@ public class GeocodingProperties {
     public static class NominatimProperties {
         private URL baseUrl;
 
+        /**
+         * Further servers equivalent to the base-url, requests are spread across all of them.
+         */
+        private List<URL> mirrors = List.of();
+
         private NominatimServiceEndpoints endpoints = new NominatimServiceEndpoints();
 
         private String email;
@@ -107,6 +118,15 @@ public class GeocodingProperties {
             return this;
         }
 
+        public List<URL> getMirrors() {
+            return mirrors;
+        }
+
+        public NominatimProperties setMirrors(List<URL> mirrors) {
+            this.mirrors = mirrors;
+            return this;
+        }
+
         public NominatimServiceEndpoints getEndpoints() {
             return endpoints;
         }
@@ -187,6 +207,79 @@ public class GeocodingProperties {
 
     }
 
+    public static class CacheProperties {
+
+        /**
+         * Directory of the persistent cache, disabled if not set.
+         */
+        private Path persistentDirectory;
+
+        /**
+         * Timeout of the persistent cache in seconds, defaults to the cache-timeout.
+         */
+        private long persistentTimeout = -1;
+
+        /**
+         * Put the places of geocoding and reverse-geocoding results into the lookup cache.
+         */
+        private boolean populateLookup = false;
+
+        /**
+         * Snapshot of the caches, imported on startup (before the application is ready) and exported on shutdown.
+         */
+        private Path snapshotFile;
+
+        /**
+         * Snapshot with pinned results, served before the caches and never expiring.
+         */
+        private Path pinnedFile;
+
+        public Path getPersistentDirectory() {
+            return persistentDirectory;
+        }
+
+        public CacheProperties setPersistentDirectory(Path persistentDirectory) {
+            this.persistentDirectory = persistentDirectory;
+            return this;
+        }
+
+        public long getPersistentTimeout() {
+            return persistentTimeout;
+        }
+
+        public CacheProperties setPersistentTimeout(long persistentTimeout) {
+            this.persistentTimeout = persistentTimeout;
+            return this;
+        }
+
+        public boolean isPopulateLookup() {
+            return populateLookup;
+        }
+
+        public CacheProperties setPopulateLookup(boolean populateLookup) {
+            this.populateLookup = populateLookup;
+            return this;
+        }
+
+        public Path getSnapshotFile() {
+            return snapshotFile;
+        }
+
+        public CacheProperties setSnapshotFile(Path snapshotFile) {
+            this.snapshotFile = snapshotFile;
+            return this;
+        }
+
+        public Path getPinnedFile() {
+            return pinnedFile;
+        }
+
+        public CacheProperties setPinnedFile(Path pinnedFile) {
+            this.pinnedFile = pinnedFile;
+            return this;
+        }
+    }
+
     public static class ProxyProperties {
         private URI baseUrl;
 
@@ -200,6 +293,65 @@ public class GeocodingProperties {
         }
     }
 
+    public static class FallbackProperties {
+
+        /**
+         * The geocoders to try in order ({@code nominatim}, {@code google}, {@code proxy}), disabled if empty.
+         */
+        private List<String> chain = List.of();
+
+        /**
+         * Consecutive failures that open the circuit of a geocoder.
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * Seconds an open circuit skips its geocoder, before a trial request is let through.
+         */
+        private long openDuration = 30;
+
+        /**
+         * Whether an empty result is passed on to the next geocoder.
+         */
+        private boolean fallThroughOnEmpty = true;
+
+        public List<String> getChain() {
+            return chain;
+        }
+
+        public FallbackProperties setChain(List<String> chain) {
+            this.chain = chain != null ? List.copyOf(chain) : List.of();
+            return this;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public FallbackProperties setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        public long getOpenDuration() {
+            return openDuration;
+        }
+
+        public FallbackProperties setOpenDuration(long openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        public boolean isFallThroughOnEmpty() {
+            return fallThroughOnEmpty;
+        }
+
+        public FallbackProperties setFallThroughOnEmpty(boolean fallThroughOnEmpty) {
+            this.fallThroughOnEmpty = fallThroughOnEmpty;
+            return this;
+        }
+    }
+
     public GoogleMapsProperties getGoogle() {
         return google;
     }
@@ -253,4 +405,22 @@ public class GeocodingProperties {
         this.cacheTimeout = cacheTimeout;
         return this;
     }
+
+    public CacheProperties getCache() {
+        return cache;
+    }
+
+    public GeocodingProperties setCache(CacheProperties cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    public FallbackProperties getFallback() {
+        return fallback;
+    }
+
+    public GeocodingProperties setFallback(FallbackProperties fallback) {
+        this.fallback = fallback;
+        return this;
+    }
 }
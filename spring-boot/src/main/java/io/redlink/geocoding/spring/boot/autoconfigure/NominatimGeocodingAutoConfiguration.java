@@ -15,9 +15,13 @@
  */
 package io.redlink.geocoding.spring.boot.autoconfigure;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.redlink.geocoding.Geocoder;
 import io.redlink.geocoding.nominatim.NominatimBuilder;
 import io.redlink.geocoding.nominatim.NominatimGeocoder;
+import io.redlink.geocoding.nominatim.NominatimGeocoderMetrics;
+import java.util.ArrayList;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
@@ -26,6 +30,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
 
 /**
@@ -55,7 +60,14 @@ public class NominatimGeocodingAutoConfiguration extends GeocodingAutoConfigurat
                 .setEmail(nominatim.getEmail())
                 .setUserAgent(nominatim.getUserAgentString());
 
-        if (nominatim.getBaseUrl() != null) {
+        if (nominatim.getMirrors() != null && !nominatim.getMirrors().isEmpty()) {
+            final List<String> baseUrls = new ArrayList<>();
+            if (nominatim.getBaseUrl() != null) {
+                baseUrls.add(nominatim.getBaseUrl().toExternalForm());
+            }
+            nominatim.getMirrors().forEach(mirror -> baseUrls.add(mirror.toExternalForm()));
+            nominatimBuilder.setBaseUrls(baseUrls);
+        } else if (nominatim.getBaseUrl() != null) {
             nominatimBuilder.setBaseUrl(nominatim.getBaseUrl());
         }
 
@@ -84,4 +96,18 @@ public class NominatimGeocodingAutoConfiguration extends GeocodingAutoConfigurat
         return nominatimGeocoder;
     }
 
+    /**
+     * Exposes the rate-limit statistics, Spring Boot binds the {@link io.micrometer.core.instrument.binder.MeterBinder}
+     * to all registries.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class NominatimMetricsConfiguration {
+
+        @Bean
+        public NominatimGeocoderMetrics nominatimGeocoderMetrics(NominatimGeocoder nominatimGeocoder) {
+            return new NominatimGeocoderMetrics(nominatimGeocoder);
+        }
+    }
+
 }
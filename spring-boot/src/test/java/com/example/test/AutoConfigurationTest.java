@@ -15,27 +15,38 @@
  */
 package com.example.test;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.redlink.geocoding.Geocoder;
 import io.redlink.geocoding.LatLon;
 import io.redlink.geocoding.Place;
 import io.redlink.geocoding.cache.CachingGeocoder;
+import io.redlink.geocoding.cache.CachingGeocoderMetrics;
 import io.redlink.geocoding.google.GoogleMapsGeocoder;
 import io.redlink.geocoding.nominatim.NominatimGeocoder;
+import io.redlink.geocoding.nominatim.NominatimGeocoderMetrics;
 import io.redlink.geocoding.proxy.ProxyGeocoder;
+import io.redlink.geocoding.resilience.FallbackGeocoder;
+import io.redlink.geocoding.resilience.FallbackGeocoderMetrics;
 import io.redlink.geocoding.spring.boot.autoconfigure.CachedGeocodingAutoconfiguration;
+import io.redlink.geocoding.spring.boot.autoconfigure.FallbackGeocodingAutoConfiguration;
 import io.redlink.geocoding.spring.boot.autoconfigure.GoogleGeocodingAutoConfiguration;
 import io.redlink.geocoding.spring.boot.autoconfigure.NominatimGeocodingAutoConfiguration;
 import io.redlink.geocoding.spring.boot.autoconfigure.ProxyGeocodingAutoConfiguration;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /*
  * see https://docs.spring.io/spring-boot/docs/2.7.15/reference/htmlsingle/#features.developing-auto-configuration.testing
@@ -47,7 +58,8 @@ class AutoConfigurationTest {
                     NominatimGeocodingAutoConfiguration.class,
                     GoogleGeocodingAutoConfiguration.class,
                     CachedGeocodingAutoconfiguration.class,
-                    ProxyGeocodingAutoConfiguration.class
+                    ProxyGeocodingAutoConfiguration.class,
+                    FallbackGeocodingAutoConfiguration.class
             ));
 
     @Test
@@ -62,12 +74,58 @@ class AutoConfigurationTest {
                 );
     }
 
+    @Test
+    void testPersistentCache(@TempDir Path tempDir) {
+        contextRunner
+                .withPropertyValues(
+                        "geocoding.cache-timeout=3600",
+                        "geocoding.cache.persistent-directory=" + tempDir,
+                        "geocoding.cache.persistent-timeout=86400"
+                )
+                .run(context -> {
+                    assertThat(context.getBean(Geocoder.class)).isInstanceOf(CachingGeocoder.class);
+                    assertThat(tempDir.resolve("geocode.log")).exists();
+                });
+    }
+
+    @Test
+    void testCacheSnapshot(@TempDir Path tempDir) {
+        final Path snapshot = tempDir.resolve("cache.snapshot");
+        contextRunner
+                .withPropertyValues(
+                        "geocoding.cache-timeout=3600",
+                        "geocoding.cache.snapshot-file=" + snapshot
+                )
+                .run(context -> assertThat(context.getBean(Geocoder.class)).isInstanceOf(CachingGeocoder.class));
+        assertThat(snapshot)
+                .as("exported on shutdown")
+                .exists();
+    }
+
+    @Test
+    void testCacheMetrics() {
+        contextRunner
+                .withPropertyValues("geocoding.cache-timeout=3600")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(CachingGeocoderMetrics.class);
+
+                    final MeterRegistry registry = new SimpleMeterRegistry();
+                    context.getBean(CachingGeocoderMetrics.class).bindTo(registry);
+                    assertThat(registry.find("cache.gets").tag("cache", "geocoding.geocode").meters())
+                            .as("hit and miss counters")
+                            .hasSize(2);
+                });
+        contextRunner
+                .run(context -> assertThat(context).doesNotHaveBean(CachingGeocoderMetrics.class));
+    }
+
     @Test
     void testDefaultGeocoderNominatim() {
         contextRunner
                 .run(context -> {
                     assertThat(context).hasSingleBean(Geocoder.class);
                     assertThat(context.getBean(Geocoder.class)).isInstanceOf(NominatimGeocoder.class);
+                    assertThat(context).hasSingleBean(NominatimGeocoderMetrics.class);
                 });
     }
 
@@ -107,6 +165,51 @@ class AutoConfigurationTest {
                 });
     }
 
+    @Test
+    void testFallbackChain() {
+        final List<FallbackGeocoder.Backend> backends = new ArrayList<>();
+        contextRunner
+                .withPropertyValues(
+                        "geocoding.fallback.chain[0]=nominatim",
+                        "geocoding.fallback.chain[1]=google",
+                        "geocoding.fallback.failure-threshold=3",
+                        "geocoding.google.api-key=AIza-this-is-an-invalid-key"
+                )
+                .run(context -> {
+                    assertThat(context).hasSingleBean(Geocoder.class);
+                    assertThat(context).doesNotHaveBean(NominatimGeocoder.class);
+                    assertThat(context).doesNotHaveBean(GoogleMapsGeocoder.class);
+                    assertThat(context).hasSingleBean(FallbackGeocoderMetrics.class);
+                    final FallbackGeocoder fallbackGeocoder = context.getBean(FallbackGeocoder.class);
+                    assertThat(fallbackGeocoder.getBackends())
+                            .extracting(FallbackGeocoder.Backend::getGeocoder)
+                            .hasExactlyElementsOfTypes(NominatimGeocoder.class, GoogleMapsGeocoder.class);
+                });
+        contextRunner
+                .withPropertyValues(
+                        "geocoding.cache-timeout=3600",
+                        "geocoding.fallback.chain=proxy,nominatim",
+                        "geocoding.proxy-service.base-url=http://localhost:9123/api"
+                )
+                .run(context -> {
+                    assertThat(context.getBean(Geocoder.class)).isInstanceOf(CachingGeocoder.class);
+                    assertThat(context).hasSingleBean(FallbackGeocoder.class);
+                    backends.addAll(context.getBean(FallbackGeocoder.class).getBackends());
+                });
+        assertThat(backends)
+                .extracting(FallbackGeocoder.Backend::getGeocoder)
+                .hasExactlyElementsOfTypes(ProxyGeocoder.class, NominatimGeocoder.class);
+        assertThatThrownBy(() -> backends.get(0).getGeocoder().geocode("closed"))
+                .as("backend closed with the context")
+                .isInstanceOf(IllegalStateException.class);
+        contextRunner
+                .withPropertyValues("geocoding.fallback.chain=")
+                .run(context -> assertThat(context.getBean(Geocoder.class)).isInstanceOf(NominatimGeocoder.class));
+        contextRunner
+                .withPropertyValues("geocoding.fallback.chain=unknown")
+                .run(context -> assertThat(context).hasFailed());
+    }
+
     @Test
     void defaultServiceBacksOff() {
         this.contextRunner
@@ -57,4 +57,12 @@ class NominatimGeocoderTest {
                 .as("NominatimGeocoder expected")
                 .isInstanceOf(NominatimGeocoder.class);
     }
+
+    @Test
+    void testMirrors() {
+        assertThat(geocoder.toString())
+                .as("requests are spread across base-url and mirror")
+                .contains("baseUrl=https://www.example.com,")
+                .contains("baseUrl=https://mirror.example.com,");
+    }
 }